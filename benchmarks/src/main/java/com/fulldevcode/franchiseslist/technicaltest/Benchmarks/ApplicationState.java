@@ -0,0 +1,93 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Engine.BranchStockEngine;
+import com.fulldevcode.franchiseslist.technicaltest.TechnicaltestApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Estado compartido por los benchmarks: genera el conjunto de datos del tamaño indicado,
+ * levanta el contexto de Spring (sin servidor web) sobre esa base y espera a que el motor
+ * de stock en memoria termine de cargarse.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private int[] franchiseIds;
+    private int[] branchIds;
+    private int[] productIds;
+
+    @Setup(Level.Trial)
+    public void Setup() throws Exception
+    {
+        BenchmarkDatabase database = BenchmarkDatabase.Start();
+        DatasetGenerator.Generate(database, this.products);
+
+        this.context = new SpringApplicationBuilder(TechnicaltestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + database.Url(),
+                        "spring.datasource.username=" + database.Username(),
+                        "spring.datasource.password=" + database.Password(),
+                        "spring.r2dbc.url=" + database.Url().replace("jdbc:", "r2dbc:"),
+                        "spring.r2dbc.username=" + database.Username(),
+                        "spring.r2dbc.password=" + database.Password(),
+                        "spring.jpa.show-sql=false",
+                        "franchises.top-product.rebuild-on-startup=true",
+                        "franchises.stock-coalescer.journal.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        BranchStockEngine engine = this.context.getBean(BranchStockEngine.class);
+
+        while (!engine.IsReady())
+        {
+            Thread.sleep(50);
+        }
+
+        JdbcTemplate jdbc = this.context.getBean(JdbcTemplate.class);
+        this.franchiseIds = Ids(jdbc, "SELECT id FROM franchises ORDER BY id");
+        this.branchIds = Ids(jdbc, "SELECT id FROM branches ORDER BY id");
+        this.productIds = Ids(jdbc, "SELECT id FROM products ORDER BY id");
+    }
+
+    @TearDown(Level.Trial)
+    public void TearDown()
+    {
+        this.context.close();
+    }
+
+    public <T> T Bean(Class<T> type)
+    {
+        return this.context.getBean(type);
+    }
+
+    public int RandomFranchise()
+    {
+        return this.franchiseIds[ThreadLocalRandom.current().nextInt(this.franchiseIds.length)];
+    }
+
+    public int RandomBranch()
+    {
+        return this.branchIds[ThreadLocalRandom.current().nextInt(this.branchIds.length)];
+    }
+
+    public int RandomProduct()
+    {
+        return this.productIds[ThreadLocalRandom.current().nextInt(this.productIds.length)];
+    }
+
+    private static int[] Ids(JdbcTemplate jdbc, String sql)
+    {
+        return jdbc.queryForList(sql, Integer.class).stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,79 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Base de datos PostgreSQL usada por los benchmarks.
+ * Si se indica -Dbench.db.url (con -Dbench.db.username y -Dbench.db.password) se usa esa base local;
+ * en caso contrario se inicia un PostgreSQL embebido que vive mientras dure el proceso del benchmark.
+ */
+final class BenchmarkDatabase {
+
+    private static EmbeddedPostgres embedded;
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private BenchmarkDatabase(String url, String username, String password)
+    {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    static synchronized BenchmarkDatabase Start()
+    {
+        String url = System.getProperty("bench.db.url");
+
+        if (url != null)
+        {
+            return new BenchmarkDatabase(url, System.getProperty("bench.db.username", "postgres"), System.getProperty("bench.db.password", ""));
+        }
+
+        try
+        {
+            if (embedded == null)
+            {
+                embedded = EmbeddedPostgres.builder().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(BenchmarkDatabase::Stop));
+            }
+
+            return new BenchmarkDatabase(embedded.getJdbcUrl("postgres", "postgres"), "postgres", "postgres");
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException("No fue posible iniciar el PostgreSQL embebido", ex);
+        }
+    }
+
+    String Url()
+    {
+        return this.url;
+    }
+
+    String Username()
+    {
+        return this.username;
+    }
+
+    String Password()
+    {
+        return this.password;
+    }
+
+    private static void Stop()
+    {
+        try
+        {
+            embedded.close();
+        }
+        catch (IOException ignored)
+        {
+            // El proceso está terminando.
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada del jar de benchmarks. Acepta las mismas opciones que org.openjdk.jmh.Main y,
+ * si no se indican, agrega el perfilador de memoria (-prof gc) para reportar la tasa de asignación
+ * y guarda los resultados en formato JSON (jmh-result.json).
+ *
+ * Ejemplos:
+ *   java -jar benchmarks/target/benchmarks.jar
+ *   java -jar benchmarks/target/benchmarks.jar RepositoryBenchmark -p products=1000000
+ *   java -Dbench.db.url=jdbc:postgresql://localhost:5432/bench -jar benchmarks/target/benchmarks.jar
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner()
+    {
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getProfilers().isEmpty())
+        {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        if (!commandLine.getResultFormat().hasValue())
+        {
+            options.resultFormat(ResultFormatType.JSON).result("jmh-result.json");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.BranchService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BranchServiceBenchmark {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private BranchService branchService;
+
+    @Setup(Level.Trial)
+    public void Setup(ApplicationState application)
+    {
+        this.branchService = application.Bean(BranchService.class);
+    }
+
+    @Benchmark
+    public ApiResponseDTO<List<BranchListDTO>> BranchIndex(ApplicationState application)
+    {
+        return this.branchService.branchIndex(application.RandomFranchise());
+    }
+
+    @Benchmark
+    public ApiResponseDTO<BranchDTO> SearchById(ApplicationState application)
+    {
+        return this.branchService.SearchById(application.RandomBranch());
+    }
+
+    @Benchmark
+    public ApiResponseDTO<List<ProductListDTO>> TopProducts(ApplicationState application)
+    {
+        return this.branchService.TopProducts(application.RandomBranch(), 10);
+    }
+
+    /**
+     * Crea, renombra y elimina una sucursal; mide el ciclo completo de escritura con sus eventos.
+     */
+    @Benchmark
+    public ApiResponseDTO<BranchDTO> CreateUpdateDeleteBranch(ApplicationState application)
+    {
+        BranchDTO branch = new BranchDTO();
+        branch.setName("Bench sucursal " + ProcessHandle.current().pid() + "-" + SEQUENCE.incrementAndGet());
+        branch.setFranchiseId(application.RandomFranchise());
+        BranchDTO created = this.branchService.CreateProduct(branch).getData();
+        Integer id = created.getId();
+
+        branch.setVersion(created.getVersion());
+        branch.setName(branch.getName() + " editada");
+        this.branchService.UpdateBranch(id, branch);
+        return this.branchService.DeleteBranch(id);
+    }
+}
@@ -0,0 +1,98 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Genera un árbol sintético de franquicias, sucursales y productos directamente en PostgreSQL
+ * (INSERT ... SELECT generate_series), de modo que 1M de productos se crean en segundos.
+ * Cada franquicia tiene 10 sucursales y cada sucursal 100 productos; el stock es determinista
+ * para que los resultados sean comparables entre ejecuciones.
+ * Si la base ya contiene exactamente la cantidad de productos solicitada no se regenera.
+ */
+final class DatasetGenerator {
+
+    static final int BRANCHES_PER_FRANCHISE = 10;
+    static final int PRODUCTS_PER_BRANCH = 100;
+
+    private DatasetGenerator()
+    {
+    }
+
+    static void Generate(BenchmarkDatabase database, int products) throws SQLException
+    {
+        Flyway.configure()
+                .dataSource(database.Url(), database.Username(), database.Password())
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        int branches = Math.max(1, products / PRODUCTS_PER_BRANCH);
+        int franchises = Math.max(1, branches / BRANCHES_PER_FRANCHISE);
+
+        try (Connection connection = DriverManager.getConnection(database.Url(), database.Username(), database.Password()))
+        {
+            if (Count(connection, "SELECT COUNT(*) FROM products") == products
+                    && Count(connection, "SELECT COUNT(*) FROM franchises") == franchises)
+            {
+                return;
+            }
+
+            connection.setAutoCommit(false);
+
+            try (Statement statement = connection.createStatement())
+            {
+                statement.execute("TRUNCATE products, branches, franchises, branch_top_product, import_jobs RESTART IDENTITY");
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO franchises (name) SELECT 'Franquicia ' || g FROM generate_series(1, ?) g"))
+            {
+                statement.setInt(1, franchises);
+                statement.executeUpdate();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO branches (name, franchise_id) " +
+                    "SELECT 'Sucursal ' || f.id || '-' || b, f.id FROM franchises f, generate_series(1, ?) b"))
+            {
+                statement.setInt(1, BRANCHES_PER_FRANCHISE);
+                statement.executeUpdate();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO products (id, name, stock, branch_id) " +
+                    "SELECT nextval('products_seq'), 'Producto ' || br.id || '-' || p, (br.id * 7919 + p * 104729) % 10000, br.id " +
+                    "FROM (SELECT id FROM branches ORDER BY id LIMIT ?) br, generate_series(1, ?) p"))
+            {
+                statement.setInt(1, branches);
+                statement.setInt(2, Math.min(products, PRODUCTS_PER_BRANCH));
+                statement.executeUpdate();
+            }
+
+            connection.commit();
+            connection.setAutoCommit(true);
+
+            try (Statement statement = connection.createStatement())
+            {
+                statement.execute("ANALYZE franchises, branches, products");
+            }
+        }
+    }
+
+    private static long Count(Connection connection, String sql) throws SQLException
+    {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql))
+        {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.FranchiseService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FranchiseServiceBenchmark {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private FranchiseService franchiseService;
+
+    @Setup(Level.Trial)
+    public void Setup(ApplicationState application)
+    {
+        this.franchiseService = application.Bean(FranchiseService.class);
+    }
+
+    @Benchmark
+    public ApiResponseDTO<List<FranchiseListDTO>> IndexFranchise()
+    {
+        return this.franchiseService.IndexFranchise(0, 100);
+    }
+
+    @Benchmark
+    public void StreamFranchise() throws Exception
+    {
+        this.franchiseService.StreamFranchise(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public ApiResponseDTO<FranchiseDTO> SearchFranchiseById(ApplicationState application)
+    {
+        return this.franchiseService.SearchFranchiseById(application.RandomFranchise());
+    }
+
+    @Benchmark
+    public ApiResponseDTO<List<BranchMaxProductsListDTO>> GetBranchMaxProducts(ApplicationState application)
+    {
+        return this.franchiseService.GetBranchMaxProducts(application.RandomFranchise());
+    }
+
+    /**
+     * Crea, renombra y elimina una franquicia; mide el ciclo completo de escritura con sus eventos.
+     */
+    @Benchmark
+    public ApiResponseDTO<FranchiseDTO> CreateUpdateDeleteFranchise()
+    {
+        FranchiseDTO franchise = new FranchiseDTO();
+        franchise.setName("Bench franquicia " + ProcessHandle.current().pid() + "-" + SEQUENCE.incrementAndGet());
+        Integer id = this.franchiseService.CreateFrachise(franchise).getData().getId();
+
+        franchise.setName(franchise.getName() + " editada");
+        this.franchiseService.UpdateFranchise(id, franchise);
+        return this.franchiseService.DeleteFranchise(id);
+    }
+}
@@ -0,0 +1,90 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.BranchService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.FranchiseService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ProductService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchEntity;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseEntity;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.ProductEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo entidad → DTO de los servicios (ResponseFranchise, BranchResponse, ProductResponse).
+ * No usa base de datos: los métodos privados se invocan con MethodHandles sobre servicios
+ * construidos sin dependencias, ya que el mapeo no las utiliza.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private MethodHandle responseFranchise;
+    private MethodHandle branchResponse;
+    private MethodHandle productResponse;
+    private FranchiseEntity franchise;
+    private BranchEntity branch;
+    private ProductEntity product;
+
+    @Setup(Level.Trial)
+    public void Setup() throws ReflectiveOperationException
+    {
+        FranchiseService franchiseService = new FranchiseService(null, null, null, null, null, null, null, null);
+        BranchService branchService = new BranchService(null, null, null, null, null, null);
+        ProductService productService = new ProductService(null, null, null, null, null, null, 50, null);
+
+        this.responseFranchise = Bind(FranchiseService.class, franchiseService, "ResponseFranchise", FranchiseDTO.class, FranchiseEntity.class);
+        this.branchResponse = Bind(BranchService.class, branchService, "BranchResponse", BranchDTO.class, BranchEntity.class);
+        this.productResponse = Bind(ProductService.class, productService, "ProductResponse", ProductDTO.class, ProductEntity.class);
+
+        this.franchise = new FranchiseEntity();
+        this.franchise.setId(1);
+        this.franchise.setName("Franquicia 1");
+
+        this.branch = new BranchEntity();
+        this.branch.setId(10);
+        this.branch.setName("Sucursal 1-1");
+        this.branch.setFranchise(this.franchise);
+
+        this.product = new ProductEntity();
+        this.product.setId(100);
+        this.product.setName("Producto 10-1");
+        this.product.setStock(42);
+        this.product.setBranch(this.branch);
+    }
+
+    @Benchmark
+    public FranchiseDTO ResponseFranchise() throws Throwable
+    {
+        return (FranchiseDTO) this.responseFranchise.invokeExact(this.franchise);
+    }
+
+    @Benchmark
+    public BranchDTO BranchResponse() throws Throwable
+    {
+        return (BranchDTO) this.branchResponse.invokeExact(this.branch);
+    }
+
+    @Benchmark
+    public ProductDTO ProductResponse() throws Throwable
+    {
+        return (ProductDTO) this.productResponse.invokeExact(this.product);
+    }
+
+    private static MethodHandle Bind(Class<?> owner, Object instance, String name, Class<?> returnType, Class<?> argumentType)
+            throws ReflectiveOperationException
+    {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+        return lookup.findVirtual(owner, name, MethodType.methodType(returnType, argumentType)).bindTo(instance);
+    }
+}
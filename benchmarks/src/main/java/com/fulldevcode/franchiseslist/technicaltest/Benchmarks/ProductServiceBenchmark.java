@@ -0,0 +1,134 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.BranchService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ProductService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final int BATCH_SIZE = 20;
+    private static final int BULK_SIZE = 500;
+
+    private ProductService productService;
+    private BranchService branchService;
+
+    @Setup(Level.Trial)
+    public void Setup(ApplicationState application)
+    {
+        this.productService = application.Bean(ProductService.class);
+        this.branchService = application.Bean(BranchService.class);
+    }
+
+    @Benchmark
+    public ApiResponseDTO<List<ProductListDTO>> IndexProducts(ApplicationState application)
+    {
+        return this.productService.IndexProducts(application.RandomBranch());
+    }
+
+    @Benchmark
+    public ApiResponseDTO<ProductDTO> SearchById(ApplicationState application)
+    {
+        return this.productService.SearchById(application.RandomProduct());
+    }
+
+    /**
+     * Suma y resta una unidad para que el stock del conjunto de datos no cambie entre iteraciones.
+     */
+    @Benchmark
+    public ApiResponseDTO<ProductDTO> AdjustStock(ApplicationState application)
+    {
+        int id = application.RandomProduct();
+        this.productService.AdjustStock(id, new StockAdjustmentDTO(null, 1));
+        return this.productService.AdjustStock(id, new StockAdjustmentDTO(null, -1));
+    }
+
+    @Benchmark
+    public ApiResponseDTO<List<StockAdjustmentResultDTO>> AdjustStockBatch(ApplicationState application)
+    {
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++)
+        {
+            adjustments.add(new StockAdjustmentDTO(application.RandomProduct(), ThreadLocalRandom.current().nextBoolean() ? 1 : 0));
+        }
+
+        return this.productService.AdjustStockBatch(adjustments);
+    }
+
+    @Benchmark
+    public ApiResponseDTO<Integer> QueueStockAdjustments(ApplicationState application)
+    {
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++)
+        {
+            adjustments.add(new StockAdjustmentDTO(application.RandomProduct(), 0));
+        }
+
+        return this.productService.QueueStockAdjustments(adjustments);
+    }
+
+    /**
+     * Crea, actualiza y elimina un producto; mide el ciclo completo de escritura con sus eventos.
+     */
+    @Benchmark
+    public ApiResponseDTO<ProductDTO> CreateUpdateDeleteProduct(ApplicationState application)
+    {
+        ProductDTO product = new ProductDTO();
+        product.setName(NextName("Bench producto"));
+        product.setStock(10);
+        product.setBranchId(application.RandomBranch());
+        ProductDTO created = this.productService.CreateProduct(product).getData();
+        Integer id = created.getId();
+
+        product.setVersion(created.getVersion());
+        product.setStock(20);
+        this.productService.UpdateProduct(id, product);
+        return this.productService.DeleteProduct(id);
+    }
+
+    /**
+     * Importa un lote de productos en una sucursal nueva y la elimina junto con sus productos.
+     */
+    @Benchmark
+    public ApiResponseDTO<List<BulkProductResultDTO>> BulkCreateProducts(ApplicationState application)
+    {
+        BranchDTO branch = new BranchDTO();
+        branch.setName(NextName("Bench sucursal bulk"));
+        branch.setFranchiseId(application.RandomFranchise());
+        Integer branchId = this.branchService.CreateProduct(branch).getData().getId();
+
+        List<ProductDTO> products = new ArrayList<>(BULK_SIZE);
+
+        for (int i = 0; i < BULK_SIZE; i++)
+        {
+            ProductDTO product = new ProductDTO();
+            product.setName("Producto " + i);
+            product.setStock(i);
+            products.add(product);
+        }
+
+        ApiResponseDTO<List<BulkProductResultDTO>> result = this.productService.BulkCreateProducts(branchId, products);
+        this.branchService.DeleteBranch(branchId);
+        return result;
+    }
+
+    private static String NextName(String prefix)
+    {
+        return prefix + " " + ProcessHandle.current().pid() + "-" + SEQUENCE.incrementAndGet();
+    }
+}
@@ -0,0 +1,78 @@
+package com.fulldevcode.franchiseslist.technicaltest.Benchmarks;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranchTopProduct;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.ProductEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de los repositorios ejecutadas directamente contra PostgreSQL, sin cachés ni motor en memoria.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private IFranchise franchiseRepository;
+    private IBranch branchRepository;
+    private IProduct productRepository;
+    private IBranchTopProduct topProductRepository;
+
+    @Setup(Level.Trial)
+    public void Setup(ApplicationState application)
+    {
+        this.franchiseRepository = application.Bean(IFranchise.class);
+        this.branchRepository = application.Bean(IBranch.class);
+        this.productRepository = application.Bean(IProduct.class);
+        this.topProductRepository = application.Bean(IBranchTopProduct.class);
+    }
+
+    @Benchmark
+    public List<BranchMaxProductsListDTO> SearchBranchesMaxProducts(ApplicationState application)
+    {
+        return this.franchiseRepository.SearchBranchesMaxProducts(application.RandomFranchise());
+    }
+
+    @Benchmark
+    public List<BranchMaxProductsListDTO> SearchBranchesMaxProductsProjection(ApplicationState application)
+    {
+        return this.topProductRepository.SearchBranchesMaxProducts(application.RandomFranchise());
+    }
+
+    @Benchmark
+    public List<FranchiseListDTO> IndexFranchise()
+    {
+        return this.franchiseRepository.IndexFranchise(0, Limit.of(100));
+    }
+
+    @Benchmark
+    public List<BranchListDTO> IndexBranch(ApplicationState application)
+    {
+        return this.branchRepository.IndexBranch(application.RandomFranchise());
+    }
+
+    @Benchmark
+    public List<ProductListDTO> IndexProduct(ApplicationState application)
+    {
+        return this.productRepository.IndexProduct(application.RandomBranch());
+    }
+
+    @Benchmark
+    public List<ProductEntity> TopStockProducts(ApplicationState application)
+    {
+        return this.productRepository.TopStockProducts(application.RandomBranch(), Limit.of(10));
+    }
+}
@@ -0,0 +1,68 @@
+package com.fulldevcode.franchiseslist.technicaltest.LoadTest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Identificadores del árbol sembrado, usados para elegir recursos al azar en cada solicitud.
+ * El producto en la posición i se llama productNames[i], pertenece a la sucursal productBranches[i]
+ * y su última versión conocida es productVersions[i], que se actualiza con las respuestas de los escenarios
+ * que modifican productos (PUT /api/products/{id} exige la versión leída).
+ */
+final class Dataset {
+
+    final int[] franchiseIds;
+    final int[] branchIds;
+    final int[] productIds;
+    final int[] productBranches;
+    final String[] productNames;
+    final AtomicLongArray productVersions;
+
+    private final Map<Integer, Integer> productIndexes = new HashMap<>();
+
+    Dataset(int[] franchiseIds, int[] branchIds, int[] productIds, int[] productBranches, String[] productNames)
+    {
+        this.franchiseIds = franchiseIds;
+        this.branchIds = branchIds;
+        this.productIds = productIds;
+        this.productBranches = productBranches;
+        this.productNames = productNames;
+        this.productVersions = new AtomicLongArray(productIds.length);
+
+        for (int i = 0; i < productIds.length; i++)
+        {
+            this.productIndexes.put(productIds[i], i);
+        }
+    }
+
+    /**
+     * Registra la versión de un producto leída en una respuesta; las respuestas que llegan
+     * fuera de orden no retroceden la versión conocida.
+     */
+    void ObserveProductVersion(int productId, long version)
+    {
+        Integer index = this.productIndexes.get(productId);
+
+        if (index != null)
+        {
+            this.productVersions.accumulateAndGet(index, version, Math::max);
+        }
+    }
+
+    int RandomFranchise()
+    {
+        return this.franchiseIds[ThreadLocalRandom.current().nextInt(this.franchiseIds.length)];
+    }
+
+    int RandomBranch()
+    {
+        return this.branchIds[ThreadLocalRandom.current().nextInt(this.branchIds.length)];
+    }
+
+    int RandomProductIndex()
+    {
+        return ThreadLocalRandom.current().nextInt(this.productIds.length);
+    }
+}
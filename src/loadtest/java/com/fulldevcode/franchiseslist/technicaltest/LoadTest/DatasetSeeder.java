@@ -0,0 +1,122 @@
+package com.fulldevcode.franchiseslist.technicaltest.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Siembra un árbol franquicia → sucursal → producto a través de la propia API, para que la prueba
+ * de carga recorra datos creados por los mismos caminos que usa un cliente real.
+ * Los nombres llevan un prefijo por ejecución y no chocan con los índices únicos de nombre.
+ */
+final class DatasetSeeder {
+
+    private static final int BULK_LIMIT = 10000;
+
+    private final HttpClient client;
+    private final ObjectMapper mapper;
+    private final LoadTestConfig config;
+
+    DatasetSeeder(HttpClient client, ObjectMapper mapper, LoadTestConfig config)
+    {
+        this.client = client;
+        this.mapper = mapper;
+        this.config = config;
+    }
+
+    Dataset Seed() throws IOException, InterruptedException
+    {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        int[] franchiseIds = new int[this.config.franchises];
+        List<Integer> branchIds = new ArrayList<>();
+        List<Integer> productIds = new ArrayList<>();
+        List<Integer> productBranches = new ArrayList<>();
+        List<String> productNames = new ArrayList<>();
+
+        for (int f = 0; f < this.config.franchises; f++)
+        {
+            ObjectNode franchise = this.mapper.createObjectNode().put("name", "LT-" + run + "-F" + f);
+            franchiseIds[f] = this.Post("/api/franchises", franchise).get("id").asInt();
+
+            for (int b = 0; b < this.config.branchesPerFranchise; b++)
+            {
+                ObjectNode branch = this.mapper.createObjectNode()
+                        .put("name", "LT-" + run + "-F" + f + "-S" + b)
+                        .put("franchiseId", franchiseIds[f]);
+                int branchId = this.Post("/api/branches", branch).get("id").asInt();
+                branchIds.add(branchId);
+
+                for (int from = 0; from < this.config.productsPerBranch; from += BULK_LIMIT)
+                {
+                    int to = Math.min(from + BULK_LIMIT, this.config.productsPerBranch);
+                    ArrayNode products = this.mapper.createArrayNode();
+
+                    for (int p = from; p < to; p++)
+                    {
+                        products.addObject()
+                                .put("name", "LT-" + run + "-S" + branchId + "-P" + p)
+                                .put("stock", ThreadLocalRandom.current().nextInt(500, 1500));
+                    }
+
+                    for (JsonNode result : this.Post("/api/branches/" + branchId + "/products:bulk", products))
+                    {
+                        if (result.get("success").asBoolean())
+                        {
+                            productIds.add(result.get("id").asInt());
+                            productBranches.add(branchId);
+                            productNames.add(result.get("name").asText());
+                        }
+                    }
+                }
+            }
+
+            System.out.printf("Sembrada franquicia %d/%d (%d sucursales, %d productos acumulados)%n",
+                    f + 1, this.config.franchises, branchIds.size(), productIds.size());
+        }
+
+        if (productIds.isEmpty())
+        {
+            throw new IllegalStateException("La siembra no creó productos; revise loadtest.productsPerBranch");
+        }
+
+        return new Dataset(
+                franchiseIds,
+                branchIds.stream().mapToInt(Integer::intValue).toArray(),
+                productIds.stream().mapToInt(Integer::intValue).toArray(),
+                productBranches.stream().mapToInt(Integer::intValue).toArray(),
+                productNames.toArray(new String[0]));
+    }
+
+    /**
+     * Envía el cuerpo y devuelve el campo data de ApiResponseDTO, fallando si la API reporta error.
+     */
+    private JsonNode Post(String path, JsonNode body) throws IOException, InterruptedException
+    {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(this.config.baseUrl + path))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(this.mapper.writeValueAsString(body)))
+                .build();
+
+        HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode envelope = this.mapper.readTree(response.body());
+
+        if (response.statusCode() / 100 != 2 || !envelope.path("success").asBoolean())
+        {
+            throw new IllegalStateException("Error sembrando " + path + ": " + response.statusCode() + " " + response.body());
+        }
+
+        return envelope.get("data");
+    }
+}
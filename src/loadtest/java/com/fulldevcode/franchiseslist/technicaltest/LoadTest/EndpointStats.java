@@ -0,0 +1,45 @@
+package com.fulldevcode.franchiseslist.technicaltest.LoadTest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y contadores de un escenario durante la ventana de medición, en microsegundos.
+ * La latencia corregida se mide desde el instante planificado de la solicitud y la no
+ * corregida desde su envío real; la diferencia expone la omisión coordinada.
+ */
+final class EndpointStats {
+
+    final String name;
+    final Histogram corrected = new ConcurrentHistogram(3);
+    final Histogram uncorrected = new ConcurrentHistogram(3);
+    final LongAdder errors = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+
+    EndpointStats(String name)
+    {
+        this.name = name;
+    }
+
+    void Record(long intendedNanos, long sentNanos, long completedNanos, boolean success)
+    {
+        this.corrected.recordValue((completedNanos - intendedNanos) / 1000);
+        this.uncorrected.recordValue((completedNanos - sentNanos) / 1000);
+
+        if (!success)
+        {
+            this.errors.increment();
+        }
+    }
+
+    /**
+     * Solicitud que no pudo enviarse porque se alcanzó loadtest.maxInFlight; se cuenta como error
+     * para no ocultar la saturación del servidor.
+     */
+    void Dropped()
+    {
+        this.dropped.increment();
+    }
+}
@@ -0,0 +1,62 @@
+package com.fulldevcode.franchiseslist.technicaltest.LoadTest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración de la prueba de carga, leída de propiedades del sistema (-Dloadtest.*).
+ */
+final class LoadTestConfig {
+
+    final String baseUrl;
+    final int franchises;
+    final int branchesPerFranchise;
+    final int productsPerBranch;
+    final int rate;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int maxInFlight;
+    final Map<String, Integer> weights;
+    final String reportDir;
+
+    private LoadTestConfig()
+    {
+        this.baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8088");
+        this.franchises = Integer.getInteger("loadtest.franchises", 20);
+        this.branchesPerFranchise = Integer.getInteger("loadtest.branchesPerFranchise", 10);
+        this.productsPerBranch = Integer.getInteger("loadtest.productsPerBranch", 100);
+        this.rate = Integer.getInteger("loadtest.rate", 200);
+        this.warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+        this.durationSeconds = Integer.getInteger("loadtest.duration", 60);
+        this.maxInFlight = Integer.getInteger("loadtest.maxInFlight", 10000);
+        this.weights = ParseWeights(System.getProperty("loadtest.mix", Scenarios.DEFAULT_MIX));
+        this.reportDir = System.getProperty("loadtest.reportDir", "target/loadtest");
+    }
+
+    static LoadTestConfig FromSystemProperties()
+    {
+        return new LoadTestConfig();
+    }
+
+    /**
+     * Convierte "franchise.get=10,product.get=40,..." en un mapa escenario → peso.
+     */
+    private static Map<String, Integer> ParseWeights(String mix)
+    {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+
+        for (String entry : mix.split(","))
+        {
+            String[] parts = entry.trim().split("=");
+
+            if (parts.length != 2)
+            {
+                throw new IllegalArgumentException("Entrada invalida en loadtest.mix: " + entry);
+            }
+
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+
+        return weights;
+    }
+}
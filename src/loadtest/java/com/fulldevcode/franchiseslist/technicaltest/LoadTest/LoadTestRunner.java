@@ -0,0 +1,201 @@
+package com.fulldevcode.franchiseslist.technicaltest.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga HTTP de modelo abierto: siembra un árbol de franquicias y luego lanza la mezcla
+ * de escenarios a una tasa de llegada fija, sin esperar a que termine la solicitud anterior.
+ * Reporta p50/p99/p999 y throughput por endpoint con corrección de omisión coordinada.
+ *
+ * Ejecución: mvn -Ploadtest -Dloadtest.rate=500 -Dloadtest.duration=120
+ */
+public final class LoadTestRunner {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTestRunner()
+    {
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        LoadTestConfig config = LoadTestConfig.FromSystemProperties();
+        Scenarios scenarios = Scenarios.Of(config.weights);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        System.out.printf("Sembrando %d franquicias x %d sucursales x %d productos en %s%n",
+                config.franchises, config.branchesPerFranchise, config.productsPerBranch, config.baseUrl);
+        ObjectMapper mapper = new ObjectMapper();
+        Dataset data = new DatasetSeeder(client, mapper, config).Seed();
+
+        EndpointStats[] stats = new EndpointStats[scenarios.Names().length];
+
+        for (int i = 0; i < stats.length; i++)
+        {
+            stats[i] = new EndpointStats(scenarios.Names()[i]);
+        }
+
+        System.out.printf("Carga: %d req/s, %d s de calentamiento y %d s medidos%n",
+                config.rate, config.warmupSeconds, config.durationSeconds);
+        Run(client, mapper, config, scenarios, data, stats);
+
+        String report = Report(config, stats);
+        System.out.print(report);
+        Write(config, stats, report);
+    }
+
+    /**
+     * Cada solicitud tiene un instante planificado start + i/rate. Si el servidor o el propio
+     * generador se retrasan, las siguientes solicitudes conservan su instante planificado y
+     * su latencia lo incluye, en lugar de desplazar el calendario.
+     */
+    private static void Run(HttpClient client, ObjectMapper mapper, LoadTestConfig config, Scenarios scenarios, Dataset data,
+                            EndpointStats[] stats)
+            throws InterruptedException
+    {
+        Semaphore inFlight = new Semaphore(config.maxInFlight);
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        for (long i = 0; ; i++)
+        {
+            long intended = start + i * 1_000_000_000L / config.rate;
+
+            if (intended >= end)
+            {
+                break;
+            }
+
+            long wait;
+
+            while ((wait = intended - System.nanoTime()) > 0)
+            {
+                LockSupport.parkNanos(wait);
+            }
+
+            int scenario = scenarios.Pick();
+            EndpointStats endpoint = intended >= measureStart ? stats[scenario] : null;
+
+            if (!inFlight.tryAcquire())
+            {
+                if (endpoint != null)
+                {
+                    endpoint.Dropped();
+                }
+
+                continue;
+            }
+
+            HttpRequest request = scenarios.Build(scenario, config.baseUrl, data);
+            long sent = System.nanoTime();
+
+            HttpResponse.BodyHandler<String> body = scenarios.ReturnsProduct(scenario)
+                    ? HttpResponse.BodyHandlers.ofString()
+                    : HttpResponse.BodyHandlers.replacing(null);
+
+            client.sendAsync(request, body).whenComplete((response, error) -> {
+                long completed = System.nanoTime();
+                inFlight.release();
+
+                if (endpoint != null)
+                {
+                    endpoint.Record(intended, sent, completed, error == null && response.statusCode() / 100 == 2);
+                }
+
+                if (error == null && response.body() != null)
+                {
+                    ObserveProduct(mapper, data, response.body());
+                }
+            });
+        }
+
+        if (!inFlight.tryAcquire(config.maxInFlight, 60, TimeUnit.SECONDS))
+        {
+            System.out.println("Aviso: quedaron solicitudes sin completar tras 60 s de espera");
+        }
+    }
+
+    /**
+     * Toma el id y la versión del ProductDTO en el campo data de ApiResponseDTO, si la respuesta lo trae.
+     */
+    private static void ObserveProduct(ObjectMapper mapper, Dataset data, String body)
+    {
+        try
+        {
+            JsonNode product = mapper.readTree(body).path("data");
+
+            if (product.hasNonNull("id") && product.hasNonNull("version"))
+            {
+                data.ObserveProductVersion(product.get("id").asInt(), product.get("version").asLong());
+            }
+        }
+        catch (IOException ex)
+        {
+            // Una respuesta que no es JSON ya se contabiliza como error por su código de estado.
+        }
+    }
+
+    private static String Report(LoadTestConfig config, EndpointStats[] stats)
+    {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%n%-22s %9s %9s %8s %9s %9s %9s %9s %13s%n",
+                "endpoint", "req", "req/s", "errores", "p50 ms", "p99 ms", "p999 ms", "max ms", "p99 sin corr"));
+
+        for (EndpointStats endpoint : stats)
+        {
+            long count = endpoint.corrected.getTotalCount();
+            out.append(String.format(Locale.ROOT, "%-22s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f %13.2f%n",
+                    endpoint.name,
+                    count,
+                    (double) count / config.durationSeconds,
+                    endpoint.errors.sum() + endpoint.dropped.sum(),
+                    endpoint.corrected.getValueAtPercentile(50.0) / MICROS_PER_MILLI,
+                    endpoint.corrected.getValueAtPercentile(99.0) / MICROS_PER_MILLI,
+                    endpoint.corrected.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                    endpoint.corrected.getMaxValue() / MICROS_PER_MILLI,
+                    endpoint.uncorrected.getValueAtPercentile(99.0) / MICROS_PER_MILLI));
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Guarda el resumen y, por endpoint, la distribución completa de percentiles en formato .hgrm,
+     * que se puede graficar con HdrHistogram Plotter.
+     */
+    private static void Write(LoadTestConfig config, EndpointStats[] stats, String report) throws IOException
+    {
+        Path dir = Paths.get(config.reportDir);
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("summary.txt"), report);
+
+        for (EndpointStats endpoint : stats)
+        {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(endpoint.name + ".hgrm"))))
+            {
+                endpoint.corrected.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+
+        System.out.println("Reporte guardado en " + dir.toAbsolutePath());
+    }
+}
@@ -0,0 +1,178 @@
+package com.fulldevcode.franchiseslist.technicaltest.LoadTest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+
+/**
+ * Catálogo de escenarios de la prueba de carga: cada uno es un endpoint de FranchiseController,
+ * BranchController o ProductController que construye su solicitud a partir del árbol sembrado.
+ * La mezcla se elige por peso con loadtest.mix.
+ */
+final class Scenarios {
+
+    static final String DEFAULT_MIX =
+            "franchise.page=5,franchise.get=10,franchise.maxProducts=5," +
+            "branch.list=10,branch.get=10,branch.top=10," +
+            "product.list=10,product.get=25," +
+            "product.stock=8,product.update=4,product.stockQueue=3";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Map<String, BiFunction<String, Dataset, HttpRequest>> CATALOG = new LinkedHashMap<>();
+
+    /**
+     * Escenarios que responden con el ProductDTO modificado: su cuerpo se lee para actualizar
+     * Dataset.productVersions, incluido el estado actual que acompaña a un CONFLICT.
+     */
+    private static final Set<String> PRODUCT_RESPONSES = Set.of("product.stock", "product.update");
+
+    static
+    {
+        CATALOG.put("franchise.page", (url, data) -> Get(url + "/api/franchises?after=" + (data.RandomFranchise() - 1) + "&limit=100"));
+        CATALOG.put("franchise.get", (url, data) -> Get(url + "/api/franchises/" + data.RandomFranchise()));
+        CATALOG.put("franchise.maxProducts", (url, data) -> Get(url + "/api/franchises/getBranchMaxProducts/" + data.RandomFranchise()));
+        CATALOG.put("branch.list", (url, data) -> Get(url + "/api/branches/getAll/" + data.RandomFranchise()));
+        CATALOG.put("branch.get", (url, data) -> Get(url + "/api/branches/" + data.RandomBranch()));
+        CATALOG.put("branch.top", (url, data) -> Get(url + "/api/branches/" + data.RandomBranch() + "/top"));
+        CATALOG.put("product.list", (url, data) -> Get(url + "/api/products/getAll/" + data.RandomBranch()));
+        CATALOG.put("product.get", (url, data) -> Get(url + "/api/products/" + data.productIds[data.RandomProductIndex()]));
+        CATALOG.put("product.stock", (url, data) -> {
+            int index = data.RandomProductIndex();
+            String body = "{\"productId\":" + data.productIds[index] + ",\"delta\":" + RandomDelta() + "}";
+            return Send(url + "/api/products/" + data.productIds[index] + "/stock", "PATCH", body);
+        });
+        CATALOG.put("product.update", (url, data) -> {
+            int index = data.RandomProductIndex();
+            String body = "{\"name\":\"" + data.productNames[index] + "\",\"stock\":" + ThreadLocalRandom.current().nextInt(500, 1500) +
+                    ",\"branchId\":" + data.productBranches[index] + ",\"version\":" + data.productVersions.get(index) + "}";
+            return Send(url + "/api/products/" + data.productIds[index], "PUT", body);
+        });
+        CATALOG.put("product.stockQueue", (url, data) -> {
+            StringBuilder body = new StringBuilder("[");
+
+            for (int i = 0; i < 10; i++)
+            {
+                if (i > 0)
+                {
+                    body.append(',');
+                }
+
+                body.append("{\"productId\":").append(data.productIds[data.RandomProductIndex()])
+                    .append(",\"delta\":").append(RandomDelta()).append('}');
+            }
+
+            return Send(url + "/api/products/stock/queue", "POST", body.append(']').toString());
+        });
+    }
+
+    private final String[] names;
+    private final BiFunction<String, Dataset, HttpRequest>[] builders;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    @SuppressWarnings("unchecked")
+    private Scenarios(Map<String, Integer> weights)
+    {
+        List<String> selected = new ArrayList<>();
+
+        for (Map.Entry<String, Integer> entry : weights.entrySet())
+        {
+            if (!CATALOG.containsKey(entry.getKey()))
+            {
+                throw new IllegalArgumentException("Escenario desconocido: " + entry.getKey() + ". Disponibles: " + CATALOG.keySet());
+            }
+
+            if (entry.getValue() > 0)
+            {
+                selected.add(entry.getKey());
+            }
+        }
+
+        if (selected.isEmpty())
+        {
+            throw new IllegalArgumentException("La mezcla de escenarios no tiene pesos positivos");
+        }
+
+        this.names = selected.toArray(new String[0]);
+        this.builders = new BiFunction[this.names.length];
+        this.cumulativeWeights = new int[this.names.length];
+
+        int total = 0;
+
+        for (int i = 0; i < this.names.length; i++)
+        {
+            total += weights.get(this.names[i]);
+            this.builders[i] = CATALOG.get(this.names[i]);
+            this.cumulativeWeights[i] = total;
+        }
+
+        this.totalWeight = total;
+    }
+
+    static Scenarios Of(Map<String, Integer> weights)
+    {
+        return new Scenarios(weights);
+    }
+
+    String[] Names()
+    {
+        return this.names;
+    }
+
+    boolean ReturnsProduct(int scenario)
+    {
+        return PRODUCT_RESPONSES.contains(this.names[scenario]);
+    }
+
+    /**
+     * Elige un escenario según su peso y devuelve su posición en Names().
+     */
+    int Pick()
+    {
+        int roll = ThreadLocalRandom.current().nextInt(this.totalWeight);
+        int index = 0;
+
+        while (roll >= this.cumulativeWeights[index])
+        {
+            index++;
+        }
+
+        return index;
+    }
+
+    HttpRequest Build(int scenario, String baseUrl, Dataset data)
+    {
+        return this.builders[scenario].apply(baseUrl, data);
+    }
+
+    /**
+     * Delta entre -2 y +3: el stock sembrado crece lentamente y los ajustes negativos rara vez se rechazan.
+     */
+    private static int RandomDelta()
+    {
+        int delta = ThreadLocalRandom.current().nextInt(-2, 4);
+        return delta == 0 ? 1 : delta;
+    }
+
+    private static HttpRequest Get(String url)
+    {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private static HttpRequest Send(String url, String method, String body)
+    {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
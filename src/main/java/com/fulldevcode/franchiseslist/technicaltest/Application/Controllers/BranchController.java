@@ -1,10 +1,19 @@
 package com.fulldevcode.franchiseslist.technicaltest.Application.Controllers;
 
 import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.BranchService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.CatalogStatsService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ProductService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.CatalogETags;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.StatementBudget;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BulkProductResultDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,14 +31,19 @@ import java.util.List;
 public class BranchController {
 
     private final BranchService brachesService;
+    private final ProductService productService;
+    private final CatalogStatsService catalogStatsService;
 
-    public BranchController (BranchService branch)
+    public BranchController (BranchService branch, ProductService product, CatalogStatsService catalogStats)
     {
         this.brachesService = branch;
+        this.productService = product;
+        this.catalogStatsService = catalogStats;
     }
 
     /**
      * Obtiene la lista de sucursales asociadas a una franquicia específica.
+     * Responde 304 sin consultar el listado si el ETag de If-None-Match sigue vigente.
      *
      * @param idFranchise Identificador único de la franquicia.
      * @return ApiResponseDTO que contiene:
@@ -40,14 +54,23 @@ public class BranchController {
      * Endpoint: /api/branches/getAll/{idFranchise}
      */
     @GetMapping("getAll/{idFranchise}")
-    public ApiResponseDTO<List<BranchListDTO>> IndexBranches (@PathVariable Integer idFranchise)
+    @StatementBudget(2)
+    public ResponseEntity<ApiResponseDTO<List<BranchListDTO>>> IndexBranches (@PathVariable Integer idFranchise, WebRequest request)
     {
+        String etag = this.catalogStatsService.BranchesStamp(idFranchise).map(CatalogETags::Branches).orElse(null);
+
+        if (CatalogETags.Matches(request, etag))
+        {
+            return CatalogETags.NotModified(etag);
+        }
+
         ApiResponseDTO<List<BranchListDTO>> branches = this.brachesService.branchIndex(idFranchise);
-        return branches;
+        return CatalogETags.Respond(branches, etag);
     }
 
     /**
      * Obtiene la información detallada de una sucursal a partir de su identificador.
+     * Responde 304 si la versión de la sucursal coincide con el ETag de If-None-Match.
      *
      * @param id Identificador único de la sucursal.
      * @return ApiResponseDTO que contiene:
@@ -57,10 +80,36 @@ public class BranchController {
      * Endpoint: /api/branches/{id}
      */
     @GetMapping("/{id}")
-    public ApiResponseDTO<BranchDTO> GetBranchById(@PathVariable Integer id)
+    @StatementBudget(1)
+    public ResponseEntity<ApiResponseDTO<BranchDTO>> GetBranchById(@PathVariable Integer id, WebRequest request)
     {
         ApiResponseDTO<BranchDTO> branch = this.brachesService.SearchById(id);
-        return branch;
+        String etag = branch.isSuccess() ? CatalogETags.Of(branch.getData()) : null;
+
+        if (CatalogETags.Matches(request, etag))
+        {
+            return CatalogETags.NotModified(etag);
+        }
+
+        return CatalogETags.Respond(branch, etag);
+    }
+
+    /**
+     * Obtiene los K productos con mayor stock de una sucursal.
+     *
+     * @param id Identificador único de la sucursal.
+     * @param k Cantidad de productos a retornar (por defecto 10, máximo 1000).
+     * @return ApiResponseDTO que contiene:
+     *         - La lista de productos con mayor stock (ProductListDTO).
+     *         - Un mensaje de error si la sucursal no se encuentra registrada.
+     * Método HTTP: GET
+     * Endpoint: /api/branches/{id}/top?k={n}
+     */
+    @GetMapping("/{id}/top")
+    public ApiResponseDTO<List<ProductListDTO>> TopProducts(@PathVariable Integer id, @RequestParam(defaultValue = "10") Integer k)
+    {
+        ApiResponseDTO<List<ProductListDTO>> products = this.brachesService.TopProducts(id, k);
+        return products;
     }
 
     /**
@@ -80,6 +129,24 @@ public class BranchController {
         return branch;
     }
 
+    /**
+     * Importa en una sola solicitud el catálogo de productos de una sucursal.
+     *
+     * @param id Identificador único de la sucursal.
+     * @param products Lista de productos a crear (máximo 10000).
+     * @return ApiResponseDTO que contiene:
+     *         - El resultado de cada fila (BulkProductResultDTO).
+     *         - Un mensaje de error si la sucursal no existe o el lote es inválido.
+     * Método HTTP: POST
+     * Endpoint: /api/branches/{id}/products:bulk
+     */
+    @PostMapping("/{id}/products:bulk")
+    public ApiResponseDTO<List<BulkProductResultDTO>> BulkProducts(@PathVariable Integer id, @RequestBody List<ProductDTO> products)
+    {
+        ApiResponseDTO<List<BulkProductResultDTO>> results = this.productService.BulkCreateProducts(id, products);
+        return results;
+    }
+
     /**
      * Actualiza la información de una sucursal existente.
      *
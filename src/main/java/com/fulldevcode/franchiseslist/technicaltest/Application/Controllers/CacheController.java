@@ -0,0 +1,64 @@
+package com.fulldevcode.franchiseslist.technicaltest.Application.Controllers;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ReadCacheService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.SecondLevelCacheService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.CacheStatsDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.SecondLevelCacheStatsDTO;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST que expone el estado de la caché de lectura y de la caché
+ * de segundo nivel de Hibernate de franquicias, sucursales y productos.
+ * Todas las respuestas siguen el formato estándar ApiResponseDTO.
+ */
+@RestController
+@RequestMapping("api/cache")
+public class CacheController {
+
+    private final ReadCacheService readCacheService;
+    private final SecondLevelCacheService secondLevelCacheService;
+
+    public CacheController(ReadCacheService cache, SecondLevelCacheService secondLevelCache)
+    {
+        this.readCacheService = cache;
+        this.secondLevelCacheService = secondLevelCache;
+    }
+
+    /**
+     * Obtiene las estadísticas de aciertos, fallos y expulsiones de cada caché.
+     *
+     * @return ApiResponseDTO que contiene:
+     *         - Las estadísticas de cada caché (CacheStatsDTO).
+     *         - Un mensaje de error en caso de que ocurra una excepción.
+     * Método HTTP: GET
+     * Endpoint: /api/cache/stats
+     */
+    @GetMapping("/stats")
+    public ApiResponseDTO<List<CacheStatsDTO>> Stats()
+    {
+        ApiResponseDTO<List<CacheStatsDTO>> stats = this.readCacheService.Stats();
+        return stats;
+    }
+
+    /**
+     * Obtiene las estadísticas de la caché de segundo nivel y de consultas de Hibernate por región,
+     * junto con las cargas de entidades, consultas y sentencias ejecutadas en la base de datos.
+     *
+     * @return ApiResponseDTO que contiene:
+     *         - Las estadísticas de cada región y los totales (SecondLevelCacheStatsDTO).
+     *         - Un mensaje de error si las estadísticas están deshabilitadas.
+     * Método HTTP: GET
+     * Endpoint: /api/cache/hibernate
+     */
+    @GetMapping("/hibernate")
+    public ApiResponseDTO<SecondLevelCacheStatsDTO> SecondLevelStats()
+    {
+        ApiResponseDTO<SecondLevelCacheStatsDTO> stats = this.secondLevelCacheService.Stats();
+        return stats;
+    }
+}
@@ -0,0 +1,47 @@
+package com.fulldevcode.franchiseslist.technicaltest.Application.Controllers;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ChangeOutboxService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.StatementBudget;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeFeedDTO;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST que expone los eventos de cambio de franquicias, sucursales y productos
+ * para que los sistemas externos se sincronicen de forma incremental sin recorrer todo el catálogo.
+ * Todas las respuestas siguen el formato estándar ApiResponseDTO.
+ */
+@RestController
+@RequestMapping("api/changes")
+public class ChangeController {
+
+    private final ChangeOutboxService changeOutboxService;
+
+    public ChangeController(ChangeOutboxService changeOutbox)
+    {
+        this.changeOutboxService = changeOutbox;
+    }
+
+    /**
+     * Obtiene los eventos de cambio posteriores a un número de secuencia, en orden de seq.
+     *
+     * @param since Último seq procesado por el cliente (0 para comenzar desde el primer evento conservado).
+     * @param limit Cantidad máxima de eventos a retornar (máximo 1000).
+     * @return ApiResponseDTO que contiene:
+     *         - Los eventos, el cursor para la siguiente solicitud (next) y si quedan más eventos (ChangeFeedDTO).
+     *         - Un mensaje de error si los eventos posteriores a since ya fueron depurados.
+     * Método HTTP: GET
+     * Endpoint: /api/changes?since={seq}&limit={n}
+     */
+    @GetMapping()
+    @StatementBudget(2)
+    public ApiResponseDTO<ChangeFeedDTO> Changes(@RequestParam(defaultValue = "0") Long since,
+                                                 @RequestParam(defaultValue = "500") Integer limit)
+    {
+        ApiResponseDTO<ChangeFeedDTO> changes = this.changeOutboxService.SearchChanges(since, limit);
+        return changes;
+    }
+}
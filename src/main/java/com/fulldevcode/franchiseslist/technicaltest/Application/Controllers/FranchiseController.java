@@ -1,11 +1,27 @@
 package com.fulldevcode.franchiseslist.technicaltest.Application.Controllers;
 
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.BranchTopProductService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.CatalogStatsService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.FranchiseDeleteJobService;
 import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.FranchiseService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.LowStockAlertService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ProductSearchService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.CatalogETags;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.StatementBudget;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchTopProductCheckDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDeleteJobDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseStatsDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,6 +33,9 @@ import java.util.List;
  * - Obtener el detalle de una franquicia.
  * - Crear, actualizar y eliminar franquicias.
  * - Consultar las sucursales con mayor número de productos por franquicia.
+ * - Consultar las estadísticas agregadas (sucursales, productos y stock) de una franquicia.
+ * - Buscar productos por nombre o por rango de stock en todas las sucursales de una franquicia.
+ * - Recibir alertas de stock bajo (Server-Sent Events).
  * Todas las respuestas siguen el formato estándar ApiResponseDTO.
  */
 @RestController
@@ -24,31 +43,73 @@ import java.util.List;
 public class FranchiseController {
 
     private final FranchiseService franchiseService;
+    private final BranchTopProductService topProductService;
+    private final FranchiseDeleteJobService deleteJobService;
+    private final ProductSearchService productSearchService;
+    private final LowStockAlertService lowStockAlertService;
+    private final CatalogStatsService catalogStatsService;
 
-    public FranchiseController(FranchiseService franchise)
+    public FranchiseController(FranchiseService franchise, BranchTopProductService topProduct, FranchiseDeleteJobService deleteJob,
+                               ProductSearchService productSearch, LowStockAlertService lowStockAlert, CatalogStatsService catalogStats)
     {
         this.franchiseService = franchise;
+        this.topProductService = topProduct;
+        this.deleteJobService = deleteJob;
+        this.productSearchService = productSearch;
+        this.lowStockAlertService = lowStockAlert;
+        this.catalogStatsService = catalogStats;
     }
 
     /**
-     * Obtiene la lista de todas las franquicias registradas en el sistema.
+     * Obtiene una página de franquicias registradas en el sistema usando paginación por cursor.
      *
+     * Responde 304 sin consultar el listado si el ETag de If-None-Match sigue vigente.
+     *
+     * @param after Identificador de la última franquicia recibida (0 para la primera página).
+     * @param limit Cantidad máxima de franquicias a retornar (máximo 1000).
      * @return ApiResponseDTO que contiene:
      *         - Una lista de franquicias (FranchiseListDTO) si la operación es exitosa.
      *         - Un mensaje de error en caso de que ocurra una excepción.
      * Método HTTP: GET
-     * Endpoint: /api/franchises
+     * Endpoint: /api/franchises?after={id}&limit={n}
      */
     @GetMapping()
-    public ApiResponseDTO<List<FranchiseListDTO>> FranchisesIndex()
+    @StatementBudget(2)
+    public ResponseEntity<ApiResponseDTO<List<FranchiseListDTO>>> FranchisesIndex(@RequestParam(defaultValue = "0") Integer after,
+                                                                                  @RequestParam(defaultValue = "100") Integer limit,
+                                                                                  WebRequest request)
+    {
+        String etag = this.catalogStatsService.FranchisesStamp().map(CatalogETags::Franchises).orElse(null);
+
+        if (CatalogETags.Matches(request, etag))
+        {
+            return CatalogETags.NotModified(etag);
+        }
+
+        ApiResponseDTO<List<FranchiseListDTO>> franchises = this.franchiseService.IndexFranchise(after, limit);
+        return CatalogETags.Respond(franchises, etag);
+    }
+
+    /**
+     * Obtiene todas las franquicias como un arreglo JSON transmitido fila por fila,
+     * sin cargar la lista completa en memoria.
+     *
+     * @return Arreglo JSON de franquicias (FranchiseListDTO).
+     * Método HTTP: GET
+     * Endpoint: /api/franchises/stream
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> FranchisesStream()
     {
-        ApiResponseDTO<List<FranchiseListDTO>> franchises = this.franchiseService.IndexFranchise();
-        return franchises;
+        StreamingResponseBody body = this.franchiseService::StreamFranchise;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
      * Obtiene la información detallada de una franquicia a partir de su identificador.
      *
+     * Responde 304 si la versión de la franquicia coincide con el ETag de If-None-Match.
+     *
      * @param id Identificador único de la franquicia.
      * @return ApiResponseDTO que contiene:
      *         - El detalle de la franquicia (FranchiseDTO) si existe.
@@ -57,10 +118,112 @@ public class FranchiseController {
      * Endpoint: /api/franchises/{id}
      */
     @GetMapping("/{id}")
-    public ApiResponseDTO<FranchiseDTO> GetFranchiseById(@PathVariable Integer id)
+    @StatementBudget(1)
+    public ResponseEntity<ApiResponseDTO<FranchiseDTO>> GetFranchiseById(@PathVariable Integer id, WebRequest request)
     {
         ApiResponseDTO<FranchiseDTO> franchise = this.franchiseService.SearchFranchiseById(id);
-        return franchise;
+        String etag = franchise.isSuccess() ? CatalogETags.Of(franchise.getData()) : null;
+
+        if (CatalogETags.Matches(request, etag))
+        {
+            return CatalogETags.NotModified(etag);
+        }
+
+        return CatalogETags.Respond(franchise, etag);
+    }
+
+    /**
+     * Obtiene el árbol completo de una franquicia (sucursales y sus productos) en una sola
+     * respuesta JSON anidada, transmitida a medida que se lee de la base de datos.
+     *
+     * @param id Identificador único de la franquicia.
+     * @param depth Profundidad: 0 solo la franquicia, 1 con sucursales, 2 con productos (por defecto 2).
+     * @param fields Campos a incluir separados por coma (id, name, stock o calificados como product.stock).
+     * @return ApiResponseDTO cuyo campo data es el objeto con la franquicia, sus sucursales (branches) y sus
+     *         productos (products), o con el mensaje de error si la franquicia no existe o los parámetros son inválidos.
+     * Método HTTP: GET
+     * Endpoint: /api/franchises/{id}/tree?depth={n}&fields={campos}
+     */
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<?> GetFranchiseTree(@PathVariable Integer id,
+                                              @RequestParam(defaultValue = "2") Integer depth,
+                                              @RequestParam(required = false) String fields)
+    {
+        ApiResponseDTO<FranchiseDTO> franchise = this.franchiseService.SearchFranchiseTree(id, depth, fields);
+
+        if (!franchise.isSuccess())
+        {
+            return ResponseEntity.ok(franchise);
+        }
+
+        StreamingResponseBody body = output -> this.franchiseService.StreamFranchiseTree(franchise.getData(), depth, fields, output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Busca por nombre (prefijo o parte del nombre) los productos de todas las sucursales
+     * de una franquicia, ordenados por stock descendente.
+     *
+     * @param id Identificador único de la franquicia.
+     * @param q Texto a buscar en el nombre del producto.
+     * @param page Número de página, iniciando en 0.
+     * @param size Cantidad de productos por página (máximo 100).
+     * @return ApiResponseDTO que contiene:
+     *         - Los productos encontrados con su sucursal (ProductSearchDTO).
+     *         - Un mensaje de error si la franquicia no existe o los parámetros son inválidos.
+     * Método HTTP: GET
+     * Endpoint: /api/franchises/{id}/products/search?q={texto}&page={n}&size={n}
+     */
+    @GetMapping("/{id}/products/search")
+    @StatementBudget(2)
+    public ApiResponseDTO<List<ProductSearchDTO>> SearchProducts(@PathVariable Integer id, @RequestParam String q,
+                                                                 @RequestParam(defaultValue = "0") Integer page,
+                                                                 @RequestParam(defaultValue = "20") Integer size)
+    {
+        ApiResponseDTO<List<ProductSearchDTO>> products = this.productSearchService.SearchFranchiseProducts(id, q, page, size);
+        return products;
+    }
+
+    /**
+     * Obtiene los productos de todas las sucursales de una franquicia cuyo stock está dentro
+     * del rango indicado, ordenados por stock ascendente (útil para reabastecimiento).
+     *
+     * @param id Identificador único de la franquicia.
+     * @param stockBelow Se incluyen los productos con stock menor a este valor (opcional).
+     * @param stockAbove Se incluyen los productos con stock mayor a este valor (opcional).
+     * @param limit Cantidad máxima de productos a retornar (máximo 1000).
+     * @return ApiResponseDTO que contiene:
+     *         - Los productos dentro del rango con su sucursal (ProductSearchDTO).
+     *         - Un mensaje de error si la franquicia no existe o los parámetros son inválidos.
+     * Método HTTP: GET
+     * Endpoint: /api/franchises/{id}/products?stockBelow={n}&stockAbove={n}&limit={n}
+     */
+    @GetMapping("/{id}/products")
+    @StatementBudget(2)
+    public ApiResponseDTO<List<ProductSearchDTO>> ProductsByStock(@PathVariable Integer id,
+                                                                  @RequestParam(required = false) Integer stockBelow,
+                                                                  @RequestParam(required = false) Integer stockAbove,
+                                                                  @RequestParam(defaultValue = "100") Integer limit)
+    {
+        ApiResponseDTO<List<ProductSearchDTO>> products = this.productSearchService.SearchFranchiseStockRange(id, stockBelow, stockAbove, limit);
+        return products;
+    }
+
+    /**
+     * Abre un flujo de Server-Sent Events con las alertas de stock bajo de una franquicia:
+     * se envía un evento "low-stock" cada vez que un producto queda por debajo del umbral.
+     *
+     * @param id Identificador único de la franquicia.
+     * @param threshold Umbral de stock (opcional, por defecto franchises.low-stock.threshold).
+     * @return Flujo SSE con eventos "subscribed", "low-stock" (LowStockAlertDTO) o "error" (ApiResponseDTO).
+     * Método HTTP: GET
+     * Endpoint: /api/franchises/{id}/products/low-stock/stream?threshold={n}
+     */
+    @GetMapping(value = "/{id}/products/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter LowStockAlerts(@PathVariable Integer id, @RequestParam(required = false) Integer threshold)
+    {
+        SseEmitter alerts = this.lowStockAlertService.Subscribe(id, threshold);
+        return alerts;
     }
 
     /**
@@ -117,6 +280,41 @@ public class FranchiseController {
         return franchise;
     }
 
+    /**
+     * Inicia la eliminación asíncrona por bloques de una franquicia con sus sucursales
+     * y productos, pensada para franquicias con un gran volumen de datos.
+     *
+     * @param id Identificador único de la franquicia a eliminar.
+     * @return ApiResponseDTO que contiene:
+     *         - El trabajo de eliminación (FranchiseDeleteJobDTO) para consultar su avance.
+     *         - Un mensaje de error si la franquicia no se encuentra registrada.
+     * Método HTTP: POST
+     * Endpoint: /api/franchises/{id}/delete-jobs
+     */
+    @PostMapping("/{id}/delete-jobs")
+    public ApiResponseDTO<FranchiseDeleteJobDTO> StartDelete (@PathVariable Integer id)
+    {
+        ApiResponseDTO<FranchiseDeleteJobDTO> job = this.deleteJobService.Start(id);
+        return job;
+    }
+
+    /**
+     * Obtiene el estado y avance de una eliminación asíncrona de franquicia.
+     *
+     * @param jobId Identificador único del trabajo de eliminación.
+     * @return ApiResponseDTO que contiene:
+     *         - El estado de la eliminación (FranchiseDeleteJobDTO).
+     *         - Un mensaje de error si el trabajo no se encuentra registrado.
+     * Método HTTP: GET
+     * Endpoint: /api/franchises/delete-jobs/{jobId}
+     */
+    @GetMapping("/delete-jobs/{jobId}")
+    public ApiResponseDTO<FranchiseDeleteJobDTO> GetDeleteJob (@PathVariable String jobId)
+    {
+        ApiResponseDTO<FranchiseDeleteJobDTO> job = this.deleteJobService.SearchById(jobId);
+        return job;
+    }
+
     /**
      * Obtiene las sucursales de una franquicia junto con el producto
      * que tiene el mayor stock en cada una de ellas.
@@ -129,9 +327,83 @@ public class FranchiseController {
      * Endpoint: /api/franchises/getBranchMaxProducts/{id}
      */
     @GetMapping("/getBranchMaxProducts/{id}")
+    @StatementBudget(2)
     public ApiResponseDTO<List<BranchMaxProductsListDTO>> GetBranchMaxProducts(@PathVariable Integer id)
     {
         ApiResponseDTO<List<BranchMaxProductsListDTO>> branchesMaxProduct = this.franchiseService.GetBranchMaxProducts(id);
         return branchesMaxProduct;
     }
+
+    /**
+     * Reconstruye la proyección de productos con mayor stock por sucursal
+     * a partir de la tabla de productos (carga inicial o recuperación).
+     *
+     * @return ApiResponseDTO que contiene:
+     *         - La cantidad de sucursales cargadas en la proyección.
+     *         - Un mensaje de error en caso de que ocurra una excepción.
+     * Método HTTP: POST
+     * Endpoint: /api/franchises/topProducts/rebuild
+     */
+    @PostMapping("/topProducts/rebuild")
+    public ApiResponseDTO<Integer> RebuildTopProducts()
+    {
+        ApiResponseDTO<Integer> rebuilt = this.topProductService.RebuildProjection();
+        return rebuilt;
+    }
+
+    /**
+     * Compara la proyección de productos con mayor stock de una franquicia
+     * contra la consulta en vivo y, opcionalmente, repara las diferencias.
+     *
+     * @param id Identificador único de la franquicia.
+     * @param repair Indica si se deben reparar las sucursales inconsistentes.
+     * @return ApiResponseDTO que contiene:
+     *         - El resultado de la verificación (BranchTopProductCheckDTO).
+     *         - Un mensaje de error si la franquicia no existe o ocurre una excepción.
+     * Método HTTP: GET
+     * Endpoint: /api/franchises/topProducts/check/{id}?repair={true|false}
+     */
+    @GetMapping("/topProducts/check/{id}")
+    public ApiResponseDTO<BranchTopProductCheckDTO> CheckTopProducts(@PathVariable Integer id, @RequestParam(defaultValue = "false") boolean repair)
+    {
+        ApiResponseDTO<BranchTopProductCheckDTO> check = this.topProductService.CheckConsistency(id, repair);
+        return check;
+    }
+
+    /**
+     * Obtiene las estadísticas agregadas de una franquicia a partir de los contadores
+     * mantenidos en cada escritura: cantidad de sucursales, de productos, stock total
+     * y stock máximo, junto con el desglose por sucursal.
+     *
+     * @param id Identificador único de la franquicia.
+     * @return ApiResponseDTO que contiene:
+     *         - Las estadísticas de la franquicia (FranchiseStatsDTO).
+     *         - Un mensaje de error si la franquicia no existe o ocurre una excepción.
+     * Método HTTP: GET
+     * Endpoint: /api/franchises/{id}/stats
+     */
+    @GetMapping("/{id}/stats")
+    @StatementBudget(3)
+    public ApiResponseDTO<FranchiseStatsDTO> GetFranchiseStats(@PathVariable Integer id)
+    {
+        ApiResponseDTO<FranchiseStatsDTO> stats = this.catalogStatsService.GetFranchiseStats(id);
+        return stats;
+    }
+
+    /**
+     * Compara los contadores de franquicias y sucursales contra las tablas base
+     * y repara las diferencias encontradas.
+     *
+     * @return ApiResponseDTO que contiene:
+     *         - La cantidad de contadores reparados o eliminados.
+     *         - Un mensaje de error en caso de que ocurra una excepción.
+     * Método HTTP: POST
+     * Endpoint: /api/franchises/stats/reconcile
+     */
+    @PostMapping("/stats/reconcile")
+    public ApiResponseDTO<Integer> ReconcileStats()
+    {
+        ApiResponseDTO<Integer> reconciled = this.catalogStatsService.Reconcile();
+        return reconciled;
+    }
 }
@@ -0,0 +1,69 @@
+package com.fulldevcode.franchiseslist.technicaltest.Application.Controllers;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ImportService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ImportJobDTO;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * Controlador REST encargado de las importaciones masivas de franquicias,
+ * sucursales y productos.
+ * Expone endpoints para:
+ * - Importar un cuerpo NDJSON o CSV por bloques confirmados de forma independiente.
+ * - Reanudar una importación interrumpida.
+ * - Consultar el avance de una importación.
+ * Todas las respuestas siguen el formato estándar ApiResponseDTO.
+ */
+@RestController
+@RequestMapping("api/imports")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService service)
+    {
+        this.importService = service;
+    }
+
+    /**
+     * Importa (o reanuda) un archivo NDJSON o CSV leído de forma incremental.
+     *
+     * @param format Formato del cuerpo: ndjson o csv.
+     * @param chunkSize Cantidad de filas por transacción (por defecto 500, máximo 5000).
+     * @param importId Identificador de la importación a reanudar (opcional).
+     * @param body Cuerpo de la solicitud con las filas a importar.
+     * @return ApiResponseDTO que contiene:
+     *         - El estado de la importación y el resultado de cada bloque (ImportJobDTO).
+     *         - Un mensaje de error si los parámetros son inválidos.
+     * Método HTTP: POST
+     * Endpoint: /api/imports?format={ndjson|csv}&chunkSize={n}&importId={id}
+     */
+    @PostMapping()
+    public ApiResponseDTO<ImportJobDTO> Import(@RequestParam String format,
+                                               @RequestParam(defaultValue = "${franchises.import.chunk-size:500}") Integer chunkSize,
+                                               @RequestParam(required = false) String importId,
+                                               InputStream body)
+    {
+        ApiResponseDTO<ImportJobDTO> job = this.importService.Import(body, format, chunkSize, importId);
+        return job;
+    }
+
+    /**
+     * Obtiene el estado de una importación.
+     *
+     * @param id Identificador único de la importación.
+     * @return ApiResponseDTO que contiene:
+     *         - El estado de la importación (ImportJobDTO).
+     *         - Un mensaje de error si la importación no se encuentra registrada.
+     * Método HTTP: GET
+     * Endpoint: /api/imports/{id}
+     */
+    @GetMapping("/{id}")
+    public ApiResponseDTO<ImportJobDTO> GetImportById(@PathVariable String id)
+    {
+        ApiResponseDTO<ImportJobDTO> job = this.importService.SearchById(id);
+        return job;
+    }
+}
@@ -1,10 +1,17 @@
 package com.fulldevcode.franchiseslist.technicaltest.Application.Controllers;
 
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.CatalogStatsService;
 import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ProductService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.CatalogETags;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.StatementBudget;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.StockAdjustmentDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.StockAdjustmentResultDTO;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,14 +29,17 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogStatsService catalogStatsService;
 
-    public ProductController(ProductService product)
+    public ProductController(ProductService product, CatalogStatsService catalogStats)
     {
         this.productService = product;
+        this.catalogStatsService = catalogStats;
     }
 
     /**
      * Obtiene la lista de productos asociados a una sucursal específica.
+     * Responde 304 sin consultar el listado si el ETag de If-None-Match sigue vigente.
      *
      * @param idBranch Identificador único de la sucursal.
      * @return ApiResponseDTO que contiene:
@@ -39,14 +49,23 @@ public class ProductController {
      * Endpoint: /api/products/getAll/{idBranch}
      */
     @GetMapping("getAll/{idBranch}")
-    public ApiResponseDTO<List<ProductListDTO>> IndexProduct(@PathVariable Integer idBranch)
+    @StatementBudget(2)
+    public ResponseEntity<ApiResponseDTO<List<ProductListDTO>>> IndexProduct(@PathVariable Integer idBranch, WebRequest request)
     {
+        String etag = this.catalogStatsService.ProductsStamp(idBranch).map(CatalogETags::Products).orElse(null);
+
+        if (CatalogETags.Matches(request, etag))
+        {
+            return CatalogETags.NotModified(etag);
+        }
+
         ApiResponseDTO<List<ProductListDTO>> products = this.productService.IndexProducts(idBranch);
-        return products;
+        return CatalogETags.Respond(products, etag);
     }
 
     /**
      * Obtiene la información detallada de un producto a partir de su identificador.
+     * Responde 304 si la versión y el stock del producto coinciden con el ETag de If-None-Match.
      *
      * @param id Identificador único del producto.
      * @return ApiResponseDTO que contiene:
@@ -56,10 +75,18 @@ public class ProductController {
      * Endpoint: /api/products/{id}
      */
     @GetMapping("/{id}")
-    public ApiResponseDTO<ProductDTO> SearchById(@PathVariable Integer id)
+    @StatementBudget(1)
+    public ResponseEntity<ApiResponseDTO<ProductDTO>> SearchById(@PathVariable Integer id, WebRequest request)
     {
         ApiResponseDTO<ProductDTO> product = this.productService.SearchById(id);
-        return product;
+        String etag = product.isSuccess() ? CatalogETags.Of(product.getData()) : null;
+
+        if (CatalogETags.Matches(request, etag))
+        {
+            return CatalogETags.NotModified(etag);
+        }
+
+        return CatalogETags.Respond(product, etag);
     }
 
     /**
@@ -97,6 +124,59 @@ public class ProductController {
         return product;
     }
 
+    /**
+     * Ajusta de forma atómica el stock de un producto sumando la cantidad indicada.
+     *
+     * @param id Identificador único del producto.
+     * @param adjustment Objeto DTO con la cantidad a sumar (delta), negativa para descontar.
+     * @return ApiResponseDTO que contiene:
+     *         - El producto con su stock actualizado (ProductDTO) si la operación es exitosa.
+     *         - Un mensaje de error si el producto no existe o el stock es insuficiente.
+     * Método HTTP: PATCH
+     * Endpoint: /api/products/{id}/stock
+     */
+    @PatchMapping("/{id}/stock")
+    public ApiResponseDTO<ProductDTO> AdjustStock(@PathVariable Integer id, @RequestBody StockAdjustmentDTO adjustment)
+    {
+        ApiResponseDTO<ProductDTO> product = this.productService.AdjustStock(id, adjustment);
+        return product;
+    }
+
+    /**
+     * Ajusta de forma atómica el stock de varios productos en una sola solicitud.
+     *
+     * @param adjustments Lista de ajustes (productId, delta), máximo 5000.
+     * @return ApiResponseDTO que contiene:
+     *         - El resultado del ajuste de cada producto (StockAdjustmentResultDTO).
+     *         - Un mensaje de error si el lote es inválido.
+     * Método HTTP: PATCH
+     * Endpoint: /api/products/stock
+     */
+    @PatchMapping("/stock")
+    public ApiResponseDTO<List<StockAdjustmentResultDTO>> AdjustStockBatch(@RequestBody List<StockAdjustmentDTO> adjustments)
+    {
+        ApiResponseDTO<List<StockAdjustmentResultDTO>> results = this.productService.AdjustStockBatch(adjustments);
+        return results;
+    }
+
+    /**
+     * Encola movimientos de stock que se escriben en lote en segundo plano.
+     * Pensado para ráfagas de ventas con muchos movimientos sobre los mismos productos.
+     *
+     * @param adjustments Lista de movimientos (productId, delta), máximo 5000.
+     * @return ApiResponseDTO que contiene:
+     *         - La cantidad de movimientos encolados.
+     *         - Un mensaje de error si el lote es inválido.
+     * Método HTTP: POST
+     * Endpoint: /api/products/stock/queue
+     */
+    @PostMapping("/stock/queue")
+    public ApiResponseDTO<Integer> QueueStock(@RequestBody List<StockAdjustmentDTO> adjustments)
+    {
+        ApiResponseDTO<Integer> queued = this.productService.QueueStockAdjustments(adjustments);
+        return queued;
+    }
+
     /**
      * Elimina un producto del sistema a partir de su identificador.
      *
@@ -0,0 +1,135 @@
+package com.fulldevcode.franchiseslist.technicaltest.Application.Controllers;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ReactiveCatalogService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Controlador de lectura no bloqueante del catálogo público.
+ * Los endpoints devuelven Mono/Flux alimentados por R2DBC: el hilo de la solicitud se libera
+ * mientras se espera a la base de datos y los listados /stream se envían como NDJSON,
+ * un elemento por línea, al ritmo en que el cliente los consume.
+ */
+@RestController
+@RequestMapping("api/reactive")
+public class ReactiveCatalogController {
+
+    private final ReactiveCatalogService catalogService;
+
+    public ReactiveCatalogController(ReactiveCatalogService catalog)
+    {
+        this.catalogService = catalog;
+    }
+
+    /**
+     * Obtiene una página de franquicias usando paginación por cursor.
+     *
+     * @param after Identificador de la última franquicia recibida (0 para la primera página).
+     * @param limit Cantidad máxima de franquicias a retornar (máximo 1000).
+     * @return ApiResponseDTO que contiene:
+     *         - Una lista de franquicias (FranchiseListDTO) si la operación es exitosa.
+     *         - Un mensaje de error en caso de que ocurra una excepción.
+     * Método HTTP: GET
+     * Endpoint: /api/reactive/franchises?after={id}&limit={n}
+     */
+    @GetMapping("/franchises")
+    public Mono<ApiResponseDTO<List<FranchiseListDTO>>> FranchisesIndex(@RequestParam(defaultValue = "0") Integer after,
+                                                                        @RequestParam(defaultValue = "100") Integer limit)
+    {
+        Mono<ApiResponseDTO<List<FranchiseListDTO>>> franchises = this.catalogService.IndexFranchise(after, limit);
+        return franchises;
+    }
+
+    /**
+     * Transmite todas las franquicias como NDJSON, una por línea.
+     *
+     * @return Flujo de franquicias (FranchiseListDTO).
+     * Método HTTP: GET
+     * Endpoint: /api/reactive/franchises/stream
+     */
+    @GetMapping(value = "/franchises/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<FranchiseListDTO> FranchisesStream()
+    {
+        Flux<FranchiseListDTO> franchises = this.catalogService.StreamFranchise();
+        return franchises;
+    }
+
+    /**
+     * Obtiene las sucursales de una franquicia con su producto de mayor stock.
+     *
+     * @param id Identificador único de la franquicia.
+     * @return ApiResponseDTO que contiene:
+     *         - Una lista de sucursales con su producto de mayor stock (BranchMaxProductsListDTO).
+     *         - Un mensaje de error si la franquicia no existe.
+     * Método HTTP: GET
+     * Endpoint: /api/reactive/franchises/getBranchMaxProducts/{id}
+     */
+    @GetMapping("/franchises/getBranchMaxProducts/{id}")
+    public Mono<ApiResponseDTO<List<BranchMaxProductsListDTO>>> GetBranchMaxProducts(@PathVariable Integer id)
+    {
+        Mono<ApiResponseDTO<List<BranchMaxProductsListDTO>>> branches = this.catalogService.GetBranchMaxProducts(id);
+        return branches;
+    }
+
+    /**
+     * Obtiene todas las sucursales asociadas a una franquicia.
+     *
+     * @param idFranchise Identificador único de la franquicia.
+     * @return ApiResponseDTO que contiene:
+     *         - Una lista de sucursales (BranchListDTO) si la operación es exitosa.
+     *         - Un mensaje de error en caso de que ocurra una excepción.
+     * Método HTTP: GET
+     * Endpoint: /api/reactive/branches/getAll/{idFranchise}
+     */
+    @GetMapping("/branches/getAll/{idFranchise}")
+    public Mono<ApiResponseDTO<List<BranchListDTO>>> BranchesIndex(@PathVariable Integer idFranchise)
+    {
+        Mono<ApiResponseDTO<List<BranchListDTO>>> branches = this.catalogService.IndexBranch(idFranchise);
+        return branches;
+    }
+
+    /**
+     * Obtiene todos los productos asociados a una sucursal.
+     *
+     * @param idBranch Identificador único de la sucursal.
+     * @return ApiResponseDTO que contiene:
+     *         - Una lista de productos (ProductListDTO) si la operación es exitosa.
+     *         - Un mensaje de error en caso de que ocurra una excepción.
+     * Método HTTP: GET
+     * Endpoint: /api/reactive/products/getAll/{idBranch}
+     */
+    @GetMapping("/products/getAll/{idBranch}")
+    public Mono<ApiResponseDTO<List<ProductListDTO>>> ProductsIndex(@PathVariable Integer idBranch)
+    {
+        Mono<ApiResponseDTO<List<ProductListDTO>>> products = this.catalogService.IndexProducts(idBranch);
+        return products;
+    }
+
+    /**
+     * Transmite los productos de una sucursal como NDJSON, uno por línea.
+     *
+     * @param idBranch Identificador único de la sucursal.
+     * @return Flujo de productos (ProductListDTO).
+     * Método HTTP: GET
+     * Endpoint: /api/reactive/products/getAll/{idBranch}/stream
+     */
+    @GetMapping(value = "/products/getAll/{idBranch}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductListDTO> ProductsStream(@PathVariable Integer idBranch)
+    {
+        Flux<ProductListDTO> products = this.catalogService.StreamProducts(idBranch);
+        return products;
+    }
+}
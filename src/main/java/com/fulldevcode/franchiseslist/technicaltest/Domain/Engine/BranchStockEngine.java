@@ -0,0 +1,653 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeType;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Motor en memoria que mantiene, por cada sucursal, sus productos ordenados por
+ * (stock descendente, id ascendente). Permite responder el producto de mayor stock
+ * de una sucursal en O(1) y los K primeros en O(K) sin consultar PostgreSQL.
+ * Cada producto se codifica en un long (stock invertido en los 32 bits altos, id en los bajos)
+ * dentro de un arreglo ordenado por sucursal, y los índices usan mapas con llaves int primitivas.
+ * Se carga desde la base de datos al iniciar la aplicación y se actualiza con los eventos
+ * de cambio después de que cada transacción confirma.
+ * Esos eventos no llegan necesariamente en orden de confirmación: cada producto y sucursal guarda
+ * la versión (@Version) con la que se cargó o actualizó y se ignoran los eventos con una versión
+ * anterior. Los productos y sucursales eliminados se recuerdan durante franchises.stock-engine.tombstone-ttl-ms
+ * (Tombstones) para que un evento anterior que llegue después de la eliminación no los vuelva a agregar.
+ */
+@Component
+public class BranchStockEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(BranchStockEngine.class);
+    private static final long[] EMPTY = new long[0];
+
+    private final IProduct productRepository;
+    private final IBranch branchRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<Runnable> pendingChanges = new ArrayDeque<>();
+
+    private IntObjectHashMap<BranchBucket> branches = new IntObjectHashMap<>();
+    private IntObjectHashMap<ProductSlot> products = new IntObjectHashMap<>();
+    private IntObjectHashMap<IntHashSet> franchiseBranches = new IntObjectHashMap<>();
+    private final Tombstones removedProducts;
+    private final Tombstones removedBranches;
+    private volatile boolean ready;
+
+    public BranchStockEngine(IProduct product, IBranch branch, PlatformTransactionManager transactionManager,
+                             @Value("${franchises.stock-engine.enabled:true}") boolean enabled,
+                             @Value("${franchises.stock-engine.tombstone-ttl-ms:300000}") long tombstoneTtlMs)
+    {
+        this.productRepository = product;
+        this.branchRepository = branch;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.removedProducts = new Tombstones(tombstoneTtlMs);
+        this.removedBranches = new Tombstones(tombstoneTtlMs);
+    }
+
+    /**
+     * Indica si el motor terminó su carga inicial y puede responder consultas.
+     */
+    public boolean IsReady()
+    {
+        return this.ready;
+    }
+
+    /**
+     * Carga el motor en segundo plano al iniciar la aplicación para no retrasar el arranque.
+     * Mientras se carga, los cambios confirmados se encolan y se aplican al finalizar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void OnApplicationReady()
+    {
+        if (!this.enabled)
+        {
+            return;
+        }
+
+        Thread warmup = new Thread(this::Warm, "branch-stock-engine-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    /**
+     * Carga todas las sucursales y productos desde PostgreSQL en estructuras nuevas
+     * y las publica junto con los cambios que llegaron durante la carga.
+     */
+    private void Warm()
+    {
+        long start = System.nanoTime();
+        IntObjectHashMap<BranchBucket> loadedBranches = new IntObjectHashMap<>();
+        IntObjectHashMap<ProductSlot> loadedProducts = new IntObjectHashMap<>();
+        IntObjectHashMap<IntHashSet> loadedFranchises = new IntObjectHashMap<>();
+
+        try
+        {
+            this.readOnlyTransaction.executeWithoutResult(status -> {
+                this.branchRepository.StreamSnapshot()
+                        .filter(branch -> branch.getFranchiseId() != null)
+                        .forEach(branch -> PutBranch(loadedBranches, loadedFranchises, branch.getId(), branch.getName(), branch.getFranchiseId(), Version(branch.getVersion(), -1)));
+
+                this.productRepository.StreamSnapshot()
+                        .filter(product -> product.getBranchId() != null)
+                        .forEach(product -> PutProduct(loadedBranches, loadedProducts, product.getId(), product.getName(), product.getStock(), product.getBranchId(), Version(product.getVersion(), -1)));
+            });
+        }
+        catch (RuntimeException ex)
+        {
+            log.error("No fue posible cargar el motor de stock por sucursal, se usara la base de datos", ex);
+            return;
+        }
+
+        this.lock.writeLock().lock();
+
+        try
+        {
+            this.branches = loadedBranches;
+            this.products = loadedProducts;
+            this.franchiseBranches = loadedFranchises;
+
+            while (!this.pendingChanges.isEmpty())
+            {
+                this.pendingChanges.poll().run();
+            }
+
+            this.ready = true;
+        }
+        finally
+        {
+            this.lock.writeLock().unlock();
+        }
+
+        log.info("Motor de stock cargado: {} sucursales, {} productos en {} ms",
+                loadedBranches.Size(), loadedProducts.Size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Obtiene, para cada sucursal de una franquicia, su producto de mayor stock.
+     *
+     * @param franchiseId Identificador único de la franquicia.
+     * @return Lista de sucursales con su producto de mayor stock (vacía si la franquicia no tiene sucursales con productos).
+     */
+    public List<BranchMaxProductsListDTO> TopPerBranch(int franchiseId)
+    {
+        this.lock.readLock().lock();
+
+        try
+        {
+            IntHashSet branchIds = this.franchiseBranches.Get(franchiseId);
+            List<BranchMaxProductsListDTO> result = new ArrayList<>();
+
+            if (branchIds == null)
+            {
+                return result;
+            }
+
+            branchIds.ForEach(branchId -> {
+                BranchBucket bucket = this.branches.Get(branchId);
+
+                if (bucket != null && bucket.size > 0)
+                {
+                    int productId = ProductId(bucket.keys[0]);
+                    result.add(new BranchMaxProductsListDTO(branchId, bucket.name, this.products.Get(productId).name, Stock(bucket.keys[0])));
+                }
+            });
+
+            return result;
+        }
+        finally
+        {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si la sucursal está registrada en el motor.
+     *
+     * @param branchId Identificador único de la sucursal.
+     */
+    public boolean HasBranch(int branchId)
+    {
+        this.lock.readLock().lock();
+
+        try
+        {
+            return this.branches.ContainsKey(branchId);
+        }
+        finally
+        {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la franquicia de una sucursal registrada en el motor.
+     *
+     * @param branchId Identificador único de la sucursal.
+     * @return Identificador de la franquicia, o null si la sucursal no está registrada.
+     */
+    public Integer FranchiseOf(int branchId)
+    {
+        this.lock.readLock().lock();
+
+        try
+        {
+            BranchBucket bucket = this.branches.Get(branchId);
+            return bucket == null ? null : bucket.franchiseId;
+        }
+        finally
+        {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los K productos con mayor stock de una sucursal, ordenados por stock descendente.
+     *
+     * @param branchId Identificador único de la sucursal.
+     * @param k Cantidad máxima de productos a retornar.
+     * @return Lista de productos (vacía si la sucursal no existe o no tiene productos).
+     */
+    public List<ProductListDTO> TopProducts(int branchId, int k)
+    {
+        this.lock.readLock().lock();
+
+        try
+        {
+            BranchBucket bucket = this.branches.Get(branchId);
+            List<ProductListDTO> result = new ArrayList<>();
+
+            if (bucket == null)
+            {
+                return result;
+            }
+
+            int limit = Math.min(k, bucket.size);
+
+            for (int i = 0; i < limit; i++)
+            {
+                int productId = ProductId(bucket.keys[i]);
+                result.add(new ProductListDTO(productId, this.products.Get(productId).name, Stock(bucket.keys[i]), bucket.name));
+            }
+
+            return result;
+        }
+        finally
+        {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los productos de una franquicia cuyo stock está dentro del rango indicado,
+     * ordenados por stock ascendente. Como cada sucursal mantiene sus productos ordenados por
+     * stock, el rango se ubica con dos búsquedas binarias por sucursal y de cada una solo se
+     * toman los {@code limit} productos de menor stock.
+     *
+     * @param franchiseId Identificador único de la franquicia.
+     * @param stockBelow Stock máximo exclusivo (null sin límite superior).
+     * @param stockAbove Stock mínimo exclusivo (null sin límite inferior).
+     * @param limit Cantidad máxima de productos a retornar.
+     * @return Lista de productos con su sucursal (vacía si no hay productos en el rango).
+     */
+    public List<ProductSearchDTO> StockRange(int franchiseId, Integer stockBelow, Integer stockAbove, int limit)
+    {
+        // Ningún stock es menor que Integer.MIN_VALUE ni mayor que Integer.MAX_VALUE; descartarlos
+        // antes también evita que stockBelow - 1 desborde al calcular el inicio del rango.
+        if ((stockBelow != null && stockBelow == Integer.MIN_VALUE) || (stockAbove != null && stockAbove == Integer.MAX_VALUE)
+                || (stockBelow != null && stockAbove != null && (long) stockBelow - stockAbove <= 1) || limit < 1)
+        {
+            return new ArrayList<>();
+        }
+
+        this.lock.readLock().lock();
+
+        try
+        {
+            IntHashSet branchIds = this.franchiseBranches.Get(franchiseId);
+            List<long[]> matches = new ArrayList<>();
+
+            if (branchIds == null)
+            {
+                return new ArrayList<>();
+            }
+
+            branchIds.ForEach(branchId -> {
+                BranchBucket bucket = this.branches.Get(branchId);
+
+                if (bucket == null || bucket.size == 0)
+                {
+                    return;
+                }
+
+                // Las llaves crecen cuando el stock decrece: stock < stockBelow empieza en la primera llave
+                // con stock <= stockBelow - 1 y stock > stockAbove termina antes de la primera con stock <= stockAbove.
+                int from = stockBelow == null ? 0 : LowerBound(bucket, (long) ~(stockBelow - 1) << 32);
+                int to = stockAbove == null ? bucket.size : LowerBound(bucket, (long) ~stockAbove << 32);
+
+                for (int i = to - 1; i >= Math.max(from, to - limit); i--)
+                {
+                    matches.add(new long[] { bucket.keys[i], branchId });
+                }
+            });
+
+            matches.sort(Comparator.comparingLong((long[] match) -> match[0]).reversed());
+            List<ProductSearchDTO> result = new ArrayList<>();
+
+            for (int i = 0; i < Math.min(limit, matches.size()); i++)
+            {
+                int productId = ProductId(matches.get(i)[0]);
+                int branchId = (int) matches.get(i)[1];
+                result.add(new ProductSearchDTO(productId, this.products.Get(productId).name, Stock(matches.get(i)[0]), branchId, this.branches.Get(branchId).name));
+            }
+
+            return result;
+        }
+        finally
+        {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posición de la primera llave mayor o igual a la indicada dentro de la sucursal.
+     */
+    private static int LowerBound(BranchBucket bucket, long key)
+    {
+        int position = Arrays.binarySearch(bucket.keys, 0, bucket.size, key);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * Aplica el cambio de un producto, salvo que el motor ya tenga una versión igual o posterior
+     * del producto, o que el producto o su sucursal ya hayan sido eliminados.
+     *
+     * @param event Evento con el estado anterior y posterior del producto.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnProductChanged(ProductChangedEvent event)
+    {
+        ProductDTO before = event.getBefore();
+        ProductDTO after = event.getAfter();
+
+        Apply(() -> {
+            if (after == null)
+            {
+                RemoveProduct(before.getId());
+                this.removedProducts.Add(before.getId());
+                return;
+            }
+
+            ProductSlot current = this.products.Get(after.getId());
+            long version = Version(after.getVersion(), current == null ? -1 : current.version);
+
+            if (this.removedProducts.Contains(after.getId()) || this.removedBranches.Contains(after.getBranchId())
+                    || (current != null && after.getVersion() != null && current.version >= version))
+            {
+                return;
+            }
+
+            PutProduct(this.branches, this.products, after.getId(), after.getName(), after.getStock(), after.getBranchId(), version);
+        });
+    }
+
+    /**
+     * Aplica el cambio de una sucursal, salvo que el motor ya tenga una versión igual o posterior
+     * de la sucursal o que la sucursal ya haya sido eliminada.
+     *
+     * @param event Evento de cambio de la sucursal.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnBranchChanged(BranchChangedEvent event)
+    {
+        if (event.getType() == ChangeType.DELETED)
+        {
+            int branchId = event.getBefore().getId();
+            Apply(() -> RemoveBranch(branchId));
+            return;
+        }
+
+        BranchDTO after = event.getAfter();
+
+        Apply(() -> {
+            BranchBucket current = this.branches.Get(after.getId());
+            long version = Version(after.getVersion(), current == null ? -1 : current.version);
+
+            if (this.removedBranches.Contains(after.getId()) || (current != null && after.getVersion() != null && current.version >= version))
+            {
+                return;
+            }
+
+            PutBranch(this.branches, this.franchiseBranches, after.getId(), after.getName(), after.getFranchiseId(), version);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnFranchiseChanged(FranchiseChangedEvent event)
+    {
+        if (event.getType() != ChangeType.DELETED)
+        {
+            return;
+        }
+
+        int franchiseId = event.getBefore().getId();
+
+        Apply(() -> {
+            IntHashSet branchIds = this.franchiseBranches.Get(franchiseId);
+
+            if (branchIds != null)
+            {
+                for (int branchId : branchIds.ToArray())
+                {
+                    RemoveBranch(branchId);
+                }
+            }
+
+            this.franchiseBranches.Remove(franchiseId);
+        });
+    }
+
+    /**
+     * Aplica un cambio bajo el candado de escritura, o lo encola si el motor aún se está cargando.
+     */
+    private void Apply(Runnable change)
+    {
+        if (!this.enabled)
+        {
+            return;
+        }
+
+        this.lock.writeLock().lock();
+
+        try
+        {
+            if (this.ready)
+            {
+                change.run();
+            }
+            else
+            {
+                this.pendingChanges.add(change);
+            }
+        }
+        finally
+        {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void RemoveProduct(int productId)
+    {
+        ProductSlot slot = this.products.Remove(productId);
+
+        if (slot != null)
+        {
+            BranchBucket bucket = this.branches.Get(slot.branchId);
+
+            if (bucket != null)
+            {
+                bucket.Remove(Key(slot.stock, productId));
+            }
+        }
+    }
+
+    private void RemoveBranch(int branchId)
+    {
+        this.removedBranches.Add(branchId);
+        BranchBucket bucket = this.branches.Remove(branchId);
+
+        if (bucket == null)
+        {
+            return;
+        }
+
+        for (int i = 0; i < bucket.size; i++)
+        {
+            this.products.Remove(ProductId(bucket.keys[i]));
+            this.removedProducts.Add(ProductId(bucket.keys[i]));
+        }
+
+        IntHashSet siblings = this.franchiseBranches.Get(bucket.franchiseId);
+
+        if (siblings != null)
+        {
+            siblings.Remove(branchId);
+        }
+    }
+
+    private static void PutBranch(IntObjectHashMap<BranchBucket> branches, IntObjectHashMap<IntHashSet> franchises,
+                                  int branchId, String name, int franchiseId, long version)
+    {
+        BranchBucket bucket = branches.Get(branchId);
+
+        if (bucket == null)
+        {
+            bucket = new BranchBucket();
+            branches.Put(branchId, bucket);
+        }
+        else if (bucket.franchiseId != franchiseId && franchises.Get(bucket.franchiseId) != null)
+        {
+            franchises.Get(bucket.franchiseId).Remove(branchId);
+        }
+
+        bucket.name = name;
+        bucket.franchiseId = franchiseId;
+        bucket.version = version;
+
+        IntHashSet branchIds = franchises.Get(franchiseId);
+
+        if (branchIds == null)
+        {
+            branchIds = new IntHashSet();
+            franchises.Put(franchiseId, branchIds);
+        }
+
+        branchIds.Add(branchId);
+    }
+
+    private static void PutProduct(IntObjectHashMap<BranchBucket> branches, IntObjectHashMap<ProductSlot> products,
+                                   int productId, String name, int stock, int branchId, long version)
+    {
+        ProductSlot previous = products.Get(productId);
+
+        if (previous != null)
+        {
+            BranchBucket previousBucket = branches.Get(previous.branchId);
+
+            if (previousBucket != null)
+            {
+                previousBucket.Remove(Key(previous.stock, productId));
+            }
+        }
+
+        BranchBucket bucket = branches.Get(branchId);
+
+        if (bucket == null)
+        {
+            // La sucursal aún no es conocida (cambio recibido antes que el de la sucursal);
+            // su nombre y franquicia se completan con el evento de la sucursal.
+            bucket = new BranchBucket();
+            branches.Put(branchId, bucket);
+        }
+
+        products.Put(productId, new ProductSlot(branchId, stock, name, version));
+        bucket.Insert(Key(stock, productId));
+    }
+
+    /**
+     * Codifica (stock, id) en un long cuyo orden natural es stock descendente e id ascendente.
+     */
+    static long Key(int stock, int productId)
+    {
+        return ((long) ~stock << 32) | (productId & 0xFFFFFFFFL);
+    }
+
+    static int Stock(long key)
+    {
+        return ~(int) (key >> 32);
+    }
+
+    static int ProductId(long key)
+    {
+        return (int) key;
+    }
+
+    /**
+     * Versión de un evento o de la carga inicial. Un evento sin versión se aplica siempre y conserva
+     * la versión registrada (fallback).
+     */
+    private static long Version(Long version, long fallback)
+    {
+        return version == null ? fallback : version;
+    }
+
+    private static final class ProductSlot {
+
+        private final int branchId;
+        private final int stock;
+        private final String name;
+        private final long version;
+
+        private ProductSlot(int branchId, int stock, String name, long version)
+        {
+            this.branchId = branchId;
+            this.stock = stock;
+            this.name = name;
+            this.version = version;
+        }
+    }
+
+    private static final class BranchBucket {
+
+        private int franchiseId;
+        private String name;
+        private long version = -1;
+        private long[] keys = EMPTY;
+        private int size;
+
+        private void Insert(long key)
+        {
+            int position = Arrays.binarySearch(this.keys, 0, this.size, key);
+
+            if (position >= 0)
+            {
+                return;
+            }
+
+            position = -position - 1;
+
+            if (this.size == this.keys.length)
+            {
+                this.keys = Arrays.copyOf(this.keys, Math.max(4, this.size * 2));
+            }
+
+            System.arraycopy(this.keys, position, this.keys, position + 1, this.size - position);
+            this.keys[position] = key;
+            this.size++;
+        }
+
+        private void Remove(long key)
+        {
+            int position = Arrays.binarySearch(this.keys, 0, this.size, key);
+
+            if (position < 0)
+            {
+                return;
+            }
+
+            System.arraycopy(this.keys, position + 1, this.keys, position, this.size - position - 1);
+            this.size--;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.ChangeOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relay de la bandeja de salida: cada intervalo lee los eventos de change_events posteriores al
+ * cursor de cada destino habilitado (franchises.outbox.relay.sinks) y los entrega por lotes.
+ * Cada lote se entrega en una transacción que bloquea el cursor del destino (FOR UPDATE SKIP LOCKED)
+ * y lo avanza al último seq entregado, de modo que con varias instancias cada lote lo entrega una sola
+ * a la vez; si la entrega falla el cursor no avanza y el lote se reintenta en el siguiente ciclo.
+ * Un destino con fallos no detiene a los demás: cada uno tiene su propio cursor. El cursor no avanza
+ * sobre un hueco en seq más reciente que franchises.outbox.settle-lag-ms (una transacción que aún no confirma).
+ * También depura los eventos más antiguos que franchises.outbox.retention-hours que ya entregaron
+ * todos los destinos habilitados.
+ */
+@Component
+public class ChangeRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeRelay.class);
+
+    private final ChangeOutboxRepository outboxRepository;
+    private final TransactionTemplate relayTransaction;
+    private final List<ChangeSink> sinks;
+    private final long intervalMs;
+    private final int batchSize;
+    private final int retentionHours;
+    private final int purgeBatch;
+    private final long settleLagMs;
+
+    private ScheduledExecutorService scheduler;
+
+    public ChangeRelay(ChangeOutboxRepository outbox, List<ChangeSink> sinks, PlatformTransactionManager transactionManager,
+                       @Value("${franchises.outbox.relay.sinks:in-process}") List<String> enabledSinks,
+                       @Value("${franchises.outbox.relay.interval-ms:500}") long intervalMs,
+                       @Value("${franchises.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${franchises.outbox.retention-hours:168}") int retentionHours,
+                       @Value("${franchises.outbox.purge-batch:10000}") int purgeBatch,
+                       @Value("${franchises.outbox.settle-lag-ms:5000}") long settleLagMs)
+    {
+        this.outboxRepository = outbox;
+        this.relayTransaction = new TransactionTemplate(transactionManager);
+        this.intervalMs = intervalMs;
+        this.batchSize = batchSize;
+        this.retentionHours = retentionHours;
+        this.purgeBatch = purgeBatch;
+        this.settleLagMs = settleLagMs;
+
+        Set<String> names = new LinkedHashSet<>();
+        enabledSinks.stream().map(String::trim).filter(name -> !name.isEmpty()).forEach(names::add);
+
+        this.sinks = sinks.stream().filter(sink -> names.contains(sink.Name())).toList();
+        this.sinks.forEach(sink -> names.remove(sink.Name()));
+
+        if (!names.isEmpty())
+        {
+            log.warn("Destinos de eventos de cambio no registrados: {}", names);
+        }
+    }
+
+    /**
+     * Crea los cursores de los destinos habilitados y programa el relay
+     * (franchises.outbox.relay.interval-ms, 0 lo deshabilita).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void OnApplicationReady()
+    {
+        if (this.intervalMs <= 0)
+        {
+            return;
+        }
+
+        this.sinks.forEach(sink -> this.outboxRepository.EnsureCursor(sink.Name()));
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::RelaySafely, this.intervalMs, this.intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void Shutdown() throws InterruptedException
+    {
+        if (this.scheduler != null)
+        {
+            this.scheduler.shutdown();
+            this.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void RelaySafely()
+    {
+        for (ChangeSink sink : this.sinks)
+        {
+            try
+            {
+                int delivered;
+
+                do
+                {
+                    Integer batch = this.relayTransaction.execute(status -> DeliverBatch(sink));
+                    delivered = batch == null ? 0 : batch;
+                }
+                while (delivered == this.batchSize);
+            }
+            catch (RuntimeException ex)
+            {
+                log.error("No fue posible entregar los eventos de cambio al destino {}", sink.Name(), ex);
+            }
+        }
+
+        try
+        {
+            Purge();
+        }
+        catch (RuntimeException ex)
+        {
+            log.error("No fue posible depurar los eventos de cambio entregados", ex);
+        }
+    }
+
+    /**
+     * Entrega el siguiente lote de un destino y avanza su cursor.
+     *
+     * @return La cantidad de eventos entregados (0 si no hay eventos o el cursor está bloqueado por otra instancia).
+     */
+    private int DeliverBatch(ChangeSink sink)
+    {
+        Optional<Long> cursor = this.outboxRepository.LockCursor(sink.Name());
+
+        if (cursor.isEmpty())
+        {
+            return 0;
+        }
+
+        List<ChangeEventDTO> events = this.outboxRepository.SearchSettledSince(cursor.get(), this.batchSize, this.settleLagMs);
+
+        if (events.isEmpty())
+        {
+            return 0;
+        }
+
+        try
+        {
+            sink.Deliver(events);
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        this.outboxRepository.SaveCursor(sink.Name(), events.get(events.size() - 1).getSeq());
+        return events.size();
+    }
+
+    /**
+     * Elimina un lote de eventos más antiguos que la retención y ya entregados a todos los destinos habilitados.
+     */
+    private void Purge()
+    {
+        if (this.retentionHours <= 0)
+        {
+            return;
+        }
+
+        long upTo = Long.MAX_VALUE;
+
+        if (!this.sinks.isEmpty())
+        {
+            String[] names = this.sinks.stream().map(ChangeSink::Name).toArray(String[]::new);
+            upTo = this.outboxRepository.SearchMinCursor(names).orElse(0L);
+        }
+
+        long limit = upTo;
+        this.relayTransaction.executeWithoutResult(status -> this.outboxRepository.Purge(limit, this.retentionHours, this.purgeBatch));
+    }
+}
@@ -0,0 +1,27 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino al que el relay (ChangeRelay) entrega los eventos de cambio de la bandeja de salida.
+ * Cada bean que implementa la interfaz es un destino; solo se usan los listados en
+ * franchises.outbox.relay.sinks. La entrega es al menos una vez: si Deliver falla, o la aplicación
+ * se detiene antes de guardar el cursor, el lote se vuelve a entregar completo.
+ */
+public interface ChangeSink {
+
+    /**
+     * Nombre del destino, usado en franchises.outbox.relay.sinks y como clave de su cursor.
+     */
+    String Name();
+
+    /**
+     * Entrega un lote de eventos ordenado por seq. Una excepción deja el cursor sin avanzar.
+     *
+     * @param events Eventos del lote.
+     */
+    void Deliver(List<ChangeEventDTO> events) throws IOException;
+}
@@ -0,0 +1,115 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Destino de archivo: agrega cada lote al final de un archivo NDJSON (un evento por línea).
+ * El lote se escribe con una sola escritura y, con fsync, se fuerza a disco antes de avanzar el cursor.
+ * Como la entrega es al menos una vez, un lote reintentado puede repetir líneas: quien lea el
+ * archivo debe ignorar los seq menores o iguales al último procesado.
+ * El archivo se abre en la primera entrega, por lo que no se crea si el destino no está habilitado.
+ */
+@Component
+public class FileChangeSink implements ChangeSink {
+
+    public static final String NAME = "file";
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final boolean fsync;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+
+    public FileChangeSink(ObjectMapper mapper,
+                          @Value("${franchises.outbox.file.path:./data/change-events.ndjson}") String path,
+                          @Value("${franchises.outbox.file.fsync:false}") boolean fsync)
+    {
+        this.objectMapper = mapper;
+        this.path = Path.of(path);
+        this.fsync = fsync;
+    }
+
+    @Override
+    public String Name()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void Deliver(List<ChangeEventDTO> events) throws IOException
+    {
+        StringBuilder lines = new StringBuilder();
+
+        for (ChangeEventDTO event : events)
+        {
+            lines.append(this.objectMapper.writeValueAsString(event)).append('\n');
+        }
+
+        ByteBuffer content = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        this.lock.lock();
+
+        try
+        {
+            if (this.channel == null)
+            {
+                Path parent = this.path.toAbsolutePath().getParent();
+
+                if (parent != null)
+                {
+                    Files.createDirectories(parent);
+                }
+
+                this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+
+            while (content.hasRemaining())
+            {
+                this.channel.write(content);
+            }
+
+            if (this.fsync)
+            {
+                this.channel.force(false);
+            }
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void Close() throws IOException
+    {
+        this.lock.lock();
+
+        try
+        {
+            if (this.channel != null)
+            {
+                this.channel.force(false);
+                this.channel.close();
+                this.channel = null;
+            }
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeEventsRelayedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Destino en proceso: publica cada lote como ChangeEventsRelayedEvent para los consumidores
+ * de la misma aplicación (@EventListener).
+ */
+@Component
+public class InProcessChangeSink implements ChangeSink {
+
+    public static final String NAME = "in-process";
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InProcessChangeSink(ApplicationEventPublisher publisher)
+    {
+        this.eventPublisher = publisher;
+    }
+
+    @Override
+    public String Name()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void Deliver(List<ChangeEventDTO> events)
+    {
+        this.eventPublisher.publishEvent(new ChangeEventsRelayedEvent(List.copyOf(events)));
+    }
+}
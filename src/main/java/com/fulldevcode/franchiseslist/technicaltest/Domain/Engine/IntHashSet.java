@@ -0,0 +1,180 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto hash de direccionamiento abierto con valores int primitivos.
+ * Igual que {@link IntObjectHashMap}, no admite el valor 0 y no es seguro
+ * para uso concurrente.
+ */
+public final class IntHashSet {
+
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public IntHashSet()
+    {
+        this(8);
+    }
+
+    public IntHashSet(int expectedSize)
+    {
+        Allocate(IntObjectHashMap.Capacity(expectedSize));
+    }
+
+    public boolean Contains(int key)
+    {
+        int index = Slot(key);
+
+        while (this.keys[index] != FREE)
+        {
+            if (this.keys[index] == key)
+            {
+                return true;
+            }
+
+            index = (index + 1) & this.mask;
+        }
+
+        return false;
+    }
+
+    public boolean Add(int key)
+    {
+        if (key == FREE)
+        {
+            throw new IllegalArgumentException("El valor 0 no esta permitido");
+        }
+
+        int index = Slot(key);
+
+        while (this.keys[index] != FREE)
+        {
+            if (this.keys[index] == key)
+            {
+                return false;
+            }
+
+            index = (index + 1) & this.mask;
+        }
+
+        this.keys[index] = key;
+
+        if (++this.size >= this.resizeAt)
+        {
+            Rehash(this.keys.length * 2);
+        }
+
+        return true;
+    }
+
+    public boolean Remove(int key)
+    {
+        int index = Slot(key);
+
+        while (this.keys[index] != FREE)
+        {
+            if (this.keys[index] == key)
+            {
+                ShiftBack(index);
+                this.size--;
+                return true;
+            }
+
+            index = (index + 1) & this.mask;
+        }
+
+        return false;
+    }
+
+    public int Size()
+    {
+        return this.size;
+    }
+
+    public void ForEach(IntConsumer action)
+    {
+        for (int key : this.keys)
+        {
+            if (key != FREE)
+            {
+                action.accept(key);
+            }
+        }
+    }
+
+    public int[] ToArray()
+    {
+        int[] result = new int[this.size];
+        int position = 0;
+
+        for (int key : this.keys)
+        {
+            if (key != FREE)
+            {
+                result[position++] = key;
+            }
+        }
+
+        return result;
+    }
+
+    private void ShiftBack(int gap)
+    {
+        int index = (gap + 1) & this.mask;
+
+        while (this.keys[index] != FREE)
+        {
+            int ideal = Slot(this.keys[index]);
+
+            if (((index - ideal) & this.mask) >= ((index - gap) & this.mask))
+            {
+                this.keys[gap] = this.keys[index];
+                gap = index;
+            }
+
+            index = (index + 1) & this.mask;
+        }
+
+        this.keys[gap] = FREE;
+    }
+
+    private void Rehash(int capacity)
+    {
+        int[] oldKeys = this.keys;
+        Allocate(capacity);
+
+        for (int key : oldKeys)
+        {
+            if (key != FREE)
+            {
+                int index = Slot(key);
+
+                while (this.keys[index] != FREE)
+                {
+                    index = (index + 1) & this.mask;
+                }
+
+                this.keys[index] = key;
+            }
+        }
+    }
+
+    private void Allocate(int capacity)
+    {
+        this.keys = new int[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int Slot(int key)
+    {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+}
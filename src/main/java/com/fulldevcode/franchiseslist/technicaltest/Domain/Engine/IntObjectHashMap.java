@@ -0,0 +1,216 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import java.util.Arrays;
+
+/**
+ * Mapa hash de direccionamiento abierto con llaves int primitivas.
+ * Evita el costo de memoria de las llaves Integer y de los nodos de HashMap
+ * cuando se indexan millones de productos en memoria.
+ * Las llaves deben ser distintas de 0 (se usa como marca de posición libre),
+ * lo cual se cumple para los identificadores generados por la base de datos.
+ * No es seguro para uso concurrente: el llamador debe sincronizar el acceso.
+ *
+ * @param <V> Tipo de los valores almacenados.
+ */
+public final class IntObjectHashMap<V> {
+
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public IntObjectHashMap()
+    {
+        this(16);
+    }
+
+    public IntObjectHashMap(int expectedSize)
+    {
+        Allocate(Capacity(expectedSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V Get(int key)
+    {
+        int index = Slot(key);
+
+        while (this.keys[index] != FREE)
+        {
+            if (this.keys[index] == key)
+            {
+                return (V) this.values[index];
+            }
+
+            index = (index + 1) & this.mask;
+        }
+
+        return null;
+    }
+
+    public boolean ContainsKey(int key)
+    {
+        return Get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V Put(int key, V value)
+    {
+        if (key == FREE)
+        {
+            throw new IllegalArgumentException("La llave 0 no esta permitida");
+        }
+
+        int index = Slot(key);
+
+        while (this.keys[index] != FREE)
+        {
+            if (this.keys[index] == key)
+            {
+                V previous = (V) this.values[index];
+                this.values[index] = value;
+                return previous;
+            }
+
+            index = (index + 1) & this.mask;
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+
+        if (++this.size >= this.resizeAt)
+        {
+            Rehash(this.keys.length * 2);
+        }
+
+        return null;
+    }
+
+    /**
+     * Elimina una llave usando borrado por desplazamiento hacia atrás,
+     * de modo que la tabla no acumula marcas de borrado.
+     */
+    @SuppressWarnings("unchecked")
+    public V Remove(int key)
+    {
+        int index = Slot(key);
+
+        while (this.keys[index] != FREE)
+        {
+            if (this.keys[index] == key)
+            {
+                V previous = (V) this.values[index];
+                ShiftBack(index);
+                this.size--;
+                return previous;
+            }
+
+            index = (index + 1) & this.mask;
+        }
+
+        return null;
+    }
+
+    public int Size()
+    {
+        return this.size;
+    }
+
+    public boolean IsEmpty()
+    {
+        return this.size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void ForEach(IntObjectConsumer<? super V> action)
+    {
+        for (int i = 0; i < this.keys.length; i++)
+        {
+            if (this.keys[i] != FREE)
+            {
+                action.Accept(this.keys[i], (V) this.values[i]);
+            }
+        }
+    }
+
+    public void Clear()
+    {
+        Arrays.fill(this.keys, FREE);
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    private void ShiftBack(int gap)
+    {
+        int index = (gap + 1) & this.mask;
+
+        while (this.keys[index] != FREE)
+        {
+            int ideal = Slot(this.keys[index]);
+
+            if (((index - ideal) & this.mask) >= ((index - gap) & this.mask))
+            {
+                this.keys[gap] = this.keys[index];
+                this.values[gap] = this.values[index];
+                gap = index;
+            }
+
+            index = (index + 1) & this.mask;
+        }
+
+        this.keys[gap] = FREE;
+        this.values[gap] = null;
+    }
+
+    private void Rehash(int capacity)
+    {
+        int[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+
+        Allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != FREE)
+            {
+                int index = Slot(oldKeys[i]);
+
+                while (this.keys[index] != FREE)
+                {
+                    index = (index + 1) & this.mask;
+                }
+
+                this.keys[index] = oldKeys[i];
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void Allocate(int capacity)
+    {
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int Slot(int key)
+    {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    static int Capacity(int expectedSize)
+    {
+        int required = (int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR);
+        return Integer.highestOneBit(required - 1) << 1;
+    }
+
+    @FunctionalInterface
+    public interface IntObjectConsumer<V> {
+        void Accept(int key, V value);
+    }
+}
@@ -0,0 +1,654 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeType;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria por trigramas sobre el nombre de los productos, particionado por
+ * franquicia, para responder "qué sucursales de la franquicia X tienen el producto Y" sin recorrer
+ * cada sucursal. Los nombres se normalizan (minúsculas, sin tildes); una búsqueda de 3 o más
+ * caracteres intersecta las listas de sus trigramas empezando por la más corta y verifica cada
+ * candidato con contains, así que las colisiones del hash del trigrama no producen falsos positivos.
+ * Las búsquedas de 1 o 2 caracteres recorren los productos de la franquicia.
+ * Los resultados se ordenan por stock descendente e id ascendente con un montículo acotado al
+ * tamaño de la página, sin ordenar todas las coincidencias.
+ * Igual que BranchStockEngine, se carga al iniciar la aplicación y se actualiza con los eventos
+ * de cambio después de que cada transacción confirma. Esos eventos no llegan necesariamente en orden
+ * de confirmación: cada producto y sucursal guarda su versión (@Version) y se ignoran los eventos con
+ * una versión igual o anterior, también al aplicar los cambios encolados durante la carga. Los
+ * productos y sucursales eliminados se recuerdan durante franchises.search-index.tombstone-ttl-ms
+ * (Tombstones) para que un evento anterior que llegue después de la eliminación no los vuelva a agregar.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Orden de relevancia: stock descendente, id ascendente.
+     */
+    private static final Comparator<ProductEntry> RANK = (a, b) -> a.stock != b.stock
+            ? Integer.compare(b.stock, a.stock)
+            : Integer.compare(a.id, b.id);
+
+    private final IProduct productRepository;
+    private final IBranch branchRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<Runnable> pendingChanges = new ArrayDeque<>();
+    private final Tombstones removedProducts;
+    private final Tombstones removedBranches;
+
+    private IndexState state = new IndexState();
+    private volatile boolean ready;
+
+    public ProductSearchIndex(IProduct product, IBranch branch, PlatformTransactionManager transactionManager,
+                              @Value("${franchises.search-index.enabled:true}") boolean enabled,
+                              @Value("${franchises.search-index.tombstone-ttl-ms:300000}") long tombstoneTtlMs)
+    {
+        this.productRepository = product;
+        this.branchRepository = branch;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.removedProducts = new Tombstones(tombstoneTtlMs);
+        this.removedBranches = new Tombstones(tombstoneTtlMs);
+    }
+
+    /**
+     * Indica si el índice terminó su carga inicial y puede responder búsquedas.
+     */
+    public boolean IsReady()
+    {
+        return this.ready;
+    }
+
+    /**
+     * Carga el índice en segundo plano al iniciar la aplicación para no retrasar el arranque.
+     * Mientras se carga, los cambios confirmados se encolan y se aplican al finalizar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void OnApplicationReady()
+    {
+        if (!this.enabled)
+        {
+            return;
+        }
+
+        Thread warmup = new Thread(this::Warm, "product-search-index-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    private void Warm()
+    {
+        long start = System.nanoTime();
+        IndexState loaded = new IndexState();
+
+        try
+        {
+            this.readOnlyTransaction.executeWithoutResult(status -> {
+                this.branchRepository.StreamSnapshot()
+                        .filter(branch -> branch.getFranchiseId() != null)
+                        .forEach(branch -> loaded.PutBranch(branch.getId(), branch.getName(), branch.getFranchiseId(), Version(branch.getVersion(), -1)));
+
+                this.productRepository.StreamSnapshot()
+                        .filter(product -> product.getBranchId() != null)
+                        .forEach(product -> loaded.PutProduct(product.getId(), product.getName(), product.getStock(), product.getBranchId(), Version(product.getVersion(), -1)));
+            });
+        }
+        catch (RuntimeException ex)
+        {
+            log.error("No fue posible cargar el indice de busqueda de productos, se usara la base de datos", ex);
+            return;
+        }
+
+        this.lock.writeLock().lock();
+
+        try
+        {
+            this.state = loaded;
+
+            while (!this.pendingChanges.isEmpty())
+            {
+                this.pendingChanges.poll().run();
+            }
+
+            this.ready = true;
+        }
+        finally
+        {
+            this.lock.writeLock().unlock();
+        }
+
+        log.info("Indice de busqueda de productos cargado: {} productos, {} franquicias en {} ms",
+                loaded.products.Size(), loaded.franchises.Size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Busca los productos de una franquicia cuyo nombre contiene el texto indicado
+     * (incluye coincidencias por prefijo), ordenados por stock descendente.
+     *
+     * @param franchiseId Identificador único de la franquicia.
+     * @param query Texto a buscar; se ignoran mayúsculas y tildes.
+     * @param offset Cantidad de resultados a omitir.
+     * @param limit Cantidad máxima de resultados a retornar.
+     * @return Página de productos con su sucursal (vacía si no hay coincidencias).
+     */
+    public List<ProductSearchDTO> Search(int franchiseId, String query, int offset, int limit)
+    {
+        String text = Normalize(query);
+        int bound = offset + limit;
+        PriorityQueue<ProductEntry> top = new PriorityQueue<>(bound, RANK.reversed());
+
+        this.lock.readLock().lock();
+
+        try
+        {
+            FranchisePostings postings = this.state.franchises.Get(franchiseId);
+
+            if (postings == null)
+            {
+                return new ArrayList<>();
+            }
+
+            IntConsumer consider = productId -> {
+                ProductEntry product = this.state.products.Get(productId);
+
+                if (product == null || !product.normalized.contains(text))
+                {
+                    return;
+                }
+
+                if (top.size() < bound)
+                {
+                    top.add(product);
+                }
+                else if (RANK.compare(product, top.peek()) < 0)
+                {
+                    top.poll();
+                    top.add(product);
+                }
+            };
+
+            if (text.length() < 3)
+            {
+                postings.productIds.ForEach(consider);
+            }
+            else
+            {
+                IntHashSet[] lists = new IntHashSet[text.length() - 2];
+                int smallest = 0;
+
+                for (int i = 0; i < lists.length; i++)
+                {
+                    lists[i] = postings.trigrams.Get(Trigram(text, i));
+
+                    if (lists[i] == null)
+                    {
+                        return new ArrayList<>();
+                    }
+
+                    if (lists[i].Size() < lists[smallest].Size())
+                    {
+                        smallest = i;
+                    }
+                }
+
+                IntHashSet candidates = lists[smallest];
+                candidates.ForEach(productId -> {
+                    for (IntHashSet list : lists)
+                    {
+                        if (list != candidates && !list.Contains(productId))
+                        {
+                            return;
+                        }
+                    }
+
+                    consider.accept(productId);
+                });
+            }
+
+            List<ProductEntry> ranked = new ArrayList<>(top);
+            ranked.sort(RANK);
+            List<ProductSearchDTO> result = new ArrayList<>();
+
+            for (int i = offset; i < ranked.size(); i++)
+            {
+                ProductEntry product = ranked.get(i);
+                BranchEntry branch = this.state.branches.Get(product.branchId);
+                result.add(new ProductSearchDTO(product.id, product.name, product.stock, product.branchId, branch == null ? null : branch.name));
+            }
+
+            return result;
+        }
+        finally
+        {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica el cambio de un producto, salvo que el índice ya tenga una versión igual o posterior
+     * del producto, o que el producto o su sucursal hayan sido eliminados recientemente.
+     *
+     * @param event Evento con el estado anterior y posterior del producto.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnProductChanged(ProductChangedEvent event)
+    {
+        ProductDTO before = event.getBefore();
+        ProductDTO after = event.getAfter();
+
+        Apply(() -> {
+            if (after == null)
+            {
+                this.state.RemoveProduct(before.getId());
+                this.removedProducts.Add(before.getId());
+                return;
+            }
+
+            ProductEntry current = this.state.products.Get(after.getId());
+            long version = Version(after.getVersion(), current == null ? -1 : current.version);
+
+            if (this.removedProducts.Contains(after.getId()) || this.removedBranches.Contains(after.getBranchId())
+                    || (current != null && after.getVersion() != null && current.version >= version))
+            {
+                return;
+            }
+
+            this.state.PutProduct(after.getId(), after.getName(), after.getStock(), after.getBranchId(), version);
+        });
+    }
+
+    /**
+     * Aplica el cambio de una sucursal, salvo que el índice ya tenga una versión igual o posterior
+     * de la sucursal o que la sucursal haya sido eliminada recientemente.
+     *
+     * @param event Evento de cambio de la sucursal.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnBranchChanged(BranchChangedEvent event)
+    {
+        if (event.getType() == ChangeType.DELETED)
+        {
+            int branchId = event.getBefore().getId();
+
+            Apply(() -> {
+                this.removedBranches.Add(branchId);
+                this.state.RemoveBranch(branchId, this.removedProducts::Add);
+            });
+            return;
+        }
+
+        BranchDTO after = event.getAfter();
+
+        Apply(() -> {
+            BranchEntry current = this.state.branches.Get(after.getId());
+            long version = Version(after.getVersion(), current == null ? -1 : current.version);
+
+            if (this.removedBranches.Contains(after.getId()) || (current != null && after.getVersion() != null && current.version >= version))
+            {
+                return;
+            }
+
+            this.state.PutBranch(after.getId(), after.getName(), after.getFranchiseId(), version);
+        });
+    }
+
+    /**
+     * Elimina del índice una franquicia con sus sucursales y productos. Las sucursales del evento
+     * (branchIds) se recuerdan como eliminadas aunque el índice aún no las conozca.
+     *
+     * @param event Evento de cambio de la franquicia.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnFranchiseChanged(FranchiseChangedEvent event)
+    {
+        if (event.getType() != ChangeType.DELETED)
+        {
+            return;
+        }
+
+        int franchiseId = event.getBefore().getId();
+        List<Integer> branchIds = event.getBranchIds();
+
+        Apply(() -> {
+            branchIds.forEach(this.removedBranches::Add);
+            this.state.RemoveFranchise(franchiseId, this.removedBranches::Add, this.removedProducts::Add);
+        });
+    }
+
+    /**
+     * Aplica un cambio bajo el candado de escritura, o lo encola si el índice aún se está cargando.
+     */
+    private void Apply(Runnable change)
+    {
+        if (!this.enabled)
+        {
+            return;
+        }
+
+        this.lock.writeLock().lock();
+
+        try
+        {
+            if (this.ready)
+            {
+                change.run();
+            }
+            else
+            {
+                this.pendingChanges.add(change);
+            }
+        }
+        finally
+        {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Versión de un evento o de la carga inicial. Un evento sin versión se aplica siempre y conserva
+     * la versión registrada (fallback).
+     */
+    private static long Version(Long version, long fallback)
+    {
+        return version == null ? fallback : version;
+    }
+
+    /**
+     * Normaliza un texto para indexarlo o buscarlo: sin tildes y en minúsculas.
+     */
+    static String Normalize(String text)
+    {
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Hash del trigrama que inicia en la posición indicada. Nunca es 0, que los mapas no admiten.
+     */
+    static int Trigram(String text, int position)
+    {
+        int hash = ((text.charAt(position) << 16) | text.charAt(position + 1)) * 31 + text.charAt(position + 2);
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static final class IndexState {
+
+        private final IntObjectHashMap<ProductEntry> products = new IntObjectHashMap<>();
+        private final IntObjectHashMap<BranchEntry> branches = new IntObjectHashMap<>();
+        private final IntObjectHashMap<FranchisePostings> franchises = new IntObjectHashMap<>();
+
+        private void PutBranch(int branchId, String name, int franchiseId, long version)
+        {
+            BranchEntry branch = Branch(branchId);
+            branch.name = name;
+            branch.version = version;
+
+            if (branch.franchiseId == franchiseId)
+            {
+                return;
+            }
+
+            // La sucursal cambió de franquicia (o se conoce su franquicia por primera vez):
+            // sus productos pasan a las listas de la nueva franquicia.
+            FranchisePostings previous = branch.franchiseId == 0 ? null : this.franchises.Get(branch.franchiseId);
+            FranchisePostings current = Franchise(franchiseId);
+
+            branch.productIds.ForEach(productId -> {
+                ProductEntry product = this.products.Get(productId);
+
+                if (previous != null)
+                {
+                    previous.Remove(product);
+                }
+
+                current.Add(product);
+            });
+
+            if (previous != null)
+            {
+                previous.branchIds.Remove(branchId);
+            }
+
+            current.branchIds.Add(branchId);
+            branch.franchiseId = franchiseId;
+        }
+
+        private void PutProduct(int productId, String name, int stock, int branchId, long version)
+        {
+            ProductEntry previous = this.products.Get(productId);
+
+            if (previous != null && previous.branchId == branchId && previous.name.equals(name))
+            {
+                // Solo cambió el stock: las listas de trigramas no se modifican.
+                previous.stock = stock;
+                previous.version = version;
+                return;
+            }
+
+            if (previous != null)
+            {
+                RemoveProduct(productId);
+            }
+
+            ProductEntry product = new ProductEntry(productId, name, stock, branchId, version);
+            BranchEntry branch = Branch(branchId);
+
+            this.products.Put(productId, product);
+            branch.productIds.Add(productId);
+
+            if (branch.franchiseId != 0)
+            {
+                Franchise(branch.franchiseId).Add(product);
+            }
+        }
+
+        private void RemoveProduct(int productId)
+        {
+            ProductEntry product = this.products.Remove(productId);
+
+            if (product == null)
+            {
+                return;
+            }
+
+            BranchEntry branch = this.branches.Get(product.branchId);
+
+            if (branch != null)
+            {
+                branch.productIds.Remove(productId);
+                FranchisePostings postings = branch.franchiseId == 0 ? null : this.franchises.Get(branch.franchiseId);
+
+                if (postings != null)
+                {
+                    postings.Remove(product);
+                }
+            }
+        }
+
+        private void RemoveBranch(int branchId, IntConsumer removedProduct)
+        {
+            BranchEntry branch = this.branches.Remove(branchId);
+
+            if (branch == null)
+            {
+                return;
+            }
+
+            FranchisePostings postings = branch.franchiseId == 0 ? null : this.franchises.Get(branch.franchiseId);
+
+            branch.productIds.ForEach(productId -> {
+                ProductEntry product = this.products.Remove(productId);
+                removedProduct.accept(productId);
+
+                if (postings != null && product != null)
+                {
+                    postings.Remove(product);
+                }
+            });
+
+            if (postings != null)
+            {
+                postings.branchIds.Remove(branchId);
+            }
+        }
+
+        private void RemoveFranchise(int franchiseId, IntConsumer removedBranch, IntConsumer removedProduct)
+        {
+            FranchisePostings postings = this.franchises.Remove(franchiseId);
+
+            if (postings == null)
+            {
+                return;
+            }
+
+            for (int branchId : postings.branchIds.ToArray())
+            {
+                BranchEntry branch = this.branches.Remove(branchId);
+                removedBranch.accept(branchId);
+
+                if (branch != null)
+                {
+                    branch.productIds.ForEach(productId -> {
+                        this.products.Remove(productId);
+                        removedProduct.accept(productId);
+                    });
+                }
+            }
+        }
+
+        private BranchEntry Branch(int branchId)
+        {
+            BranchEntry branch = this.branches.Get(branchId);
+
+            if (branch == null)
+            {
+                // La sucursal aún no es conocida (cambio recibido antes que el de la sucursal);
+                // sus productos se indexan cuando llega su franquicia con el evento de la sucursal.
+                branch = new BranchEntry();
+                this.branches.Put(branchId, branch);
+            }
+
+            return branch;
+        }
+
+        private FranchisePostings Franchise(int franchiseId)
+        {
+            FranchisePostings postings = this.franchises.Get(franchiseId);
+
+            if (postings == null)
+            {
+                postings = new FranchisePostings();
+                this.franchises.Put(franchiseId, postings);
+            }
+
+            return postings;
+        }
+    }
+
+    private static final class FranchisePostings {
+
+        private final IntHashSet branchIds = new IntHashSet();
+        private final IntHashSet productIds = new IntHashSet();
+        private final IntObjectHashMap<IntHashSet> trigrams = new IntObjectHashMap<>();
+
+        private void Add(ProductEntry product)
+        {
+            this.productIds.Add(product.id);
+
+            for (int i = 0; i + 3 <= product.normalized.length(); i++)
+            {
+                int trigram = Trigram(product.normalized, i);
+                IntHashSet list = this.trigrams.Get(trigram);
+
+                if (list == null)
+                {
+                    list = new IntHashSet(4);
+                    this.trigrams.Put(trigram, list);
+                }
+
+                list.Add(product.id);
+            }
+        }
+
+        private void Remove(ProductEntry product)
+        {
+            this.productIds.Remove(product.id);
+
+            for (int i = 0; i + 3 <= product.normalized.length(); i++)
+            {
+                int trigram = Trigram(product.normalized, i);
+                IntHashSet list = this.trigrams.Get(trigram);
+
+                if (list != null && list.Remove(product.id) && list.Size() == 0)
+                {
+                    this.trigrams.Remove(trigram);
+                }
+            }
+        }
+    }
+
+    private static final class BranchEntry {
+
+        private int franchiseId;
+        private String name;
+        private long version = -1;
+        private final IntHashSet productIds = new IntHashSet(4);
+    }
+
+    private static final class ProductEntry {
+
+        private final int id;
+        private final String name;
+        private final String normalized;
+        private final int branchId;
+        private int stock;
+        private long version;
+
+        private ProductEntry(int id, String name, int stock, int branchId, long version)
+        {
+            String normalized = Normalize(name);
+
+            this.id = id;
+            this.name = name;
+            this.normalized = normalized.equals(name) ? name : normalized;
+            this.branchId = branchId;
+            this.stock = stock;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,586 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeType;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.ProductStockRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Acumulador en memoria (write-behind) de deltas de stock por producto.
+ * Los movimientos se suman por producto, separando los ingresos (deltas positivos) de las salidas
+ * (deltas negativos), y se vacían hacia products.stock cada cierto intervalo o al superar un umbral
+ * de movimientos, con un único UPDATE por lote (ver ProductStockRepository.AdjustBatch).
+ * Opcionalmente cada movimiento se escribe en un diario local (StockDeltaJournal) antes de
+ * acumularse; el diario se reproduce al reiniciar y el punto de control se guarda en la
+ * misma transacción del UPDATE, por lo que ningún delta se pierde ni se aplica dos veces.
+ * Si el delta neto de un producto dejaría el stock en negativo, se aplican solo sus ingresos y se
+ * rechazan sus salidas, registrando en el log los productos y unidades rechazadas; los deltas de
+ * productos inexistentes se descartan.
+ * Cada producto conserva un par de LongAdder (ingresos y salidas) mientras exista: encolar un
+ * movimiento no reserva memoria ni compite por una entrada del mapa, y el vaciado retira los
+ * acumulados con sumThenReset.
+ */
+@Component
+public class StockDeltaCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(StockDeltaCoalescer.class);
+    private static final int FLUSH_CHUNK = 5000;
+
+    private final ProductStockRepository stockRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long flushIntervalMs;
+    private final int flushThreshold;
+    private final StockDeltaJournal journal;
+
+    private final ConcurrentHashMap<Integer, Counter> pending = new ConcurrentHashMap<>();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Integer, Long> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedSinceFlush = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final StampedLock drainLock = new StampedLock();
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean ready;
+
+    public StockDeltaCoalescer(ProductStockRepository stock, JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher publisher,
+                               @Value("${franchises.stock-coalescer.enabled:true}") boolean enabled,
+                               @Value("${franchises.stock-coalescer.flush-interval-ms:200}") long flushIntervalMs,
+                               @Value("${franchises.stock-coalescer.flush-threshold:10000}") int flushThreshold,
+                               @Value("${franchises.stock-coalescer.journal.enabled:false}") boolean journalEnabled,
+                               @Value("${franchises.stock-coalescer.journal.dir:./data/stock-journal}") String journalDir,
+                               @Value("${franchises.stock-coalescer.journal.fsync:false}") boolean fsync)
+    {
+        this.stockRepository = stock;
+        this.jdbcTemplate = jdbc;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = publisher;
+        this.enabled = enabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushThreshold = flushThreshold;
+
+        try
+        {
+            this.journal = enabled && journalEnabled ? new StockDeltaJournal(Path.of(journalDir), fsync, ReadCheckpoint()) : null;
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException("No fue posible abrir el diario de deltas de stock en " + journalDir, ex);
+        }
+    }
+
+    /**
+     * Indica si el acumulador está habilitado y acepta movimientos.
+     */
+    public boolean IsEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * Encola un movimiento de stock. Con el diario habilitado, el movimiento queda
+     * escrito en disco antes de retornar.
+     *
+     * @param productId Identificador del producto.
+     * @param delta Cantidad a sumar al stock (negativa para descontar).
+     */
+    public void Enqueue(int productId, int delta)
+    {
+        if (this.journal != null)
+        {
+            this.journalLock.readLock().lock();
+
+            try
+            {
+                this.journal.Append(productId, delta);
+                Accumulate(productId, delta);
+            }
+            catch (IOException ex)
+            {
+                throw new UncheckedIOException("No fue posible escribir el movimiento en el diario de stock", ex);
+            }
+            finally
+            {
+                this.journalLock.readLock().unlock();
+            }
+        }
+        else
+        {
+            Accumulate(productId, delta);
+        }
+
+        if (this.queuedSinceFlush.incrementAndGet() >= this.flushThreshold && this.ready
+                && this.flushRequested.compareAndSet(false, true))
+        {
+            this.scheduler.execute(this::FlushSafely);
+        }
+    }
+
+    /**
+     * Obtiene la suma de los deltas de un producto que aún no se han confirmado en la base de datos.
+     * Un delta pasa del acumulado a los deltas en vuelo bajo drainLock: la lectura optimista se
+     * repite con el bloqueo si coincidió con ese traspaso, para no omitir ni contar dos veces el delta.
+     */
+    public long Pending(int productId)
+    {
+        long stamp = this.drainLock.tryOptimisticRead();
+        long pending = PendingUnlocked(productId);
+
+        if (!this.drainLock.validate(stamp))
+        {
+            stamp = this.drainLock.readLock();
+
+            try
+            {
+                pending = PendingUnlocked(productId);
+            }
+            finally
+            {
+                this.drainLock.unlockRead(stamp);
+            }
+        }
+
+        return pending;
+    }
+
+    private long PendingUnlocked(int productId)
+    {
+        Counter queued = this.pending.get(productId);
+        Long flushing = this.inFlight.get(productId);
+        return (queued == null ? 0 : queued.Net()) + (flushing == null ? 0 : flushing);
+    }
+
+    /**
+     * Reproduce el diario pendiente y programa el vaciado periódico. Ningún vaciado
+     * ocurre antes de reproducir el diario, para no adelantar el punto de control
+     * sobre segmentos que aún no se han aplicado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void OnApplicationReady()
+    {
+        if (!this.enabled)
+        {
+            return;
+        }
+
+        if (this.journal != null)
+        {
+            try
+            {
+                long checkpoint = ReadCheckpoint();
+                this.journal.Replay(checkpoint, this::Accumulate);
+                this.journal.DeleteUpTo(checkpoint);
+            }
+            catch (IOException ex)
+            {
+                throw new UncheckedIOException("No fue posible reproducir el diario de deltas de stock", ex);
+            }
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-delta-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ready = true;
+        this.scheduler.scheduleWithFixedDelay(this::FlushSafely, this.flushIntervalMs, this.flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Descarta los deltas pendientes de un producto eliminado.
+     *
+     * @param event Evento de cambio del producto.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnProductChanged(ProductChangedEvent event)
+    {
+        if (event.getType() == ChangeType.DELETED)
+        {
+            this.dirty.remove(event.getBefore().getId());
+            this.pending.remove(event.getBefore().getId());
+        }
+    }
+
+    /**
+     * Detiene el vaciado periódico y confirma los deltas pendientes antes de cerrar la aplicación.
+     */
+    @PreDestroy
+    public void Shutdown() throws InterruptedException, IOException
+    {
+        if (this.scheduler != null)
+        {
+            this.scheduler.shutdown();
+            this.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            FlushSafely();
+        }
+
+        if (this.journal != null)
+        {
+            this.journal.Close();
+        }
+    }
+
+    private void FlushSafely()
+    {
+        try
+        {
+            Flush();
+        }
+        catch (RuntimeException | IOException ex)
+        {
+            log.error("No fue posible vaciar los deltas de stock acumulados", ex);
+        }
+    }
+
+    /**
+     * Toma los deltas acumulados y los aplica en una transacción. Si la transacción falla
+     * los deltas vuelven al acumulador y se reintentan en el siguiente vaciado.
+     * Se serializa con ReentrantLock: el vaciado espera a la base de datos y un synchronized
+     * fijaría el hilo portador si se invoca desde un hilo virtual.
+     */
+    private void Flush() throws IOException
+    {
+        this.flushLock.lock();
+
+        try
+        {
+            FlushLocked();
+        }
+        finally
+        {
+            this.flushLock.unlock();
+        }
+    }
+
+    private void FlushLocked() throws IOException
+    {
+        this.flushRequested.set(false);
+        this.queuedSinceFlush.set(0);
+
+        if (this.dirty.isEmpty())
+        {
+            return;
+        }
+
+        Map<Integer, Delta> drained = new HashMap<>();
+        long closedSegment = 0;
+
+        if (this.journal != null)
+        {
+            this.journalLock.writeLock().lock();
+
+            try
+            {
+                closedSegment = this.journal.Rotate();
+                Drain(drained);
+            }
+            finally
+            {
+                this.journalLock.writeLock().unlock();
+            }
+        }
+        else
+        {
+            Drain(drained);
+        }
+
+        if (drained.isEmpty())
+        {
+            return;
+        }
+
+        long checkpoint = closedSegment;
+
+        try
+        {
+            this.flushTransaction.executeWithoutResult(status -> Apply(drained, checkpoint));
+            this.inFlight.clear();
+        }
+        catch (RuntimeException ex)
+        {
+            Requeue(drained);
+            throw ex;
+        }
+
+        if (this.journal != null)
+        {
+            this.journal.DeleteUpTo(closedSegment);
+        }
+    }
+
+    /**
+     * Aplica el delta neto de cada producto y, a los productos cuyo neto dejaría el stock en negativo,
+     * solo sus ingresos: un reabastecimiento nunca se pierde por salidas acumuladas en el mismo vaciado.
+     */
+    private void Apply(Map<Integer, Delta> drained, long checkpoint)
+    {
+        List<Map.Entry<Integer, Delta>> entries = new ArrayList<>(drained.entrySet());
+        Map<Integer, Long> rejectedSales = new TreeMap<>();
+        int missing = 0;
+
+        for (int from = 0; from < entries.size(); from += FLUSH_CHUNK)
+        {
+            List<Map.Entry<Integer, Delta>> chunk = entries.subList(from, Math.min(from + FLUSH_CHUNK, entries.size()));
+            Map<Integer, Long> net = new LinkedHashMap<>();
+
+            for (Map.Entry<Integer, Delta> entry : chunk)
+            {
+                net.put(entry.getKey(), entry.getValue().Net());
+            }
+
+            Set<Integer> applied = AdjustAndPublish(net);
+            Map<Integer, Long> restocks = new LinkedHashMap<>();
+
+            for (Map.Entry<Integer, Delta> entry : chunk)
+            {
+                if (!applied.contains(entry.getKey()) && entry.getValue().increase() > 0 && entry.getValue().decrease() > 0)
+                {
+                    restocks.put(entry.getKey(), entry.getValue().increase());
+                }
+            }
+
+            Set<Integer> restocked = restocks.isEmpty() ? Set.of() : AdjustAndPublish(restocks);
+
+            for (Map.Entry<Integer, Delta> entry : chunk)
+            {
+                Integer productId = entry.getKey();
+                Delta delta = entry.getValue();
+
+                if (applied.contains(productId))
+                {
+                    continue;
+                }
+
+                if (delta.decrease() > 0 && (restocked.contains(productId) || !restocks.containsKey(productId)))
+                {
+                    rejectedSales.put(productId, delta.decrease());
+                }
+                else
+                {
+                    missing++;
+                }
+            }
+        }
+
+        if (this.journal != null)
+        {
+            this.jdbcTemplate.update("UPDATE stock_journal_checkpoint SET segment = GREATEST(segment, ?) WHERE id = 1", checkpoint);
+        }
+
+        if (!rejectedSales.isEmpty())
+        {
+            long units = rejectedSales.values().stream().mapToLong(Long::longValue).sum();
+            log.warn("Se rechazaron salidas de stock por {} unidades en {} productos sin stock suficiente o inexistentes (producto=unidades): {}",
+                    units, rejectedSales.size(), rejectedSales);
+        }
+
+        if (missing > 0)
+        {
+            log.warn("Se descartaron los deltas de stock de {} productos inexistentes o fuera de rango", missing);
+        }
+    }
+
+    /**
+     * Aplica los deltas en una sentencia y publica el cambio de cada producto ajustado. Los oyentes
+     * dentro de la transacción (proyección de productos con más stock y contadores) solo acumulan los
+     * cambios y los aplican por conjuntos al confirmar el vaciado; los eventos de cada producto se
+     * conservan para los oyentes posteriores a la confirmación.
+     *
+     * @return Los productos ajustados. Los deltas fuera del rango de int no se aplican.
+     */
+    private Set<Integer> AdjustAndPublish(Map<Integer, Long> deltas)
+    {
+        List<Integer> ids = new ArrayList<>(deltas.size());
+        List<Integer> values = new ArrayList<>(deltas.size());
+
+        deltas.forEach((productId, delta) -> {
+            if (delta >= Integer.MIN_VALUE && delta <= Integer.MAX_VALUE)
+            {
+                ids.add(productId);
+                values.add(delta.intValue());
+            }
+        });
+
+        if (ids.isEmpty())
+        {
+            return Set.of();
+        }
+
+        List<ProductDTO> updated = this.stockRepository.AdjustBatch(ids.toArray(new Integer[0]), values.toArray(new Integer[0]));
+        Set<Integer> applied = new HashSet<>();
+
+        for (ProductDTO product : updated)
+        {
+            ProductDTO before = new ProductDTO();
+            before.setId(product.getId());
+            before.setName(product.getName());
+            before.setStock((int) (product.getStock() - deltas.get(product.getId())));
+            before.setBranchId(product.getBranchId());
+            this.eventPublisher.publishEvent(ProductChangedEvent.Updated(before, product));
+            applied.add(product.getId());
+        }
+
+        return applied;
+    }
+
+    private long ReadCheckpoint()
+    {
+        Long checkpoint = this.jdbcTemplate.queryForObject("SELECT segment FROM stock_journal_checkpoint WHERE id = 1", Long.class);
+        return checkpoint == null ? 0 : checkpoint;
+    }
+
+    /**
+     * Retira los deltas de los productos marcados como modificados y los publica como deltas en vuelo
+     * en el mismo paso, bajo drainLock. El producto se desmarca antes de leer su contador: un
+     * movimiento concurrente vuelve a marcarlo y se incluye en este vaciado o en el siguiente.
+     */
+    private void Drain(Map<Integer, Delta> into)
+    {
+        long stamp = this.drainLock.writeLock();
+
+        try
+        {
+            for (Integer productId : this.dirty)
+            {
+                this.dirty.remove(productId);
+                Counter counter = this.pending.get(productId);
+                Delta delta = counter == null ? null : counter.Take();
+
+                if (delta != null && !delta.IsEmpty())
+                {
+                    into.put(productId, delta);
+                    this.inFlight.put(productId, delta.Net());
+                }
+            }
+        }
+        finally
+        {
+            this.drainLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Devuelve al acumulado los deltas de un vaciado fallido y los retira de los deltas en vuelo.
+     */
+    private void Requeue(Map<Integer, Delta> drained)
+    {
+        long stamp = this.drainLock.writeLock();
+
+        try
+        {
+            drained.forEach((productId, delta) -> {
+                Counter counter = CounterOf(productId);
+                counter.increase.add(delta.increase());
+                counter.decrease.add(delta.decrease());
+                this.dirty.add(productId);
+            });
+            this.inFlight.clear();
+        }
+        finally
+        {
+            this.drainLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Suma el movimiento al contador de ingresos o de salidas del producto. Un movimiento es un solo
+     * LongAdder.add, por lo que nunca queda repartido entre dos vaciados.
+     */
+    private void Accumulate(int productId, long delta)
+    {
+        Integer key = productId;
+        Counter counter = CounterOf(key);
+
+        if (delta >= 0)
+        {
+            counter.increase.add(delta);
+        }
+        else
+        {
+            counter.decrease.add(-delta);
+        }
+
+        this.dirty.add(key);
+    }
+
+    /**
+     * El contador ya existe para casi todos los movimientos: get no bloquea, y computeIfAbsent
+     * solo se usa la primera vez que se mueve el stock del producto.
+     */
+    private Counter CounterOf(Integer productId)
+    {
+        Counter counter = this.pending.get(productId);
+        return counter != null ? counter : this.pending.computeIfAbsent(productId, id -> new Counter());
+    }
+
+    /**
+     * Ingresos y salidas acumulados de un producto desde el último vaciado.
+     */
+    private static final class Counter {
+
+        private final LongAdder increase = new LongAdder();
+        private final LongAdder decrease = new LongAdder();
+
+        long Net()
+        {
+            return this.increase.sum() - this.decrease.sum();
+        }
+
+        /**
+         * sumThenReset retira cada celda con getAndSet, así un add concurrente queda en este
+         * resultado o en el siguiente, nunca se pierde.
+         */
+        Delta Take()
+        {
+            return new Delta(this.increase.sumThenReset(), this.decrease.sumThenReset());
+        }
+    }
+
+    /**
+     * Movimientos retirados de un producto en un vaciado: suma de ingresos y suma de salidas (en unidades positivas).
+     */
+    private record Delta(long increase, long decrease) {
+
+        long Net()
+        {
+            return this.increase - this.decrease;
+        }
+
+        boolean IsEmpty()
+        {
+            return this.increase == 0 && this.decrease == 0;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Diario local de solo escritura al final (append-only) de los deltas de stock encolados.
+ * Se divide en segmentos numerados: cada vaciado del acumulador cierra el segmento actual
+ * y abre uno nuevo, de modo que un segmento cerrado contiene exactamente los deltas
+ * incluidos en ese vaciado (o en uno posterior, si el vaciado falla).
+ * Cada registro ocupa 8 bytes (id del producto y delta); un registro incompleto al final
+ * de un segmento, producto de una caída durante la escritura, se ignora al reproducirlo.
+ * La escritura se protege con ReentrantLock y no con synchronized: Append se ejecuta en el hilo
+ * de la solicitud y, con hilos virtuales, un bloque synchronized con E/S fija el hilo portador.
+ */
+final class StockDeltaJournal {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".journal";
+    private static final int RECORD_BYTES = 8;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long currentSegment;
+
+    /**
+     * Abre el diario en el segmento siguiente al mayor entre los segmentos existentes y el punto de control.
+     * Si el directorio se vacía o se reemplaza (por ejemplo, un volumen nuevo) la numeración continúa
+     * después del punto de control: un segmento nuevo con número menor o igual se omitiría al reproducir
+     * y se eliminaría con DeleteUpTo.
+     *
+     * @param checkpoint Último segmento confirmado en la base de datos.
+     */
+    StockDeltaJournal(Path directory, boolean fsync, long checkpoint) throws IOException
+    {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+
+        long last = checkpoint;
+
+        for (long segment : Segments())
+        {
+            last = Math.max(last, segment);
+        }
+
+        Open(last + 1);
+    }
+
+    long CurrentSegment()
+    {
+        return this.currentSegment;
+    }
+
+    void Append(int productId, int delta) throws IOException
+    {
+        this.lock.lock();
+
+        try
+        {
+            this.record.clear();
+            this.record.putInt(productId).putInt(delta).flip();
+
+            while (this.record.hasRemaining())
+            {
+                this.channel.write(this.record);
+            }
+
+            if (this.fsync)
+            {
+                this.channel.force(false);
+            }
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Cierra el segmento actual y abre el siguiente.
+     *
+     * @return El número del segmento cerrado.
+     */
+    long Rotate() throws IOException
+    {
+        this.lock.lock();
+
+        try
+        {
+            long closed = this.currentSegment;
+            this.channel.force(false);
+            this.channel.close();
+            Open(closed + 1);
+            return closed;
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Reproduce, en orden, los registros de los segmentos cerrados posteriores al punto de control.
+     */
+    void Replay(long checkpoint, DeltaConsumer consumer) throws IOException
+    {
+        for (long segment : Segments())
+        {
+            if (segment <= checkpoint || segment >= this.currentSegment)
+            {
+                continue;
+            }
+
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(SegmentPath(segment)));
+
+            while (content.remaining() >= RECORD_BYTES)
+            {
+                consumer.Accept(content.getInt(), content.getInt());
+            }
+        }
+    }
+
+    /**
+     * Elimina los segmentos cerrados cuyo contenido ya fue confirmado en la base de datos.
+     */
+    void DeleteUpTo(long segment) throws IOException
+    {
+        for (long existing : Segments())
+        {
+            if (existing <= segment && existing < this.currentSegment)
+            {
+                Files.deleteIfExists(SegmentPath(existing));
+            }
+        }
+    }
+
+    void Close() throws IOException
+    {
+        this.lock.lock();
+
+        try
+        {
+            this.channel.force(false);
+            this.channel.close();
+        }
+        finally
+        {
+            this.lock.unlock();
+        }
+    }
+
+    private void Open(long segment) throws IOException
+    {
+        this.channel = FileChannel.open(SegmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.currentSegment = segment;
+    }
+
+    private List<Long> Segments() throws IOException
+    {
+        List<Long> segments = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(this.directory))
+        {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> segments.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path SegmentPath(long segment)
+    {
+        return this.directory.resolve(PREFIX + String.format("%020d", segment) + SUFFIX);
+    }
+
+    @FunctionalInterface
+    interface DeltaConsumer {
+
+        void Accept(int productId, int delta);
+    }
+}
@@ -0,0 +1,66 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import java.util.ArrayDeque;
+import java.util.function.LongSupplier;
+
+/**
+ * Identificadores eliminados recientemente, para que un evento anterior a la eliminación que llegue
+ * después de ella no vuelva a agregar la entidad a una estructura en memoria. Los eventos de cambio
+ * solo se desordenan durante un intervalo corto después de confirmar, así que cada identificador se
+ * olvida pasado el tiempo de vida (ttlMs) y el conjunto no crece con cada eliminación.
+ * Igual que {@link IntHashSet}, no admite el valor 0 y no es seguro para uso concurrente.
+ */
+public final class Tombstones {
+
+    private final IntHashSet ids = new IntHashSet();
+    private final ArrayDeque<Tombstone> expirations = new ArrayDeque<>();
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    public Tombstones(long ttlMs)
+    {
+        this(ttlMs, System::nanoTime);
+    }
+
+    Tombstones(long ttlMs, LongSupplier clock)
+    {
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.clock = clock;
+    }
+
+    public void Add(int id)
+    {
+        long now = this.clock.getAsLong();
+        Prune(now);
+
+        if (this.ids.Add(id))
+        {
+            this.expirations.add(new Tombstone(id, now + this.ttlNanos));
+        }
+    }
+
+    public boolean Contains(int id)
+    {
+        Prune(this.clock.getAsLong());
+        return this.ids.Contains(id);
+    }
+
+    public int Size()
+    {
+        return this.ids.Size();
+    }
+
+    /**
+     * Olvida los identificadores vencidos. Se agregan en orden de vencimiento, así que basta revisar el inicio de la cola.
+     */
+    private void Prune(long now)
+    {
+        while (!this.expirations.isEmpty() && this.expirations.peek().expiresAt() - now <= 0)
+        {
+            this.ids.Remove(this.expirations.poll().id());
+        }
+    }
+
+    private record Tombstone(int id, long expiresAt) {
+    }
+}
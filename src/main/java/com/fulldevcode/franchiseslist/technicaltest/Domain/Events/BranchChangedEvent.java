@@ -0,0 +1,39 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Events;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado por la capa de servicios cada vez que se crea, actualiza
+ * o elimina una sucursal. La eliminación de una sucursal implica la eliminación
+ * de todos sus productos.
+ * - before: estado de la sucursal antes del cambio (null al crear).
+ * - after: estado de la sucursal después del cambio (null al eliminar).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BranchChangedEvent {
+
+    private final ChangeType type;
+
+    private final BranchDTO before;
+
+    private final BranchDTO after;
+
+    public static BranchChangedEvent Created(BranchDTO after)
+    {
+        return new BranchChangedEvent(ChangeType.CREATED, null, after);
+    }
+
+    public static BranchChangedEvent Updated(BranchDTO before, BranchDTO after)
+    {
+        return new BranchChangedEvent(ChangeType.UPDATED, before, after);
+    }
+
+    public static BranchChangedEvent Deleted(BranchDTO before)
+    {
+        return new BranchChangedEvent(ChangeType.DELETED, before, null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Events;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Evento publicado por el destino en proceso (InProcessChangeSink) con cada lote de eventos
+ * de cambio entregado por el relay, en orden de seq. Se publica en el hilo del relay: un
+ * consumidor que lanza una excepción hace que el lote se reintente en el siguiente ciclo,
+ * por lo que los consumidores deben ignorar los seq ya procesados.
+ * - events: eventos del lote, ordenados por seq.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeEventsRelayedEvent {
+
+    private final List<ChangeEventDTO> events;
+}
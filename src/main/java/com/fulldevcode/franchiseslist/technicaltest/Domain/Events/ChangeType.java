@@ -0,0 +1,10 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Events;
+
+/**
+ * Tipo de cambio aplicado sobre una entidad del sistema.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
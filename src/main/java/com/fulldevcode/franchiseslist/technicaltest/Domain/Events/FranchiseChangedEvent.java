@@ -0,0 +1,43 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Events;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Evento publicado por la capa de servicios cada vez que se crea, actualiza
+ * o elimina una franquicia.
+ * - before: estado de la franquicia antes del cambio (null al crear).
+ * - after: estado de la franquicia después del cambio (null al eliminar).
+ * - branchIds: al eliminar, identificadores de las sucursales que se eliminan en cascada.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class FranchiseChangedEvent {
+
+    private final ChangeType type;
+
+    private final FranchiseDTO before;
+
+    private final FranchiseDTO after;
+
+    private final List<Integer> branchIds;
+
+    public static FranchiseChangedEvent Created(FranchiseDTO after)
+    {
+        return new FranchiseChangedEvent(ChangeType.CREATED, null, after, List.of());
+    }
+
+    public static FranchiseChangedEvent Updated(FranchiseDTO before, FranchiseDTO after)
+    {
+        return new FranchiseChangedEvent(ChangeType.UPDATED, before, after, List.of());
+    }
+
+    public static FranchiseChangedEvent Deleted(FranchiseDTO before, List<Integer> branchIds)
+    {
+        return new FranchiseChangedEvent(ChangeType.DELETED, before, null, branchIds);
+    }
+}
@@ -0,0 +1,39 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Events;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado por la capa de servicios cada vez que se crea, actualiza
+ * o elimina un producto. Se publica dentro de la transacción de la operación,
+ * después de aplicar el cambio sobre la entidad.
+ * - before: estado del producto antes del cambio (null al crear).
+ * - after: estado del producto después del cambio (null al eliminar).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ProductChangedEvent {
+
+    private final ChangeType type;
+
+    private final ProductDTO before;
+
+    private final ProductDTO after;
+
+    public static ProductChangedEvent Created(ProductDTO after)
+    {
+        return new ProductChangedEvent(ChangeType.CREATED, null, after);
+    }
+
+    public static ProductChangedEvent Updated(ProductDTO before, ProductDTO after)
+    {
+        return new ProductChangedEvent(ChangeType.UPDATED, before, after);
+    }
+
+    public static ProductChangedEvent Deleted(ProductDTO before)
+    {
+        return new ProductChangedEvent(ChangeType.DELETED, before, null);
+    }
+}
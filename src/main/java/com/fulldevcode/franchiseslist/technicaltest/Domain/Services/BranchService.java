@@ -1,14 +1,28 @@
 package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
 
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Engine.BranchStockEngine;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchEntity;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseEntity;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,13 +30,28 @@ import java.util.Optional;
 @Service
 public class BranchService {
 
+    private static final int MAX_TOP_PRODUCTS = 1000;
+
     private final IBranch branchRepository;
     private final IFranchise franchiseRepository;
+    private final IProduct productRepository;
+    private final BranchStockEngine stockEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadCacheService readCache;
+    private final TransactionTemplate currentRead;
 
-    public BranchService(IBranch branch, IFranchise franchise)
+    public BranchService(IBranch branch, IFranchise franchise, IProduct product, BranchStockEngine engine,
+                         ApplicationEventPublisher publisher, ReadCacheService cache, PlatformTransactionManager transactionManager)
     {
         this.branchRepository = branch;
         this.franchiseRepository = franchise;
+        this.productRepository = product;
+        this.stockEngine = engine;
+        this.eventPublisher = publisher;
+        this.readCache = cache;
+        this.currentRead = new TransactionTemplate(transactionManager);
+        this.currentRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.currentRead.setReadOnly(true);
     }
 
     /**
@@ -57,6 +86,7 @@ public class BranchService {
 
     /**
      * Obtiene la información de una sucursal a partir de su identificador.
+     * La respuesta se sirve desde la caché de lectura cuando está disponible.
      *
      * @param id Identificador único de la sucursal.
      * @return ApiResponseDTO que contiene:
@@ -70,6 +100,14 @@ public class BranchService {
     {
         try
         {
+            BranchDTO cached = this.readCache.Get(ReadCacheService.BRANCHES, id, BranchDTO.class);
+
+            if (cached != null)
+            {
+                return  ApiResponseDTO.Success("Se ha obtenido con exito la sucursal", cached);
+            }
+
+            long stamp = this.readCache.Stamp(ReadCacheService.BRANCHES, id);
             Optional<BranchEntity> Branch = this.branchRepository.findById(id);
 
             if (Branch.isEmpty())
@@ -78,7 +116,73 @@ public class BranchService {
                 return  ApiResponseDTO.Error(message);
             }
 
-            return  ApiResponseDTO.Success("Se ha obtenido con exito la sucursal", BranchResponse(Branch.get()));
+            BranchDTO branch = BranchResponse(Branch.get());
+            this.readCache.Put(ReadCacheService.BRANCHES, id, branch, stamp);
+
+            return  ApiResponseDTO.Success("Se ha obtenido con exito la sucursal", branch);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Obtiene los K productos con mayor stock de una sucursal, ordenados por stock descendente
+     * y, en caso de empate, por identificador ascendente.
+     * Se responde desde el motor de stock en memoria; mientras este se carga se consulta la base de datos.
+     *
+     * @param id Identificador único de la sucursal.
+     * @param k Cantidad de productos a retornar (máximo 1000).
+     * @return ApiResponseDTO que contiene:
+     *         - La lista de productos con mayor stock (ProductListDTO).
+     *         - Un mensaje de error si la sucursal no existe o la cantidad es inválida.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si el identificador es inválido.
+     */
+    public ApiResponseDTO<List<ProductListDTO>> TopProducts(Integer id, Integer k)
+    {
+        try
+        {
+            if (k == null || k < 1)
+            {
+                String message = "La cantidad de productos solicitada debe ser mayor a cero";
+                return ApiResponseDTO.Error(message);
+            }
+
+            int limit = Math.min(k, MAX_TOP_PRODUCTS);
+
+            if (this.stockEngine.IsReady())
+            {
+                if (!this.stockEngine.HasBranch(id))
+                {
+                    String message = "La sucursal buscada no ha sido registrada en el sistema";
+                    return ApiResponseDTO.Error(message);
+                }
+
+                return ApiResponseDTO.Success("Se han obtenido con exito los productos con mas stock de la sucursal", this.stockEngine.TopProducts(id, limit));
+            }
+
+            Optional<BranchEntity> Branch = this.branchRepository.findById(id);
+
+            if (Branch.isEmpty())
+            {
+                String message = "La sucursal buscada no ha sido registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            List<ProductListDTO> products = this.productRepository.TopStockProducts(id, Limit.of(limit)).stream()
+                    .map(product -> new ProductListDTO(product.getId(), product.getName(), product.getStock(), Branch.get().getName()))
+                    .toList();
+
+            return ApiResponseDTO.Success("Se han obtenido con exito los productos con mas stock de la sucursal", products);
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
@@ -95,8 +199,8 @@ public class BranchService {
     /**
      * Crea una nueva sucursal asociada a una franquicia existente.
      * Realiza las siguientes validaciones:
-     * - Verifica que no exista una sucursal con el mismo nombre en la franquicia.
      * - Verifica que la franquicia asociada exista.
+     * - El nombre duplicado en la franquicia se detecta con el índice único sobre (franchise_id, lower(name)).
      *
      * @param branchDTO Objeto DTO que contiene los datos de la sucursal a crear.
      * @return ApiResponseDTO que contiene:
@@ -106,18 +210,11 @@ public class BranchService {
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si los datos recibidos son inválidos.
      */
+    @Transactional
     public ApiResponseDTO<BranchDTO> CreateProduct (BranchDTO branchDTO)
     {
         try
         {
-            Optional<BranchEntity> SearchBranch = this.branchRepository.FindByName(branchDTO.getFranchiseId(), branchDTO.getName());
-
-            if (SearchBranch.isPresent())
-            {
-                String message = "Ya hay una sucursal registrada en esta franquicia con ese nombre";
-                return ApiResponseDTO.Error(message);
-            }
-
             Optional<FranchiseEntity> Franchise = this.franchiseRepository.findById(branchDTO.getFranchiseId());
 
             if (Franchise.isEmpty())
@@ -129,17 +226,30 @@ public class BranchService {
             BranchEntity Branch = new BranchEntity();
             Branch.setName(branchDTO.getName());
             Branch.setFranchise(Franchise.get());
-            this.branchRepository.save(Branch);
+            this.branchRepository.saveAndFlush(Branch);
+
+            BranchDTO created = BranchResponse(Branch);
+            this.eventPublisher.publishEvent(BranchChangedEvent.Created(created));
 
-            return ApiResponseDTO.Success("Se ha añadido con eso la nueva sucursal a la franquicia", BranchResponse(Branch));
+            return ApiResponseDTO.Success("Se ha añadido con eso la nueva sucursal a la franquicia", created);
+        }
+        catch (DataIntegrityViolationException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = UniqueConstraints.Violated(ex, UniqueConstraints.BRANCH_NAME)
+                    ? "Ya hay una sucursal registrada en esta franquicia con ese nombre"
+                    : "Ha ocurrido un error " + ex.getMostSpecificCause().getMessage();
+            return  ApiResponseDTO.Error(message);
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
@@ -149,22 +259,33 @@ public class BranchService {
      * Actualiza la información de una sucursal existente.
      * Realiza las siguientes validaciones:
      * - Verifica que la sucursal exista.
-     * - Verifica que no exista otra sucursal con el mismo nombre dentro de la misma franquicia.
+     * - Verifica que se envíe la versión leída por el cliente.
+     * - Verifica que la sucursal no haya sido modificada desde la versión enviada; una modificación
+     *   concurrente detectada al guardar (@Version) también responde con el código CONFLICT.
      * - Verifica que la franquicia asociada exista.
+     * - El nombre duplicado en la franquicia se detecta con el índice único sobre (franchise_id, lower(name)).
      *
      * @param id Identificador único de la sucursal a actualizar.
      * @param branchDTO Objeto DTO con la información actualizada de la sucursal.
      * @return ApiResponseDTO que contiene:
      *         - La sucursal actualizada (BranchDTO) si la operación es exitosa.
-     *         - Un mensaje de error si la sucursal o la franquicia no existen.
+     *         - Un mensaje de error si no se envía la versión o si la sucursal o la franquicia no existen.
+     *         - Un conflicto (CONFLICT) con la sucursal actual si la versión enviada está desactualizada.
      *
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si los datos recibidos son inválidos.
      */
+    @Transactional
     public ApiResponseDTO<BranchDTO> UpdateBranch(Integer id, BranchDTO branchDTO)
     {
         try
         {
+            if (branchDTO.getVersion() == null)
+            {
+                String message = "Debe enviar la version de la sucursal que consulto para actualizarla";
+                return ApiResponseDTO.Error(message);
+            }
+
             Optional<BranchEntity> BranchSearch = this.branchRepository.findById(id);
 
             if (BranchSearch.isEmpty())
@@ -173,12 +294,12 @@ public class BranchService {
                 return ApiResponseDTO.Error(message);
             }
 
-            Optional<BranchEntity> BranchValidateName = this.branchRepository.FindByIdName(branchDTO.getFranchiseId(), branchDTO.getName(), id);
+            BranchEntity Branch = BranchSearch.get();
 
-            if (BranchValidateName.isPresent())
+            if (!branchDTO.getVersion().equals(Branch.getVersion()))
             {
-                String message = "Ya hay una sucursal registrada con este nombre que pertenece a esta franquicia";
-                return ApiResponseDTO.Error(message);
+                String message = "La sucursal fue modificada por otra operacion, consulte la version actual e intente de nuevo";
+                return ApiResponseDTO.Conflict(message, BranchResponse(Branch));
             }
 
             Optional<FranchiseEntity> Franchise = this.franchiseRepository.findById(branchDTO.getFranchiseId());
@@ -189,20 +310,39 @@ public class BranchService {
                 return ApiResponseDTO.Error(message);
             }
 
-            BranchEntity Branch = BranchSearch.get();
+            BranchDTO before = BranchResponse(Branch);
             Branch.setName(branchDTO.getName());
             Branch.setFranchise(Franchise.get());
-            this.branchRepository.save(Branch);
+            this.branchRepository.saveAndFlush(Branch);
 
-            return ApiResponseDTO.Success("Se ha actualizado con exito la sucursal", BranchResponse(Branch));
+            BranchDTO updated = BranchResponse(Branch);
+            this.eventPublisher.publishEvent(BranchChangedEvent.Updated(before, updated));
+
+            return ApiResponseDTO.Success("Se ha actualizado con exito la sucursal", updated);
+        }
+        catch (OptimisticLockingFailureException | OptimisticLockException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "La sucursal fue modificada por otra operacion, consulte la version actual e intente de nuevo";
+            return ApiResponseDTO.Conflict(message, CurrentBranch(id));
+        }
+        catch (DataIntegrityViolationException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = UniqueConstraints.Violated(ex, UniqueConstraints.BRANCH_NAME)
+                    ? "Ya hay una sucursal registrada con este nombre que pertenece a esta franquicia"
+                    : "Ha ocurrido un error " + ex.getMostSpecificCause().getMessage();
+            return  ApiResponseDTO.Error(message);
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
@@ -210,6 +350,8 @@ public class BranchService {
 
     /**
      * Elimina una sucursal del sistema a partir de su identificador.
+     * Los productos se eliminan con una única sentencia masiva antes de la sucursal,
+     * sin cargarlos en memoria.
      *
      * @param id Identificador único de la sucursal a eliminar.
      * @return ApiResponseDTO que contiene:
@@ -219,6 +361,7 @@ public class BranchService {
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si el identificador es inválido.
      */
+    @Transactional
     public ApiResponseDTO<BranchDTO> DeleteBranch (Integer id)
     {
         try
@@ -231,16 +374,22 @@ public class BranchService {
                 return ApiResponseDTO.Error(message);
             }
 
-            this.branchRepository.delete(Branch.get());
-            return ApiResponseDTO.Success("Se ha eliminado con exito la sucursal", BranchResponse(Branch.get()));
+            BranchDTO deleted = BranchResponse(Branch.get());
+            this.productRepository.DeleteByBranch(id);
+            this.branchRepository.BulkDelete(id);
+            this.eventPublisher.publishEvent(BranchChangedEvent.Deleted(deleted));
+
+            return ApiResponseDTO.Success("Se ha eliminado con exito la sucursal", deleted);
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
@@ -260,6 +409,20 @@ public class BranchService {
         branchDTO.setId(branch.getId());
         branchDTO.setName(branch.getName());
         branchDTO.setFranchiseId(branch.getFranchise().getId());
+        branchDTO.setVersion(branch.getVersion());
         return branchDTO;
     }
+
+    /**
+     * Lee la versión confirmada de la sucursal en una transacción nueva. Se usa al detectar un conflicto
+     * al guardar: la transacción actual quedó marcada para revertirse y su contexto de persistencia
+     * conserva los cambios que no se pudieron guardar.
+     *
+     * @param id Identificador único de la sucursal.
+     * @return La sucursal actual, o null si fue eliminada.
+     */
+    private BranchDTO CurrentBranch(Integer id)
+    {
+        return this.currentRead.execute(status -> this.branchRepository.findById(id).map(this::BranchResponse).orElse(null));
+    }
 }
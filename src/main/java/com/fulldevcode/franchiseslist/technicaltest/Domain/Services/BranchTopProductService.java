@@ -0,0 +1,389 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeType;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchTopProductCheckDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.BranchTopProductRepository;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranchTopProduct;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Mantiene la proyección branch_top_product con el producto de mayor stock
+ * de cada sucursal. La proyección se actualiza de forma incremental dentro
+ * de la misma transacción de cada operación sobre productos, sucursales y franquicias.
+ * Los cambios de productos de una transacción solo se acumulan en memoria y se aplican antes de
+ * confirmar con sentencias por conjuntos (BranchTopProductRepository): una creación masiva o un lote
+ * de ajustes de stock ejecuta unas pocas sentencias en lugar de varias por producto.
+ * Las sentencias son atómicas (INSERT ... ON CONFLICT DO UPDATE y SELECT ... FOR UPDATE) y bloquean
+ * las filas de las sucursales en orden: dos operaciones concurrentes sobre una misma sucursal se
+ * comparan contra el valor confirmado en lugar de sobrescribirse.
+ */
+@Service
+public class BranchTopProductService {
+
+    private final IBranchTopProduct topProductRepository;
+    private final BranchTopProductRepository projectionRepository;
+    private final IFranchise franchiseRepository;
+    private final EntityManager entityManager;
+    private final boolean rebuildOnStartup;
+
+    public BranchTopProductService(IBranchTopProduct topProduct, BranchTopProductRepository projection, IFranchise franchise,
+                                   EntityManager manager,
+                                   @Value("${franchises.top-product.rebuild-on-startup:false}") boolean rebuildOnStartup)
+    {
+        this.topProductRepository = topProduct;
+        this.projectionRepository = projection;
+        this.franchiseRepository = franchise;
+        this.entityManager = manager;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * Cambios de la transacción en curso, aplicados antes de confirmar y antes de los contadores
+     * (CatalogStatsService) y los eventos de cambio:
+     * - offers: el mejor candidato de cada sucursal.
+     * - suspects: por sucursal, los productos que la dejaron o disminuyeron su stock; si alguno es el
+     *   de mayor stock registrado después de aplicar las propuestas, la sucursal se recalcula.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<Integer, ProductDTO> offers = new TreeMap<>();
+        private final Map<Integer, Set<Integer>> suspects = new TreeMap<>();
+
+        @Override
+        public int getOrder()
+        {
+            return Ordered.LOWEST_PRECEDENCE - 2;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly)
+        {
+            Apply(this);
+        }
+    }
+
+    /**
+     * Registra el cambio de un producto en los pendientes de la transacción.
+     * - El estado posterior se propone como el de mayor stock de su sucursal (solo el mejor candidato
+     *   por sucursal); si ya era el de mayor stock, solo se actualiza la fila.
+     * - Si el producto sale de una sucursal (eliminación o cambio de sucursal) o disminuye su stock,
+     *   la sucursal de origen queda pendiente de verificar: se recalcula si el producto era el de mayor stock.
+     *
+     * @param event Evento con el estado anterior y posterior del producto.
+     */
+    @EventListener
+    public void OnProductChanged(ProductChangedEvent event)
+    {
+        ProductDTO before = event.getBefore();
+        ProductDTO after = event.getAfter();
+
+        Record(pending -> {
+            if (before != null && before.getBranchId() != null
+                    && (after == null || !before.getBranchId().equals(after.getBranchId()) || after.getStock() < before.getStock()))
+            {
+                pending.suspects.computeIfAbsent(before.getBranchId(), branchId -> new TreeSet<>()).add(before.getId());
+            }
+
+            if (after != null && after.getBranchId() != null)
+            {
+                Offer(pending.offers, after);
+            }
+        });
+    }
+
+    /**
+     * Elimina de la proyección la fila de una sucursal eliminada.
+     *
+     * @param event Evento de cambio de la sucursal.
+     */
+    @EventListener
+    public void OnBranchChanged(BranchChangedEvent event)
+    {
+        if (event.getType() == ChangeType.DELETED)
+        {
+            DiscardPending(List.of(event.getBefore().getId()));
+            this.topProductRepository.deleteById(event.getBefore().getId());
+        }
+    }
+
+    /**
+     * Elimina de la proyección las filas de las sucursales de una franquicia eliminada.
+     *
+     * @param event Evento de cambio de la franquicia.
+     */
+    @EventListener
+    public void OnFranchiseChanged(FranchiseChangedEvent event)
+    {
+        if (event.getType() == ChangeType.DELETED && !event.getBranchIds().isEmpty())
+        {
+            DiscardPending(event.getBranchIds());
+            this.topProductRepository.deleteAllByIdInBatch(event.getBranchIds());
+        }
+    }
+
+    /**
+     * Reconstruye la proyección completa a partir de la tabla de productos.
+     * Bloquea la proyección durante la reconstrucción para que las operaciones
+     * concurrentes se apliquen sobre el resultado reconstruido.
+     *
+     * @return ApiResponseDTO que contiene:
+     *         - La cantidad de sucursales cargadas en la proyección.
+     *         - Un mensaje de error en caso de que ocurra una excepción.
+     */
+    @Transactional
+    public ApiResponseDTO<Integer> RebuildProjection()
+    {
+        try
+        {
+            return ApiResponseDTO.Success("Se ha reconstruido con exito la proyeccion de productos con mas stock", Rebuild());
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Compara la proyección de una franquicia contra la consulta en vivo sobre los productos
+     * y, si se solicita, repara las sucursales que no coinciden.
+     *
+     * @param idFranchise Identificador único de la franquicia.
+     * @param repair Indica si se deben recalcular las sucursales inconsistentes.
+     * @return ApiResponseDTO que contiene:
+     *         - El resultado de la verificación (BranchTopProductCheckDTO).
+     *         - Un mensaje de error si la franquicia no existe o ocurre una excepción.
+     */
+    @Transactional
+    public ApiResponseDTO<BranchTopProductCheckDTO> CheckConsistency(Integer idFranchise, boolean repair)
+    {
+        try
+        {
+            if (!this.franchiseRepository.existsById(idFranchise))
+            {
+                String message = "La franquicia seleccionada no se encuentra registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            Map<Integer, BranchMaxProductsListDTO> live = new HashMap<>();
+            this.franchiseRepository.SearchBranchesMaxProducts(idFranchise).forEach(row -> live.put(row.getId(), row));
+
+            Map<Integer, BranchMaxProductsListDTO> projected = new HashMap<>();
+            this.topProductRepository.SearchBranchesMaxProducts(idFranchise).forEach(row -> projected.put(row.getId(), row));
+
+            Set<Integer> branches = new TreeSet<>(live.keySet());
+            branches.addAll(projected.keySet());
+
+            List<Integer> mismatched = new ArrayList<>();
+
+            for (Integer branchId : branches)
+            {
+                if (!SameTopProduct(live.get(branchId), projected.get(branchId)))
+                {
+                    mismatched.add(branchId);
+                }
+            }
+
+            if (repair && !mismatched.isEmpty())
+            {
+                RefreshBranches(mismatched);
+            }
+
+            BranchTopProductCheckDTO result = new BranchTopProductCheckDTO(idFranchise, branches.size(), mismatched, repair && !mismatched.isEmpty());
+            return ApiResponseDTO.Success("Se ha verificado con exito la proyeccion de productos con mas stock", result);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Reconstruye la proyección al iniciar la aplicación cuando la propiedad
+     * franchises.top-product.rebuild-on-startup está activa (carga inicial de datos existentes).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void OnApplicationReady()
+    {
+        if (this.rebuildOnStartup)
+        {
+            Rebuild();
+        }
+    }
+
+    private int Rebuild()
+    {
+        this.topProductRepository.LockForRebuild();
+        this.topProductRepository.deleteAllInBatch();
+        return this.topProductRepository.Rebuild();
+    }
+
+    /**
+     * Registra un cambio en los pendientes de la transacción en curso o, sin transacción, lo aplica de inmediato.
+     */
+    private void Record(Consumer<PendingChanges> change)
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            change.accept(Pending());
+            return;
+        }
+
+        PendingChanges pending = new PendingChanges();
+        change.accept(pending);
+        Apply(pending);
+    }
+
+    private PendingChanges Pending()
+    {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+        {
+            if (synchronization instanceof PendingChanges pending)
+            {
+                return pending;
+            }
+        }
+
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Descarta los cambios pendientes de sucursales eliminadas en la transacción en curso.
+     */
+    private void DiscardPending(List<Integer> branchIds)
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            PendingChanges pending = Pending();
+            branchIds.forEach(pending.offers::remove);
+            branchIds.forEach(pending.suspects::remove);
+        }
+    }
+
+    /**
+     * Conserva por sucursal el candidato de mayor stock (con igual stock, el de menor id). Un mismo
+     * producto solo reemplaza a su propuesta anterior si no disminuye su stock: la disminución deja
+     * la sucursal pendiente de verificar, y el recálculo corrige la propuesta anterior si llegó a registrarse.
+     */
+    private static void Offer(Map<Integer, ProductDTO> offers, ProductDTO product)
+    {
+        ProductDTO candidate = offers.get(product.getBranchId());
+
+        if (candidate == null
+                || product.getStock() > candidate.getStock()
+                || (product.getStock().equals(candidate.getStock()) && product.getId() <= candidate.getId()))
+        {
+            offers.put(product.getBranchId(), product);
+        }
+    }
+
+    /**
+     * Aplica los cambios pendientes: las propuestas en una sentencia y, si hay sucursales por verificar,
+     * bloquea las que registran como el de mayor stock a uno de sus productos sospechosos y las recalcula
+     * en una sentencia, después de sincronizar el contexto de persistencia.
+     */
+    private void Apply(PendingChanges pending)
+    {
+        if (!pending.offers.isEmpty())
+        {
+            int size = pending.offers.size();
+            Integer[] branchIds = new Integer[size];
+            Integer[] productIds = new Integer[size];
+            String[] names = new String[size];
+            Integer[] stocks = new Integer[size];
+            int index = 0;
+
+            for (Map.Entry<Integer, ProductDTO> offer : pending.offers.entrySet())
+            {
+                branchIds[index] = offer.getKey();
+                productIds[index] = offer.getValue().getId();
+                names[index] = offer.getValue().getName();
+                stocks[index] = offer.getValue().getStock();
+                index++;
+            }
+
+            pending.offers.clear();
+            this.projectionRepository.OfferBatch(branchIds, productIds, names, stocks);
+        }
+
+        if (pending.suspects.isEmpty())
+        {
+            return;
+        }
+
+        List<Integer> branchIds = new ArrayList<>();
+        List<Integer> productIds = new ArrayList<>();
+
+        pending.suspects.forEach((branchId, products) -> products.forEach(productId -> {
+            branchIds.add(branchId);
+            productIds.add(productId);
+        }));
+        pending.suspects.clear();
+
+        List<Integer> stale = this.projectionRepository.LockStaleBranches(branchIds.toArray(new Integer[0]), productIds.toArray(new Integer[0]));
+
+        if (!stale.isEmpty())
+        {
+            RefreshBranches(stale);
+        }
+    }
+
+    /**
+     * Recalcula las filas de varias sucursales a partir de sus productos. Las sucursales sin productos
+     * pierden su fila.
+     */
+    private void RefreshBranches(Collection<Integer> branchIds)
+    {
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+        {
+            this.entityManager.flush();
+        }
+
+        this.projectionRepository.RefreshBranches(branchIds.toArray(new Integer[0]));
+    }
+
+    private boolean SameTopProduct(BranchMaxProductsListDTO live, BranchMaxProductsListDTO projected)
+    {
+        if (live == null || projected == null)
+        {
+            return live == projected;
+        }
+
+        return Objects.equals(live.getNameProduct(), projected.getNameProduct())
+                && Objects.equals(live.getStock(), projected.getStock())
+                && Objects.equals(live.getNameBranch(), projected.getNameBranch());
+    }
+}
@@ -0,0 +1,476 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeType;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchStatsDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseStatsDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.CatalogStatsRepository;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranchStats;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchiseStats;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseStatsEntity;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Mantiene los contadores franchise_stats (cantidad de sucursales) y branch_stats (cantidad de
+ * productos y stock total) con los mismos eventos que la proyección branch_top_product, dentro de
+ * la transacción de cada operación. Los deltas de productos de una transacción se acumulan por
+ * sucursal y se aplican en una sola sentencia antes de confirmar, de modo que un vaciado del
+ * acumulador de stock o una importación actualizan cada sucursal una vez y no una vez por producto.
+ * Una reconciliación periódica compara los contadores con COUNT/SUM y repara las desviaciones.
+ * Las mismas escrituras renuevan las marcas de los listados de franquicias, sucursales y productos,
+ * que los controladores usan como ETag para responder 304 sin ejecutar la consulta del listado.
+ */
+@Service
+public class CatalogStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStatsService.class);
+
+    private final IFranchiseStats franchiseStatsRepository;
+    private final IBranchStats branchStatsRepository;
+    private final CatalogStatsRepository statsRepository;
+    private final IFranchise franchiseRepository;
+    private final SecondLevelCacheService secondLevelCache;
+    private final TransactionTemplate repairTransaction;
+    private final long reconcileIntervalMs;
+    private final int reconcileBatch;
+
+    private ScheduledExecutorService scheduler;
+
+    public CatalogStatsService(IFranchiseStats franchiseStats, IBranchStats branchStats, CatalogStatsRepository stats,
+                               IFranchise franchise, SecondLevelCacheService secondLevelCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${franchises.stats.reconcile-interval-ms:3600000}") long reconcileIntervalMs,
+                               @Value("${franchises.stats.reconcile-batch:1000}") int reconcileBatch)
+    {
+        this.franchiseStatsRepository = franchiseStats;
+        this.branchStatsRepository = branchStats;
+        this.statsRepository = stats;
+        this.franchiseRepository = franchise;
+        this.secondLevelCache = secondLevelCache;
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+        this.reconcileIntervalMs = reconcileIntervalMs;
+        this.reconcileBatch = reconcileBatch;
+    }
+
+    /**
+     * Deltas de productos por sucursal y listados modificados de la transacción en curso,
+     * aplicados antes de confirmar. Una sucursal con delta cero solo renueva la marca de su listado.
+     * Se aplican antes que los eventos de cambio (ChangeOutboxService), que toman su seq al final para
+     * acortar el tiempo entre la asignación del seq y la confirmación.
+     */
+    private final class PendingDeltas implements TransactionSynchronization {
+
+        private final Map<Integer, long[]> deltas = new TreeMap<>();
+        private final Set<Integer> franchises = new TreeSet<>();
+        private boolean catalog;
+
+        @Override
+        public int getOrder()
+        {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly)
+        {
+            Flush(this);
+        }
+    }
+
+    /**
+     * Registra el cambio de un producto en los contadores de su sucursal: el estado anterior
+     * resta un producto y su stock, y el estado posterior los suma.
+     *
+     * @param event Evento con el estado anterior y posterior del producto.
+     */
+    @EventListener
+    public void OnProductChanged(ProductChangedEvent event)
+    {
+        Record(pending -> {
+            Accumulate(pending.deltas, event.getBefore(), -1);
+            Accumulate(pending.deltas, event.getAfter(), 1);
+        });
+    }
+
+    /**
+     * Crea, mueve o elimina los contadores de una sucursal, ajusta la cantidad de sucursales de su
+     * franquicia y renueva las marcas de los listados donde aparece la sucursal.
+     *
+     * @param event Evento de cambio de la sucursal.
+     */
+    @EventListener
+    public void OnBranchChanged(BranchChangedEvent event)
+    {
+        BranchDTO before = event.getBefore();
+        BranchDTO after = event.getAfter();
+
+        if (event.getType() == ChangeType.CREATED)
+        {
+            this.statsRepository.InsertBranch(after.getId(), after.getFranchiseId());
+            this.franchiseStatsRepository.AdjustBranchCount(after.getFranchiseId(), 1);
+            Record(pending -> {
+                pending.franchises.add(after.getFranchiseId());
+                pending.catalog = true;
+            });
+        }
+        else if (event.getType() == ChangeType.DELETED)
+        {
+            DiscardPending(List.of(before.getId()));
+            this.branchStatsRepository.BulkDelete(before.getId());
+            this.franchiseStatsRepository.AdjustBranchCount(before.getFranchiseId(), -1);
+            Record(pending -> {
+                pending.franchises.add(before.getFranchiseId());
+                pending.catalog = true;
+            });
+        }
+        else
+        {
+            boolean moved = !Objects.equals(before.getFranchiseId(), after.getFranchiseId());
+
+            if (moved)
+            {
+                this.branchStatsRepository.MoveBranch(after.getId(), after.getFranchiseId());
+                this.franchiseStatsRepository.AdjustBranchCount(before.getFranchiseId(), -1);
+                this.franchiseStatsRepository.AdjustBranchCount(after.getFranchiseId(), 1);
+            }
+
+            Record(pending -> {
+                pending.deltas.computeIfAbsent(after.getId(), branchId -> new long[2]);
+                pending.franchises.add(before.getFranchiseId());
+                pending.franchises.add(after.getFranchiseId());
+                pending.catalog |= moved;
+            });
+        }
+    }
+
+    /**
+     * Crea los contadores de una franquicia nueva o elimina los de una franquicia eliminada y sus sucursales,
+     * y renueva la marca del listado de franquicias (y, al renombrarla, la de su listado de sucursales).
+     *
+     * @param event Evento de cambio de la franquicia.
+     */
+    @EventListener
+    public void OnFranchiseChanged(FranchiseChangedEvent event)
+    {
+        if (event.getType() == ChangeType.CREATED)
+        {
+            this.statsRepository.InsertFranchise(event.getAfter().getId());
+        }
+        else if (event.getType() == ChangeType.DELETED)
+        {
+            DiscardPending(event.getBranchIds());
+            this.branchStatsRepository.DeleteByFranchise(event.getBefore().getId());
+            this.franchiseStatsRepository.BulkDelete(event.getBefore().getId());
+        }
+        else
+        {
+            Record(pending -> pending.franchises.add(event.getAfter().getId()));
+        }
+
+        Record(pending -> pending.catalog = true);
+    }
+
+    /**
+     * Obtiene la marca de modificación del listado de franquicias.
+     *
+     * @return La marca actual, o vacío si no fue posible leerla.
+     */
+    public Optional<Long> FranchisesStamp()
+    {
+        return ReadStamp(this.statsRepository::SearchCatalogStamp);
+    }
+
+    /**
+     * Obtiene la marca de modificación del listado de sucursales de una franquicia.
+     *
+     * @return La marca actual, o vacío si la franquicia no tiene contadores o no fue posible leerla.
+     */
+    public Optional<Long> BranchesStamp(Integer idFranchise)
+    {
+        return ReadStamp(() -> this.statsRepository.SearchFranchiseStamp(idFranchise));
+    }
+
+    /**
+     * Obtiene la marca de modificación del listado de productos de una sucursal.
+     *
+     * @return La marca actual, o vacío si la sucursal no tiene contadores o no fue posible leerla.
+     */
+    public Optional<Long> ProductsStamp(Integer idBranch)
+    {
+        return ReadStamp(() -> this.statsRepository.SearchBranchStamp(idBranch));
+    }
+
+    /**
+     * Obtiene los contadores agregados de una franquicia y de cada una de sus sucursales.
+     *
+     * @param idFranchise Identificador único de la franquicia.
+     * @return ApiResponseDTO que contiene:
+     *         - La cantidad de sucursales, de productos, el stock total y el stock máximo (FranchiseStatsDTO).
+     *         - Un mensaje de error si la franquicia no se encuentra registrada.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si el identificador es inválido.
+     */
+    public ApiResponseDTO<FranchiseStatsDTO> GetFranchiseStats(Integer idFranchise)
+    {
+        try
+        {
+            Optional<FranchiseStatsEntity> franchiseStats = this.franchiseStatsRepository.findById(idFranchise);
+
+            if (franchiseStats.isEmpty() && this.franchiseRepository.findById(idFranchise).isEmpty())
+            {
+                String message = "La franquicia seleccionada no se encuentra registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            List<BranchStatsDTO> branches = this.branchStatsRepository.SearchFranchiseBranchStats(idFranchise);
+            long productCount = 0;
+            long totalStock = 0;
+            Integer maxStock = null;
+
+            for (BranchStatsDTO branch : branches)
+            {
+                productCount += branch.getProductCount();
+                totalStock += branch.getTotalStock();
+
+                if (branch.getMaxStock() != null && (maxStock == null || branch.getMaxStock() > maxStock))
+                {
+                    maxStock = branch.getMaxStock();
+                }
+            }
+
+            long branchCount = franchiseStats.map(FranchiseStatsEntity::getBranchCount).orElse(0L);
+            FranchiseStatsDTO stats = new FranchiseStatsDTO(idFranchise, branchCount, productCount, totalStock, maxStock, branches);
+            return ApiResponseDTO.Success("Se han obtenido con exito las estadisticas de la franquicia", stats);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Compara los contadores contra las tablas base y repara las sucursales y franquicias desviadas
+     * (hasta franchises.stats.reconcile-batch de cada tipo por ejecución) y los contadores huérfanos.
+     *
+     * @return ApiResponseDTO que contiene:
+     *         - La cantidad de contadores reparados o eliminados.
+     *         - Un mensaje de error en caso de que ocurra una excepción.
+     */
+    public ApiResponseDTO<Integer> Reconcile()
+    {
+        try
+        {
+            Integer orphans = this.repairTransaction.execute(status -> this.statsRepository.DeleteOrphans());
+            List<Integer> branches = this.statsRepository.SearchDriftedBranches(this.reconcileBatch);
+            List<Integer> franchises = this.statsRepository.SearchDriftedFranchises(this.reconcileBatch);
+
+            branches.forEach(branchId -> this.repairTransaction.executeWithoutResult(status -> this.statsRepository.RecountBranch(branchId)));
+            franchises.forEach(franchiseId -> this.repairTransaction.executeWithoutResult(status -> this.statsRepository.RecountFranchise(franchiseId)));
+
+            int repaired = (orphans == null ? 0 : orphans) + branches.size() + franchises.size();
+
+            if (repaired > 0)
+            {
+                log.warn("Contadores reconciliados: {} sucursales, {} franquicias, {} huerfanos", branches.size(), franchises.size(), orphans);
+                this.secondLevelCache.EvictCatalogQueries();
+                this.statsRepository.TouchCatalog();
+            }
+
+            return ApiResponseDTO.Success("Se han reconciliado con exito los contadores", repaired);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Programa la reconciliación periódica (franchises.stats.reconcile-interval-ms, 0 la deshabilita).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void OnApplicationReady()
+    {
+        if (this.reconcileIntervalMs <= 0)
+        {
+            return;
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-stats-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scheduler.scheduleWithFixedDelay(() -> {
+            ApiResponseDTO<Integer> result = Reconcile();
+
+            if (!result.isSuccess())
+            {
+                log.error("No fue posible reconciliar los contadores: {}", result.getMessage());
+            }
+        }, this.reconcileIntervalMs, this.reconcileIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void Shutdown()
+    {
+        if (this.scheduler != null)
+        {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Registra un cambio en los pendientes de la transacción en curso o, sin transacción, lo aplica de inmediato.
+     */
+    private void Record(Consumer<PendingDeltas> change)
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            change.accept(Pending());
+            return;
+        }
+
+        PendingDeltas pending = new PendingDeltas();
+        change.accept(pending);
+        Flush(pending);
+    }
+
+    private PendingDeltas Pending()
+    {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+        {
+            if (synchronization instanceof PendingDeltas pending)
+            {
+                return pending;
+            }
+        }
+
+        PendingDeltas pending = new PendingDeltas();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Descarta los deltas pendientes de sucursales eliminadas en la transacción en curso.
+     */
+    private void DiscardPending(List<Integer> branchIds)
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !branchIds.isEmpty())
+        {
+            branchIds.forEach(Pending().deltas::remove);
+        }
+    }
+
+    private static void Accumulate(Map<Integer, long[]> deltas, ProductDTO product, int sign)
+    {
+        if (product == null || product.getBranchId() == null)
+        {
+            return;
+        }
+
+        long[] delta = deltas.computeIfAbsent(product.getBranchId(), branchId -> new long[2]);
+        delta[0] += sign;
+        delta[1] += (long) sign * product.getStock();
+    }
+
+    private Optional<Long> ReadStamp(Supplier<Optional<Long>> stamp)
+    {
+        try
+        {
+            return stamp.get();
+        }
+        catch (DataAccessException ex)
+        {
+            log.warn("No fue posible leer la marca de modificacion del listado: {}", ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Aplica los deltas (sucursales en orden de id, luego franquicias) y renueva las marcas de los listados.
+     */
+    private void Flush(PendingDeltas pending)
+    {
+        if (!pending.deltas.isEmpty())
+        {
+            ApplyDeltas(pending.deltas);
+        }
+
+        if (!pending.franchises.isEmpty())
+        {
+            this.statsRepository.TouchFranchises(pending.franchises.toArray(new Integer[0]));
+            pending.franchises.clear();
+        }
+
+        if (pending.catalog)
+        {
+            this.statsRepository.TouchCatalog();
+            pending.catalog = false;
+        }
+    }
+
+    private void ApplyDeltas(Map<Integer, long[]> deltas)
+    {
+        Integer[] branchIds = new Integer[deltas.size()];
+        Long[] products = new Long[deltas.size()];
+        Long[] stock = new Long[deltas.size()];
+        int position = 0;
+
+        for (Map.Entry<Integer, long[]> entry : deltas.entrySet())
+        {
+            branchIds[position] = entry.getKey();
+            products[position] = entry.getValue()[0];
+            stock[position] = entry.getValue()[1];
+            position++;
+        }
+
+        this.statsRepository.ApplyProductDeltas(branchIds, products, stock);
+        deltas.clear();
+    }
+}
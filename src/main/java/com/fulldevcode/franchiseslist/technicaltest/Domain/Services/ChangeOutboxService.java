@@ -0,0 +1,260 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeType;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeFeedDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.ChangeOutboxRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bandeja de salida (transactional outbox) de los cambios de franquicias, sucursales y productos.
+ * Escucha los mismos eventos que las proyecciones y escribe un evento por cambio en change_events
+ * dentro de la transacción de la operación: si la operación se revierte, sus eventos también.
+ * Los eventos de una transacción se acumulan y se insertan en un lote justo antes de confirmar,
+ * después de sincronizar Hibernate y de aplicar los contadores; cada evento toma su seq de la
+ * secuencia change_events_seq, sin bloqueos compartidos entre transacciones. Como un seq menor puede
+ * confirmarse después de uno mayor, las lecturas se detienen en el primer hueco reciente
+ * (franchises.outbox.settle-lag-ms) y un consumidor que lee seq > N no salta eventos de transacciones más lentas.
+ * El relay (ChangeRelay) entrega los eventos a los destinos configurados y GET /api/changes
+ * permite a los consumidores sincronizarse de forma incremental.
+ */
+@Service
+public class ChangeOutboxService {
+
+    public static final String FRANCHISE = "FRANCHISE";
+    public static final String BRANCH = "BRANCH";
+    public static final String PRODUCT = "PRODUCT";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ChangeOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate outboxTransaction;
+    private final long settleLagMs;
+
+    public ChangeOutboxService(ChangeOutboxRepository outbox, ObjectMapper mapper, EntityManager manager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${franchises.outbox.settle-lag-ms:5000}") long settleLagMs)
+    {
+        this.outboxRepository = outbox;
+        this.objectMapper = mapper;
+        this.entityManager = manager;
+        this.outboxTransaction = new TransactionTemplate(transactionManager);
+        this.settleLagMs = settleLagMs;
+    }
+
+    /**
+     * Eventos de la transacción en curso. Se escriben después de las demás sincronizaciones
+     * (LOWEST_PRECEDENCE) y después de sincronizar el contexto de persistencia, para que entre la
+     * asignación del seq y la confirmación solo quede el INSERT del lote: un hueco en seq dura poco
+     * y las lecturas no se detienen más de lo necesario.
+     */
+    private final class PendingEvents implements TransactionSynchronization {
+
+        private final List<ChangeEventDTO> events = new ArrayList<>();
+
+        @Override
+        public int getOrder()
+        {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly)
+        {
+            if (!this.events.isEmpty())
+            {
+                entityManager.flush();
+                Append(this.events);
+            }
+        }
+    }
+
+    /**
+     * Registra el cambio de una franquicia. Al eliminarla, el evento incluye las sucursales
+     * eliminadas en cascada (branchIds); sus productos no generan eventos propios.
+     *
+     * @param event Evento de cambio de la franquicia.
+     */
+    @EventListener
+    public void OnFranchiseChanged(FranchiseChangedEvent event)
+    {
+        Map<String, Object> payload = Payload(event.getBefore(), event.getAfter());
+
+        if (event.getType() == ChangeType.DELETED)
+        {
+            payload.put("branchIds", event.getBranchIds());
+        }
+
+        Integer id = event.getAfter() != null ? event.getAfter().getId() : event.getBefore().getId();
+        Record(FRANCHISE, id, event.getType(), payload);
+    }
+
+    /**
+     * Registra el cambio de una sucursal. Al eliminarla, sus productos eliminados en cascada no generan eventos propios.
+     *
+     * @param event Evento de cambio de la sucursal.
+     */
+    @EventListener
+    public void OnBranchChanged(BranchChangedEvent event)
+    {
+        Integer id = event.getAfter() != null ? event.getAfter().getId() : event.getBefore().getId();
+        Record(BRANCH, id, event.getType(), Payload(event.getBefore(), event.getAfter()));
+    }
+
+    /**
+     * Registra el cambio de un producto, incluidos los ajustes de stock.
+     *
+     * @param event Evento de cambio del producto.
+     */
+    @EventListener
+    public void OnProductChanged(ProductChangedEvent event)
+    {
+        Integer id = event.getAfter() != null ? event.getAfter().getId() : event.getBefore().getId();
+        Record(PRODUCT, id, event.getType(), Payload(event.getBefore(), event.getAfter()));
+    }
+
+    /**
+     * Obtiene los eventos de cambio posteriores a un número de secuencia, en orden.
+     * El cliente solicita la siguiente página enviando como since el valor next de la respuesta.
+     *
+     * @param since Último seq procesado por el cliente (0 para comenzar desde el primer evento conservado).
+     * @param limit Cantidad máxima de eventos a retornar (máximo 1000).
+     * @return ApiResponseDTO que contiene:
+     *         - Los eventos, el siguiente cursor y si quedan más eventos (ChangeFeedDTO).
+     *         - Un mensaje de error si los eventos posteriores a since ya fueron depurados, o si ocurre una excepción.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si ocurre un error por argumentos inválidos.
+     */
+    public ApiResponseDTO<ChangeFeedDTO> SearchChanges(Long since, Integer limit)
+    {
+        try
+        {
+            if (limit == null || limit < 1)
+            {
+                String message = "El limite de la pagina debe ser mayor a cero";
+                return ApiResponseDTO.Error(message);
+            }
+
+            long cursor = (since == null || since < 0) ? 0 : since;
+            int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+
+            List<ChangeEventDTO> events = this.outboxRepository.SearchSettledSince(cursor, pageSize + 1, this.settleLagMs);
+
+            // Se consulta después de los eventos: una depuración concurrente ya se refleja aquí.
+            long purged = this.outboxRepository.SearchPurgedSeq();
+
+            if (cursor < purged)
+            {
+                String message = "Los eventos posteriores a " + cursor + " ya fueron depurados, sincronice de nuevo el catalogo y continue desde " + purged;
+                return ApiResponseDTO.Error(message);
+            }
+
+            boolean more = events.size() > pageSize;
+
+            if (more)
+            {
+                events = events.subList(0, pageSize);
+            }
+
+            long next = events.isEmpty() ? cursor : events.get(events.size() - 1).getSeq();
+            ChangeFeedDTO feed = new ChangeFeedDTO(next, more, events);
+            return ApiResponseDTO.Success("Eventos de cambio obtenidos con exito", feed);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Acumula el evento en la transacción en curso o, sin transacción, lo escribe en una transacción propia.
+     */
+    private void Record(String entityType, Integer entityId, ChangeType type, Map<String, Object> payload)
+    {
+        ChangeEventDTO event = new ChangeEventDTO(null, entityType, entityId, type.name(), Serialize(payload), null);
+
+        if (TransactionSynchronizationManager.isActualTransactionActive() && TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            Pending().events.add(event);
+            return;
+        }
+
+        this.outboxTransaction.executeWithoutResult(status -> Append(List.of(event)));
+    }
+
+    private PendingEvents Pending()
+    {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations())
+        {
+            if (synchronization instanceof PendingEvents pending)
+            {
+                return pending;
+            }
+        }
+
+        PendingEvents pending = new PendingEvents();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Inserta los eventos en un lote; el seq lo asigna la base de datos.
+     */
+    private void Append(List<ChangeEventDTO> events)
+    {
+        this.outboxRepository.InsertEvents(events);
+    }
+
+    private static Map<String, Object> Payload(Object before, Object after)
+    {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("before", before);
+        payload.put("after", after);
+        return payload;
+    }
+
+    /**
+     * Serializa el contenido del evento. Un error aquí revierte la operación que lo originó:
+     * un cambio confirmado sin su evento dejaría a los consumidores desincronizados.
+     */
+    private String Serialize(Map<String, Object> payload)
+    {
+        try
+        {
+            return this.objectMapper.writeValueAsString(payload);
+        }
+        catch (JsonProcessingException ex)
+        {
+            throw new IllegalStateException("No fue posible serializar el evento de cambio", ex);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDeleteJobDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.CatalogStatsRepository;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchiseDeleteJob;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.ProductStockRepository;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchEntity;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseDeleteJobEntity;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseEntity;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Eliminación asíncrona por bloques de franquicias con muchas sucursales y productos.
+ * Cada bloque de productos se elimina en su propia transacción corta, por lo que los bloqueos
+ * se liberan entre bloques y el avance queda persistido; al vaciar una sucursal se elimina
+ * la sucursal y, al final, la franquicia. Los productos de cada sucursal se eliminan de menor
+ * a mayor stock, así el producto de mayor stock sigue siendo válido hasta el último bloque.
+ * Los bloques no publican un evento por producto: cada bloque descuenta en su misma transacción la
+ * cantidad y el stock eliminados de los contadores de la sucursal (renovando la marca de su listado)
+ * e invalida los productos eliminados en la caché de lectura al confirmar.
+ * Un trabajo interrumpido por un reinicio se reanuda desde el estado actual de la base de datos.
+ */
+@Service
+public class FranchiseDeleteJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(FranchiseDeleteJobService.class);
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final IFranchise franchiseRepository;
+    private final IBranch branchRepository;
+    private final IProduct productRepository;
+    private final ProductStockRepository stockRepository;
+    private final CatalogStatsRepository statsRepository;
+    private final ReadCacheService readCache;
+    private final IFranchiseDeleteJob deleteJobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    public FranchiseDeleteJobService(IFranchise franchise, IBranch branch, IProduct product, ProductStockRepository stock,
+                                     CatalogStatsRepository stats, ReadCacheService readCache, IFranchiseDeleteJob deleteJob,
+                                     ApplicationEventPublisher publisher, PlatformTransactionManager transactionManager,
+                                     @Value("${franchises.delete-job.chunk-size:5000}") int chunkSize)
+    {
+        this.franchiseRepository = franchise;
+        this.branchRepository = branch;
+        this.productRepository = product;
+        this.stockRepository = stock;
+        this.statsRepository = stats;
+        this.readCache = readCache;
+        this.deleteJobRepository = deleteJob;
+        this.eventPublisher = publisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "franchise-delete-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Inicia la eliminación asíncrona de una franquicia con sus sucursales y productos.
+     * Si ya existe una eliminación en curso para la franquicia se devuelve esa misma.
+     *
+     * @param idFranchise Identificador único de la franquicia a eliminar.
+     * @return ApiResponseDTO que contiene:
+     *         - El trabajo de eliminación (FranchiseDeleteJobDTO) para consultar su avance.
+     *         - Un mensaje de error si la franquicia no se encuentra registrada.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si el identificador es inválido.
+     */
+    public ApiResponseDTO<FranchiseDeleteJobDTO> Start(Integer idFranchise)
+    {
+        try
+        {
+            Optional<FranchiseEntity> Franchise = this.franchiseRepository.findById(idFranchise);
+
+            if (Franchise.isEmpty())
+            {
+                String message = "La franquicia seleccionada no ha sido registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            Optional<FranchiseDeleteJobEntity> running = this.deleteJobRepository.findFirstByFranchiseIdAndStatus(idFranchise, STATUS_RUNNING);
+
+            if (running.isPresent())
+            {
+                return ApiResponseDTO.Success("Ya existe una eliminacion en curso para la franquicia", JobResponse(running.get()));
+            }
+
+            FranchiseDeleteJobEntity job = FranchiseDeleteJobEntity.builder()
+                    .id(UUID.randomUUID().toString())
+                    .franchiseId(idFranchise)
+                    .franchiseName(Franchise.get().getName())
+                    .status(STATUS_RUNNING)
+                    .totalProducts(this.productRepository.CountByFranchise(idFranchise))
+                    .deletedProducts(0L)
+                    .deletedBranches(0)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            this.deleteJobRepository.save(job);
+            this.executor.submit(() -> Run(job.getId()));
+
+            return ApiResponseDTO.Success("Se ha iniciado la eliminacion de la franquicia", JobResponse(job));
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Obtiene el estado persistido de una eliminación asíncrona.
+     *
+     * @param id Identificador único del trabajo de eliminación.
+     * @return ApiResponseDTO que contiene:
+     *         - El estado y avance de la eliminación (FranchiseDeleteJobDTO).
+     *         - Un mensaje de error si el trabajo no se encuentra registrado.
+     */
+    public ApiResponseDTO<FranchiseDeleteJobDTO> SearchById(String id)
+    {
+        try
+        {
+            Optional<FranchiseDeleteJobEntity> job = this.deleteJobRepository.findById(id);
+
+            if (job.isEmpty())
+            {
+                String message = "La eliminacion no se encuentra registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            return ApiResponseDTO.Success("Se ha obtenido con exito el estado de la eliminacion", JobResponse(job.get()));
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Reanuda las eliminaciones que quedaron en curso al detenerse la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ResumeRunning()
+    {
+        for (FranchiseDeleteJobEntity job : this.deleteJobRepository.findByStatus(STATUS_RUNNING))
+        {
+            log.info("Reanudando la eliminacion {} de la franquicia {}", job.getId(), job.getFranchiseId());
+            this.executor.submit(() -> Run(job.getId()));
+        }
+    }
+
+    @PreDestroy
+    public void Shutdown()
+    {
+        this.executor.shutdownNow();
+    }
+
+    private void Run(String jobId)
+    {
+        try
+        {
+            Integer franchiseId = this.deleteJobRepository.findById(jobId).orElseThrow().getFranchiseId();
+
+            for (Integer branchId : this.branchRepository.SearchFranchiseBranchIds(franchiseId))
+            {
+                boolean branchDeleted = false;
+
+                while (!branchDeleted)
+                {
+                    if (Thread.currentThread().isInterrupted())
+                    {
+                        return;
+                    }
+
+                    branchDeleted = Boolean.TRUE.equals(this.chunkTransaction.execute(status -> DeleteChunk(jobId, branchId)));
+                }
+            }
+
+            this.chunkTransaction.executeWithoutResult(status -> Finish(jobId, franchiseId));
+        }
+        catch (RuntimeException ex)
+        {
+            log.error("No fue posible completar la eliminacion {}", jobId, ex);
+            this.chunkTransaction.executeWithoutResult(status -> Fail(jobId, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Elimina un bloque de productos de la sucursal. Cuando quedan menos productos que el tamaño
+     * del bloque, elimina los restantes y la sucursal en la misma transacción.
+     * Debe ejecutarse dentro de una transacción (chunkTransaction).
+     *
+     * @return true si la sucursal quedó eliminada.
+     */
+    boolean DeleteChunk(String jobId, Integer branchId)
+    {
+        FranchiseDeleteJobEntity job = this.deleteJobRepository.findById(jobId).orElseThrow();
+        List<Integer> ids = this.productRepository.SearchDeletionChunk(branchId, Limit.of(this.chunkSize));
+        boolean last = ids.size() < this.chunkSize;
+        List<ProductDTO> deleted = last
+                ? this.stockRepository.DeleteByBranch(branchId)
+                : this.stockRepository.DeleteBatch(ids.toArray(new Integer[0]));
+
+        if (!deleted.isEmpty())
+        {
+            long stock = deleted.stream().mapToLong(ProductDTO::getStock).sum();
+            this.statsRepository.ApplyProductDeltas(new Integer[] {branchId}, new Long[] {(long) -deleted.size()}, new Long[] {-stock});
+            this.readCache.EvictProducts(deleted.stream().map(ProductDTO::getId).toList());
+        }
+
+        if (last)
+        {
+            Optional<BranchEntity> Branch = this.branchRepository.findById(branchId);
+
+            if (Branch.isPresent())
+            {
+                BranchDTO before = new BranchDTO();
+                before.setId(Branch.get().getId());
+                before.setName(Branch.get().getName());
+                before.setFranchiseId(job.getFranchiseId());
+
+                this.branchRepository.BulkDelete(branchId);
+                this.eventPublisher.publishEvent(BranchChangedEvent.Deleted(before));
+                job.setDeletedBranches(job.getDeletedBranches() + 1);
+            }
+        }
+
+        job.setDeletedProducts(job.getDeletedProducts() + deleted.size());
+        job.setUpdatedAt(LocalDateTime.now());
+        return last;
+    }
+
+    /**
+     * Elimina la franquicia junto con las sucursales o productos creados mientras avanzaba el trabajo.
+     */
+    private void Finish(String jobId, Integer franchiseId)
+    {
+        FranchiseDeleteJobEntity job = this.deleteJobRepository.findById(jobId).orElseThrow();
+        Optional<FranchiseEntity> Franchise = this.franchiseRepository.findById(franchiseId);
+
+        if (Franchise.isPresent())
+        {
+            FranchiseDTO before = new FranchiseDTO();
+            before.setId(Franchise.get().getId());
+            before.setName(Franchise.get().getName());
+
+            List<Integer> branchIds = this.branchRepository.SearchFranchiseBranchIds(franchiseId);
+            int deleted = this.productRepository.DeleteByFranchise(franchiseId);
+            this.branchRepository.DeleteByFranchise(franchiseId);
+            this.franchiseRepository.BulkDelete(franchiseId);
+            this.eventPublisher.publishEvent(FranchiseChangedEvent.Deleted(before, branchIds));
+
+            job.setDeletedProducts(job.getDeletedProducts() + deleted);
+            job.setDeletedBranches(job.getDeletedBranches() + branchIds.size());
+        }
+
+        job.setStatus(STATUS_COMPLETED);
+        job.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void Fail(String jobId, String message)
+    {
+        this.deleteJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(STATUS_FAILED);
+            job.setMessage(message == null ? null : message.substring(0, Math.min(message.length(), 500)));
+            job.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    private FranchiseDeleteJobDTO JobResponse(FranchiseDeleteJobEntity job)
+    {
+        FranchiseDeleteJobDTO response = new FranchiseDeleteJobDTO();
+        response.setId(job.getId());
+        response.setFranchiseId(job.getFranchiseId());
+        response.setFranchiseName(job.getFranchiseName());
+        response.setStatus(job.getStatus());
+        response.setTotalProducts(job.getTotalProducts());
+        response.setDeletedProducts(job.getDeletedProducts());
+        response.setDeletedBranches(job.getDeletedBranches());
+        response.setProgress(job.getTotalProducts() == 0 ? 1.0 : Math.min(1.0, (double) job.getDeletedProducts() / job.getTotalProducts()));
+        response.setMessage(job.getMessage());
+        response.setUpdatedAt(job.getUpdatedAt());
+        return response;
+    }
+}
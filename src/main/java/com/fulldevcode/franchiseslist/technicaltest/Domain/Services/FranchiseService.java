@@ -1,39 +1,91 @@
 package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Engine.BranchStockEngine;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.*;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranchTopProduct;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseEntity;
 import jakarta.persistence.PersistenceException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 public class FranchiseService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FLUSH_ROWS = 500;
+    private static final int TREE_MAX_DEPTH = 2;
+    private static final Set<String> TREE_FIELDS = Set.of(
+            "id", "name", "stock",
+            "franchise.id", "franchise.name",
+            "branch.id", "branch.name",
+            "product.id", "product.name", "product.stock");
+
     private final IFranchise franchiseRepository;
+    private final IBranch branchRepository;
+    private final IProduct productRepository;
+    private final IBranchTopProduct topProductRepository;
+    private final BranchStockEngine stockEngine;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadCacheService readCache;
 
-    public FranchiseService(IFranchise franchise)
+    public FranchiseService(IFranchise franchise, IBranch branch, IProduct product, IBranchTopProduct topProduct,
+                            BranchStockEngine engine, ObjectMapper mapper, ApplicationEventPublisher publisher, ReadCacheService cache)
     {
         this.franchiseRepository = franchise;
+        this.branchRepository = branch;
+        this.productRepository = product;
+        this.topProductRepository = topProduct;
+        this.stockEngine = engine;
+        this.objectMapper = mapper;
+        this.eventPublisher = publisher;
+        this.readCache = cache;
     }
 
     /**
-     * Obtiene la lista de todas las franquicias registradas en el sistema.
+     * Obtiene una página de franquicias usando paginación por cursor (keyset).
+     * La página contiene las franquicias cuyo identificador es mayor a {@code after},
+     * ordenadas por identificador, por lo que el cliente solicita la siguiente página
+     * enviando como cursor el id de la última franquicia recibida.
      *
+     * @param after Cursor: identificador de la última franquicia de la página anterior (0 para la primera).
+     * @param limit Cantidad máxima de franquicias de la página (máximo 1000).
      * @return ApiResponseDTO que contiene:
      *         - Una lista de franquicias (FranchiseListDTO) si la operación es exitosa.
-     *         - Un mensaje de error en caso de que ocurra una excepción.
+     *         - Un mensaje de error en caso de que ocurra una excepción o el límite sea inválido.
      *
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si ocurre un error por argumentos inválidos.
      */
-    public ApiResponseDTO<List<FranchiseListDTO>> IndexFranchise()
+    public ApiResponseDTO<List<FranchiseListDTO>> IndexFranchise(Integer after, Integer limit)
     {
         try
         {
-            List<FranchiseListDTO> Franchises = this.franchiseRepository.IndexFranchise();
+            if (limit == null || limit < 1)
+            {
+                String message = "El limite de la pagina debe ser mayor a cero";
+                return ApiResponseDTO.Error(message);
+            }
+
+            Integer cursor = (after == null || after < 0) ? 0 : after;
+            Limit pageSize = Limit.of(Math.min(limit, MAX_PAGE_SIZE));
+
+            List<FranchiseListDTO> Franchises = this.franchiseRepository.IndexFranchise(cursor, pageSize);
             return ApiResponseDTO.Success("Lista de franquicias obtenida con exito", Franchises);
         }
         catch (PersistenceException | IllegalArgumentException ex)
@@ -48,8 +100,206 @@ public class FranchiseService {
         }
     }
 
+    /**
+     * Escribe todas las franquicias como un arreglo JSON directamente sobre el flujo de salida,
+     * fila por fila, a partir de un cursor de base de datos. La memoria usada se mantiene
+     * constante sin importar la cantidad de franquicias registradas.
+     *
+     * @param output Flujo de salida de la respuesta HTTP.
+     *
+     * @throws IOException Si ocurre un error al escribir en el flujo de salida.
+     */
+    @Transactional(readOnly = true)
+    public void StreamFranchise(OutputStream output) throws IOException
+    {
+        try (Stream<FranchiseListDTO> franchises = this.franchiseRepository.StreamFranchise();
+             JsonGenerator generator = this.objectMapper.getFactory().createGenerator(output))
+        {
+            generator.writeStartArray();
+
+            Iterator<FranchiseListDTO> iterator = franchises.iterator();
+            int written = 0;
+
+            while (iterator.hasNext())
+            {
+                generator.writeObject(iterator.next());
+
+                if (++written % STREAM_FLUSH_ROWS == 0)
+                {
+                    generator.flush();
+                }
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Valida una solicitud del árbol de una franquicia antes de empezar a transmitirlo,
+     * ya que una vez iniciada la respuesta no es posible devolver un error.
+     *
+     * @param id Identificador único de la franquicia.
+     * @param depth Profundidad del árbol: 0 solo la franquicia, 1 con sucursales, 2 con productos.
+     * @param fields Campos a incluir separados por coma (id, name, stock), opcionalmente calificados
+     *               por nivel (franchise.name, branch.id, product.stock); vacío para incluir todos.
+     * @return ApiResponseDTO que contiene:
+     *         - La franquicia (FranchiseDTO) si la solicitud es válida.
+     *         - Un mensaje de error si la franquicia no existe o la profundidad o los campos son inválidos.
+     */
+    public ApiResponseDTO<FranchiseDTO> SearchFranchiseTree(Integer id, Integer depth, String fields)
+    {
+        if (depth == null || depth < 0 || depth > TREE_MAX_DEPTH)
+        {
+            String message = "La profundidad del arbol debe estar entre 0 y " + TREE_MAX_DEPTH;
+            return ApiResponseDTO.Error(message);
+        }
+
+        for (String field : TreeFields(fields))
+        {
+            if (!TREE_FIELDS.contains(field))
+            {
+                String message = "El campo " + field + " no es valido para el arbol de la franquicia";
+                return ApiResponseDTO.Error(message);
+            }
+        }
+
+        return SearchFranchiseById(id);
+    }
+
+    /**
+     * Escribe el árbol franquicia → sucursales → productos como un objeto JSON anidado directamente
+     * sobre el flujo de salida. Se usan dos consultas por conjunto: la lista de sucursales de la
+     * franquicia y un cursor con todos sus productos ordenados por sucursal, que se recorren en
+     * paralelo; los productos nunca se cargan juntos en memoria ni se materializan como entidades.
+     * El árbol se escribe como el campo data del mismo sobre que ApiResponseDTO (success, message,
+     * data, timestamp), con el mismo generador, para que el cliente lea igual esta respuesta y las demás.
+     *
+     * @param franchise Franquicia validada con SearchFranchiseTree.
+     * @param depth Profundidad del árbol (0 a 2).
+     * @param fields Campos a incluir; vacío para incluir todos.
+     * @param output Flujo de salida de la respuesta HTTP.
+     *
+     * @throws IOException Si ocurre un error al escribir en el flujo de salida.
+     */
+    @Transactional(readOnly = true)
+    public void StreamFranchiseTree(FranchiseDTO franchise, Integer depth, String fields, OutputStream output) throws IOException
+    {
+        Set<String> selected = TreeFields(fields);
+        ApiResponseDTO<Void> envelope = ApiResponseDTO.Success("Se ha obtenido con exito el arbol de la franquicia", null);
+
+        try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(output))
+        {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", envelope.isSuccess());
+            generator.writeStringField("message", envelope.getMessage());
+            generator.writeFieldName("data");
+
+            generator.writeStartObject();
+            WriteTreeField(generator, selected, "franchise", "id", franchise.getId());
+            WriteTreeField(generator, selected, "franchise", "name", franchise.getName());
+
+            if (depth >= 1)
+            {
+                generator.writeArrayFieldStart("branches");
+                List<BranchSnapshotDTO> branches = this.branchRepository.SearchFranchiseBranches(franchise.getId());
+
+                if (depth >= 2)
+                {
+                    try (Stream<ProductSnapshotDTO> products = this.productRepository.StreamFranchiseProducts(franchise.getId()))
+                    {
+                        WriteTreeBranches(generator, selected, branches, products.iterator());
+                    }
+                }
+                else
+                {
+                    WriteTreeBranches(generator, selected, branches, null);
+                }
+
+                generator.writeEndArray();
+            }
+
+            generator.writeEndObject();
+
+            generator.writeObjectField("timestamp", envelope.getTimestamp());
+            generator.writeEndObject();
+        }
+    }
+
+    private void WriteTreeBranches(JsonGenerator generator, Set<String> selected, List<BranchSnapshotDTO> branches,
+                                   Iterator<ProductSnapshotDTO> products) throws IOException
+    {
+        ProductSnapshotDTO next = products != null && products.hasNext() ? products.next() : null;
+        int written = 0;
+
+        for (BranchSnapshotDTO branch : branches)
+        {
+            generator.writeStartObject();
+            WriteTreeField(generator, selected, "branch", "id", branch.getId());
+            WriteTreeField(generator, selected, "branch", "name", branch.getName());
+
+            if (products != null)
+            {
+                generator.writeArrayFieldStart("products");
+
+                // Productos de una sucursal creada después de leer la lista de sucursales.
+                while (next != null && next.getBranchId() < branch.getId())
+                {
+                    next = products.hasNext() ? products.next() : null;
+                }
+
+                while (next != null && next.getBranchId().equals(branch.getId()))
+                {
+                    generator.writeStartObject();
+                    WriteTreeField(generator, selected, "product", "id", next.getId());
+                    WriteTreeField(generator, selected, "product", "name", next.getName());
+                    WriteTreeField(generator, selected, "product", "stock", next.getStock());
+                    generator.writeEndObject();
+
+                    if (++written % STREAM_FLUSH_ROWS == 0)
+                    {
+                        generator.flush();
+                    }
+
+                    next = products.hasNext() ? products.next() : null;
+                }
+
+                generator.writeEndArray();
+            }
+
+            generator.writeEndObject();
+        }
+    }
+
+    private static void WriteTreeField(JsonGenerator generator, Set<String> selected, String level, String field, Object value)
+            throws IOException
+    {
+        if (selected.isEmpty() || selected.contains(field) || selected.contains(level + "." + field))
+        {
+            generator.writeObjectField(field, value);
+        }
+    }
+
+    private static Set<String> TreeFields(String fields)
+    {
+        Set<String> selected = new HashSet<>();
+
+        if (fields != null)
+        {
+            for (String field : fields.split(","))
+            {
+                if (!field.isBlank())
+                {
+                    selected.add(field.trim());
+                }
+            }
+        }
+
+        return selected;
+    }
+
     /**
      * Obtiene la información detallada de una franquicia a partir de su identificador.
+     * La respuesta se sirve desde la caché de lectura cuando está disponible.
      *
      * @param id Identificador único de la franquicia.
      * @return ApiResponseDTO que contiene:
@@ -63,6 +313,14 @@ public class FranchiseService {
     {
         try
         {
+            FranchiseDTO cached = this.readCache.Get(ReadCacheService.FRANCHISES, id, FranchiseDTO.class);
+
+            if (cached != null)
+            {
+                return ApiResponseDTO.Success("Se ha obtenido con exito la franquicia", cached);
+            }
+
+            long stamp = this.readCache.Stamp(ReadCacheService.FRANCHISES, id);
             Optional<FranchiseEntity> Franchise = this.franchiseRepository.findById(id);
 
             if (Franchise.isEmpty())
@@ -71,7 +329,10 @@ public class FranchiseService {
                 return ApiResponseDTO.Error(message);
             }
 
-            return ApiResponseDTO.Success("Se ha obtenido con exito la franquicia", ResponseFranchise(Franchise.get()));
+            FranchiseDTO franchise = ResponseFranchise(Franchise.get());
+            this.readCache.Put(ReadCacheService.FRANCHISES, id, franchise, stamp);
+
+            return ApiResponseDTO.Success("Se ha obtenido con exito la franquicia", franchise);
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
@@ -87,8 +348,7 @@ public class FranchiseService {
 
     /**
      * Crea una nueva franquicia en el sistema.
-     * Realiza la siguiente validación:
-     * - Verifica que no exista una franquicia con el mismo nombre.
+     * El nombre duplicado se detecta con el índice único sobre lower(name), sin una consulta previa.
      *
      * @param franchiseDTO Objeto DTO que contiene la información de la franquicia a crear.
      * @return ApiResponseDTO que contiene:
@@ -98,31 +358,37 @@ public class FranchiseService {
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si los datos recibidos son inválidos.
      */
+    @Transactional
     public ApiResponseDTO<FranchiseDTO> CreateFrachise(FranchiseDTO franchiseDTO)
     {
         try
         {
-            Optional<FranchiseEntity> SearchFranchise = this.franchiseRepository.SearchName(franchiseDTO.getName());
-
-            if (SearchFranchise.isPresent())
-            {
-                String message = "Ya ha una franquicia registrada en el sistema con ese nombre";
-                return ApiResponseDTO.Error(message);
-            }
-
             FranchiseEntity Franchise = new FranchiseEntity();
             Franchise.setName(franchiseDTO.getName());
-            this.franchiseRepository.save(Franchise);
+            this.franchiseRepository.saveAndFlush(Franchise);
+
+            FranchiseDTO created = ResponseFranchise(Franchise);
+            this.eventPublisher.publishEvent(FranchiseChangedEvent.Created(created));
 
-            return  ApiResponseDTO.Success("Se ha creado con exito la franquicia", ResponseFranchise(Franchise));
+            return  ApiResponseDTO.Success("Se ha creado con exito la franquicia", created);
+        }
+        catch (DataIntegrityViolationException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = UniqueConstraints.Violated(ex, UniqueConstraints.FRANCHISE_NAME)
+                    ? "Ya ha una franquicia registrada en el sistema con ese nombre"
+                    : "Ha ocurrido un error " + ex.getMostSpecificCause().getMessage();
+            return  ApiResponseDTO.Error(message);
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
@@ -132,7 +398,7 @@ public class FranchiseService {
      * Actualiza la información de una franquicia existente.
      * Realiza las siguientes validaciones:
      * - Verifica que la franquicia exista.
-     * - Verifica que no exista otra franquicia con el mismo nombre.
+     * - El nombre duplicado se detecta con el índice único sobre lower(name), sin una consulta previa.
      *
      * @param id Identificador único de la franquicia a actualizar.
      * @param franchiseDTO Objeto DTO con la información actualizada de la franquicia.
@@ -143,6 +409,7 @@ public class FranchiseService {
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si los datos recibidos son inválidos.
      */
+    @Transactional
     public ApiResponseDTO<FranchiseDTO> UpdateFranchise(Integer id, FranchiseDTO franchiseDTO)
     {
         try
@@ -155,27 +422,33 @@ public class FranchiseService {
                 return ApiResponseDTO.Error(message);
             }
 
-            Optional<FranchiseEntity> ValidateNameFranchise = this.franchiseRepository.SearchNameById(franchiseDTO.getName(), id);
-
-            if (ValidateNameFranchise.isPresent())
-            {
-                String message = "Ya hay una franquicia registrada con ese nombre";
-                return ApiResponseDTO.Error(message);
-            }
-
             FranchiseEntity Franchise = FranchiseSearch.get();
+            FranchiseDTO before = ResponseFranchise(Franchise);
             Franchise.setName(franchiseDTO.getName());
-            this.franchiseRepository.save(Franchise);
+            this.franchiseRepository.saveAndFlush(Franchise);
 
-            return ApiResponseDTO.Success("Se ha actualizado con exito la franquicia", ResponseFranchise(Franchise));
+            FranchiseDTO updated = ResponseFranchise(Franchise);
+            this.eventPublisher.publishEvent(FranchiseChangedEvent.Updated(before, updated));
+
+            return ApiResponseDTO.Success("Se ha actualizado con exito la franquicia", updated);
+        }
+        catch (DataIntegrityViolationException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = UniqueConstraints.Violated(ex, UniqueConstraints.FRANCHISE_NAME)
+                    ? "Ya hay una franquicia registrada con ese nombre"
+                    : "Ha ocurrido un error " + ex.getMostSpecificCause().getMessage();
+            return  ApiResponseDTO.Error(message);
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
@@ -183,6 +456,9 @@ public class FranchiseService {
 
     /**
      * Elimina una franquicia del sistema a partir de su identificador.
+     * Las sucursales y productos se eliminan con sentencias masivas de abajo hacia arriba
+     * (productos, sucursales y franquicia), sin cargar el árbol en memoria ni borrar fila por fila.
+     * Para franquicias muy grandes se recomienda FranchiseDeleteJobService, que elimina por bloques.
      *
      * @param id Identificador único de la franquicia a eliminar.
      * @return ApiResponseDTO que contiene:
@@ -192,6 +468,7 @@ public class FranchiseService {
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si el identificador es inválido.
      */
+    @Transactional
     public ApiResponseDTO<FranchiseDTO> DeleteFranchise(Integer id)
     {
         try
@@ -204,17 +481,26 @@ public class FranchiseService {
                 return ApiResponseDTO.Error(message);
             }
 
-            this.franchiseRepository.delete(Franchise.get());
-            return ApiResponseDTO.Success("Se ha eliminado con exito la franquicia", ResponseFranchise(Franchise.get()));
+            FranchiseDTO deleted = ResponseFranchise(Franchise.get());
+            List<Integer> branchIds = this.branchRepository.SearchFranchiseBranchIds(id);
+
+            this.productRepository.DeleteByFranchise(id);
+            this.branchRepository.DeleteByFranchise(id);
+            this.franchiseRepository.BulkDelete(id);
+            this.eventPublisher.publishEvent(FranchiseChangedEvent.Deleted(deleted, branchIds));
+
+            return ApiResponseDTO.Success("Se ha eliminado con exito la franquicia", deleted);
 
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
@@ -244,7 +530,9 @@ public class FranchiseService {
                 return ApiResponseDTO.Error(message);
             }
 
-            List<BranchMaxProductsListDTO> FranchisesBranches = this.franchiseRepository.SearchBranchesMaxProducts(id);
+            List<BranchMaxProductsListDTO> FranchisesBranches = this.stockEngine.IsReady()
+                    ? this.stockEngine.TopPerBranch(id)
+                    : this.topProductRepository.SearchBranchesMaxProducts(id);
             return ApiResponseDTO.Success("Se ha obtenido con exito las sucursales con su producto con mas stock", FranchisesBranches);
         }
         catch (PersistenceException | IllegalArgumentException ex)
@@ -272,6 +560,7 @@ public class FranchiseService {
         FranchiseDTO franchiseResponse = new FranchiseDTO();
         franchiseResponse.setId(franchise.getId());
         franchiseResponse.setName(franchise.getName());
+        franchiseResponse.setVersion(franchise.getVersion());
         return franchiseResponse;
     }
 }
@@ -0,0 +1,516 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.OptimisticRetryPolicy;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.*;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IImportJob;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchEntity;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseEntity;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.ImportJobEntity;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.ProductEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Importa árboles completos franquicia → sucursal → producto desde un cuerpo NDJSON o CSV
+ * leído línea por línea, con memoria acotada al tamaño de un bloque.
+ * Cada bloque de filas se confirma en su propia transacción: un bloque fallido se reporta
+ * y no revierte los bloques anteriores ni detiene la importación.
+ * Las filas se aplican como inserción o actualización por nombre, por lo que reprocesar
+ * un bloque es seguro; esto permite reanudar una importación desde la última línea
+ * confirmada de forma contigua.
+ */
+@Service
+public class ImportService {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_COMPLETED_WITH_ERRORS = "COMPLETED_WITH_ERRORS";
+    private static final int MAX_CHUNK_SIZE = 5000;
+
+    private final IFranchise franchiseRepository;
+    private final IBranch branchRepository;
+    private final IProduct productRepository;
+    private final IImportJob importJobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate chunkTransaction;
+    private final ObjectMapper objectMapper;
+    private final OptimisticRetryPolicy retryPolicy;
+
+    public ImportService(IFranchise franchise, IBranch branch, IProduct product, IImportJob importJob,
+                         ApplicationEventPublisher publisher, EntityManager manager,
+                         PlatformTransactionManager transactionManager, ObjectMapper mapper,
+                         OptimisticRetryPolicy retry)
+    {
+        this.franchiseRepository = franchise;
+        this.branchRepository = branch;
+        this.productRepository = product;
+        this.importJobRepository = importJob;
+        this.eventPublisher = publisher;
+        this.entityManager = manager;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = mapper;
+        this.retryPolicy = retry;
+    }
+
+    /**
+     * Ejecuta (o reanuda) una importación masiva.
+     * Formato NDJSON: un objeto por línea {"franchise": "...", "branch": "...", "product": "...", "stock": 10}.
+     * Formato CSV: encabezado franchise,branch,product,stock y una fila por línea.
+     * La sucursal y el producto son opcionales, lo que permite crear franquicias o sucursales sin productos.
+     *
+     * @param body Cuerpo de la solicitud, leído de forma incremental.
+     * @param format Formato del cuerpo: ndjson o csv.
+     * @param chunkSize Cantidad de filas confirmadas por transacción (máximo 5000).
+     * @param importId Identificador de una importación previa a reanudar, o null para una nueva.
+     * @return ApiResponseDTO que contiene:
+     *         - El estado final de la importación con el resultado de cada bloque (ImportJobDTO).
+     *         - Un mensaje de error si los parámetros son inválidos o la importación a reanudar no existe.
+     */
+    public ApiResponseDTO<ImportJobDTO> Import(InputStream body, String format, Integer chunkSize, String importId)
+    {
+        try
+        {
+            if (!FORMAT_NDJSON.equals(format) && !FORMAT_CSV.equals(format))
+            {
+                String message = "El formato de importacion debe ser ndjson o csv";
+                return ApiResponseDTO.Error(message);
+            }
+
+            if (chunkSize == null || chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE)
+            {
+                String message = "El tamaño del bloque debe estar entre 1 y " + MAX_CHUNK_SIZE;
+                return ApiResponseDTO.Error(message);
+            }
+
+            ImportJobEntity job;
+
+            if (importId != null)
+            {
+                Optional<ImportJobEntity> previous = this.importJobRepository.findById(importId);
+
+                if (previous.isEmpty())
+                {
+                    String message = "La importacion que se desea reanudar no se encuentra registrada en el sistema";
+                    return ApiResponseDTO.Error(message);
+                }
+
+                job = previous.get();
+                job.setFailedChunks(0);
+            }
+            else
+            {
+                job = new ImportJobEntity();
+                job.setId(UUID.randomUUID().toString());
+                job.setFormat(format);
+                job.setLastCommittedLine(0L);
+                job.setProcessedRows(0L);
+                job.setFailedChunks(0);
+                job.setCreatedAt(LocalDateTime.now());
+            }
+
+            job.setStatus(STATUS_RUNNING);
+            job.setUpdatedAt(LocalDateTime.now());
+            job = this.importJobRepository.save(job);
+
+            ImportJobDTO report = Run(job, body, format, chunkSize);
+            return ApiResponseDTO.Success("Se ha finalizado la importacion", report);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Obtiene el estado persistido de una importación.
+     *
+     * @param id Identificador único de la importación.
+     * @return ApiResponseDTO que contiene:
+     *         - El estado de la importación (ImportJobDTO).
+     *         - Un mensaje de error si la importación no se encuentra registrada.
+     */
+    public ApiResponseDTO<ImportJobDTO> SearchById(String id)
+    {
+        try
+        {
+            Optional<ImportJobEntity> job = this.importJobRepository.findById(id);
+
+            if (job.isEmpty())
+            {
+                String message = "La importacion no se encuentra registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            return ApiResponseDTO.Success("Se ha obtenido con exito el estado de la importacion", JobResponse(job.get(), 0L, List.of()));
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    private ImportJobDTO Run(ImportJobEntity job, InputStream body, String format, int chunkSize) throws Exception
+    {
+        long resumeAfter = job.getLastCommittedLine();
+        boolean contiguous = true;
+        long skipped = 0;
+        long lineNumber = 0;
+        List<ImportChunkResultDTO> chunks = new ArrayList<>();
+        List<ParsedLine> pending = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)))
+        {
+            String line;
+
+            if (FORMAT_CSV.equals(format) && reader.readLine() == null)
+            {
+                return JobResponse(Finish(job), skipped, chunks);
+            }
+
+            while ((line = reader.readLine()) != null)
+            {
+                lineNumber++;
+
+                if (lineNumber <= resumeAfter)
+                {
+                    skipped++;
+                    continue;
+                }
+
+                if (line.isBlank())
+                {
+                    continue;
+                }
+
+                pending.add(new ParsedLine(lineNumber, line));
+
+                if (pending.size() == chunkSize)
+                {
+                    contiguous = CommitChunk(job, pending, format, chunks, contiguous);
+                    pending.clear();
+                }
+            }
+        }
+
+        if (!pending.isEmpty())
+        {
+            CommitChunk(job, pending, format, chunks, contiguous);
+        }
+
+        return JobResponse(Finish(job), skipped, chunks);
+    }
+
+    /**
+     * Aplica un bloque de filas en su propia transacción y actualiza el punto de reanudación.
+     * El punto de reanudación solo avanza mientras todos los bloques anteriores se hayan confirmado.
+     * Si el bloque choca con un ajuste de stock concurrente sobre los mismos productos (@Version),
+     * se vuelve a aplicar completo en una transacción nueva según OptimisticRetryPolicy.
+     *
+     * @return true si la secuencia de bloques confirmados sigue siendo contigua.
+     */
+    private boolean CommitChunk(ImportJobEntity job, List<ParsedLine> lines, String format,
+                                List<ImportChunkResultDTO> chunks, boolean contiguous)
+    {
+        long firstLine = lines.get(0).number;
+        long lastLine = lines.get(lines.size() - 1).number;
+        int chunkNumber = chunks.size() + 1;
+        ImportChunkResultDTO result;
+
+        try
+        {
+            this.retryPolicy.Execute(() -> this.chunkTransaction.executeWithoutResult(status -> ApplyChunk(lines, format)));
+            result = new ImportChunkResultDTO(chunkNumber, firstLine, lastLine, lines.size(), true, "Bloque confirmado");
+            job.setProcessedRows(job.getProcessedRows() + lines.size());
+
+            if (contiguous)
+            {
+                job.setLastCommittedLine(lastLine);
+            }
+        }
+        catch (RuntimeException ex)
+        {
+            result = new ImportChunkResultDTO(chunkNumber, firstLine, lastLine, lines.size(), false, ex.getMessage());
+            job.setFailedChunks(job.getFailedChunks() + 1);
+            contiguous = false;
+        }
+        finally
+        {
+            this.entityManager.clear();
+        }
+
+        chunks.add(result);
+        job.setUpdatedAt(LocalDateTime.now());
+        this.importJobRepository.save(job);
+
+        return contiguous;
+    }
+
+    private void ApplyChunk(List<ParsedLine> lines, String format)
+    {
+        Map<String, FranchiseEntity> franchises = new HashMap<>();
+        Map<String, BranchEntity> branches = new HashMap<>();
+
+        for (ParsedLine line : lines)
+        {
+            ImportRowDTO row = Parse(line, format);
+
+            if (row.getFranchise() == null || row.getFranchise().isBlank())
+            {
+                throw new IllegalArgumentException("Linea " + line.number + ": el nombre de la franquicia es obligatorio");
+            }
+
+            FranchiseEntity franchise = franchises.computeIfAbsent(row.getFranchise().toLowerCase(Locale.ROOT), key -> ResolveFranchise(row.getFranchise()));
+
+            if (row.getBranch() == null || row.getBranch().isBlank())
+            {
+                continue;
+            }
+
+            String branchKey = franchise.getId() + "/" + row.getBranch().toLowerCase(Locale.ROOT);
+            BranchEntity branch = branches.computeIfAbsent(branchKey, key -> ResolveBranch(franchise, row.getBranch()));
+
+            if (row.getProduct() == null || row.getProduct().isBlank())
+            {
+                continue;
+            }
+
+            if (row.getStock() != null && row.getStock() < 0)
+            {
+                throw new IllegalArgumentException("Linea " + line.number + ": el stock del producto debe ser mayor o igual a cero");
+            }
+
+            UpsertProduct(branch, row.getProduct(), row.getStock());
+        }
+    }
+
+    private FranchiseEntity ResolveFranchise(String name)
+    {
+        Optional<FranchiseEntity> existing = this.franchiseRepository.SearchName(name);
+
+        if (existing.isPresent())
+        {
+            return existing.get();
+        }
+
+        FranchiseEntity franchise = new FranchiseEntity();
+        franchise.setName(name);
+        this.franchiseRepository.save(franchise);
+
+        FranchiseDTO created = new FranchiseDTO();
+        created.setId(franchise.getId());
+        created.setName(franchise.getName());
+        this.eventPublisher.publishEvent(FranchiseChangedEvent.Created(created));
+
+        return franchise;
+    }
+
+    private BranchEntity ResolveBranch(FranchiseEntity franchise, String name)
+    {
+        Optional<BranchEntity> existing = this.branchRepository.FindByName(franchise.getId(), name);
+
+        if (existing.isPresent())
+        {
+            return existing.get();
+        }
+
+        BranchEntity branch = new BranchEntity();
+        branch.setName(name);
+        branch.setFranchise(franchise);
+        this.branchRepository.save(branch);
+
+        BranchDTO created = new BranchDTO();
+        created.setId(branch.getId());
+        created.setName(branch.getName());
+        created.setFranchiseId(franchise.getId());
+        this.eventPublisher.publishEvent(BranchChangedEvent.Created(created));
+
+        return branch;
+    }
+
+    private void UpsertProduct(BranchEntity branch, String name, Integer stock)
+    {
+        Optional<ProductEntity> existing = this.productRepository.findByName(branch.getId(), name);
+
+        if (existing.isPresent())
+        {
+            ProductEntity product = existing.get();
+
+            if (stock == null || stock.equals(product.getStock()))
+            {
+                return;
+            }
+
+            ProductDTO before = ProductResponse(product);
+            product.setStock(stock);
+
+            // El evento debe llevar la versión que @Version asigna al enviar el UPDATE, para que los
+            // consumidores ordenen los cambios; saveAndFlush lo envía antes de publicar el evento.
+            this.productRepository.saveAndFlush(product);
+            this.eventPublisher.publishEvent(ProductChangedEvent.Updated(before, ProductResponse(product)));
+            return;
+        }
+
+        ProductEntity product = new ProductEntity();
+        product.setName(name);
+        product.setStock(stock == null ? 0 : stock);
+        product.setBranch(branch);
+        this.productRepository.save(product);
+        this.eventPublisher.publishEvent(ProductChangedEvent.Created(ProductResponse(product)));
+    }
+
+    private ImportRowDTO Parse(ParsedLine line, String format)
+    {
+        try
+        {
+            if (FORMAT_NDJSON.equals(format))
+            {
+                return this.objectMapper.readValue(line.content, ImportRowDTO.class);
+            }
+
+            List<String> fields = SplitCsv(line.content);
+            ImportRowDTO row = new ImportRowDTO();
+            row.setFranchise(Field(fields, 0));
+            row.setBranch(Field(fields, 1));
+            row.setProduct(Field(fields, 2));
+            String stock = Field(fields, 3);
+            row.setStock(stock == null || stock.isBlank() ? null : Integer.valueOf(stock.trim()));
+            return row;
+        }
+        catch (Exception ex)
+        {
+            throw new IllegalArgumentException("Linea " + line.number + ": formato invalido (" + ex.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Separa una línea CSV en campos, admitiendo campos entre comillas dobles y comillas escapadas ("").
+     */
+    private List<String> SplitCsv(String line)
+    {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++)
+        {
+            char character = line.charAt(i);
+
+            if (quoted)
+            {
+                if (character == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"')
+                {
+                    current.append('"');
+                    i++;
+                }
+                else if (character == '"')
+                {
+                    quoted = false;
+                }
+                else
+                {
+                    current.append(character);
+                }
+            }
+            else if (character == '"')
+            {
+                quoted = true;
+            }
+            else if (character == ',')
+            {
+                fields.add(current.toString());
+                current.setLength(0);
+            }
+            else
+            {
+                current.append(character);
+            }
+        }
+
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private String Field(List<String> fields, int index)
+    {
+        return index < fields.size() ? fields.get(index).trim() : null;
+    }
+
+    private ImportJobEntity Finish(ImportJobEntity job)
+    {
+        job.setStatus(job.getFailedChunks() == 0 ? STATUS_COMPLETED : STATUS_COMPLETED_WITH_ERRORS);
+        job.setUpdatedAt(LocalDateTime.now());
+        return this.importJobRepository.save(job);
+    }
+
+    private ImportJobDTO JobResponse(ImportJobEntity job, Long skippedRows, List<ImportChunkResultDTO> chunks)
+    {
+        ImportJobDTO jobDTO = new ImportJobDTO();
+        jobDTO.setId(job.getId());
+        jobDTO.setFormat(job.getFormat());
+        jobDTO.setStatus(job.getStatus());
+        jobDTO.setLastCommittedLine(job.getLastCommittedLine());
+        jobDTO.setProcessedRows(job.getProcessedRows());
+        jobDTO.setSkippedRows(skippedRows);
+        jobDTO.setFailedChunks(job.getFailedChunks());
+        jobDTO.setUpdatedAt(job.getUpdatedAt());
+        jobDTO.setChunks(chunks);
+        return jobDTO;
+    }
+
+    private ProductDTO ProductResponse(ProductEntity product)
+    {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setId(product.getId());
+        productDTO.setName(product.getName());
+        productDTO.setStock(product.getStock());
+        productDTO.setBranchId(product.getBranch().getId());
+        productDTO.setVersion(product.getVersion());
+        return productDTO;
+    }
+
+    private static final class ParsedLine {
+
+        private final long number;
+        private final String content;
+
+        private ParsedLine(long number, String content)
+        {
+            this.number = number;
+            this.content = content;
+        }
+    }
+}
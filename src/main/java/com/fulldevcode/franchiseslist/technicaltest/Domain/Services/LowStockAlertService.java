@@ -0,0 +1,211 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Engine.BranchStockEngine;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.LowStockAlertDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alertas de stock bajo enviadas por Server-Sent Events a los clientes suscritos a una franquicia.
+ * Cada cambio de producto confirmado cuyo stock cruza hacia abajo el umbral de una suscripción
+ * (antes mayor o igual, ahora menor, o un producto nuevo por debajo del umbral) genera una alerta.
+ * Las alertas se envían desde un único hilo para que un cliente lento no retrase la transacción
+ * que originó el cambio, y solo los cambios en los que el stock disminuye llegan a ese hilo.
+ * La cola de ese hilo tiene capacidad franchises.low-stock.queue-capacity: si los clientes no
+ * alcanzan a recibir las alertas, las nuevas se descartan (y se registra cuántas) en lugar de
+ * acumularse en memoria. La franquicia de cada producto se obtiene de BranchStockEngine, sin
+ * consultar la base de datos por cada alerta.
+ */
+@Service
+public class LowStockAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockAlertService.class);
+
+    private final IFranchise franchiseRepository;
+    private final IBranch branchRepository;
+    private final BranchStockEngine stockEngine;
+    private final int defaultThreshold;
+    private final long timeoutMs;
+    private final Map<Integer, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor dispatcher;
+    private final AtomicLong droppedAlerts = new AtomicLong();
+
+    public LowStockAlertService(IFranchise franchise, IBranch branch, BranchStockEngine engine,
+                                @Value("${franchises.low-stock.threshold:10}") int defaultThreshold,
+                                @Value("${franchises.low-stock.sse-timeout-ms:1800000}") long timeoutMs,
+                                @Value("${franchises.low-stock.queue-capacity:10000}") int queueCapacity)
+    {
+        this.franchiseRepository = franchise;
+        this.branchRepository = branch;
+        this.stockEngine = engine;
+        this.defaultThreshold = defaultThreshold;
+        this.timeoutMs = timeoutMs;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-alerts");
+            thread.setDaemon(true);
+            return thread;
+        }, (task, executor) -> {
+            if (!executor.isShutdown())
+            {
+                Dropped();
+            }
+        });
+    }
+
+    private record Subscription(SseEmitter emitter, int threshold) {
+    }
+
+    /**
+     * Suscribe un cliente a las alertas de stock bajo de una franquicia.
+     * Si la franquicia no existe se envía un evento "error" con el ApiResponseDTO y se cierra la conexión.
+     *
+     * @param idFranchise Identificador único de la franquicia.
+     * @param threshold Umbral de stock de la suscripción (por defecto franchises.low-stock.threshold).
+     * @return Emisor SSE que recibe un evento "subscribed" y luego un evento "low-stock" por alerta.
+     */
+    public SseEmitter Subscribe(Integer idFranchise, Integer threshold)
+    {
+        SseEmitter emitter = new SseEmitter(this.timeoutMs);
+        int limit = threshold == null ? this.defaultThreshold : threshold;
+
+        try
+        {
+            if (this.franchiseRepository.findById(idFranchise).isEmpty())
+            {
+                String message = "La franquicia seleccionada no se encuentra registrada en el sistema";
+                emitter.send(SseEmitter.event().name("error").data(ApiResponseDTO.Error(message), MediaType.APPLICATION_JSON));
+                emitter.complete();
+                return emitter;
+            }
+
+            Subscription subscription = new Subscription(emitter, limit);
+            this.subscriptions.compute(idFranchise, (key, franchiseSubscriptions) -> {
+                List<Subscription> list = franchiseSubscriptions == null ? new CopyOnWriteArrayList<>() : franchiseSubscriptions;
+                list.add(subscription);
+                return list;
+            });
+
+            emitter.onCompletion(() -> Unsubscribe(idFranchise, subscription));
+            emitter.onTimeout(() -> Unsubscribe(idFranchise, subscription));
+            emitter.onError(ex -> Unsubscribe(idFranchise, subscription));
+            emitter.send(SseEmitter.event().name("subscribed").data(limit));
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            emitter.completeWithError(ex);
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Retira la suscripción y, si era la última de la franquicia, también la lista. Se hace dentro de
+     * computeIfPresent para que una suscripción nueva no se agregue a una lista que se está retirando.
+     */
+    private void Unsubscribe(Integer idFranchise, Subscription subscription)
+    {
+        this.subscriptions.computeIfPresent(idFranchise, (key, franchiseSubscriptions) -> {
+            franchiseSubscriptions.remove(subscription);
+            return franchiseSubscriptions.isEmpty() ? null : franchiseSubscriptions;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnProductChanged(ProductChangedEvent event)
+    {
+        ProductDTO before = event.getBefore();
+        ProductDTO after = event.getAfter();
+
+        if (after == null || this.subscriptions.isEmpty() || (before != null && before.getStock() <= after.getStock()))
+        {
+            return;
+        }
+
+        this.dispatcher.execute(() -> Dispatch(before, after));
+    }
+
+    private void Dropped()
+    {
+        long dropped = this.droppedAlerts.incrementAndGet();
+
+        if (dropped == 1 || dropped % 1000 == 0)
+        {
+            log.warn("La cola de alertas de stock bajo está llena; se han descartado {} cambios de producto", dropped);
+        }
+    }
+
+    private void Dispatch(ProductDTO before, ProductDTO after)
+    {
+        try
+        {
+            Integer franchiseId = this.stockEngine.IsReady()
+                    ? this.stockEngine.FranchiseOf(after.getBranchId())
+                    : this.branchRepository.findById(after.getBranchId()).map(branch -> branch.getFranchise().getId()).orElse(null);
+            List<Subscription> franchiseSubscriptions = franchiseId == null ? null : this.subscriptions.get(franchiseId);
+
+            if (franchiseSubscriptions == null)
+            {
+                return;
+            }
+
+            Integer previous = before == null ? null : before.getStock();
+
+            for (Subscription subscription : franchiseSubscriptions)
+            {
+                boolean crossed = after.getStock() < subscription.threshold()
+                        && (previous == null || previous >= subscription.threshold());
+
+                if (crossed)
+                {
+                    Send(franchiseId, subscription, new LowStockAlertDTO(franchiseId, after.getBranchId(), after.getId(),
+                            after.getName(), previous, after.getStock(), subscription.threshold()));
+                }
+            }
+        }
+        catch (RuntimeException ex)
+        {
+            log.warn("No fue posible enviar la alerta de stock bajo del producto {}", after.getId(), ex);
+        }
+    }
+
+    private void Send(Integer franchiseId, Subscription subscription, LowStockAlertDTO alert)
+    {
+        try
+        {
+            subscription.emitter().send(SseEmitter.event().name("low-stock").data(alert, MediaType.APPLICATION_JSON));
+        }
+        catch (IOException | IllegalStateException ex)
+        {
+            Unsubscribe(franchiseId, subscription);
+            subscription.emitter().completeWithError(ex);
+        }
+    }
+
+    @PreDestroy
+    public void Shutdown()
+    {
+        this.dispatcher.shutdownNow();
+        this.subscriptions.values().forEach(list -> list.forEach(subscription -> subscription.emitter().complete()));
+    }
+}
@@ -0,0 +1,175 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Engine.BranchStockEngine;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Engine.ProductSearchIndex;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import jakarta.persistence.PersistenceException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Búsquedas de productos en todas las sucursales de una franquicia.
+ * - Por nombre: usa el índice por trigramas en memoria y, mientras este se carga o si está
+ *   deshabilitado, una consulta LIKE sobre la base de datos con el mismo orden (stock descendente).
+ * - Por rango de stock: usa el motor de stock por sucursal y, como respaldo, el índice
+ *   ix_products_branch_stock (branch_id, stock) con una consulta por rango.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_RESULTS = 10000;
+    private static final int MAX_RANGE_LIMIT = 1000;
+
+    private final ProductSearchIndex searchIndex;
+    private final BranchStockEngine stockEngine;
+    private final IFranchise franchiseRepository;
+    private final IProduct productRepository;
+
+    public ProductSearchService(ProductSearchIndex searchIndex, BranchStockEngine stockEngine, IFranchise franchise, IProduct product)
+    {
+        this.searchIndex = searchIndex;
+        this.stockEngine = stockEngine;
+        this.franchiseRepository = franchise;
+        this.productRepository = product;
+    }
+
+    /**
+     * Obtiene una página de los productos de la franquicia cuyo nombre contiene el texto buscado,
+     * junto con la sucursal en la que se encuentran, ordenados por stock descendente.
+     *
+     * @param idFranchise Identificador único de la franquicia.
+     * @param query Texto a buscar en el nombre del producto (sin distinguir mayúsculas ni tildes).
+     * @param page Número de página, iniciando en 0.
+     * @param size Cantidad de productos por página (máximo 100).
+     * @return ApiResponseDTO que contiene:
+     *         - La lista de productos encontrados (ProductSearchDTO).
+     *         - Un mensaje de error si la franquicia no existe o los parámetros son inválidos.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si los parámetros son inválidos.
+     */
+    public ApiResponseDTO<List<ProductSearchDTO>> SearchFranchiseProducts(Integer idFranchise, String query, Integer page, Integer size)
+    {
+        try
+        {
+            if (query == null || query.isBlank())
+            {
+                String message = "Debe indicar el nombre del producto a buscar";
+                return ApiResponseDTO.Error(message);
+            }
+
+            if (page < 0 || size < 1 || size > MAX_PAGE_SIZE || (long) (page + 1) * size > MAX_RESULTS)
+            {
+                String message = "La pagina solicitada no es valida, el tamaño maximo es " + MAX_PAGE_SIZE + " y se pueden consultar hasta " + MAX_RESULTS + " resultados";
+                return ApiResponseDTO.Error(message);
+            }
+
+            if (this.franchiseRepository.findById(idFranchise).isEmpty())
+            {
+                String message = "La franquicia seleccionada no se encuentra registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            String text = query.trim();
+            List<ProductSearchDTO> products = this.searchIndex.IsReady()
+                    ? this.searchIndex.Search(idFranchise, text, page * size, size)
+                    : this.productRepository.SearchFranchiseProducts(idFranchise, LikePattern(text), PageRequest.of(page, size));
+
+            return ApiResponseDTO.Success("Se han obtenido con exito los productos encontrados", products);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Obtiene los productos de la franquicia cuyo stock está dentro del rango indicado, junto con
+     * la sucursal en la que se encuentran, ordenados por stock ascendente (primero los de menor stock).
+     *
+     * @param idFranchise Identificador único de la franquicia.
+     * @param stockBelow Se incluyen los productos con stock menor a este valor (opcional).
+     * @param stockAbove Se incluyen los productos con stock mayor a este valor (opcional).
+     * @param limit Cantidad máxima de productos a retornar (máximo 1000).
+     * @return ApiResponseDTO que contiene:
+     *         - La lista de productos dentro del rango (ProductSearchDTO).
+     *         - Un mensaje de error si la franquicia no existe o los parámetros son inválidos.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si los parámetros son inválidos.
+     */
+    public ApiResponseDTO<List<ProductSearchDTO>> SearchFranchiseStockRange(Integer idFranchise, Integer stockBelow, Integer stockAbove, Integer limit)
+    {
+        try
+        {
+            if (stockBelow == null && stockAbove == null)
+            {
+                String message = "Debe indicar al menos uno de los limites de stock (stockBelow o stockAbove)";
+                return ApiResponseDTO.Error(message);
+            }
+
+            if ((stockBelow != null && stockBelow == Integer.MIN_VALUE) || (stockAbove != null && stockAbove == Integer.MAX_VALUE))
+            {
+                String message = "Los limites de stock indicados no son validos";
+                return ApiResponseDTO.Error(message);
+            }
+
+            if (limit < 1 || limit > MAX_RANGE_LIMIT)
+            {
+                String message = "La cantidad de productos solicitada debe estar entre 1 y " + MAX_RANGE_LIMIT;
+                return ApiResponseDTO.Error(message);
+            }
+
+            if (this.franchiseRepository.findById(idFranchise).isEmpty())
+            {
+                String message = "La franquicia seleccionada no se encuentra registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            List<ProductSearchDTO> products = this.stockEngine.IsReady()
+                    ? this.stockEngine.StockRange(idFranchise, stockBelow, stockAbove, limit)
+                    : this.productRepository.SearchFranchiseStockRange(idFranchise,
+                            stockAbove == null ? Integer.MIN_VALUE : stockAbove + 1,
+                            stockBelow == null ? Integer.MAX_VALUE : stockBelow - 1,
+                            Limit.of(limit));
+
+            return ApiResponseDTO.Success("Se han obtenido con exito los productos dentro del rango de stock", products);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Construye el patrón LIKE de la consulta de respaldo escapando los comodines del texto.
+     */
+    private static String LikePattern(String text)
+    {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+}
@@ -1,29 +1,68 @@
 package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
 
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Engine.StockDeltaCoalescer;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BulkProductResultDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.StockAdjustmentDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.StockAdjustmentResultDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.ProductStockRepository;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchEntity;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.ProductEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 
 public class ProductService {
 
+    private static final int MAX_BULK_PRODUCTS = 10000;
+    private static final int NAME_LOOKUP_CHUNK = 1000;
+    private static final int MAX_STOCK_ADJUSTMENTS = 5000;
+
     private final IProduct productRepository;
+    private final ProductStockRepository stockRepository;
+    private final StockDeltaCoalescer stockCoalescer;
     private final IBranch branchRepository;
-
-    public ProductService (IProduct product, IBranch branch)
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final ReadCacheService readCache;
+    private final TransactionTemplate currentRead;
+
+    public ProductService (IProduct product, ProductStockRepository stock, StockDeltaCoalescer coalescer, IBranch branch,
+                           ApplicationEventPublisher publisher, EntityManager manager,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize, ReadCacheService cache,
+                           PlatformTransactionManager transactionManager)
     {
         this.productRepository = product;
+        this.stockRepository = stock;
+        this.stockCoalescer = coalescer;
         this.branchRepository = branch;
+        this.eventPublisher = publisher;
+        this.entityManager = manager;
+        this.batchSize = batchSize;
+        this.readCache = cache;
+        this.currentRead = new TransactionTemplate(transactionManager);
+        this.currentRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.currentRead.setReadOnly(true);
     }
 
     /**
@@ -58,6 +97,8 @@ public class ProductService {
 
     /**
      * Obtiene la información detallada de un producto a partir de su identificador.
+     * La respuesta se sirve desde la caché de lectura cuando está disponible y el stock
+     * incluye los movimientos encolados que aún no se han escrito en la base de datos.
      *
      * @param id Identificador único del producto.
      * @return ApiResponseDTO que contiene:
@@ -71,6 +112,14 @@ public class ProductService {
     {
         try
         {
+            ProductDTO cached = this.readCache.Get(ReadCacheService.PRODUCTS, id, ProductDTO.class);
+
+            if (cached != null)
+            {
+                return ApiResponseDTO.Success("Producto encontrado con exito", WithPendingStock(cached));
+            }
+
+            long stamp = this.readCache.Stamp(ReadCacheService.PRODUCTS, id);
             Optional<ProductEntity> product = this.productRepository.findById(id);
 
             if (product.isEmpty())
@@ -79,7 +128,10 @@ public class ProductService {
                 return ApiResponseDTO.Error(message);
             }
 
-            return ApiResponseDTO.Success("Producto encontrado con exito", ProductResponse(product.get()));
+            ProductDTO productDTO = ProductResponse(product.get());
+            this.readCache.Put(ReadCacheService.PRODUCTS, id, productDTO, stamp);
+
+            return ApiResponseDTO.Success("Producto encontrado con exito", WithPendingStock(productDTO));
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
@@ -96,8 +148,8 @@ public class ProductService {
     /**
      * Crea un nuevo producto asociado a una sucursal existente.
      * Realiza las siguientes validaciones:
-     * - Verifica que no exista un producto con el mismo nombre en la sucursal.
      * - Verifica que la sucursal asociada exista.
+     * - El nombre duplicado en la sucursal se detecta con el índice único sobre (branch_id, lower(name)).
      *
      * @param productDTO Objeto DTO que contiene los datos del producto a crear.
      * @return ApiResponseDTO que contiene:
@@ -107,18 +159,11 @@ public class ProductService {
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si los datos recibidos son inválidos.
      */
+    @Transactional
     public ApiResponseDTO<ProductDTO> CreateProduct(ProductDTO productDTO)
     {
         try
         {
-            Optional<ProductEntity> productSearch = this.productRepository.findByName(productDTO.getBranchId(), productDTO.getName());
-
-            if (productSearch.isPresent())
-            {
-                String message = "Ya hay un producto registrado en esta sucursal con este nombre";
-                return ApiResponseDTO.Error(message);
-            }
-
             Optional<BranchEntity> branch = this.branchRepository.findById(productDTO.getBranchId());
 
             if (branch.isEmpty())
@@ -132,18 +177,139 @@ public class ProductService {
             product.setStock(productDTO.getStock());
             product.setBranch(branch.get());
 
-            this.productRepository.save(product);
+            this.productRepository.saveAndFlush(product);
+
+            ProductDTO created = ProductResponse(product);
+            this.eventPublisher.publishEvent(ProductChangedEvent.Created(created));
 
-            return  ApiResponseDTO.Success("El producto ha sido agregado con exito a la sucursal", ProductResponse(product));
+            return  ApiResponseDTO.Success("El producto ha sido agregado con exito a la sucursal", created);
 
         }
+        catch (DataIntegrityViolationException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = UniqueConstraints.Violated(ex, UniqueConstraints.PRODUCT_NAME)
+                    ? "Ya hay un producto registrado en esta sucursal con este nombre"
+                    : "Ha ocurrido un error " + ex.getMostSpecificCause().getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Crea en una sola transacción un lote de productos para una sucursal.
+     * - Valida los nombres duplicados contra la base de datos en una sola pasada por conjuntos
+     *   (consultas IN de hasta 1000 nombres) y contra el mismo lote.
+     * - Inserta los productos en lotes JDBC del tamaño de hibernate.jdbc.batch_size,
+     *   liberando el contexto de persistencia después de cada lote.
+     * - Los eventos de cada fila solo se acumulan en memoria: la proyección de productos con más stock
+     *   y los contadores de la sucursal se actualizan una sola vez al confirmar, con una sentencia por conjuntos.
+     * Las filas inválidas no detienen la importación: se reportan en el resultado de cada fila.
+     *
+     * @param idBranch Identificador único de la sucursal.
+     * @param productsDTO Lista de productos a crear (máximo 10000).
+     * @return ApiResponseDTO que contiene:
+     *         - El resultado de cada fila (BulkProductResultDTO) en el mismo orden recibido.
+     *         - Un mensaje de error si la sucursal no existe, el lote es inválido o ocurre una excepción.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si los datos recibidos son inválidos.
+     */
+    @Transactional
+    public ApiResponseDTO<List<BulkProductResultDTO>> BulkCreateProducts(Integer idBranch, List<ProductDTO> productsDTO)
+    {
+        try
+        {
+            if (productsDTO == null || productsDTO.isEmpty())
+            {
+                String message = "La lista de productos a importar esta vacia";
+                return ApiResponseDTO.Error(message);
+            }
+
+            if (productsDTO.size() > MAX_BULK_PRODUCTS)
+            {
+                String message = "La importacion supera el maximo de " + MAX_BULK_PRODUCTS + " productos por solicitud";
+                return ApiResponseDTO.Error(message);
+            }
+
+            Optional<BranchEntity> branch = this.branchRepository.findById(idBranch);
+
+            if (branch.isEmpty())
+            {
+                String message = "La sucursal seleccionada no se encuentra registrada en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            List<String> names = productsDTO.stream()
+                    .map(ProductDTO::getName)
+                    .filter(Objects::nonNull)
+                    .map(name -> name.toLowerCase(Locale.ROOT))
+                    .distinct()
+                    .toList();
+
+            Set<String> existingNames = new HashSet<>();
+
+            for (int from = 0; from < names.size(); from += NAME_LOOKUP_CHUNK)
+            {
+                List<String> chunk = names.subList(from, Math.min(from + NAME_LOOKUP_CHUNK, names.size()));
+                existingNames.addAll(this.productRepository.ExistingNames(idBranch, chunk));
+            }
+
+            List<BulkProductResultDTO> results = new ArrayList<>(productsDTO.size());
+            Set<String> batchNames = new HashSet<>();
+            int created = 0;
+
+            for (int index = 0; index < productsDTO.size(); index++)
+            {
+                ProductDTO row = productsDTO.get(index);
+                String error = ValidateBulkRow(idBranch, row, existingNames, batchNames);
+
+                if (error != null)
+                {
+                    results.add(BulkProductResultDTO.Failed(index, row == null ? null : row.getName(), error));
+                    continue;
+                }
+
+                ProductEntity product = new ProductEntity();
+                product.setName(row.getName());
+                product.setStock(row.getStock());
+                product.setBranch(branch.get());
+                this.entityManager.persist(product);
+
+                ProductDTO createdProduct = ProductResponse(product);
+                this.eventPublisher.publishEvent(ProductChangedEvent.Created(createdProduct));
+                results.add(BulkProductResultDTO.Created(index, createdProduct));
+
+                if (++created % this.batchSize == 0)
+                {
+                    this.entityManager.flush();
+                    this.entityManager.clear();
+                }
+            }
+
+            String message = "Se han importado " + created + " de " + productsDTO.size() + " productos a la sucursal";
+            return ApiResponseDTO.Success(message, results);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
@@ -152,23 +318,36 @@ public class ProductService {
     /**
      * Actualiza la información de un producto existente.
      * Realiza las siguientes validaciones:
+     * - Verifica que se envíe la versión leída por el cliente: sin ella el stock enviado podría
+     *   sobrescribir ajustes de stock confirmados después de la lectura.
      * - Verifica que el producto exista.
-     * - Verifica que no exista otro producto con el mismo nombre dentro de la misma sucursal.
+     * - Verifica que el producto no haya sido modificado desde la versión enviada (incluidos los
+     *   ajustes de stock); una modificación concurrente detectada al guardar (@Version) también
+     *   responde con el código CONFLICT.
      * - Verifica que la sucursal asociada exista.
+     * - El nombre duplicado en la sucursal se detecta con el índice único sobre (branch_id, lower(name)).
      *
      * @param id Identificador único del producto a actualizar.
      * @param productDTO Objeto DTO con la información actualizada del producto.
      * @return ApiResponseDTO que contiene:
      *         - El producto actualizado (ProductDTO) si la operación es exitosa.
-     *         - Un mensaje de error si el producto o la sucursal no existen.
+     *         - Un mensaje de error si no se envía la versión o si el producto o la sucursal no existen.
+     *         - Un conflicto (CONFLICT) con el producto actual si la versión enviada está desactualizada.
      *
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si los datos recibidos son inválidos.
      */
+    @Transactional
     public ApiResponseDTO<ProductDTO> UpdateProduct(int id, ProductDTO productDTO)
     {
         try
         {
+            if (productDTO.getVersion() == null)
+            {
+                String message = "Debe enviar la version del producto que consulto para actualizarlo";
+                return ApiResponseDTO.Error(message);
+            }
+
             Optional<ProductEntity> ProductSearch = this.productRepository.findById(id);
 
             if (ProductSearch.isEmpty())
@@ -177,12 +356,12 @@ public class ProductService {
                 return ApiResponseDTO.Error(message);
             }
 
-            Optional<ProductEntity> ProductSearchByName = this.productRepository.findByNameId(productDTO.getBranchId(), productDTO.getName(), id);
+            ProductEntity product = ProductSearch.get();
 
-            if (ProductSearchByName.isPresent())
+            if (!productDTO.getVersion().equals(product.getVersion()))
             {
-                String message = "Ya hay un producto registrado en esta sucursal con ese nombre";
-                return ApiResponseDTO.Error(message);
+                String message = "El producto fue modificado por otra operacion, consulte la version actual e intente de nuevo";
+                return ApiResponseDTO.Conflict(message, ProductResponse(product));
             }
 
             Optional<BranchEntity> Branch = this.branchRepository.findById(productDTO.getBranchId());
@@ -193,20 +372,240 @@ public class ProductService {
                 return  ApiResponseDTO.Error(message);
             }
 
-            ProductEntity product = ProductSearch.get();
+            ProductDTO before = ProductResponse(product);
             product.setName(productDTO.getName());
             product.setStock(productDTO.getStock());
             product.setBranch(Branch.get());
-            this.productRepository.save(product);
+            this.productRepository.saveAndFlush(product);
+
+            ProductDTO updated = ProductResponse(product);
+            this.eventPublisher.publishEvent(ProductChangedEvent.Updated(before, updated));
+
+            return ApiResponseDTO.Success("Se ha actualizado con exito el producto", updated);
+        }
+        catch (OptimisticLockingFailureException | OptimisticLockException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "El producto fue modificado por otra operacion, consulte la version actual e intente de nuevo";
+            return ApiResponseDTO.Conflict(message, CurrentProduct(id));
+        }
+        catch (DataIntegrityViolationException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = UniqueConstraints.Violated(ex, UniqueConstraints.PRODUCT_NAME)
+                    ? "Ya hay un producto registrado en esta sucursal con ese nombre"
+                    : "Ha ocurrido un error " + ex.getMostSpecificCause().getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (PersistenceException | IllegalArgumentException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Suma (o resta, si es negativo) una cantidad al stock de un producto con una única
+     * sentencia atómica, sin leer ni reescribir el resto del producto.
+     * El ajuste se rechaza si dejaría el stock en negativo o por encima del máximo (2147483647).
+     *
+     * @param id Identificador único del producto.
+     * @param adjustment Objeto DTO con la cantidad a sumar al stock (delta).
+     * @return ApiResponseDTO que contiene:
+     *         - El producto con su stock actualizado (ProductDTO) si la operación es exitosa.
+     *         - Un mensaje de error si el producto no existe o el stock es insuficiente.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si los datos recibidos son inválidos.
+     */
+    @Transactional
+    public ApiResponseDTO<ProductDTO> AdjustStock(Integer id, StockAdjustmentDTO adjustment)
+    {
+        try
+        {
+            if (adjustment == null || adjustment.getDelta() == null)
+            {
+                String message = "La cantidad a ajustar del stock es obligatoria";
+                return ApiResponseDTO.Error(message);
+            }
+
+            Optional<ProductDTO> updated = this.stockRepository.Adjust(id, adjustment.getDelta());
+
+            if (updated.isEmpty())
+            {
+                String message = this.productRepository.existsById(id)
+                        ? "El stock del producto no es suficiente para realizar el ajuste o superaria el maximo permitido"
+                        : "El producto no se encuentra registrado en el sistema";
+                return ApiResponseDTO.Error(message);
+            }
+
+            PublishStockAdjusted(updated.get(), adjustment.getDelta());
 
-            return ApiResponseDTO.Success("Se ha actualizado con exito el producto", ProductResponse(product));
+            return ApiResponseDTO.Success("Se ha actualizado con exito el stock del producto", updated.get());
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Aplica en un solo viaje a la base de datos los ajustes de stock de varios productos.
+     * Los ajustes repetidos sobre un mismo producto se suman antes de aplicarse.
+     * Cada producto se ajusta o se rechaza de forma independiente: un producto inexistente
+     * o sin stock suficiente no impide aplicar los demás ajustes del lote.
+     * La proyección de productos con más stock y los contadores de las sucursales se actualizan al
+     * confirmar con sentencias por conjuntos, no por producto ajustado.
+     *
+     * @param adjustments Lista de ajustes (productId, delta), máximo 5000.
+     * @return ApiResponseDTO que contiene:
+     *         - El resultado del ajuste de cada producto (StockAdjustmentResultDTO).
+     *         - Un mensaje de error si el lote está vacío o supera el máximo permitido.
+     *
+     * @throws PersistenceException Si ocurre un error de acceso a datos.
+     * @throws IllegalArgumentException Si los datos recibidos son inválidos.
+     */
+    @Transactional
+    public ApiResponseDTO<List<StockAdjustmentResultDTO>> AdjustStockBatch(List<StockAdjustmentDTO> adjustments)
+    {
+        try
+        {
+            if (adjustments == null || adjustments.isEmpty())
+            {
+                String message = "El lote de ajustes de stock no contiene registros";
+                return ApiResponseDTO.Error(message);
+            }
+
+            if (adjustments.size() > MAX_STOCK_ADJUSTMENTS)
+            {
+                String message = "El lote de ajustes de stock no puede superar los " + MAX_STOCK_ADJUSTMENTS + " registros";
+                return ApiResponseDTO.Error(message);
+            }
+
+            List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+            Map<Integer, Integer> deltas = new LinkedHashMap<>();
+
+            for (StockAdjustmentDTO adjustment : adjustments)
+            {
+                if (adjustment == null || adjustment.getProductId() == null || adjustment.getDelta() == null)
+                {
+                    results.add(StockAdjustmentResultDTO.Rejected(adjustment == null ? null : adjustment.getProductId(),
+                            adjustment == null ? null : adjustment.getDelta(), "El producto y la cantidad a ajustar son obligatorios"));
+                    continue;
+                }
+
+                deltas.merge(adjustment.getProductId(), adjustment.getDelta(), Math::addExact);
+            }
+
+            if (!deltas.isEmpty())
+            {
+                Integer[] ids = deltas.keySet().toArray(new Integer[0]);
+                Integer[] values = deltas.values().toArray(new Integer[0]);
+                Map<Integer, ProductDTO> updated = new HashMap<>();
+
+                for (ProductDTO product : this.stockRepository.AdjustBatch(ids, values))
+                {
+                    updated.put(product.getId(), product);
+                }
+
+                Set<Integer> existing = updated.size() == ids.length
+                        ? Set.of()
+                        : new HashSet<>(this.productRepository.ExistingIds(deltas.keySet()));
+
+                for (Map.Entry<Integer, Integer> entry : deltas.entrySet())
+                {
+                    ProductDTO product = updated.get(entry.getKey());
+
+                    if (product != null)
+                    {
+                        PublishStockAdjusted(product, entry.getValue());
+                        results.add(StockAdjustmentResultDTO.Applied(product, entry.getValue()));
+                    }
+                    else if (existing.contains(entry.getKey()))
+                    {
+                        results.add(StockAdjustmentResultDTO.Rejected(entry.getKey(), entry.getValue(), "El stock del producto no es suficiente para realizar el ajuste o superaria el maximo permitido"));
+                    }
+                    else
+                    {
+                        results.add(StockAdjustmentResultDTO.Rejected(entry.getKey(), entry.getValue(), "El producto no se encuentra registrado en el sistema"));
+                    }
+                }
+            }
+
+            return ApiResponseDTO.Success("Se ha procesado el lote de ajustes de stock", results);
+        }
+        catch (PersistenceException | IllegalArgumentException | ArithmeticException ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+        catch (Exception ex)
+        {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    /**
+     * Encola movimientos de stock para escribirlos en segundo plano (write-behind).
+     * Los movimientos de un mismo producto se suman en memoria y se aplican en lote cada
+     * pocos milisegundos; la existencia del producto y el stock suficiente se validan al aplicarlos.
+     *
+     * @param adjustments Lista de movimientos (productId, delta), máximo 5000.
+     * @return ApiResponseDTO que contiene:
+     *         - La cantidad de movimientos encolados.
+     *         - Un mensaje de error si el lote es inválido o el acumulador está deshabilitado.
+     */
+    public ApiResponseDTO<Integer> QueueStockAdjustments(List<StockAdjustmentDTO> adjustments)
+    {
+        try
+        {
+            if (!this.stockCoalescer.IsEnabled())
+            {
+                String message = "El registro diferido de movimientos de stock no se encuentra habilitado";
+                return ApiResponseDTO.Error(message);
+            }
+
+            if (adjustments == null || adjustments.isEmpty() || adjustments.size() > MAX_STOCK_ADJUSTMENTS)
+            {
+                String message = "El lote de movimientos debe contener entre 1 y " + MAX_STOCK_ADJUSTMENTS + " registros";
+                return ApiResponseDTO.Error(message);
+            }
+
+            for (StockAdjustmentDTO adjustment : adjustments)
+            {
+                if (adjustment == null || adjustment.getProductId() == null || adjustment.getDelta() == null)
+                {
+                    String message = "El producto y la cantidad a ajustar son obligatorios en todos los movimientos";
+                    return ApiResponseDTO.Error(message);
+                }
+            }
+
+            for (StockAdjustmentDTO adjustment : adjustments)
+            {
+                this.stockCoalescer.Enqueue(adjustment.getProductId(), adjustment.getDelta());
+            }
+
+            return ApiResponseDTO.Success("Se han encolado con exito los movimientos de stock", adjustments.size());
+        }
+        catch (Exception ex)
         {
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
@@ -224,6 +623,7 @@ public class ProductService {
      * @throws PersistenceException Si ocurre un error de acceso a datos.
      * @throws IllegalArgumentException Si el identificador es inválido.
      */
+    @Transactional
     public ApiResponseDTO<ProductDTO> DeleteProduct(Integer id)
     {
         try
@@ -236,22 +636,99 @@ public class ProductService {
                 return ApiResponseDTO.Error(message);
             }
 
+            ProductDTO deleted = ProductResponse(Product.get());
             this.productRepository.delete(Product.get());
-            return ApiResponseDTO.Success("Se ha eliminado con exito el producto", ProductResponse(Product.get()));
+            this.eventPublisher.publishEvent(ProductChangedEvent.Deleted(deleted));
+
+            return ApiResponseDTO.Success("Se ha eliminado con exito el producto", deleted);
         }
         catch (PersistenceException | IllegalArgumentException ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error" + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
         catch (Exception ex)
         {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             String message = "Ha ocurrido un error " + ex.getMessage();
             return  ApiResponseDTO.Error(message);
         }
 
     }
 
+    /**
+     * Retorna el producto con su stock más los movimientos encolados pendientes de escribir,
+     * sin modificar la instancia almacenada en caché.
+     */
+    private ProductDTO WithPendingStock(ProductDTO product)
+    {
+        long pending = this.stockCoalescer.Pending(product.getId());
+
+        if (pending == 0)
+        {
+            return product;
+        }
+
+        ProductDTO merged = new ProductDTO();
+        merged.setId(product.getId());
+        merged.setName(product.getName());
+        merged.setStock((int) (product.getStock() + pending));
+        merged.setBranchId(product.getBranchId());
+        merged.setVersion(product.getVersion());
+        return merged;
+    }
+
+    /**
+     * Publica el cambio de un ajuste de stock; el estado anterior se deriva del stock resultante y el delta aplicado.
+     */
+    private void PublishStockAdjusted(ProductDTO updated, Integer delta)
+    {
+        ProductDTO before = new ProductDTO();
+        before.setId(updated.getId());
+        before.setName(updated.getName());
+        before.setStock(updated.getStock() - delta);
+        before.setBranchId(updated.getBranchId());
+        this.eventPublisher.publishEvent(ProductChangedEvent.Updated(before, updated));
+    }
+
+    /**
+     * Valida una fila de la importación masiva de productos.
+     *
+     * @return El mensaje de error de la fila, o null si la fila es válida.
+     */
+    private String ValidateBulkRow(Integer idBranch, ProductDTO row, Set<String> existingNames, Set<String> batchNames)
+    {
+        if (row == null || row.getName() == null || row.getName().isBlank())
+        {
+            return "El nombre del producto es obligatorio";
+        }
+
+        if (row.getStock() == null || row.getStock() < 0)
+        {
+            return "El stock del producto debe ser mayor o igual a cero";
+        }
+
+        if (row.getBranchId() != null && !row.getBranchId().equals(idBranch))
+        {
+            return "El producto pertenece a una sucursal diferente a la de la importacion";
+        }
+
+        String name = row.getName().toLowerCase(Locale.ROOT);
+
+        if (existingNames.contains(name))
+        {
+            return "Ya hay un producto registrado en esta sucursal con este nombre";
+        }
+
+        if (!batchNames.add(name))
+        {
+            return "El nombre del producto esta repetido dentro de la importacion";
+        }
+
+        return null;
+    }
+
     /**
      * Mapea una entidad ProductEntity a su correspondiente DTO (ProductDTO).
      * Este método se utiliza para estandarizar la información de salida
@@ -267,7 +744,21 @@ public class ProductService {
         productDTO.setName(product.getName());
         productDTO.setBranchId(product.getBranch().getId());
         productDTO.setId(product.getId());
+        productDTO.setVersion(product.getVersion());
         return productDTO;
     }
 
+    /**
+     * Lee la versión confirmada del producto en una transacción nueva. Se usa al detectar un conflicto
+     * al guardar: la transacción actual quedó marcada para revertirse y su contexto de persistencia
+     * conserva los cambios que no se pudieron guardar.
+     *
+     * @param id Identificador único del producto.
+     * @return El producto actual, o null si fue eliminado.
+     */
+    private ProductDTO CurrentProduct(int id)
+    {
+        return this.currentRead.execute(status -> this.productRepository.findById(id).map(this::ProductResponse).orElse(null));
+    }
+
 }
@@ -0,0 +1,145 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.ReactiveCatalogRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Ruta de lectura no bloqueante del catálogo público (franquicias, sucursales, productos y
+ * reporte de mayor stock) sobre R2DBC. Las escrituras siguen en los servicios JPA; estas
+ * lecturas ven los mismos datos confirmados, incluida la proyección branch_top_product.
+ * Los listados en flujo (Stream*) limitan la demanda a STREAM_PREFETCH filas por vez.
+ */
+@Service
+public class ReactiveCatalogService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_PREFETCH = 256;
+
+    private final ReactiveCatalogRepository catalogRepository;
+
+    public ReactiveCatalogService(ReactiveCatalogRepository catalog)
+    {
+        this.catalogRepository = catalog;
+    }
+
+    /**
+     * Obtiene una página de franquicias usando paginación por cursor (keyset).
+     *
+     * @param after Cursor: identificador de la última franquicia de la página anterior (0 para la primera).
+     * @param limit Cantidad máxima de franquicias de la página (máximo 1000).
+     * @return Mono con un ApiResponseDTO que contiene la lista de franquicias (FranchiseListDTO)
+     *         o un mensaje de error si el límite es inválido o la consulta falla.
+     */
+    public Mono<ApiResponseDTO<List<FranchiseListDTO>>> IndexFranchise(Integer after, Integer limit)
+    {
+        if (limit == null || limit < 1)
+        {
+            String message = "El limite de la pagina debe ser mayor a cero";
+            return Mono.just(ApiResponseDTO.Error(message));
+        }
+
+        Integer cursor = (after == null || after < 0) ? 0 : after;
+
+        return this.catalogRepository.IndexFranchise(cursor, Math.min(limit, MAX_PAGE_SIZE))
+                .collectList()
+                .map(franchises -> ApiResponseDTO.Success("Lista de franquicias obtenida con exito", franchises))
+                .onErrorResume(ReactiveCatalogService::Failure);
+    }
+
+    /**
+     * Transmite todas las franquicias una a una a medida que el cliente las consume.
+     *
+     * @return Flux de franquicias (FranchiseListDTO) ordenadas por identificador.
+     */
+    public Flux<FranchiseListDTO> StreamFranchise()
+    {
+        return this.catalogRepository.StreamFranchise().limitRate(STREAM_PREFETCH);
+    }
+
+    /**
+     * Obtiene la lista de sucursales asociadas a una franquicia específica.
+     *
+     * @param idFranchise Identificador único de la franquicia.
+     * @return Mono con un ApiResponseDTO que contiene la lista de sucursales (BranchListDTO)
+     *         o un mensaje de error si la consulta falla.
+     */
+    public Mono<ApiResponseDTO<List<BranchListDTO>>> IndexBranch(Integer idFranchise)
+    {
+        return this.catalogRepository.IndexBranch(idFranchise)
+                .collectList()
+                .map(branches -> ApiResponseDTO.Success("Se ha obtenido con exito la lista de sucursales", branches))
+                .onErrorResume(ReactiveCatalogService::Failure);
+    }
+
+    /**
+     * Obtiene la lista de productos asociados a una sucursal específica.
+     *
+     * @param idBranch Identificador único de la sucursal.
+     * @return Mono con un ApiResponseDTO que contiene la lista de productos (ProductListDTO)
+     *         o un mensaje de error si la consulta falla.
+     */
+    public Mono<ApiResponseDTO<List<ProductListDTO>>> IndexProducts(Integer idBranch)
+    {
+        return this.catalogRepository.IndexProduct(idBranch)
+                .collectList()
+                .map(products -> ApiResponseDTO.Success("Se ha obtenido la lista de productos con exito", products))
+                .onErrorResume(ReactiveCatalogService::Failure);
+    }
+
+    /**
+     * Transmite los productos de una sucursal uno a uno a medida que el cliente los consume.
+     *
+     * @param idBranch Identificador único de la sucursal.
+     * @return Flux de productos (ProductListDTO) ordenados por identificador.
+     */
+    public Flux<ProductListDTO> StreamProducts(Integer idBranch)
+    {
+        return this.catalogRepository.IndexProduct(idBranch).limitRate(STREAM_PREFETCH);
+    }
+
+    /**
+     * Obtiene, para cada sucursal de una franquicia, el producto con mayor stock.
+     *
+     * @param id Identificador único de la franquicia.
+     * @return Mono con un ApiResponseDTO que contiene las sucursales con su producto de mayor
+     *         stock (BranchMaxProductsListDTO) o un mensaje de error si la franquicia no existe.
+     */
+    public Mono<ApiResponseDTO<List<BranchMaxProductsListDTO>>> GetBranchMaxProducts(Integer id)
+    {
+        return this.catalogRepository.FranchiseExists(id)
+                .flatMap(exists -> {
+                    if (!exists)
+                    {
+                        String message = "La franquicia de la cual se desean ver sus sucursales con sus productos con mas stock no se encuentre registrada en el sistema";
+                        return Mono.just(ApiResponseDTO.<List<BranchMaxProductsListDTO>>Error(message));
+                    }
+
+                    return this.catalogRepository.SearchBranchesMaxProducts(id)
+                            .collectList()
+                            .map(branches -> ApiResponseDTO.Success("Se ha obtenido con exito las sucursales con su producto con mas stock", branches));
+                })
+                .onErrorResume(ReactiveCatalogService::Failure);
+    }
+
+    private static <T> Mono<ApiResponseDTO<T>> Failure(Throwable ex)
+    {
+        if (ex instanceof DataAccessException || ex instanceof IllegalArgumentException)
+        {
+            String message = "Ha ocurrido un error" + ex.getMessage();
+            return Mono.just(ApiResponseDTO.Error(message));
+        }
+
+        String message = "Ha ocurrido un error " + ex.getMessage();
+        return Mono.just(ApiResponseDTO.Error(message));
+    }
+}
@@ -0,0 +1,248 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeType;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.*;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caché de lectura de los DTO de franquicias, sucursales y productos, indexada por el id de la entidad.
+ * Las entradas se invalidan después de confirmar cada operación de creación, actualización o
+ * eliminación, incluyendo la eliminación en cascada de sucursales y productos de una franquicia.
+ * Cada invalidación incrementa la generación de la clave (agrupada en franjas por hash); quien lee de
+ * la base de datos toma la generación antes de leer (Stamp) y Put descarta el valor si entre tanto hubo
+ * una invalidación, de modo que una lectura anterior a la confirmación no vuelve a guardar un valor obsoleto.
+ */
+@Service
+public class ReadCacheService {
+
+    public static final String FRANCHISES = "franchises";
+    public static final String BRANCHES = "branches";
+    public static final String PRODUCTS = "products";
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final CacheManager cacheManager;
+    private final Map<String, AtomicLongArray> generations = new ConcurrentHashMap<>();
+
+    public ReadCacheService(CacheManager manager)
+    {
+        this.cacheManager = manager;
+    }
+
+    /**
+     * Obtiene un DTO de la caché.
+     *
+     * @return El DTO almacenado o null si no se encuentra en caché.
+     */
+    public <T> T Get(String cacheName, Integer id, Class<T> type)
+    {
+        Cache cache = this.cacheManager.getCache(cacheName);
+        return cache == null ? null : cache.get(id, type);
+    }
+
+    /**
+     * Obtiene la generación de invalidaciones de una clave. Se toma antes de leer la entidad
+     * de la base de datos y se entrega a Put junto con el valor leído.
+     */
+    public long Stamp(String cacheName, Integer id)
+    {
+        return Generations(cacheName).get(Stripe(id));
+    }
+
+    /**
+     * Almacena en caché el DTO de una entidad, salvo que la clave se haya invalidado después de stamp.
+     * La comparación se hace dentro del cómputo atómico de la entrada: una invalidación concurrente
+     * incrementa la generación antes de eliminar la entrada y espera a que el cómputo termine.
+     */
+    public void Put(String cacheName, Integer id, Object value, long stamp)
+    {
+        Cache cache = this.cacheManager.getCache(cacheName);
+
+        if (cache == null)
+        {
+            return;
+        }
+
+        AtomicLongArray generation = Generations(cacheName);
+        int stripe = Stripe(id);
+
+        if (cache instanceof CaffeineCache caffeine)
+        {
+            caffeine.getNativeCache().asMap().compute(id, (key, current) -> generation.get(stripe) == stamp ? value : current);
+        }
+        else if (generation.get(stripe) == stamp)
+        {
+            cache.put(id, value);
+        }
+    }
+
+    /**
+     * Invalida las entradas de productos eliminados sin un evento por producto (eliminación por bloques).
+     * Dentro de una transacción la invalidación se hace después de confirmar, igual que con los eventos:
+     * antes, una lectura concurrente aún vería los productos y los volvería a almacenar.
+     *
+     * @param productIds Identificadores de los productos eliminados.
+     */
+    public void EvictProducts(Collection<Integer> productIds)
+    {
+        if (productIds.isEmpty())
+        {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            productIds.forEach(id -> Evict(PRODUCTS, id));
+            return;
+        }
+
+        List<Integer> ids = List.copyOf(productIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit()
+            {
+                ids.forEach(id -> Evict(PRODUCTS, id));
+            }
+        });
+    }
+
+    /**
+     * Invalida la entrada del producto modificado.
+     *
+     * @param event Evento de cambio del producto.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnProductChanged(ProductChangedEvent event)
+    {
+        ProductDTO product = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        Evict(PRODUCTS, product.getId());
+    }
+
+    /**
+     * Invalida la entrada de la sucursal modificada y, al eliminarla, las de sus productos.
+     *
+     * @param event Evento de cambio de la sucursal.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnBranchChanged(BranchChangedEvent event)
+    {
+        BranchDTO branch = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        Evict(BRANCHES, branch.getId());
+
+        if (event.getType() == ChangeType.DELETED)
+        {
+            EvictProductsOf(Set.of(branch.getId()));
+        }
+    }
+
+    /**
+     * Invalida la entrada de la franquicia modificada y, al eliminarla,
+     * las de sus sucursales y productos eliminados en cascada.
+     *
+     * @param event Evento de cambio de la franquicia.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void OnFranchiseChanged(FranchiseChangedEvent event)
+    {
+        FranchiseDTO franchise = event.getAfter() != null ? event.getAfter() : event.getBefore();
+        Evict(FRANCHISES, franchise.getId());
+
+        if (event.getType() == ChangeType.DELETED)
+        {
+            Set<Integer> branchIds = new HashSet<>(event.getBranchIds());
+            branchIds.forEach(branchId -> Evict(BRANCHES, branchId));
+            EvictProductsOf(branchIds);
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas de uso de cada caché de lectura.
+     *
+     * @return ApiResponseDTO con el tamaño, aciertos, fallos y expulsiones de cada caché (CacheStatsDTO).
+     */
+    public ApiResponseDTO<List<CacheStatsDTO>> Stats()
+    {
+        try
+        {
+            List<CacheStatsDTO> stats = new ArrayList<>();
+
+            for (String name : List.of(FRANCHISES, BRANCHES, PRODUCTS))
+            {
+                CaffeineCache cache = (CaffeineCache) this.cacheManager.getCache(name);
+
+                if (cache == null)
+                {
+                    continue;
+                }
+
+                CacheStats cacheStats = cache.getNativeCache().stats();
+                stats.add(new CacheStatsDTO(name, cache.getNativeCache().estimatedSize(), cacheStats.hitCount(),
+                        cacheStats.missCount(), cacheStats.hitRate(), cacheStats.evictionCount()));
+            }
+
+            return ApiResponseDTO.Success("Se han obtenido con exito las estadisticas de la cache", stats);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    private void Evict(String cacheName, Integer id)
+    {
+        Cache cache = this.cacheManager.getCache(cacheName);
+
+        if (cache != null && id != null)
+        {
+            Generations(cacheName).incrementAndGet(Stripe(id));
+            cache.evict(id);
+        }
+    }
+
+    /**
+     * Invalida los productos de las sucursales indicadas. Los productos que se están leyendo aún no están
+     * en caché, por lo que se incrementan todas las generaciones de la caché de productos.
+     */
+    private void EvictProductsOf(Set<Integer> branchIds)
+    {
+        if (branchIds.isEmpty() || !(this.cacheManager.getCache(PRODUCTS) instanceof CaffeineCache cache))
+        {
+            return;
+        }
+
+        AtomicLongArray generation = Generations(PRODUCTS);
+
+        for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++)
+        {
+            generation.incrementAndGet(stripe);
+        }
+
+        cache.getNativeCache().asMap().values()
+                .removeIf(value -> value instanceof ProductDTO product && branchIds.contains(product.getBranchId()));
+    }
+
+    private AtomicLongArray Generations(String cacheName)
+    {
+        return this.generations.computeIfAbsent(cacheName, name -> new AtomicLongArray(GENERATION_STRIPES));
+    }
+
+    private static int Stripe(Integer id)
+    {
+        return id == null ? 0 : (Integer.hashCode(id) * 0x9E3779B9 >>> 22) & (GENERATION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.CacheRegionStatsDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.SecondLevelCacheStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Caché de segundo nivel de Hibernate para franquicias, sucursales, la colección de sucursales de
+ * cada franquicia y el listado IndexFranchise (región catalog-queries).
+ * Hibernate invalida las regiones en las escrituras hechas con JPA. Los productos no se cachean:
+ * su stock se escribe con JDBC (ProductStockRepository) sin pasar por Hibernate, y una expulsión
+ * después de confirmar dejaría un intervalo en el que otra transacción lee el stock anterior desde
+ * la caché. Por lo mismo, los listados de sucursales y productos no se cachean aquí; sus lecturas
+ * repetidas se resuelven con ETag (CatalogETags) y con la caché de lectura (ReadCacheService).
+ */
+@Service
+public class SecondLevelCacheService {
+
+    public static final String CATALOG_QUERIES = "catalog-queries";
+
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCacheService(EntityManagerFactory entityManagerFactory)
+    {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Expulsa los listados cacheados después de una escritura hecha fuera de Hibernate.
+     */
+    public void EvictCatalogQueries()
+    {
+        this.sessionFactory.getCache().evictQueryRegion(CATALOG_QUERIES);
+    }
+
+    /**
+     * Obtiene las estadísticas de la caché de segundo nivel y de consultas por región, junto con
+     * la cantidad de cargas de entidades, consultas y sentencias enviadas a la base de datos,
+     * para contrastar la tasa de aciertos con la carga real sobre PostgreSQL.
+     *
+     * @return ApiResponseDTO con las estadísticas de cada región (SecondLevelCacheStatsDTO),
+     *         o un mensaje de error si las estadísticas de Hibernate están deshabilitadas.
+     */
+    public ApiResponseDTO<SecondLevelCacheStatsDTO> Stats()
+    {
+        try
+        {
+            Statistics statistics = this.sessionFactory.getStatistics();
+
+            if (!statistics.isStatisticsEnabled())
+            {
+                String message = "Las estadisticas de Hibernate estan deshabilitadas (hibernate.generate_statistics)";
+                return ApiResponseDTO.Error(message);
+            }
+
+            List<CacheRegionStatsDTO> regions = new ArrayList<>();
+            String[] names = statistics.getSecondLevelCacheRegionNames();
+            Arrays.sort(names);
+
+            for (String name : names)
+            {
+                CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+
+                if (region == null)
+                {
+                    continue;
+                }
+
+                regions.add(new CacheRegionStatsDTO(name, region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                        HitRate(region.getHitCount(), region.getMissCount())));
+            }
+
+            SecondLevelCacheStatsDTO stats = new SecondLevelCacheStatsDTO(
+                    regions,
+                    HitRate(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                    HitRate(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()),
+                    statistics.getEntityLoadCount(),
+                    statistics.getQueryExecutionCount(),
+                    statistics.getPrepareStatementCount());
+            return ApiResponseDTO.Success("Se han obtenido con exito las estadisticas de la cache de segundo nivel", stats);
+        }
+        catch (Exception ex)
+        {
+            String message = "Ha ocurrido un error " + ex.getMessage();
+            return  ApiResponseDTO.Error(message);
+        }
+    }
+
+    private static Double HitRate(long hits, long misses)
+    {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,37 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Índices únicos sobre lower(name) definidos en las migraciones (db/migration). Las operaciones de creación
+ * y actualización se apoyan en ellos en lugar de consultar antes si el nombre existe,
+ * y traducen la violación al mensaje de error correspondiente.
+ */
+final class UniqueConstraints {
+
+    static final String FRANCHISE_NAME = "ux_franchises_name_lower";
+    static final String BRANCH_NAME = "ux_branches_franchise_name_lower";
+    static final String PRODUCT_NAME = "ux_products_branch_name_lower";
+
+    private UniqueConstraints()
+    {
+    }
+
+    /**
+     * Indica si la excepción fue causada por la violación del índice único indicado.
+     */
+    static boolean Violated(DataIntegrityViolationException ex, String constraint)
+    {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null)
+            {
+                return violation.getConstraintName().equalsIgnoreCase(constraint);
+            }
+        }
+
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.contains(constraint);
+    }
+}
@@ -0,0 +1,14 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita la caché de lectura. El proveedor (Caffeine), los nombres de las cachés
+ * y su política de expulsión por tamaño y tiempo se configuran con las
+ * propiedades spring.cache.*.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
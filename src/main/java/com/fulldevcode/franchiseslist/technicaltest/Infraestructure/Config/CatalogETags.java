@@ -0,0 +1,107 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * ETag de los listados y detalles del catálogo para GET condicionales (If-None-Match).
+ * Los listados usan la marca de modificación mantenida por CatalogStatsService, leída antes de
+ * la consulta del listado: un cambio confirmado entre ambas lecturas solo provoca una respuesta
+ * completa adicional, nunca un 304 con datos viejos. Los detalles usan la versión de la entidad.
+ * Son ETag débiles porque el cuerpo incluye la fecha de la respuesta (ApiResponseDTO.timestamp).
+ */
+public final class CatalogETags {
+
+    private CatalogETags()
+    {
+    }
+
+    public static String Franchises(long stamp)
+    {
+        return "W/\"franchises-" + stamp + "\"";
+    }
+
+    public static String Branches(long stamp)
+    {
+        return "W/\"branches-" + stamp + "\"";
+    }
+
+    public static String Products(long stamp)
+    {
+        return "W/\"products-" + stamp + "\"";
+    }
+
+    public static String Of(FranchiseDTO franchise)
+    {
+        return "W/\"franchise-" + franchise.getId() + "-" + franchise.getVersion() + "\"";
+    }
+
+    public static String Of(BranchDTO branch)
+    {
+        return "W/\"branch-" + branch.getId() + "-" + branch.getVersion() + "\"";
+    }
+
+    /**
+     * Incluye el stock porque el detalle del producto suma los ajustes de stock aún no aplicados.
+     */
+    public static String Of(ProductDTO product)
+    {
+        return "W/\"product-" + product.getId() + "-" + product.getVersion() + "-" + product.getStock() + "\"";
+    }
+
+    /**
+     * Compara (de forma débil) el ETag con la cabecera If-None-Match de la solicitud.
+     */
+    public static boolean Matches(WebRequest request, String etag)
+    {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        if (etag == null || ifNoneMatch == null)
+        {
+            return false;
+        }
+
+        String opaque = Opaque(etag);
+
+        for (String candidate : ifNoneMatch.split(","))
+        {
+            String trimmed = candidate.trim();
+
+            if (trimmed.equals("*") || Opaque(trimmed).equals(opaque))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public static <T> ResponseEntity<ApiResponseDTO<T>> NotModified(String etag)
+    {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * Responde con el ETag solo si la operación fue exitosa, para que un error no quede en la caché del cliente.
+     */
+    public static <T> ResponseEntity<ApiResponseDTO<T>> Respond(ApiResponseDTO<T> response, String etag)
+    {
+        if (etag == null || !response.isSuccess())
+        {
+            return ResponseEntity.ok(response);
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    private static String Opaque(String etag)
+    {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
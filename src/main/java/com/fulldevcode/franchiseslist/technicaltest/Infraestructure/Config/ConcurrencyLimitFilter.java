@@ -0,0 +1,119 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límite de solicitudes concurrentes para el modo de hilos virtuales.
+ * Con hilos de plataforma el pool de Tomcat acota la concurrencia; con hilos virtuales cada
+ * solicitud obtiene su propio hilo y miles de ellas terminarían esperando una conexión de Hikari
+ * hasta agotar connection-timeout. Este filtro admite como máximo un múltiplo del tamaño del pool
+ * y responde 503 a las que no obtienen turno a tiempo, de modo que la espera ocurre en un
+ * semáforo justo y barato en lugar de dentro del pool de conexiones.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    private static final int REQUESTS_PER_CONNECTION = 4;
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(DataSource dataSource, ObjectMapper mapper,
+                                  @Value("${franchises.concurrency.max-requests:0}") int maxRequests,
+                                  @Value("${franchises.concurrency.acquire-timeout-ms:2000}") long acquireTimeoutMs)
+    {
+        int limit = maxRequests > 0 ? maxRequests : DefaultLimit(dataSource);
+        this.permits = new Semaphore(limit, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.objectMapper = mapper;
+        log.info("Hilos virtuales habilitados: máximo {} solicitudes concurrentes", limit);
+    }
+
+    /**
+     * Por defecto se admiten REQUESTS_PER_CONNECTION solicitudes por conexión del pool: parte del
+     * tiempo de cada solicitud no usa la base de datos (serialización, caché, motor de stock).
+     */
+    private static int DefaultLimit(DataSource dataSource)
+    {
+        int poolSize = 10;
+
+        try
+        {
+            if (dataSource.isWrapperFor(HikariDataSource.class))
+            {
+                poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        }
+        catch (SQLException ex)
+        {
+            log.warn("No fue posible obtener el tamaño del pool de conexiones: {}", ex.getMessage());
+        }
+
+        return poolSize * REQUESTS_PER_CONNECTION;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request)
+    {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException
+    {
+        boolean acquired;
+
+        try
+        {
+            acquired = this.permits.tryAcquire(this.acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired)
+        {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            this.objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponseDTO.Error("El servidor está ocupado, intente nuevamente"));
+            return;
+        }
+
+        try
+        {
+            chain.doFilter(request, response);
+        }
+        finally
+        {
+            this.permits.release();
+        }
+    }
+}
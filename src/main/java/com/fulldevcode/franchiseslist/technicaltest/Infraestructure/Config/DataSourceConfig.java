@@ -0,0 +1,34 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Declara explícitamente el DataSource JDBC (Hikari) usado por JPA, Flyway y JdbcTemplate.
+ * Spring Boot omite la autoconfiguración del DataSource cuando existe un ConnectionFactory
+ * de R2DBC, y la aplicación necesita ambos: JDBC para las escrituras y R2DBC para las
+ * lecturas no bloqueantes. Se enlaza con las mismas propiedades spring.datasource.*.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties()
+    {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties)
+    {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reintento acotado de escrituras internas que fallan por un conflicto de versión (@Version),
+ * por ejemplo cuando un bloque de importación actualiza el stock de un producto que un ajuste
+ * concurrente acaba de modificar. Cada reintento espera un tiempo aleatorio entre cero y un tope
+ * que crece de forma exponencial (franchises.optimistic-retry.*), de modo que las escrituras que
+ * compiten por los mismos productos se separan en lugar de volver a chocar al mismo tiempo.
+ * La operación debe abrir su propia transacción en cada intento y ser segura de repetir.
+ */
+@Component
+public class OptimisticRetryPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryPolicy.class);
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public OptimisticRetryPolicy(@Value("${franchises.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                 @Value("${franchises.optimistic-retry.base-delay-ms:10}") long baseDelayMs,
+                                 @Value("${franchises.optimistic-retry.max-delay-ms:500}") long maxDelayMs)
+    {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = Math.max(1, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+    }
+
+    /**
+     * Ejecuta la operación y la repite ante un conflicto de versión hasta agotar los intentos;
+     * el último conflicto se propaga al llamador.
+     */
+    public void Execute(Runnable operation)
+    {
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                operation.run();
+                return;
+            }
+            catch (OptimisticLockingFailureException | OptimisticLockException ex)
+            {
+                if (attempt >= this.maxAttempts)
+                {
+                    throw ex;
+                }
+
+                long ceiling = Math.min(this.maxDelayMs, this.baseDelayMs << Math.min(attempt - 1, 20));
+                long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+                log.debug("Conflicto de version en el intento {} de {}, reintentando en {} ms", attempt, this.maxAttempts, delay);
+
+                try
+                {
+                    Thread.sleep(delay);
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                }
+            }
+        }
+    }
+}
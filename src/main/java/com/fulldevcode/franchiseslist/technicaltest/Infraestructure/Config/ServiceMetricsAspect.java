@@ -0,0 +1,81 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Instrumenta cada método público de los servicios de dominio con una observación de Micrometer,
+ * que produce el temporizador franchises.service (y un span cuando hay un puente de trazas).
+ * Los servicios atrapan sus excepciones y responden ApiResponseDTO.Error, por lo que el resultado
+ * se etiqueta según ApiResponseDTO.success (SUCCESS / ERROR) y se cuenta en
+ * franchises.service.responses; las excepciones que sí se propagan se etiquetan como EXCEPTION.
+ * El servicio reactivo se excluye porque su método solo ensambla el flujo y no mide la consulta.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private static final String OBSERVATION_NAME = "franchises.service";
+    private static final String RESPONSES_COUNTER = "franchises.service.responses";
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(ObservationRegistry observation, MeterRegistry meter)
+    {
+        this.observationRegistry = observation;
+        this.meterRegistry = meter;
+    }
+
+    @Around("execution(public * com.fulldevcode.franchiseslist.technicaltest.Domain.Services..*(..))"
+            + " && !within(com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ReactiveCatalogService)")
+    public Object Observe(ProceedingJoinPoint joinPoint) throws Throwable
+    {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, this.observationRegistry)
+                .contextualName(service + "." + method)
+                .lowCardinalityKeyValue("service", service)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+
+        try (Observation.Scope scope = observation.openScope())
+        {
+            Object result = joinPoint.proceed();
+            String outcome = "SUCCESS";
+
+            if (result instanceof ApiResponseDTO<?> response)
+            {
+                outcome = response.isSuccess() ? "SUCCESS" : "ERROR";
+                Counter.builder(RESPONSES_COUNTER)
+                        .description("Respuestas de los servicios de dominio por resultado")
+                        .tag("service", service)
+                        .tag("method", method)
+                        .tag("outcome", outcome)
+                        .register(this.meterRegistry)
+                        .increment();
+            }
+
+            observation.lowCardinalityKeyValue("outcome", outcome);
+            return result;
+        }
+        catch (Throwable ex)
+        {
+            observation.lowCardinalityKeyValue("outcome", "EXCEPTION");
+            observation.error(ex);
+            throw ex;
+        }
+        finally
+        {
+            observation.stop();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * En modo estricto (franchises.sql.budget.enforce=true, pensado para desarrollo y pruebas)
+ * reemplaza la respuesta de un endpoint que excedió su presupuesto de sentencias SQL por un
+ * ApiResponseDTO.Error con estado 500, para que la regresión no pase desapercibida.
+ * Las respuestas transmitidas (StreamingResponseBody) no pasan por aquí y solo se registran.
+ */
+@RestControllerAdvice
+public class SqlStatementBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    private final SqlStatementMonitor monitor;
+    private final boolean enforce;
+
+    public SqlStatementBudgetAdvice(SqlStatementMonitor monitor,
+                                    @Value("${franchises.sql.budget.enforce:false}") boolean enforce)
+    {
+        this.monitor = monitor;
+        this.enforce = enforce;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType)
+    {
+        return this.enforce;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response)
+    {
+        SqlStatementMonitor.RequestStatements statements = this.monitor.Current();
+
+        if (!(body instanceof ApiResponseDTO<?>) || statements == null || !statements.Exceeded())
+        {
+            return body;
+        }
+
+        response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+        String message = "Presupuesto de sentencias SQL excedido en " + statements.getEndpoint() + ": "
+                + statements.getStatements() + " sentencias, maximo " + statements.getBudget();
+        return ApiResponseDTO.Error(message);
+    }
+}
@@ -0,0 +1,78 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Abre el conteo de sentencias SQL de cada solicitud con el presupuesto declarado por
+ * StatementBudget en el endpoint (o franchises.sql.budget.default) y, al terminar, registra
+ * las sentencias y el tiempo en base de datos, con una advertencia si se excedió el presupuesto.
+ * Las respuestas asíncronas (transmitidas o reactivas) cierran el conteo al liberar el hilo, ya
+ * que sus sentencias se ejecutan en otros hilos.
+ */
+@Component
+public class SqlStatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetInterceptor.class);
+
+    private final SqlStatementMonitor monitor;
+    private final int defaultBudget;
+
+    public SqlStatementBudgetInterceptor(SqlStatementMonitor monitor,
+                                         @Value("${franchises.sql.budget.default:0}") int defaultBudget)
+    {
+        this.monitor = monitor;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+    {
+        int budget = this.defaultBudget;
+
+        if (handler instanceof HandlerMethod method)
+        {
+            StatementBudget declared = method.getMethodAnnotation(StatementBudget.class);
+            budget = declared != null ? declared.value() : budget;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        this.monitor.Begin(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()), budget);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler)
+    {
+        this.monitor.End();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex)
+    {
+        SqlStatementMonitor.RequestStatements statements = this.monitor.End();
+
+        if (statements == null)
+        {
+            return;
+        }
+
+        if (statements.Exceeded())
+        {
+            log.warn("sql_budget_exceeded endpoint=\"{}\" statements={} budget={} db_ms={}",
+                    statements.getEndpoint(), statements.getStatements(), statements.getBudget(), statements.getElapsedMs());
+        }
+        else if (log.isDebugEnabled())
+        {
+            log.debug("sql_request endpoint=\"{}\" statements={} budget={} db_ms={}",
+                    statements.getEndpoint(), statements.getStatements(), statements.getBudget(), statements.getElapsedMs());
+        }
+    }
+}
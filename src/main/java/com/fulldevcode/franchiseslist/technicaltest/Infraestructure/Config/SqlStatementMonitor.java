@@ -0,0 +1,125 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Envuelve el DataSource JDBC con datasource-proxy para observar cada sentencia ejecutada,
+ * en reemplazo de spring.jpa.show-sql. Acumula la cantidad de sentencias y el tiempo en base
+ * de datos de la solicitud HTTP en curso (ver SqlStatementBudgetInterceptor) y registra un
+ * evento estructurado en el logger SQL_SLOW por cada sentencia que supera el umbral.
+ * Cubre JPA, JdbcTemplate y Flyway, ya que todos obtienen sus conexiones del mismo DataSource.
+ */
+@Component
+public class SqlStatementMonitor implements QueryExecutionListener, BeanPostProcessor {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("SQL_SLOW");
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final long slowThresholdMs;
+
+    public SqlStatementMonitor(@Value("${franchises.sql.slow-threshold-ms:200}") long slowThresholdMs)
+    {
+        this.slowThresholdMs = slowThresholdMs;
+    }
+
+    /**
+     * Sentencias ejecutadas por una solicitud HTTP y su presupuesto declarado (0 sin límite).
+     */
+    public static final class RequestStatements {
+
+        private final String endpoint;
+        private final int budget;
+        private int statements;
+        private long elapsedMs;
+
+        private RequestStatements(String endpoint, int budget)
+        {
+            this.endpoint = endpoint;
+            this.budget = budget;
+        }
+
+        public String getEndpoint() { return this.endpoint; }
+
+        public int getBudget() { return this.budget; }
+
+        public int getStatements() { return this.statements; }
+
+        public long getElapsedMs() { return this.elapsedMs; }
+
+        public boolean Exceeded()
+        {
+            return this.budget > 0 && this.statements > this.budget;
+        }
+    }
+
+    public void Begin(String endpoint, int budget)
+    {
+        CURRENT.set(new RequestStatements(endpoint, budget));
+    }
+
+    public RequestStatements Current()
+    {
+        return CURRENT.get();
+    }
+
+    public RequestStatements End()
+    {
+        RequestStatements current = CURRENT.get();
+        CURRENT.remove();
+        return current;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName)
+    {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource)
+        {
+            return ProxyDataSourceBuilder.create("franchises", dataSource)
+                    .listener(this)
+                    .build();
+        }
+
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList)
+    {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList)
+    {
+        RequestStatements current = CURRENT.get();
+
+        if (current != null)
+        {
+            current.statements++;
+            current.elapsedMs += execInfo.getElapsedTime();
+        }
+
+        if (execInfo.getElapsedTime() >= this.slowThresholdMs)
+        {
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+
+            slowLog.warn("slow_query elapsed_ms={} threshold_ms={} success={} batch={} batch_size={} endpoint=\"{}\" sql=\"{}\"",
+                    execInfo.getElapsedTime(), this.slowThresholdMs, execInfo.isSuccess(), execInfo.isBatch(),
+                    execInfo.getBatchSize(), current == null ? "" : current.getEndpoint(),
+                    sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) : sql);
+        }
+    }
+}
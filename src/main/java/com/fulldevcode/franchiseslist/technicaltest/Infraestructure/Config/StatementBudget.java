@@ -0,0 +1,19 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declara la cantidad máxima de sentencias SQL que puede ejecutar un endpoint por solicitud.
+ * Con franchises.sql.budget.enforce=true (desarrollo y pruebas) la solicitud que lo excede
+ * responde con error, de modo que un N+1 se detecta antes de llegar a producción; en
+ * producción solo se registra una advertencia.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,86 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Diagnóstico de fijación (pinning) de hilos virtuales: escucha en la propia JVM el evento JFR
+ * jdk.VirtualThreadPinned y registra, con su pila, cada vez que un hilo virtual bloqueó su hilo
+ * portador por más del umbral configurado (típicamente E/S dentro de un bloque synchronized).
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 12;
+
+    private final Duration threshold;
+    private final boolean enabled;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${franchises.virtual-threads.pinning-monitor.enabled:true}") boolean enabled,
+                                       @Value("${franchises.virtual-threads.pinned-threshold-ms:20}") long thresholdMs)
+    {
+        this.enabled = enabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void Start()
+    {
+        if (!this.enabled)
+        {
+            return;
+        }
+
+        this.stream = new RecordingStream();
+        this.stream.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+        this.stream.onEvent(PINNED_EVENT, this::Report);
+        this.stream.startAsync();
+        log.info("Monitor de hilos virtuales fijados activo (umbral {} ms)", this.threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void Stop()
+    {
+        if (this.stream != null)
+        {
+            this.stream.close();
+        }
+    }
+
+    private void Report(RecordedEvent event)
+    {
+        StringBuilder frames = new StringBuilder();
+
+        if (event.getStackTrace() != null)
+        {
+            List<RecordedFrame> stack = event.getStackTrace().getFrames();
+
+            for (int i = 0; i < Math.min(stack.size(), MAX_FRAMES); i++)
+            {
+                RecordedFrame frame = stack.get(i);
+                frames.append(System.lineSeparator()).append("\tat ")
+                        .append(frame.getMethod().getType().getName()).append('.')
+                        .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+            }
+        }
+
+        log.warn("Hilo virtual fijado a su portador durante {} ms{}", event.getDuration().toMillis(), frames);
+    }
+}
@@ -0,0 +1,25 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registra el conteo de sentencias SQL por solicitud sobre los endpoints de la API.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final SqlStatementBudgetInterceptor statementBudgetInterceptor;
+
+    public WebMvcConfig(SqlStatementBudgetInterceptor statementBudget)
+    {
+        this.statementBudgetInterceptor = statementBudget;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry)
+    {
+        registry.addInterceptor(this.statementBudgetInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,12 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+/**
+ * Tipo de un error de ApiResponseDTO que el cliente puede tratar de forma específica.
+ */
+public enum ApiResponseCode {
+    /**
+     * El recurso fue modificado por otra operación desde la versión enviada: se debe
+     * volver a leer (el estado actual viaja en data cuando está disponible) y reintentar.
+     */
+    CONFLICT
+}
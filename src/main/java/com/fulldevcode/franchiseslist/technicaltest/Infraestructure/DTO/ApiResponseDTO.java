@@ -1,5 +1,6 @@
 package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -12,6 +13,9 @@ public class ApiResponseDTO<T> {
     private T data;
     private LocalDateTime timestamp;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ApiResponseCode code;
+
     public ApiResponseDTO(){this.timestamp = LocalDateTime.now();}
 
     public ApiResponseDTO(boolean Success, String Message, T Data)
@@ -32,5 +36,12 @@ public class ApiResponseDTO<T> {
         return  new ApiResponseDTO<>(false, message, null);
     }
 
+    public static <T> ApiResponseDTO<T> Conflict (String message, T current)
+    {
+        ApiResponseDTO<T> response = new ApiResponseDTO<>(false, message, current);
+        response.setCode(ApiResponseCode.CONFLICT);
+        return response;
+    }
+
 }
 
@@ -12,4 +12,6 @@ public class BranchDTO {
     private String name;
 
     private Integer franchiseId;
+
+    private Long version;
 }
@@ -0,0 +1,30 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BranchSnapshotDTO {
+
+    private Integer id;
+
+    private String name;
+
+    private Integer franchiseId;
+
+    private Long version;
+
+    public BranchSnapshotDTO(Integer id, String name, Integer franchiseId)
+    {
+        this.id = id;
+        this.name = name;
+        this.franchiseId = franchiseId;
+    }
+
+    public BranchSnapshotDTO(Integer id, String name, Integer franchiseId, Long version)
+    {
+        this(id, name, franchiseId);
+        this.version = version;
+    }
+}
@@ -0,0 +1,25 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BranchStatsDTO {
+
+    private Integer branchId;
+
+    private Long productCount;
+
+    private Long totalStock;
+
+    private Integer maxStock;
+
+    public BranchStatsDTO(Integer branchId, Long productCount, Long totalStock, Integer maxStock)
+    {
+        this.branchId = branchId;
+        this.productCount = productCount;
+        this.totalStock = totalStock;
+        this.maxStock = maxStock;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BranchTopProductCheckDTO {
+
+    private Integer franchiseId;
+
+    private Integer branchesChecked;
+
+    private List<Integer> mismatchedBranches;
+
+    private boolean repaired;
+
+    public BranchTopProductCheckDTO(Integer franchiseId, Integer branchesChecked, List<Integer> mismatchedBranches, boolean repaired)
+    {
+        this.franchiseId = franchiseId;
+        this.branchesChecked = branchesChecked;
+        this.mismatchedBranches = mismatchedBranches;
+        this.repaired = repaired;
+    }
+}
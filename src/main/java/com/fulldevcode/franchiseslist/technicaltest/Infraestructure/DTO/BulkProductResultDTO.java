@@ -0,0 +1,38 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BulkProductResultDTO {
+
+    private Integer index;
+
+    private Integer id;
+
+    private String name;
+
+    private boolean success;
+
+    private String message;
+
+    public BulkProductResultDTO(Integer index, Integer id, String name, boolean success, String message)
+    {
+        this.index = index;
+        this.id = id;
+        this.name = name;
+        this.success = success;
+        this.message = message;
+    }
+
+    public static BulkProductResultDTO Created(Integer index, ProductDTO product)
+    {
+        return new BulkProductResultDTO(index, product.getId(), product.getName(), true, "Producto creado");
+    }
+
+    public static BulkProductResultDTO Failed(Integer index, String name, String message)
+    {
+        return new BulkProductResultDTO(index, null, name, false, message);
+    }
+}
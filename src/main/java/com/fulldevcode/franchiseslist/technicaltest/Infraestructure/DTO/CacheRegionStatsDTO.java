@@ -0,0 +1,28 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CacheRegionStatsDTO {
+
+    private String region;
+
+    private Long hits;
+
+    private Long misses;
+
+    private Long puts;
+
+    private Double hitRate;
+
+    public CacheRegionStatsDTO(String region, Long hits, Long misses, Long puts, Double hitRate)
+    {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.hitRate = hitRate;
+    }
+}
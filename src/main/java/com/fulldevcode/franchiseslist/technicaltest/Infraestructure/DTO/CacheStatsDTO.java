@@ -0,0 +1,31 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CacheStatsDTO {
+
+    private String name;
+
+    private Long size;
+
+    private Long hits;
+
+    private Long misses;
+
+    private Double hitRate;
+
+    private Long evictions;
+
+    public CacheStatsDTO(String name, Long size, Long hits, Long misses, Double hitRate, Long evictions)
+    {
+        this.name = name;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.evictions = evictions;
+    }
+}
@@ -0,0 +1,35 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class ChangeEventDTO {
+
+    private Long seq;
+
+    private String entityType;
+
+    private Integer entityId;
+
+    private String changeType;
+
+    @JsonRawValue
+    private String payload;
+
+    private LocalDateTime createdAt;
+
+    public ChangeEventDTO(Long seq, String entityType, Integer entityId, String changeType, String payload, LocalDateTime createdAt)
+    {
+        this.seq = seq;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeType = changeType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ChangeFeedDTO {
+
+    private Long next;
+
+    private boolean more;
+
+    private List<ChangeEventDTO> events;
+
+    public ChangeFeedDTO(Long next, boolean more, List<ChangeEventDTO> events)
+    {
+        this.next = next;
+        this.more = more;
+        this.events = events;
+    }
+}
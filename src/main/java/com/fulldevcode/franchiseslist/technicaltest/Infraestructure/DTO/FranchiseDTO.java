@@ -10,4 +10,6 @@ public class FranchiseDTO {
     private Integer id;
 
     private String name;
+
+    private Long version;
 }
@@ -0,0 +1,31 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class FranchiseDeleteJobDTO {
+
+    private String id;
+
+    private Integer franchiseId;
+
+    private String franchiseName;
+
+    private String status;
+
+    private Long totalProducts;
+
+    private Long deletedProducts;
+
+    private Integer deletedBranches;
+
+    private Double progress;
+
+    private String message;
+
+    private LocalDateTime updatedAt;
+}
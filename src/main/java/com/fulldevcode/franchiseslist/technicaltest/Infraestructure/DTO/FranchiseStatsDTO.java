@@ -0,0 +1,33 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class FranchiseStatsDTO {
+
+    private Integer franchiseId;
+
+    private Long branchCount;
+
+    private Long productCount;
+
+    private Long totalStock;
+
+    private Integer maxStock;
+
+    private List<BranchStatsDTO> branches;
+
+    public FranchiseStatsDTO(Integer franchiseId, Long branchCount, Long productCount, Long totalStock, Integer maxStock, List<BranchStatsDTO> branches)
+    {
+        this.franchiseId = franchiseId;
+        this.branchCount = branchCount;
+        this.productCount = productCount;
+        this.totalStock = totalStock;
+        this.maxStock = maxStock;
+        this.branches = branches;
+    }
+}
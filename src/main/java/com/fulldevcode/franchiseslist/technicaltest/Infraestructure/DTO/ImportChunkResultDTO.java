@@ -0,0 +1,31 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ImportChunkResultDTO {
+
+    private Integer chunk;
+
+    private Long firstLine;
+
+    private Long lastLine;
+
+    private Integer rows;
+
+    private boolean success;
+
+    private String message;
+
+    public ImportChunkResultDTO(Integer chunk, Long firstLine, Long lastLine, Integer rows, boolean success, String message)
+    {
+        this.chunk = chunk;
+        this.firstLine = firstLine;
+        this.lastLine = lastLine;
+        this.rows = rows;
+        this.success = success;
+        this.message = message;
+    }
+}
@@ -0,0 +1,30 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportJobDTO {
+
+    private String id;
+
+    private String format;
+
+    private String status;
+
+    private Long lastCommittedLine;
+
+    private Long processedRows;
+
+    private Long skippedRows;
+
+    private Integer failedChunks;
+
+    private LocalDateTime updatedAt;
+
+    private List<ImportChunkResultDTO> chunks;
+}
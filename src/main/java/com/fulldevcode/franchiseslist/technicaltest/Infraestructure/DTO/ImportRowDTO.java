@@ -0,0 +1,17 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ImportRowDTO {
+
+    private String franchise;
+
+    private String branch;
+
+    private String product;
+
+    private Integer stock;
+}
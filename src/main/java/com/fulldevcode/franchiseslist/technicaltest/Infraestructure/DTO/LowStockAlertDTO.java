@@ -0,0 +1,40 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class LowStockAlertDTO {
+
+    private Integer franchiseId;
+
+    private Integer branchId;
+
+    private Integer productId;
+
+    private String productName;
+
+    private Integer previousStock;
+
+    private Integer stock;
+
+    private Integer threshold;
+
+    private LocalDateTime timestamp;
+
+    public LowStockAlertDTO(Integer franchiseId, Integer branchId, Integer productId, String productName,
+                            Integer previousStock, Integer stock, Integer threshold)
+    {
+        this.franchiseId = franchiseId;
+        this.branchId = branchId;
+        this.productId = productId;
+        this.productName = productName;
+        this.previousStock = previousStock;
+        this.stock = stock;
+        this.threshold = threshold;
+        this.timestamp = LocalDateTime.now();
+    }
+}
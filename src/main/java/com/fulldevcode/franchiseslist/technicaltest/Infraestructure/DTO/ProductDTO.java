@@ -15,4 +15,6 @@ public class ProductDTO {
 
     private Integer branchId;
 
+    private Long version;
+
 }
@@ -0,0 +1,28 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ProductSearchDTO {
+
+    private Integer id;
+
+    private String name;
+
+    private Integer stock;
+
+    private Integer branchId;
+
+    private String branchName;
+
+    public ProductSearchDTO(Integer id, String name, Integer stock, Integer branchId, String branchName)
+    {
+        this.id = id;
+        this.name = name;
+        this.stock = stock;
+        this.branchId = branchId;
+        this.branchName = branchName;
+    }
+}
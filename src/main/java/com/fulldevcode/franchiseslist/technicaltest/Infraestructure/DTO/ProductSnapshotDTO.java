@@ -0,0 +1,33 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ProductSnapshotDTO {
+
+    private Integer id;
+
+    private String name;
+
+    private Integer stock;
+
+    private Integer branchId;
+
+    private Long version;
+
+    public ProductSnapshotDTO(Integer id, String name, Integer stock, Integer branchId)
+    {
+        this.id = id;
+        this.name = name;
+        this.stock = stock;
+        this.branchId = branchId;
+    }
+
+    public ProductSnapshotDTO(Integer id, String name, Integer stock, Integer branchId, Long version)
+    {
+        this(id, name, stock, branchId);
+        this.version = version;
+    }
+}
@@ -0,0 +1,34 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class SecondLevelCacheStatsDTO {
+
+    private List<CacheRegionStatsDTO> regions;
+
+    private Double secondLevelHitRate;
+
+    private Double queryCacheHitRate;
+
+    private Long entityLoads;
+
+    private Long queryExecutions;
+
+    private Long preparedStatements;
+
+    public SecondLevelCacheStatsDTO(List<CacheRegionStatsDTO> regions, Double secondLevelHitRate, Double queryCacheHitRate,
+                                    Long entityLoads, Long queryExecutions, Long preparedStatements)
+    {
+        this.regions = regions;
+        this.secondLevelHitRate = secondLevelHitRate;
+        this.queryCacheHitRate = queryCacheHitRate;
+        this.entityLoads = entityLoads;
+        this.queryExecutions = queryExecutions;
+        this.preparedStatements = preparedStatements;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class StockAdjustmentDTO {
+
+    private Integer productId;
+
+    private Integer delta;
+
+    public StockAdjustmentDTO(Integer productId, Integer delta)
+    {
+        this.productId = productId;
+        this.delta = delta;
+    }
+}
@@ -0,0 +1,38 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class StockAdjustmentResultDTO {
+
+    private Integer productId;
+
+    private Integer delta;
+
+    private Integer stock;
+
+    private boolean success;
+
+    private String message;
+
+    public StockAdjustmentResultDTO(Integer productId, Integer delta, Integer stock, boolean success, String message)
+    {
+        this.productId = productId;
+        this.delta = delta;
+        this.stock = stock;
+        this.success = success;
+        this.message = message;
+    }
+
+    public static StockAdjustmentResultDTO Applied(ProductDTO product, Integer delta)
+    {
+        return new StockAdjustmentResultDTO(product.getId(), delta, product.getStock(), true, "Stock actualizado");
+    }
+
+    public static StockAdjustmentResultDTO Rejected(Integer productId, Integer delta, String message)
+    {
+        return new StockAdjustmentResultDTO(productId, delta, null, false, message);
+    }
+}
@@ -0,0 +1,102 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Escrituras por lotes sobre la proyección branch_top_product. Los cambios de productos de una
+ * transacción se aplican con sentencias por conjuntos en lugar de una sentencia por producto:
+ * las propuestas, el bloqueo de las sucursales a recalcular y su recálculo.
+ */
+@Repository
+public class BranchTopProductRepository {
+
+    /*
+     * Cada fila del lote inserta la sucursal si no existe, reemplaza el producto registrado si lo supera
+     * (mayor stock o, con igual stock, menor id) o actualiza la fila si se trata del mismo producto.
+     * ON CONFLICT bloquea la fila aunque no la actualice, y las filas se insertan en orden de sucursal
+     * para que dos transacciones con sucursales en común bloqueen en el mismo orden.
+     */
+    private static final String OFFER_BATCH_SQL =
+            "INSERT INTO branch_top_product (branch_id, product_id, product_name, stock) " +
+            "SELECT * FROM unnest(?::int[], ?::int[], ?::varchar[], ?::int[]) AS o(branch_id, product_id, product_name, stock) " +
+            "ORDER BY branch_id " +
+            "ON CONFLICT (branch_id) DO UPDATE " +
+            "SET product_id = excluded.product_id, product_name = excluded.product_name, stock = excluded.stock " +
+            "WHERE branch_top_product.product_id = excluded.product_id " +
+            "OR excluded.stock > branch_top_product.stock " +
+            "OR (excluded.stock = branch_top_product.stock AND excluded.product_id < branch_top_product.product_id)";
+
+    private static final String LOCK_STALE_SQL =
+            "SELECT t.branch_id FROM branch_top_product t " +
+            "JOIN unnest(?::int[], ?::int[]) AS s(branch_id, product_id) " +
+            "ON s.branch_id = t.branch_id AND s.product_id = t.product_id " +
+            "ORDER BY t.branch_id FOR UPDATE OF t";
+
+    /*
+     * Calcula el producto de mayor stock de cada sucursal (con igual stock, el de menor id), reemplaza
+     * la fila de las sucursales con productos y elimina la de las sucursales que se quedaron sin productos.
+     */
+    private static final String REFRESH_SQL =
+            "WITH top AS (SELECT DISTINCT ON (p.branch_id) p.branch_id, p.id, p.name, p.stock FROM products p " +
+            "WHERE p.branch_id = ANY(?::int[]) ORDER BY p.branch_id, p.stock DESC, p.id), " +
+            "removed AS (DELETE FROM branch_top_product t WHERE t.branch_id = ANY(?::int[]) " +
+            "AND NOT EXISTS (SELECT 1 FROM top WHERE top.branch_id = t.branch_id)) " +
+            "INSERT INTO branch_top_product (branch_id, product_id, product_name, stock) " +
+            "SELECT branch_id, id, name, stock FROM top " +
+            "ON CONFLICT (branch_id) DO UPDATE " +
+            "SET product_id = excluded.product_id, product_name = excluded.product_name, stock = excluded.stock";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BranchTopProductRepository(JdbcTemplate jdbc)
+    {
+        this.jdbcTemplate = jdbc;
+    }
+
+    /**
+     * Propone un producto por sucursal como el de mayor stock en un solo viaje a la base de datos.
+     * Las sucursales deben ser únicas dentro del lote.
+     */
+    public void OfferBatch(Integer[] branchIds, Integer[] productIds, String[] names, Integer[] stocks)
+    {
+        this.jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(OFFER_BATCH_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", branchIds));
+            statement.setArray(2, connection.createArrayOf("integer", productIds));
+            statement.setArray(3, connection.createArrayOf("varchar", names));
+            statement.setArray(4, connection.createArrayOf("integer", stocks));
+            return statement;
+        });
+    }
+
+    /**
+     * Bloquea, en orden de sucursal, las filas cuyo producto de mayor stock es uno de los indicados
+     * (pares sucursal, producto) y devuelve esas sucursales.
+     */
+    public List<Integer> LockStaleBranches(Integer[] branchIds, Integer[] productIds)
+    {
+        return this.jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOCK_STALE_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", branchIds));
+            statement.setArray(2, connection.createArrayOf("integer", productIds));
+            return statement;
+        }, (row, index) -> row.getInt(1));
+    }
+
+    /**
+     * Recalcula en una sola sentencia la fila de cada sucursal indicada a partir de sus productos.
+     */
+    public void RefreshBranches(Integer[] branchIds)
+    {
+        this.jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REFRESH_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", branchIds));
+            statement.setArray(2, connection.createArrayOf("integer", branchIds));
+            return statement;
+        });
+    }
+}
@@ -0,0 +1,225 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Escrituras por lotes y reconciliación de los contadores franchise_stats y branch_stats.
+ * Los deltas de productos de una transacción se aplican en una sola sentencia; la reconciliación
+ * compara los contadores contra COUNT/SUM de las tablas base y repara cada fila con su propio bloqueo.
+ * Cada escritura renueva además la marca de los listados afectados (catalog_stamp_seq), que se
+ * usa como ETag de los listados de franquicias, sucursales y productos.
+ */
+@Repository
+public class CatalogStatsRepository {
+
+    /*
+     * Las filas se bloquean en orden de sucursal y luego de franquicia antes de actualizarlas para que
+     * dos transacciones con sucursales en común no se bloqueen mutuamente (deadlock). Solo los cambios
+     * en la cantidad de productos renuevan la marca del listado de sucursales de la franquicia.
+     */
+    private static final String APPLY_DELTAS_SQL =
+            "WITH deltas AS (SELECT * FROM unnest(?::int[], ?::bigint[], ?::bigint[]) AS d(branch_id, products, stock)), " +
+            "locked AS (SELECT s.branch_id FROM branch_stats s JOIN deltas d ON d.branch_id = s.branch_id ORDER BY s.branch_id FOR UPDATE OF s), " +
+            "updated AS (UPDATE branch_stats s SET product_count = s.product_count + d.products, total_stock = s.total_stock + d.stock, " +
+            "products_stamp = nextval('catalog_stamp_seq') " +
+            "FROM deltas d JOIN locked l ON l.branch_id = d.branch_id " +
+            "WHERE s.branch_id = d.branch_id RETURNING s.franchise_id, d.products), " +
+            "franchises AS (SELECT f.franchise_id FROM franchise_stats f " +
+            "WHERE f.franchise_id IN (SELECT franchise_id FROM updated WHERE products <> 0) ORDER BY f.franchise_id FOR UPDATE) " +
+            "UPDATE franchise_stats f SET branches_stamp = nextval('catalog_stamp_seq') " +
+            "WHERE f.franchise_id IN (SELECT franchise_id FROM franchises)";
+
+    private static final String TOUCH_FRANCHISES_SQL =
+            "WITH franchises AS (SELECT f.franchise_id FROM franchise_stats f " +
+            "WHERE f.franchise_id = ANY(?::int[]) ORDER BY f.franchise_id FOR UPDATE) " +
+            "UPDATE franchise_stats f SET branches_stamp = nextval('catalog_stamp_seq') " +
+            "WHERE f.franchise_id IN (SELECT franchise_id FROM franchises)";
+
+    private static final String TOUCH_CATALOG_SQL =
+            "UPDATE catalog_stamp SET stamp = nextval('catalog_stamp_seq') WHERE id = 1";
+
+    private static final String CATALOG_STAMP_SQL =
+            "SELECT stamp FROM catalog_stamp WHERE id = 1";
+
+    private static final String FRANCHISE_STAMP_SQL =
+            "SELECT branches_stamp FROM franchise_stats WHERE franchise_id = ?";
+
+    private static final String BRANCH_STAMP_SQL =
+            "SELECT products_stamp FROM branch_stats WHERE branch_id = ?";
+
+    private static final String INSERT_BRANCH_SQL =
+            "INSERT INTO branch_stats (branch_id, franchise_id, product_count, total_stock) VALUES (?, ?, 0, 0) " +
+            "ON CONFLICT (branch_id) DO NOTHING";
+
+    private static final String INSERT_FRANCHISE_SQL =
+            "INSERT INTO franchise_stats (franchise_id, branch_count) VALUES (?, 0) " +
+            "ON CONFLICT (franchise_id) DO NOTHING";
+
+    private static final String DRIFTED_BRANCHES_SQL =
+            "SELECT b.id FROM branches b " +
+            "LEFT JOIN branch_stats s ON s.branch_id = b.id " +
+            "LEFT JOIN (SELECT branch_id, COUNT(*) AS products, SUM(stock) AS stock FROM products GROUP BY branch_id) p ON p.branch_id = b.id " +
+            "WHERE s.branch_id IS NULL " +
+            "OR s.franchise_id IS DISTINCT FROM b.franchise_id " +
+            "OR s.product_count <> COALESCE(p.products, 0) " +
+            "OR s.total_stock <> COALESCE(p.stock, 0) " +
+            "ORDER BY b.id LIMIT ?";
+
+    private static final String DRIFTED_FRANCHISES_SQL =
+            "SELECT f.id FROM franchises f " +
+            "LEFT JOIN franchise_stats s ON s.franchise_id = f.id " +
+            "LEFT JOIN (SELECT franchise_id, COUNT(*) AS branches FROM branches GROUP BY franchise_id) b ON b.franchise_id = f.id " +
+            "WHERE s.franchise_id IS NULL OR s.branch_count <> COALESCE(b.branches, 0) " +
+            "ORDER BY f.id LIMIT ?";
+
+    private static final String ENSURE_BRANCH_SQL =
+            "INSERT INTO branch_stats (branch_id, franchise_id, product_count, total_stock) " +
+            "SELECT b.id, b.franchise_id, 0, 0 FROM branches b WHERE b.id = ? " +
+            "ON CONFLICT (branch_id) DO NOTHING";
+
+    private static final String LOCK_BRANCH_SQL =
+            "SELECT branch_id FROM branch_stats WHERE branch_id = ? FOR UPDATE";
+
+    private static final String RECOUNT_BRANCH_SQL =
+            "UPDATE branch_stats s SET franchise_id = b.franchise_id, product_count = p.products, total_stock = p.stock, " +
+            "products_stamp = nextval('catalog_stamp_seq') " +
+            "FROM branches b, (SELECT COUNT(*) AS products, COALESCE(SUM(stock), 0) AS stock FROM products WHERE branch_id = ?) p " +
+            "WHERE s.branch_id = ? AND b.id = s.branch_id";
+
+    private static final String TOUCH_BRANCH_FRANCHISE_SQL =
+            "UPDATE franchise_stats SET branches_stamp = nextval('catalog_stamp_seq') " +
+            "WHERE franchise_id = (SELECT franchise_id FROM branch_stats WHERE branch_id = ?)";
+
+    private static final String ENSURE_FRANCHISE_SQL =
+            "INSERT INTO franchise_stats (franchise_id, branch_count) " +
+            "SELECT f.id, 0 FROM franchises f WHERE f.id = ? " +
+            "ON CONFLICT (franchise_id) DO NOTHING";
+
+    private static final String LOCK_FRANCHISE_SQL =
+            "SELECT franchise_id FROM franchise_stats WHERE franchise_id = ? FOR UPDATE";
+
+    private static final String RECOUNT_FRANCHISE_SQL =
+            "UPDATE franchise_stats SET branch_count = (SELECT COUNT(*) FROM branches WHERE franchise_id = ?), " +
+            "branches_stamp = nextval('catalog_stamp_seq') " +
+            "WHERE franchise_id = ?";
+
+    private static final String ORPHAN_BRANCHES_SQL =
+            "DELETE FROM branch_stats s WHERE NOT EXISTS (SELECT 1 FROM branches b WHERE b.id = s.branch_id)";
+
+    private static final String ORPHAN_FRANCHISES_SQL =
+            "DELETE FROM franchise_stats s WHERE NOT EXISTS (SELECT 1 FROM franchises f WHERE f.id = s.franchise_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogStatsRepository(JdbcTemplate jdbc)
+    {
+        this.jdbcTemplate = jdbc;
+    }
+
+    /**
+     * Suma a cada sucursal su delta de productos y de stock en un solo viaje a la base de datos.
+     * Los identificadores deben ser únicos dentro del lote.
+     */
+    public void ApplyProductDeltas(Integer[] branchIds, Long[] products, Long[] stock)
+    {
+        this.jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_DELTAS_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", branchIds));
+            statement.setArray(2, connection.createArrayOf("bigint", products));
+            statement.setArray(3, connection.createArrayOf("bigint", stock));
+            return statement;
+        });
+    }
+
+    /**
+     * Renueva la marca del listado de sucursales de las franquicias indicadas (en orden de id).
+     */
+    public void TouchFranchises(Integer[] franchiseIds)
+    {
+        this.jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(TOUCH_FRANCHISES_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", franchiseIds));
+            return statement;
+        });
+    }
+
+    /**
+     * Renueva la marca del listado de franquicias.
+     */
+    public void TouchCatalog()
+    {
+        this.jdbcTemplate.update(TOUCH_CATALOG_SQL);
+    }
+
+    public Optional<Long> SearchCatalogStamp()
+    {
+        return this.jdbcTemplate.queryForList(CATALOG_STAMP_SQL, Long.class).stream().findFirst();
+    }
+
+    public Optional<Long> SearchFranchiseStamp(Integer franchiseId)
+    {
+        return this.jdbcTemplate.queryForList(FRANCHISE_STAMP_SQL, Long.class, franchiseId).stream().findFirst();
+    }
+
+    public Optional<Long> SearchBranchStamp(Integer branchId)
+    {
+        return this.jdbcTemplate.queryForList(BRANCH_STAMP_SQL, Long.class, branchId).stream().findFirst();
+    }
+
+    /**
+     * Crea los contadores en cero de una sucursal nueva. Se insertan con JDBC de inmediato (y no al
+     * vaciar la sesión de JPA) para que los deltas de productos de la misma transacción encuentren la fila.
+     */
+    public void InsertBranch(Integer branchId, Integer franchiseId)
+    {
+        this.jdbcTemplate.update(INSERT_BRANCH_SQL, branchId, franchiseId);
+    }
+
+    public void InsertFranchise(Integer franchiseId)
+    {
+        this.jdbcTemplate.update(INSERT_FRANCHISE_SQL, franchiseId);
+    }
+
+    public List<Integer> SearchDriftedBranches(int limit)
+    {
+        return this.jdbcTemplate.queryForList(DRIFTED_BRANCHES_SQL, Integer.class, limit);
+    }
+
+    public List<Integer> SearchDriftedFranchises(int limit)
+    {
+        return this.jdbcTemplate.queryForList(DRIFTED_FRANCHISES_SQL, Integer.class, limit);
+    }
+
+    /**
+     * Recalcula los contadores de una sucursal. Debe ejecutarse dentro de una transacción:
+     * la fila se bloquea antes de contar, por lo que un delta concurrente espera y se aplica
+     * sobre el valor recalculado, o ya está confirmado y el conteo lo incluye.
+     */
+    public void RecountBranch(Integer branchId)
+    {
+        this.jdbcTemplate.update(ENSURE_BRANCH_SQL, branchId);
+        this.jdbcTemplate.queryForList(LOCK_BRANCH_SQL, Integer.class, branchId);
+        this.jdbcTemplate.update(RECOUNT_BRANCH_SQL, branchId, branchId);
+        this.jdbcTemplate.update(TOUCH_BRANCH_FRANCHISE_SQL, branchId);
+    }
+
+    /**
+     * Recalcula la cantidad de sucursales de una franquicia con el mismo bloqueo que RecountBranch.
+     */
+    public void RecountFranchise(Integer franchiseId)
+    {
+        this.jdbcTemplate.update(ENSURE_FRANCHISE_SQL, franchiseId);
+        this.jdbcTemplate.queryForList(LOCK_FRANCHISE_SQL, Integer.class, franchiseId);
+        this.jdbcTemplate.update(RECOUNT_FRANCHISE_SQL, franchiseId, franchiseId);
+    }
+
+    public int DeleteOrphans()
+    {
+        return this.jdbcTemplate.update(ORPHAN_BRANCHES_SQL) + this.jdbcTemplate.update(ORPHAN_FRANCHISES_SQL);
+    }
+}
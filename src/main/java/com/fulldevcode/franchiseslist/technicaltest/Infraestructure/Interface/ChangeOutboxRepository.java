@@ -0,0 +1,176 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Escrituras y lecturas de la bandeja de salida de eventos de cambio (change_events), del último
+ * seq depurado (change_sequence) y de los cursores del relay por destino (change_relay_cursors).
+ * El seq se toma de la secuencia change_events_seq al insertar, sin bloqueos compartidos entre
+ * transacciones; por eso un seq menor puede confirmarse después de uno mayor, y las lecturas usan
+ * SearchSettledSince para no avanzar sobre huecos recientes.
+ */
+@Repository
+public class ChangeOutboxRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_events (entity_type, entity_id, change_type, payload, created_at) " +
+            "VALUES (?, ?, ?, ?, clock_timestamp())";
+
+    /*
+     * settled indica si el evento se insertó hace más de settle-lag: cualquier seq menor ya fue asignado
+     * antes de ese momento, por lo que su transacción, si no se ve, ya se revirtió.
+     */
+    private static final String SINCE_SQL =
+            "SELECT seq, entity_type, entity_id, change_type, payload, created_at, " +
+            "created_at < clock_timestamp()::timestamp - make_interval(secs => ?::float8 / 1000) AS settled " +
+            "FROM change_events WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    private static final String PURGED_SEQ_SQL =
+            "SELECT purged_seq FROM change_sequence WHERE id = 1";
+
+    private static final String ENSURE_CURSOR_SQL =
+            "INSERT INTO change_relay_cursors (sink, last_seq) VALUES (?, 0) ON CONFLICT (sink) DO NOTHING";
+
+    /*
+     * Con varias instancias de la aplicación solo una entrega cada destino a la vez; las demás omiten
+     * el destino en ese ciclo en lugar de esperar el bloqueo.
+     */
+    private static final String LOCK_CURSOR_SQL =
+            "SELECT last_seq FROM change_relay_cursors WHERE sink = ? FOR UPDATE SKIP LOCKED";
+
+    private static final String SAVE_CURSOR_SQL =
+            "UPDATE change_relay_cursors SET last_seq = ? WHERE sink = ?";
+
+    private static final String MIN_CURSOR_SQL =
+            "SELECT MIN(last_seq) FROM change_relay_cursors WHERE sink = ANY(?::varchar[])";
+
+    private static final String PURGE_SQL =
+            "WITH purged AS (DELETE FROM change_events WHERE seq IN (" +
+            "SELECT seq FROM change_events WHERE seq <= ? AND created_at < localtimestamp - make_interval(hours => ?::int) ORDER BY seq LIMIT ?) RETURNING seq) " +
+            "UPDATE change_sequence SET purged_seq = GREATEST(purged_seq, (SELECT COALESCE(MAX(seq), 0) FROM purged)) " +
+            "WHERE id = 1 AND EXISTS (SELECT 1 FROM purged)";
+
+    private static final RowMapper<ChangeEventDTO> EVENT_MAPPER = (rs, rowNum) -> new ChangeEventDTO(
+            rs.getLong("seq"),
+            rs.getString("entity_type"),
+            rs.getInt("entity_id"),
+            rs.getString("change_type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private record SinceRow(ChangeEventDTO event, boolean settled) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeOutboxRepository(JdbcTemplate jdbc)
+    {
+        this.jdbcTemplate = jdbc;
+    }
+
+    /**
+     * Inserta los eventos en una sentencia por lote; cada fila toma su seq de change_events_seq.
+     */
+    public void InsertEvents(List<ChangeEventDTO> events)
+    {
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (PreparedStatement statement, ChangeEventDTO event) -> {
+            statement.setString(1, event.getEntityType());
+            statement.setInt(2, event.getEntityId());
+            statement.setString(3, event.getChangeType());
+            statement.setString(4, event.getPayload());
+        });
+    }
+
+    /**
+     * Obtiene, en orden, los eventos posteriores a since hasta el primer hueco reciente.
+     * Un hueco en seq es una transacción que aún no confirma o que se revirtió: la lectura se detiene
+     * antes del hueco mientras el evento siguiente tenga menos de settleLagMs, de modo que un cursor
+     * que avanza hasta el último evento retornado nunca salta un evento que se confirme después.
+     *
+     * @return Los eventos contiguos (o con huecos ya asentados) posteriores a since, hasta limit.
+     */
+    public List<ChangeEventDTO> SearchSettledSince(long since, int limit, long settleLagMs)
+    {
+        List<SinceRow> rows = this.jdbcTemplate.query(SINCE_SQL,
+                (rs, rowNum) -> new SinceRow(EVENT_MAPPER.mapRow(rs, rowNum), rs.getBoolean("settled")),
+                settleLagMs, since, limit);
+
+        List<ChangeEventDTO> events = new ArrayList<>(rows.size());
+        long expected = since + 1;
+
+        for (SinceRow row : rows)
+        {
+            if (row.event().getSeq() != expected && !row.settled())
+            {
+                break;
+            }
+
+            events.add(row.event());
+            expected = row.event().getSeq() + 1;
+        }
+
+        return events;
+    }
+
+    public long SearchPurgedSeq()
+    {
+        Long purged = this.jdbcTemplate.queryForObject(PURGED_SEQ_SQL, Long.class);
+        return purged == null ? 0 : purged;
+    }
+
+    public void EnsureCursor(String sink)
+    {
+        this.jdbcTemplate.update(ENSURE_CURSOR_SQL, sink);
+    }
+
+    /**
+     * Bloquea el cursor de un destino hasta el final de la transacción.
+     *
+     * @return El último seq entregado, o vacío si otra transacción tiene el cursor bloqueado.
+     */
+    public Optional<Long> LockCursor(String sink)
+    {
+        return this.jdbcTemplate.queryForList(LOCK_CURSOR_SQL, Long.class, sink).stream().findFirst();
+    }
+
+    public void SaveCursor(String sink, long seq)
+    {
+        this.jdbcTemplate.update(SAVE_CURSOR_SQL, seq, sink);
+    }
+
+    /**
+     * Obtiene el menor seq entregado entre los destinos indicados.
+     *
+     * @return El menor cursor, o vacío si ningún destino tiene cursor.
+     */
+    public Optional<Long> SearchMinCursor(String[] sinks)
+    {
+        List<Long> cursor = this.jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(MIN_CURSOR_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", sinks));
+            return statement;
+        }, (rs, rowNum) -> (Long) rs.getObject(1));
+
+        return cursor.stream().filter(Objects::nonNull).findFirst();
+    }
+
+    /**
+     * Elimina, en orden de seq, hasta limit eventos con más de retentionHours horas (según el reloj de la
+     * base de datos, el mismo de created_at) y con seq menor o igual a upTo, y avanza purged_seq.
+     *
+     * @return 1 si se eliminaron eventos, 0 en caso contrario.
+     */
+    public int Purge(long upTo, int retentionHours, int limit)
+    {
+        return this.jdbcTemplate.update(PURGE_SQL, upTo, retentionHours, limit);
+    }
+}
@@ -1,15 +1,20 @@
 package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
 
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchSnapshotDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchEntity;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseEntity;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IBranch extends JpaRepository<BranchEntity, Integer> {
 
@@ -21,24 +26,57 @@ public interface IBranch extends JpaRepository<BranchEntity, Integer> {
     Optional<BranchEntity> FindByName (@Param("idFranchise") Integer idFranchise, @Param("name") String name);
 
     @Query("""
-            SELECT b
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO(
+                b.id,
+                b.name,
+                COALESCE(s.productCount, 0L),
+                f.name
+            )
             FROM BranchEntity b
-            WHERE b.franchise.id = :idFranchise AND Lower(b.name) = Lower(:name) AND b.id != :id
+            JOIN b.franchise f
+            LEFT JOIN BranchStatsEntity s ON s.branchId = b.id
+            WHERE f.id = :idFranchise
             """)
-    Optional<BranchEntity> FindByIdName (@Param("idFranchise") Integer idFranchise, @Param("name") String name, @Param("id") Integer id);
+    List<BranchListDTO> IndexBranch (@PathVariable("idFranchise") Integer idFranchise);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
     @Query("""
-            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO(
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchSnapshotDTO(
+                b.id,
+                b.name,
+                b.franchise.id,
+                b.version
+            )
+            FROM BranchEntity b
+            """)
+    Stream<BranchSnapshotDTO> StreamSnapshot();
+
+    @Query("""
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchSnapshotDTO(
                 b.id,
                 b.name,
-                COUNT(p.id),
-                b.franchise.name
+                b.franchise.id
             )
             FROM BranchEntity b
-            LEFT JOIN b.products p
             WHERE b.franchise.id = :idFranchise
-            GROUP BY b.id, b.name, b.franchise.name
+            ORDER BY b.id
             """)
-    List<BranchListDTO> IndexBranch (@PathVariable("idFranchise") Integer idFranchise);
+    List<BranchSnapshotDTO> SearchFranchiseBranches(@Param("idFranchise") Integer idFranchise);
+
+    @Query("""
+            SELECT b.id
+            FROM BranchEntity b
+            WHERE b.franchise.id = :idFranchise
+            ORDER BY b.id
+            """)
+    List<Integer> SearchFranchiseBranchIds(@Param("idFranchise") Integer idFranchise);
+
+    @Modifying
+    @Query("DELETE FROM BranchEntity b WHERE b.id = :id")
+    int BulkDelete(@Param("id") Integer id);
+
+    @Modifying
+    @Query("DELETE FROM BranchEntity b WHERE b.franchise.id = :idFranchise")
+    int DeleteByFranchise(@Param("idFranchise") Integer idFranchise);
 
 }
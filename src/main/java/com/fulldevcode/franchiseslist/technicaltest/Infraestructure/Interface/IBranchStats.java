@@ -0,0 +1,39 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchStatsDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchStatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface IBranchStats extends JpaRepository<BranchStatsEntity, Integer> {
+
+    @Query("""
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchStatsDTO(
+                s.branchId,
+                s.productCount,
+                s.totalStock,
+                t.stock
+            )
+            FROM BranchStatsEntity s
+            LEFT JOIN BranchTopProductEntity t ON t.branchId = s.branchId
+            WHERE s.franchiseId = :idFranchise
+            ORDER BY s.branchId
+            """)
+    List<BranchStatsDTO> SearchFranchiseBranchStats(@Param("idFranchise") Integer idFranchise);
+
+    @Modifying
+    @Query("UPDATE BranchStatsEntity s SET s.franchiseId = :idFranchise WHERE s.branchId = :idBranch")
+    int MoveBranch(@Param("idBranch") Integer idBranch, @Param("idFranchise") Integer idFranchise);
+
+    @Modifying
+    @Query("DELETE FROM BranchStatsEntity s WHERE s.branchId = :idBranch")
+    int BulkDelete(@Param("idBranch") Integer idBranch);
+
+    @Modifying
+    @Query("DELETE FROM BranchStatsEntity s WHERE s.franchiseId = :idFranchise")
+    int DeleteByFranchise(@Param("idFranchise") Integer idFranchise);
+}
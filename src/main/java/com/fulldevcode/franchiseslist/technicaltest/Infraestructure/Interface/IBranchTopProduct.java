@@ -0,0 +1,40 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchTopProductEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface IBranchTopProduct extends JpaRepository<BranchTopProductEntity, Integer> {
+
+    @Query("""
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO(
+                b.id,
+                b.name,
+                t.productName,
+                t.stock
+            )
+            FROM BranchTopProductEntity t
+            JOIN BranchEntity b ON b.id = t.branchId
+            WHERE b.franchise.id = :id
+            """)
+    List<BranchMaxProductsListDTO> SearchBranchesMaxProducts(@Param("id") Integer id);
+
+    @Modifying
+    @Query(value = "LOCK TABLE branch_top_product IN EXCLUSIVE MODE", nativeQuery = true)
+    void LockForRebuild();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO branch_top_product (branch_id, product_id, product_name, stock)
+            SELECT DISTINCT ON (p.branch_id) p.branch_id, p.id, p.name, p.stock
+            FROM products p
+            WHERE p.branch_id IS NOT NULL
+            ORDER BY p.branch_id, p.stock DESC, p.id ASC
+            """, nativeQuery = true)
+    int Rebuild();
+}
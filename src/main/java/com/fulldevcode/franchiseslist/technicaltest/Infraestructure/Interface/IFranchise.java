@@ -3,12 +3,17 @@ package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IFranchise extends JpaRepository<FranchiseEntity, Integer> {
 
@@ -19,24 +24,35 @@ public interface IFranchise extends JpaRepository<FranchiseEntity, Integer> {
             """)
     Optional<FranchiseEntity> SearchName(@Param("name") String name);
 
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "catalog-queries")
+    })
     @Query("""
-            SELECT f
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO(
+                f.id,
+                f.name,
+                COALESCE(s.branchCount, 0L)
+            )
             FROM FranchiseEntity f
-            WHERE Lower(f.name) = Lower(:name) AND f.id != :id
+            LEFT JOIN FranchiseStatsEntity s ON s.franchiseId = f.id
+            WHERE f.id > :after
+            ORDER BY f.id
             """)
-    Optional<FranchiseEntity> SearchNameById(@Param("name") String name, @Param("id") Integer id);
+    List<FranchiseListDTO> IndexFranchise(@Param("after") Integer after, Limit limit);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
     @Query("""
             SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO(
                 f.id,
                 f.name,
-                COUNT(b.id)
+                COALESCE(s.branchCount, 0L)
             )
             FROM FranchiseEntity f
-            LEFT JOIN f.branches b
-            GROUP BY f.id, f.name
+            LEFT JOIN FranchiseStatsEntity s ON s.franchiseId = f.id
+            ORDER BY f.id
             """)
-    List<FranchiseListDTO> IndexFranchise();
+    Stream<FranchiseListDTO> StreamFranchise();
 
     @Query("""
             SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO(
@@ -63,5 +79,8 @@ public interface IFranchise extends JpaRepository<FranchiseEntity, Integer> {
             """)
     List<BranchMaxProductsListDTO> SearchBranchesMaxProducts(@Param("id") Integer id);
 
+    @Modifying
+    @Query("DELETE FROM FranchiseEntity f WHERE f.id = :id")
+    int BulkDelete(@Param("id") Integer id);
 
 }
@@ -0,0 +1,14 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseDeleteJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface IFranchiseDeleteJob extends JpaRepository<FranchiseDeleteJobEntity, String> {
+
+    List<FranchiseDeleteJobEntity> findByStatus(String status);
+
+    Optional<FranchiseDeleteJobEntity> findFirstByFranchiseIdAndStatus(Integer franchiseId, String status);
+}
@@ -0,0 +1,18 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseStatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IFranchiseStats extends JpaRepository<FranchiseStatsEntity, Integer> {
+
+    @Modifying
+    @Query("UPDATE FranchiseStatsEntity s SET s.branchCount = s.branchCount + :delta WHERE s.franchiseId = :idFranchise")
+    int AdjustBranchCount(@Param("idFranchise") Integer idFranchise, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM FranchiseStatsEntity s WHERE s.franchiseId = :idFranchise")
+    int BulkDelete(@Param("idFranchise") Integer idFranchise);
+}
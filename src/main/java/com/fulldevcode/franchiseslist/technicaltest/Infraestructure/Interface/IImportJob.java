@@ -0,0 +1,7 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.ImportJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IImportJob extends JpaRepository<ImportJobEntity, String> {
+}
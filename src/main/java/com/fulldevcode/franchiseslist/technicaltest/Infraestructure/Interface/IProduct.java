@@ -1,13 +1,22 @@
 package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
 
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSnapshotDTO;
 import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.ProductEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface IProduct extends JpaRepository<ProductEntity, Integer> {
@@ -21,13 +30,19 @@ public interface IProduct extends JpaRepository<ProductEntity, Integer> {
     Optional<ProductEntity> findByName (@Param("idBranch") Integer idBranch, @Param("name") String name);
 
     @Query("""
-            SELECT p
+            SELECT Lower(p.name)
             FROM ProductEntity p
             WHERE p.branch.id = :idBranch
-            AND Lower(p.name) = Lower(:name)
-            AND p.id != :id
+            AND Lower(p.name) IN :names
+            """)
+    List<String> ExistingNames (@Param("idBranch") Integer idBranch, @Param("names") Collection<String> names);
+
+    @Query("""
+            SELECT p.id
+            FROM ProductEntity p
+            WHERE p.id IN :ids
             """)
-    Optional<ProductEntity> findByNameId (@Param("idBranch") Integer idBranch, @Param("name") String name, @Param("id") Integer id);
+    List<Integer> ExistingIds (@Param("ids") Collection<Integer> ids);
 
     @Query("""
             SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO(
@@ -41,4 +56,98 @@ public interface IProduct extends JpaRepository<ProductEntity, Integer> {
             """)
     List<ProductListDTO> IndexProduct(@Param("idBranch") Integer idBranch);
 
+    @Query("""
+            SELECT p
+            FROM ProductEntity p
+            WHERE p.branch.id = :idBranch
+            ORDER BY p.stock DESC, p.id ASC
+            """)
+    List<ProductEntity> TopStockProducts(@Param("idBranch") Integer idBranch, Limit limit);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("""
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSnapshotDTO(
+                p.id,
+                p.name,
+                p.stock,
+                p.branch.id,
+                p.version
+            )
+            FROM ProductEntity p
+            """)
+    Stream<ProductSnapshotDTO> StreamSnapshot();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("""
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSnapshotDTO(
+                p.id,
+                p.name,
+                p.stock,
+                p.branch.id
+            )
+            FROM ProductEntity p
+            WHERE p.branch.franchise.id = :idFranchise
+            ORDER BY p.branch.id, p.id
+            """)
+    Stream<ProductSnapshotDTO> StreamFranchiseProducts(@Param("idFranchise") Integer idFranchise);
+
+    @Query("""
+            SELECT COUNT(p)
+            FROM ProductEntity p
+            WHERE p.branch.id IN (SELECT b.id FROM BranchEntity b WHERE b.franchise.id = :idFranchise)
+            """)
+    long CountByFranchise(@Param("idFranchise") Integer idFranchise);
+
+    @Query("""
+            SELECT p.id
+            FROM ProductEntity p
+            WHERE p.branch.id = :idBranch
+            ORDER BY p.stock ASC, p.id DESC
+            """)
+    List<Integer> SearchDeletionChunk(@Param("idBranch") Integer idBranch, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ProductEntity p WHERE p.branch.id = :idBranch")
+    int DeleteByBranch(@Param("idBranch") Integer idBranch);
+
+    @Modifying
+    @Query("""
+            DELETE FROM ProductEntity p
+            WHERE p.branch.id IN (SELECT b.id FROM BranchEntity b WHERE b.franchise.id = :idFranchise)
+            """)
+    int DeleteByFranchise(@Param("idFranchise") Integer idFranchise);
+
+    @Query("""
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO(
+                p.id,
+                p.name,
+                p.stock,
+                b.id,
+                b.name
+            )
+            FROM ProductEntity p
+            JOIN p.branch b
+            WHERE b.franchise.id = :idFranchise
+            AND Lower(p.name) LIKE :pattern ESCAPE '!'
+            ORDER BY p.stock DESC, p.id ASC
+            """)
+    List<ProductSearchDTO> SearchFranchiseProducts(@Param("idFranchise") Integer idFranchise, @Param("pattern") String pattern, Pageable pageable);
+
+    @Query("""
+            SELECT new com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO(
+                p.id,
+                p.name,
+                p.stock,
+                b.id,
+                b.name
+            )
+            FROM ProductEntity p
+            JOIN p.branch b
+            WHERE b.franchise.id = :idFranchise
+            AND p.stock BETWEEN :minStock AND :maxStock
+            ORDER BY p.stock ASC, p.id DESC
+            """)
+    List<ProductSearchDTO> SearchFranchiseStockRange(@Param("idFranchise") Integer idFranchise, @Param("minStock") Integer minStock,
+                                                     @Param("maxStock") Integer maxStock, Limit limit);
+
 }
@@ -0,0 +1,122 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ajustes atómicos de stock ejecutados como una única sentencia UPDATE ... RETURNING,
+ * sin leer ni guardar la entidad completa. La condición de que stock + delta quede entre 0 y el
+ * máximo de la columna (int) se evalúa sobre la fila bloqueada y en bigint, por lo que los ajustes
+ * concurrentes nunca se pierden ni dejan el stock en negativo, y un ajuste que lo desbordaría se
+ * rechaza solo, sin que la sentencia falle.
+ * Estos ajustes no comparan la versión (@Version) leída antes: la incrementan en la misma sentencia
+ * que suma el delta sobre la fila bloqueada, así que no pueden fallar por un conflicto de versión y no
+ * pasan por OptimisticRetryPolicy. Solo las escrituras que guardan una entidad leída antes (como la
+ * importación) se reintentan.
+ * También elimina productos en bloque con DELETE ... RETURNING, para que quien elimina conozca el
+ * stock exacto que salió de cada sucursal sin una lectura previa.
+ */
+@Repository
+public class ProductStockRepository {
+
+    private static final String ADJUST_SQL =
+            "UPDATE products SET stock = (stock::bigint + ?)::int, version = version + 1 " +
+            "WHERE id = ? AND stock::bigint + ? BETWEEN 0 AND 2147483647 " +
+            "RETURNING id, name, stock, branch_id, version";
+
+    /*
+     * Las filas se bloquean en orden de id antes de actualizarlas para que dos lotes
+     * concurrentes con productos en común no se bloqueen mutuamente (deadlock).
+     * La suma se calcula en bigint: un producto que se desbordaría queda fuera del lote
+     * en lugar de provocar "integer out of range" y revertir los ajustes de todos los demás.
+     */
+    private static final String ADJUST_BATCH_SQL =
+            "WITH deltas AS (SELECT * FROM unnest(?::int[], ?::int[]) AS d(id, delta)), " +
+            "locked AS (SELECT p.id FROM products p JOIN deltas d ON d.id = p.id ORDER BY p.id FOR UPDATE OF p) " +
+            "UPDATE products p SET stock = (p.stock::bigint + d.delta)::int, version = p.version + 1 " +
+            "FROM deltas d JOIN locked l ON l.id = d.id " +
+            "WHERE p.id = d.id AND p.stock::bigint + d.delta BETWEEN 0 AND 2147483647 " +
+            "RETURNING p.id, p.name, p.stock, p.branch_id, p.version";
+
+    private static final String DELETE_BATCH_SQL =
+            "DELETE FROM products WHERE id = ANY(?::int[]) RETURNING id, name, stock, branch_id, version";
+
+    private static final String DELETE_BRANCH_SQL =
+            "DELETE FROM products WHERE branch_id = ? RETURNING id, name, stock, branch_id, version";
+
+    private static final RowMapper<ProductDTO> PRODUCT_MAPPER = (rs, rowNum) -> {
+        ProductDTO product = new ProductDTO();
+        product.setId(rs.getInt("id"));
+        product.setName(rs.getString("name"));
+        product.setStock(rs.getInt("stock"));
+        product.setBranchId((Integer) rs.getObject("branch_id"));
+        product.setVersion(rs.getLong("version"));
+        return product;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockRepository(JdbcTemplate jdbc)
+    {
+        this.jdbcTemplate = jdbc;
+    }
+
+    /**
+     * Suma {@code delta} al stock de un producto.
+     *
+     * @return El producto con el stock resultante, o vacío si el producto no existe
+     *         o el ajuste dejaría el stock en negativo o fuera del rango de int.
+     */
+    public Optional<ProductDTO> Adjust(Integer id, Integer delta)
+    {
+        List<ProductDTO> updated = this.jdbcTemplate.query(ADJUST_SQL, PRODUCT_MAPPER, delta, id, delta);
+        return updated.stream().findFirst();
+    }
+
+    /**
+     * Aplica varios ajustes en un solo viaje a la base de datos.
+     * Los identificadores deben ser únicos dentro del lote.
+     *
+     * @return Los productos ajustados con su stock resultante. Los productos inexistentes
+     *         o cuyo ajuste dejaría el stock en negativo o fuera del rango de int no se incluyen.
+     */
+    public List<ProductDTO> AdjustBatch(Integer[] ids, Integer[] deltas)
+    {
+        return this.jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ADJUST_BATCH_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", ids));
+            statement.setArray(2, connection.createArrayOf("integer", deltas));
+            return statement;
+        }, PRODUCT_MAPPER);
+    }
+
+    /**
+     * Elimina varios productos en un solo viaje a la base de datos.
+     *
+     * @return Los productos eliminados con el stock que tenían al eliminarse.
+     */
+    public List<ProductDTO> DeleteBatch(Integer[] ids)
+    {
+        return this.jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DELETE_BATCH_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", ids));
+            return statement;
+        }, PRODUCT_MAPPER);
+    }
+
+    /**
+     * Elimina todos los productos de una sucursal.
+     *
+     * @return Los productos eliminados con el stock que tenían al eliminarse.
+     */
+    public List<ProductDTO> DeleteByBranch(Integer branchId)
+    {
+        return this.jdbcTemplate.query(DELETE_BRANCH_SQL, PRODUCT_MAPPER, branchId);
+    }
+}
@@ -0,0 +1,128 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.StatementFilterFunction;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas de solo lectura del catálogo sobre R2DBC, sin bloquear hilos mientras se espera
+ * a la base de datos. Devuelven los mismos DTO que los repositorios JPA. Las filas se piden
+ * al servidor por lotes de FETCH_SIZE según la demanda del suscriptor, de modo que un cliente
+ * lento frena la lectura del cursor en lugar de acumular el resultado en memoria.
+ */
+@Repository
+public class ReactiveCatalogRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final StatementFilterFunction FETCH_IN_BATCHES =
+            (statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE));
+
+    private static final String FRANCHISES_SQL =
+            "SELECT f.id, f.name, COALESCE(s.branch_count, 0) AS branches_num " +
+            "FROM franchises f LEFT JOIN franchise_stats s ON s.franchise_id = f.id ";
+
+    private static final String FRANCHISE_PAGE_SQL = FRANCHISES_SQL +
+            "WHERE f.id > :after ORDER BY f.id LIMIT :limit";
+
+    private static final String FRANCHISE_ALL_SQL = FRANCHISES_SQL +
+            "ORDER BY f.id";
+
+    private static final String BRANCHES_SQL =
+            "SELECT b.id, b.name, COALESCE(s.product_count, 0) AS products_num, f.name AS franchise_name " +
+            "FROM branches b JOIN franchises f ON f.id = b.franchise_id " +
+            "LEFT JOIN branch_stats s ON s.branch_id = b.id " +
+            "WHERE b.franchise_id = :idFranchise ORDER BY b.id";
+
+    private static final String PRODUCTS_SQL =
+            "SELECT p.id, p.name, p.stock, b.name AS branch_name " +
+            "FROM products p JOIN branches b ON b.id = p.branch_id " +
+            "WHERE p.branch_id = :idBranch ORDER BY p.id";
+
+    private static final String MAX_PRODUCTS_SQL =
+            "SELECT b.id, b.name, t.product_name, t.stock " +
+            "FROM branch_top_product t JOIN branches b ON b.id = t.branch_id " +
+            "WHERE b.franchise_id = :id";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCatalogRepository(DatabaseClient client)
+    {
+        this.databaseClient = client;
+    }
+
+    public Flux<FranchiseListDTO> IndexFranchise(Integer after, Integer limit)
+    {
+        return this.databaseClient.sql(FRANCHISE_PAGE_SQL)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map((row, metadata) -> new FranchiseListDTO(
+                        row.get("id", Integer.class),
+                        row.get("name", String.class),
+                        row.get("branches_num", Long.class)))
+                .all();
+    }
+
+    public Flux<FranchiseListDTO> StreamFranchise()
+    {
+        return this.databaseClient.sql(FRANCHISE_ALL_SQL)
+                .filter(FETCH_IN_BATCHES)
+                .map((row, metadata) -> new FranchiseListDTO(
+                        row.get("id", Integer.class),
+                        row.get("name", String.class),
+                        row.get("branches_num", Long.class)))
+                .all();
+    }
+
+    public Flux<BranchListDTO> IndexBranch(Integer idFranchise)
+    {
+        return this.databaseClient.sql(BRANCHES_SQL)
+                .bind("idFranchise", idFranchise)
+                .filter(FETCH_IN_BATCHES)
+                .map((row, metadata) -> new BranchListDTO(
+                        row.get("id", Integer.class),
+                        row.get("name", String.class),
+                        row.get("products_num", Long.class),
+                        row.get("franchise_name", String.class)))
+                .all();
+    }
+
+    public Flux<ProductListDTO> IndexProduct(Integer idBranch)
+    {
+        return this.databaseClient.sql(PRODUCTS_SQL)
+                .bind("idBranch", idBranch)
+                .filter(FETCH_IN_BATCHES)
+                .map((row, metadata) -> new ProductListDTO(
+                        row.get("id", Integer.class),
+                        row.get("name", String.class),
+                        row.get("stock", Integer.class),
+                        row.get("branch_name", String.class)))
+                .all();
+    }
+
+    public Flux<BranchMaxProductsListDTO> SearchBranchesMaxProducts(Integer id)
+    {
+        return this.databaseClient.sql(MAX_PRODUCTS_SQL)
+                .bind("id", id)
+                .map((row, metadata) -> new BranchMaxProductsListDTO(
+                        row.get("id", Integer.class),
+                        row.get("name", String.class),
+                        row.get("product_name", String.class),
+                        row.get("stock", Integer.class)))
+                .all();
+    }
+
+    public Mono<Boolean> FranchiseExists(Integer id)
+    {
+        return this.databaseClient.sql("SELECT EXISTS (SELECT 1 FROM franchises WHERE id = :id) AS found")
+                .bind("id", id)
+                .map((row, metadata) -> row.get("found", Boolean.class))
+                .one();
+    }
+}
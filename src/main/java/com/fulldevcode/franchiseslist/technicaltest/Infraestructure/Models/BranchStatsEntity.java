@@ -0,0 +1,33 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores agregados de una sucursal: cantidad de productos y stock total.
+ * El stock máximo se toma de la proyección branch_top_product.
+ */
+@Entity
+@Table(name = "branch_stats")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BranchStatsEntity {
+
+    @Id
+    @Column(name = "branch_id")
+    private Integer branchId;
+
+    @Column(name = "franchise_id")
+    private Integer franchiseId;
+
+    @Column(name = "product_count", nullable = false)
+    private Long productCount;
+
+    @Column(name = "total_stock", nullable = false)
+    private Long totalStock;
+}
@@ -0,0 +1,34 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección materializada con el producto de mayor stock de cada sucursal.
+ * En caso de empate en el stock se conserva el producto con menor identificador.
+ * Se mantiene de forma incremental desde las operaciones de productos.
+ */
+@Entity
+@Table(name = "branch_top_product")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BranchTopProductEntity {
+
+    @Id
+    @Column(name = "branch_id")
+    private Integer branchId;
+
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    @Column(name = "product_name", length = 100, nullable = false)
+    private String productName;
+
+    @Column(nullable = false)
+    private Integer stock;
+}
@@ -0,0 +1,53 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado persistido de la eliminación asíncrona de una franquicia. Permite consultar
+ * su avance y reanudarla si la aplicación se reinicia antes de terminar.
+ */
+@Entity
+@Table(name = "franchise_delete_jobs")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranchiseDeleteJobEntity {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "franchise_id", nullable = false)
+    private Integer franchiseId;
+
+    @Column(name = "franchise_name", length = 100, nullable = false)
+    private String franchiseName;
+
+    @Column(length = 30, nullable = false)
+    private String status;
+
+    @Column(name = "total_products", nullable = false)
+    private Long totalProducts;
+
+    @Column(name = "deleted_products", nullable = false)
+    private Long deletedProducts;
+
+    @Column(name = "deleted_branches", nullable = false)
+    private Integer deletedBranches;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
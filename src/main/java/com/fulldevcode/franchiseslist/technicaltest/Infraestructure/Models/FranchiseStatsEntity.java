@@ -0,0 +1,27 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores agregados de una franquicia. El conteo de productos y el stock total
+ * se obtienen sumando los contadores de sus sucursales (BranchStatsEntity).
+ */
+@Entity
+@Table(name = "franchise_stats")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranchiseStatsEntity {
+
+    @Id
+    @Column(name = "franchise_id")
+    private Integer franchiseId;
+
+    @Column(name = "branch_count", nullable = false)
+    private Long branchCount;
+}
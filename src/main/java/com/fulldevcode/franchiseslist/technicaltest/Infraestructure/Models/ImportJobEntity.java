@@ -0,0 +1,47 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado persistido de una importación masiva. Permite consultar su avance
+ * y reanudarla desde la última línea confirmada.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobEntity {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(length = 10, nullable = false)
+    private String format;
+
+    @Column(length = 30, nullable = false)
+    private String status;
+
+    @Column(name = "last_committed_line", nullable = false)
+    private Long lastCommittedLine;
+
+    @Column(name = "processed_rows", nullable = false)
+    private Long processedRows;
+
+    @Column(name = "failed_chunks", nullable = false)
+    private Integer failedChunks;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,48 @@
+-- Esquema base de la aplicación. Usa IF NOT EXISTS para que también se pueda aplicar sobre
+-- bases de datos creadas previamente por Hibernate (ddl-auto=update).
+CREATE TABLE IF NOT EXISTS franchises (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS branches (
+    id           INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(100) NOT NULL,
+    franchise_id INTEGER REFERENCES franchises (id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS products (
+    id        INTEGER PRIMARY KEY DEFAULT nextval('products_seq'),
+    name      VARCHAR(100) NOT NULL,
+    stock     INTEGER NOT NULL,
+    branch_id INTEGER REFERENCES branches (id)
+);
+
+CREATE TABLE IF NOT EXISTS branch_top_product (
+    branch_id    INTEGER PRIMARY KEY,
+    product_id   INTEGER NOT NULL,
+    product_name VARCHAR(100) NOT NULL,
+    stock        INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    id                  VARCHAR(36) PRIMARY KEY,
+    format              VARCHAR(10) NOT NULL,
+    status              VARCHAR(30) NOT NULL,
+    last_committed_line BIGINT NOT NULL,
+    processed_rows      BIGINT NOT NULL,
+    failed_chunks       INTEGER NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL,
+    updated_at          TIMESTAMP(6) NOT NULL
+);
+
+-- Punto de control del diario de deltas de stock (StockDeltaCoalescer): último segmento
+-- del diario cuyo contenido ya fue aplicado a products.stock.
+CREATE TABLE IF NOT EXISTS stock_journal_checkpoint (
+    id      INTEGER PRIMARY KEY,
+    segment BIGINT NOT NULL
+);
+
+INSERT INTO stock_journal_checkpoint (id, segment) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,5 @@
+-- Los productos pasan de IDENTITY a la secuencia products_seq (incremento 50) para habilitar
+-- el batching de inserciones de Hibernate; la secuencia se adelanta a los ids existentes.
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('products_seq', t.max_id) FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM products) t WHERE t.max_id > (SELECT last_value FROM products_seq);
+ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_seq');
@@ -0,0 +1,13 @@
+-- Unicidad de nombres sin distinguir mayúsculas, por franquicia y por sucursal. Los servicios
+-- se apoyan en estos índices en lugar de consultar el nombre antes de insertar o actualizar,
+-- y las búsquedas Lower(name) = Lower(:name) los usan en lugar de recorrer la tabla.
+-- ux_branches_franchise_name_lower inicia con franchise_id, por lo que también cubre la llave
+-- foránea branches.franchise_id (sucursales por franquicia, borrados en cascada).
+CREATE UNIQUE INDEX IF NOT EXISTS ux_franchises_name_lower ON franchises (lower(name));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_branches_franchise_name_lower ON branches (franchise_id, lower(name));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_products_branch_name_lower ON products (branch_id, lower(name));
+
+-- Producto de mayor stock por sucursal y K primeros: recorre el índice en el orden de la consulta
+-- (stock DESC, id) sin ordenar. Al iniciar con branch_id también cubre la llave foránea
+-- products.branch_id (listados por sucursal y borrados en cascada).
+CREATE INDEX IF NOT EXISTS ix_products_branch_stock ON products (branch_id, stock DESC, id);
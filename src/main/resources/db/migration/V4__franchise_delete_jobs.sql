@@ -0,0 +1,16 @@
+-- Estado persistido de las eliminaciones asíncronas por bloques de franquicias grandes
+-- (FranchiseDeleteJobService). Los trabajos en estado RUNNING se reanudan al iniciar la aplicación.
+CREATE TABLE IF NOT EXISTS franchise_delete_jobs (
+    id               VARCHAR(36) PRIMARY KEY,
+    franchise_id     INTEGER NOT NULL,
+    franchise_name   VARCHAR(100) NOT NULL,
+    status           VARCHAR(30) NOT NULL,
+    total_products   BIGINT NOT NULL,
+    deleted_products BIGINT NOT NULL,
+    deleted_branches INTEGER NOT NULL,
+    message          VARCHAR(500),
+    created_at       TIMESTAMP(6) NOT NULL,
+    updated_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_franchise_delete_jobs_status ON franchise_delete_jobs (status, franchise_id);
@@ -0,0 +1,33 @@
+-- Contadores agregados por franquicia y por sucursal mantenidos de forma incremental por
+-- CatalogStatsService, para servir los listados y /stats sin COUNT ... GROUP BY sobre las tablas base.
+-- El conteo de productos y el stock total se guardan solo por sucursal (la franquicia los suma desde
+-- branch_stats), así los cambios concurrentes de productos solo compiten por la fila de su sucursal.
+-- Igual que branch_top_product no tienen llaves foráneas: las filas se crean desde los eventos de la
+-- misma transacción y la reconciliación periódica elimina las que queden huérfanas.
+CREATE TABLE IF NOT EXISTS franchise_stats (
+    franchise_id INTEGER PRIMARY KEY,
+    branch_count BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS branch_stats (
+    branch_id     INTEGER PRIMARY KEY,
+    franchise_id  INTEGER,
+    product_count BIGINT NOT NULL,
+    total_stock   BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_branch_stats_franchise ON branch_stats (franchise_id, branch_id);
+
+INSERT INTO franchise_stats (franchise_id, branch_count)
+SELECT f.id, COUNT(b.id)
+FROM franchises f
+LEFT JOIN branches b ON b.franchise_id = f.id
+GROUP BY f.id
+ON CONFLICT (franchise_id) DO NOTHING;
+
+INSERT INTO branch_stats (branch_id, franchise_id, product_count, total_stock)
+SELECT b.id, b.franchise_id, COUNT(p.id), COALESCE(SUM(p.stock), 0)
+FROM branches b
+LEFT JOIN products p ON p.branch_id = b.id
+GROUP BY b.id, b.franchise_id
+ON CONFLICT (branch_id) DO NOTHING;
@@ -0,0 +1,23 @@
+-- Versiones por entidad (@Version) y marcas de modificación por listado para responder
+-- GET condicionales (If-None-Match) con 304 sin ejecutar la consulta del listado.
+ALTER TABLE franchises ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE branches ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Todas las marcas se toman de una misma secuencia: una fila de contadores eliminada y recreada
+-- por la reconciliación nunca vuelve a un valor que un cliente ya tenga en caché.
+CREATE SEQUENCE IF NOT EXISTS catalog_stamp_seq;
+
+-- Marca del listado de franquicias (/api/franchises), en una única fila.
+CREATE TABLE IF NOT EXISTS catalog_stamp (
+    id    SMALLINT PRIMARY KEY,
+    stamp BIGINT NOT NULL DEFAULT nextval('catalog_stamp_seq')
+);
+
+INSERT INTO catalog_stamp (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
+
+-- Marca del listado de sucursales de cada franquicia (/api/branches/getAll/{idFranchise}).
+ALTER TABLE franchise_stats ADD COLUMN IF NOT EXISTS branches_stamp BIGINT NOT NULL DEFAULT nextval('catalog_stamp_seq');
+
+-- Marca del listado de productos de cada sucursal (/api/products/getAll/{idBranch}).
+ALTER TABLE branch_stats ADD COLUMN IF NOT EXISTS products_stamp BIGINT NOT NULL DEFAULT nextval('catalog_stamp_seq');
@@ -0,0 +1,28 @@
+-- Bandeja de salida (outbox) de eventos de cambio de franquicias, sucursales y productos.
+-- Cada evento se escribe en la misma transacción de la operación que lo origina.
+CREATE TABLE IF NOT EXISTS change_events (
+    seq         BIGINT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id   INTEGER NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    payload     TEXT NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+-- Contador de la secuencia de eventos, en una única fila. No se usa una SEQUENCE: la fila se bloquea
+-- al reservar los números justo antes de confirmar, de modo que el orden de seq es el orden de
+-- confirmación y un consumidor que lee seq > N nunca salta un evento confirmado más tarde.
+-- purged_seq es el mayor seq eliminado por la depuración de eventos antiguos.
+CREATE TABLE IF NOT EXISTS change_sequence (
+    id         SMALLINT PRIMARY KEY,
+    last_seq   BIGINT NOT NULL,
+    purged_seq BIGINT NOT NULL
+);
+
+INSERT INTO change_sequence (id, last_seq, purged_seq) VALUES (1, 0, 0) ON CONFLICT (id) DO NOTHING;
+
+-- Último seq entregado por el relay a cada destino (sink).
+CREATE TABLE IF NOT EXISTS change_relay_cursors (
+    sink     VARCHAR(50) PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
@@ -0,0 +1,12 @@
+-- Los eventos de cambio toman su seq de una secuencia en lugar de la fila change_sequence.last_seq:
+-- ya no existe un bloqueo global que serialice todas las transacciones que escriben eventos.
+-- seq deja de seguir el orden de confirmación; las lecturas solo avanzan sobre rangos sin huecos
+-- o cuyos huecos son más antiguos que franchises.outbox.settle-lag-ms (transacciones revertidas).
+CREATE SEQUENCE IF NOT EXISTS change_events_seq OWNED BY change_events.seq;
+
+SELECT setval('change_events_seq', GREATEST(last_seq, 1), last_seq > 0) FROM change_sequence WHERE id = 1;
+
+ALTER TABLE change_events ALTER COLUMN seq SET DEFAULT nextval('change_events_seq');
+
+-- change_sequence conserva solo purged_seq, el mayor seq eliminado por la depuración.
+ALTER TABLE change_sequence DROP COLUMN IF EXISTS last_seq;
@@ -0,0 +1,110 @@
+package com.fulldevcode.franchiseslist.technicaltest.Application.Controllers;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.CatalogStatsService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.ProductService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ProductControllerTest {
+
+    private ProductService productService;
+    private CatalogStatsService catalogStatsService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.productService = mock(ProductService.class);
+        this.catalogStatsService = mock(CatalogStatsService.class);
+        this.mockMvc = MockMvcBuilders.standaloneSetup(new ProductController(this.productService, this.catalogStatsService)).build();
+
+        when(this.catalogStatsService.ProductsStamp(10)).thenReturn(Optional.of(42L));
+        when(this.productService.IndexProducts(10)).thenReturn(ApiResponseDTO.Success("Productos", List.of(new ProductListDTO(1, "Cafe", 8, "Centro"))));
+        when(this.productService.SearchById(1)).thenReturn(ApiResponseDTO.Success("Producto", Product()));
+    }
+
+    @Test
+    void ListingWithACurrentETagReturnsNotModifiedWithoutQuerying() throws Exception
+    {
+        this.mockMvc.perform(get("/api/products/getAll/10").header(HttpHeaders.IF_NONE_MATCH, "\"products-41\", W/\"products-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"products-42\""))
+                .andExpect(content().string(""));
+
+        verify(this.productService, never()).IndexProducts(any());
+    }
+
+    @Test
+    void ListingWithAStaleETagReturnsTheProducts() throws Exception
+    {
+        this.mockMvc.perform(get("/api/products/getAll/10").header(HttpHeaders.IF_NONE_MATCH, "W/\"products-41\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"products-42\""))
+                .andExpect(jsonPath("$.data[0].name").value("Cafe"));
+    }
+
+    @Test
+    void ListingWithoutAStampIsNotTagged() throws Exception
+    {
+        when(this.catalogStatsService.ProductsStamp(10)).thenReturn(Optional.empty());
+
+        this.mockMvc.perform(get("/api/products/getAll/10").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        verify(this.productService).IndexProducts(10);
+    }
+
+    @Test
+    void DetailWithTheSameVersionAndStockReturnsNotModified() throws Exception
+    {
+        this.mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"product-1-3-8\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"product-1-3-8\""));
+    }
+
+    @Test
+    void DetailWithAChangedStockReturnsTheProduct() throws Exception
+    {
+        this.mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"product-1-3-5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"product-1-3-8\""))
+                .andExpect(jsonPath("$.data.stock").value(8));
+    }
+
+    @Test
+    void ErrorsAreNotTagged() throws Exception
+    {
+        when(this.productService.SearchById(2)).thenReturn(ApiResponseDTO.Error("El producto no se encuentra registrado"));
+
+        this.mockMvc.perform(get("/api/products/2").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    private static ProductDTO Product()
+    {
+        ProductDTO product = new ProductDTO();
+        product.setId(1);
+        product.setName("Cafe");
+        product.setStock(8);
+        product.setBranchId(10);
+        product.setVersion(3L);
+        return product;
+    }
+}
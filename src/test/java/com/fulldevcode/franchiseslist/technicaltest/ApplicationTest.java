@@ -0,0 +1,94 @@
+package com.fulldevcode.franchiseslist.technicaltest;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.BranchService;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Services.FranchiseService;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Config.SqlStatementMonitor;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Base de las pruebas con el contexto completo de la aplicación sobre el PostgreSQL embebido de
+ * PostgresTest, en una base de datos propia ("app") migrada por Flyway al iniciar el contexto.
+ * El contexto se comparte entre las clases de prueba: cada prueba crea su propia franquicia y
+ * sucursal con nombres únicos en lugar de limpiar las tablas. Las eliminaciones asíncronas usan
+ * bloques de 5 productos para que las pruebas recorran varios bloques con pocos datos.
+ */
+@SpringBootTest
+public abstract class ApplicationTest {
+
+    private static final String DATABASE = "app";
+
+    @Autowired
+    protected FranchiseService franchiseService;
+
+    @Autowired
+    protected BranchService branchService;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected SqlStatementMonitor statementMonitor;
+
+    @DynamicPropertySource
+    static void Database(DynamicPropertyRegistry registry)
+    {
+        PostgresTest.CreateDatabase(DATABASE);
+        int port = PostgresTest.Start().getPort();
+
+        registry.add("spring.datasource.url", () -> "jdbc:postgresql://localhost:" + port + "/" + DATABASE);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + port + "/" + DATABASE);
+        registry.add("franchises.outbox.relay.interval-ms", () -> "0");
+        registry.add("franchises.stats.reconcile-interval-ms", () -> "0");
+        registry.add("franchises.delete-job.chunk-size", () -> "5");
+    }
+
+    /**
+     * Crea una sucursal de una franquicia nueva, ambas con nombres únicos.
+     */
+    protected BranchDTO CreateBranch()
+    {
+        FranchiseDTO franchise = new FranchiseDTO();
+        franchise.setName("Franquicia " + UUID.randomUUID());
+        ApiResponseDTO<FranchiseDTO> createdFranchise = this.franchiseService.CreateFrachise(franchise);
+        assertTrue(createdFranchise.isSuccess(), createdFranchise.getMessage());
+
+        BranchDTO branch = new BranchDTO();
+        branch.setName("Sucursal " + UUID.randomUUID());
+        branch.setFranchiseId(createdFranchise.getData().getId());
+        ApiResponseDTO<BranchDTO> createdBranch = this.branchService.CreateProduct(branch);
+        assertTrue(createdBranch.isSuccess(), createdBranch.getMessage());
+
+        return createdBranch.getData();
+    }
+
+    /**
+     * Cantidad de sentencias SQL que ejecuta una acción en el hilo actual (un lote JDBC cuenta como una).
+     */
+    protected int Statements(Runnable action)
+    {
+        this.statementMonitor.Begin("test", 0);
+
+        try
+        {
+            action.run();
+            return this.statementMonitor.Current().getStatements();
+        }
+        finally
+        {
+            this.statementMonitor.End();
+        }
+    }
+}
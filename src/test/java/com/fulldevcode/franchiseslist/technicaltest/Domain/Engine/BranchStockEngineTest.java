@@ -0,0 +1,236 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.FranchiseChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchMaxProductsListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchSnapshotDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductListDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSnapshotDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BranchStockEngineTest {
+
+    private IProduct productRepository;
+    private IBranch branchRepository;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.productRepository = mock(IProduct.class);
+        this.branchRepository = mock(IBranch.class);
+
+        when(this.branchRepository.StreamSnapshot()).thenAnswer(invocation -> Stream.of(
+                new BranchSnapshotDTO(10, "Centro", 1, 0L),
+                new BranchSnapshotDTO(20, "Norte", 1, 0L)));
+        when(this.productRepository.StreamSnapshot()).thenAnswer(invocation -> Stream.of(
+                new ProductSnapshotDTO(100, "Arroz", 5, 10, 0L),
+                new ProductSnapshotDTO(101, "Frijol", 9, 10, 0L),
+                new ProductSnapshotDTO(102, "Sal", 9, 10, 0L),
+                new ProductSnapshotDTO(200, "Azucar", 3, 20, 0L)));
+    }
+
+    @Test
+    void TopProductsAreOrderedByStockThenId() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+
+        assertEquals(List.of(101, 102, 100), Ids(engine.TopProducts(10, 5)));
+        assertEquals(List.of(101), Ids(engine.TopProducts(10, 1)));
+        assertTrue(engine.TopProducts(99, 5).isEmpty());
+    }
+
+    @Test
+    void TopPerBranchReturnsTheHighestStockOfEachBranch() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+
+        Map<Integer, String> top = engine.TopPerBranch(1).stream()
+                .collect(Collectors.toMap(BranchMaxProductsListDTO::getId, BranchMaxProductsListDTO::getNameProduct));
+
+        assertEquals(Map.of(10, "Frijol", 20, "Azucar"), top);
+    }
+
+    @Test
+    void StockRangeUsesExclusiveBoundsAndAscendingStock() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+
+        List<ProductSearchDTO> range = engine.StockRange(1, 9, 2, 10);
+
+        assertEquals(List.of(200, 100), range.stream().map(ProductSearchDTO::getId).toList());
+        assertEquals("Norte", range.get(0).getBranchName());
+    }
+
+    @Test
+    void StockRangeWithoutPossibleStocksIsEmpty() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+
+        assertTrue(engine.StockRange(1, Integer.MIN_VALUE, null, 10).isEmpty());
+        assertTrue(engine.StockRange(1, null, Integer.MAX_VALUE, 10).isEmpty());
+        assertTrue(engine.StockRange(1, 6, 5, 10).isEmpty());
+        assertEquals(1, engine.FranchiseOf(20));
+        assertNull(engine.FranchiseOf(99));
+    }
+
+    @Test
+    void UpdateMovesTheProductBetweenBranches() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+
+        engine.OnProductChanged(ProductChangedEvent.Updated(Product(100, "Arroz", 5, 10, 0L), Product(100, "Arroz", 20, 20, 1L)));
+
+        assertEquals(List.of(101, 102), Ids(engine.TopProducts(10, 5)));
+        assertEquals(List.of(100, 200), Ids(engine.TopProducts(20, 5)));
+        assertEquals(20, engine.TopProducts(20, 1).get(0).getStock());
+    }
+
+    @Test
+    void IgnoresEventsOlderThanTheAppliedVersion() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+
+        engine.OnProductChanged(ProductChangedEvent.Updated(Product(100, "Arroz", 50, 10, 1L), Product(100, "Arroz", 1, 10, 2L)));
+        engine.OnProductChanged(ProductChangedEvent.Updated(Product(100, "Arroz", 5, 10, 0L), Product(100, "Arroz", 50, 10, 1L)));
+
+        assertEquals(1, engine.TopProducts(10, 5).get(2).getStock());
+    }
+
+    @Test
+    void IgnoresProductEventsArrivingAfterTheDelete() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+
+        engine.OnProductChanged(ProductChangedEvent.Deleted(Product(100, "Arroz", 5, 10, 1L)));
+        engine.OnProductChanged(ProductChangedEvent.Updated(Product(100, "Arroz", 5, 10, 0L), Product(100, "Arroz", 80, 10, 1L)));
+
+        assertEquals(List.of(101, 102), Ids(engine.TopProducts(10, 5)));
+    }
+
+    @Test
+    void ForgetsDeletedProductsOnceTheTombstoneExpires() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded(0);
+
+        engine.OnProductChanged(ProductChangedEvent.Deleted(Product(100, "Arroz", 5, 10, 1L)));
+        engine.OnProductChanged(ProductChangedEvent.Updated(Product(100, "Arroz", 5, 10, 0L), Product(100, "Arroz", 80, 10, 1L)));
+
+        assertEquals(List.of(100, 101, 102), Ids(engine.TopProducts(10, 5)));
+    }
+
+    @Test
+    void BranchDeleteRemovesItsProductsAndIgnoresLateEvents() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+
+        engine.OnBranchChanged(BranchChangedEvent.Deleted(Branch(10, "Centro", 1, 0L)));
+        engine.OnProductChanged(ProductChangedEvent.Created(Product(300, "Leche", 7, 10, 0L)));
+        engine.OnBranchChanged(BranchChangedEvent.Updated(Branch(10, "Centro", 1, 0L), Branch(10, "Centro Sur", 1, 1L)));
+
+        assertFalse(engine.HasBranch(10));
+        assertEquals(List.of(20), engine.TopPerBranch(1).stream().map(BranchMaxProductsListDTO::getId).toList());
+    }
+
+    @Test
+    void FranchiseDeleteRemovesItsBranches() throws InterruptedException
+    {
+        BranchStockEngine engine = Loaded();
+        FranchiseDTO franchise = new FranchiseDTO();
+        franchise.setId(1);
+
+        engine.OnFranchiseChanged(FranchiseChangedEvent.Deleted(franchise, List.of(10, 20)));
+
+        assertFalse(engine.HasBranch(10));
+        assertFalse(engine.HasBranch(20));
+        assertTrue(engine.TopPerBranch(1).isEmpty());
+    }
+
+    @Test
+    void ChangesDuringTheInitialLoadAreAppliedAfterIt() throws InterruptedException
+    {
+        CountDownLatch loading = new CountDownLatch(1);
+        when(this.branchRepository.StreamSnapshot()).thenAnswer(invocation -> {
+            loading.await();
+            return Stream.of(new BranchSnapshotDTO(10, "Centro", 1, 0L));
+        });
+        when(this.productRepository.StreamSnapshot()).thenAnswer(invocation -> Stream.of(new ProductSnapshotDTO(100, "Arroz", 5, 10, 0L)));
+
+        BranchStockEngine engine = new BranchStockEngine(this.productRepository, this.branchRepository, mock(PlatformTransactionManager.class), true, 60_000);
+        engine.OnApplicationReady();
+        engine.OnProductChanged(ProductChangedEvent.Updated(Product(100, "Arroz", 5, 10, 0L), Product(100, "Arroz", 40, 10, 1L)));
+        assertFalse(engine.IsReady());
+
+        loading.countDown();
+        AwaitReady(engine);
+
+        assertEquals(40, engine.TopProducts(10, 1).get(0).getStock());
+    }
+
+    private BranchStockEngine Loaded() throws InterruptedException
+    {
+        return Loaded(60_000);
+    }
+
+    private BranchStockEngine Loaded(long tombstoneTtlMs) throws InterruptedException
+    {
+        BranchStockEngine engine = new BranchStockEngine(this.productRepository, this.branchRepository, mock(PlatformTransactionManager.class), true, tombstoneTtlMs);
+        engine.OnApplicationReady();
+        AwaitReady(engine);
+        return engine;
+    }
+
+    private static void AwaitReady(BranchStockEngine engine) throws InterruptedException
+    {
+        for (int i = 0; i < 500 && !engine.IsReady(); i++)
+        {
+            Thread.sleep(10);
+        }
+
+        assertTrue(engine.IsReady(), "El motor no termino su carga inicial");
+    }
+
+    private static List<Integer> Ids(List<ProductListDTO> products)
+    {
+        return products.stream().map(ProductListDTO::getId).toList();
+    }
+
+    private static ProductDTO Product(int id, String name, int stock, int branchId, Long version)
+    {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setStock(stock);
+        product.setBranchId(branchId);
+        product.setVersion(version);
+        return product;
+    }
+
+    private static BranchDTO Branch(int id, String name, int franchiseId, Long version)
+    {
+        BranchDTO branch = new BranchDTO();
+        branch.setId(id);
+        branch.setName(name);
+        branch.setFranchiseId(franchiseId);
+        branch.setVersion(version);
+        return branch;
+    }
+}
@@ -0,0 +1,57 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+
+    @Test
+    void AddContainsAndRemove()
+    {
+        IntHashSet set = new IntHashSet();
+
+        assertTrue(set.Add(5));
+        assertFalse(set.Add(5));
+        assertTrue(set.Contains(5));
+        assertTrue(set.Remove(5));
+        assertFalse(set.Remove(5));
+        assertFalse(set.Contains(5));
+        assertEquals(0, set.Size());
+    }
+
+    @Test
+    void MatchesHashSetUnderRandomOperations()
+    {
+        IntHashSet set = new IntHashSet(2);
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50_000; i++)
+        {
+            int key = random.nextBoolean() ? (random.nextInt(100) + 1) * 512 : random.nextInt(2000) + 1;
+
+            if (random.nextInt(3) == 0)
+            {
+                assertEquals(expected.remove(key), set.Remove(key));
+            }
+            else
+            {
+                assertEquals(expected.add(key), set.Add(key));
+            }
+        }
+
+        assertEquals(expected.size(), set.Size());
+        assertEquals(expected, Arrays.stream(set.ToArray()).boxed().collect(Collectors.toSet()));
+
+        Set<Integer> visited = new HashSet<>();
+        set.ForEach(visited::add);
+        assertEquals(expected, visited);
+    }
+}
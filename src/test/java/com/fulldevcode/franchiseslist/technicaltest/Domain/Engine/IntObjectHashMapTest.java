@@ -0,0 +1,84 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectHashMapTest {
+
+    @Test
+    void PutGetAndReplace()
+    {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        assertNull(map.Put(7, "a"));
+        assertEquals("a", map.Put(7, "b"));
+        assertEquals("b", map.Get(7));
+        assertTrue(map.ContainsKey(7));
+        assertFalse(map.ContainsKey(8));
+        assertEquals(1, map.Size());
+    }
+
+    @Test
+    void RejectsZeroKey()
+    {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.Put(0, "a"));
+    }
+
+    /**
+     * Compara contra HashMap con llaves que colisionan (múltiplos de la capacidad) y negativas,
+     * de modo que el borrado por desplazamiento y el rehash recorren cadenas largas.
+     */
+    @Test
+    void MatchesHashMapUnderRandomOperations()
+    {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++)
+        {
+            int key = random.nextBoolean() ? (random.nextInt(200) + 1) * 1024 : random.nextInt(4000) - 2000;
+
+            if (key == 0)
+            {
+                continue;
+            }
+
+            if (random.nextInt(3) == 0)
+            {
+                assertEquals(expected.remove(key), map.Remove(key));
+            }
+            else
+            {
+                assertEquals(expected.put(key, i), map.Put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.Size());
+        expected.forEach((key, value) -> assertEquals(value, map.Get(key)));
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.ForEach(visited::put);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void ClearEmptiesTheMap()
+    {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.Put(1, "a");
+        map.Put(2, "b");
+
+        map.Clear();
+
+        assertTrue(map.IsEmpty());
+        assertNull(map.Get(1));
+    }
+}
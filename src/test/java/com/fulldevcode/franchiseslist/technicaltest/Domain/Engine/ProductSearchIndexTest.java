@@ -0,0 +1,179 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchSnapshotDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSearchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductSnapshotDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void Load() throws InterruptedException
+    {
+        IProduct productRepository = mock(IProduct.class);
+        IBranch branchRepository = mock(IBranch.class);
+
+        when(branchRepository.StreamSnapshot()).thenAnswer(invocation -> Stream.of(
+                new BranchSnapshotDTO(10, "Centro", 1),
+                new BranchSnapshotDTO(20, "Norte", 1),
+                new BranchSnapshotDTO(30, "Sur", 2)));
+        when(productRepository.StreamSnapshot()).thenAnswer(invocation -> Stream.of(
+                new ProductSnapshotDTO(1, "Café Molido", 3, 10, 4L),
+                new ProductSnapshotDTO(2, "Cafetera", 8, 10),
+                new ProductSnapshotDTO(3, "Té Verde", 5, 20),
+                new ProductSnapshotDTO(4, "Cafe en grano", 50, 30)));
+
+        this.index = new ProductSearchIndex(productRepository, branchRepository, mock(PlatformTransactionManager.class), true, 60_000);
+        this.index.OnApplicationReady();
+
+        for (int i = 0; i < 500 && !this.index.IsReady(); i++)
+        {
+            Thread.sleep(10);
+        }
+
+        assertTrue(this.index.IsReady(), "El indice no termino su carga inicial");
+    }
+
+    @Test
+    void MatchesIgnoringCaseAndAccentsWithinTheFranchise()
+    {
+        List<ProductSearchDTO> results = this.index.Search(1, "CAFÉ", 0, 10);
+
+        assertEquals(List.of(2, 1), Ids(results));
+        assertEquals("Centro", results.get(0).getBranchName());
+    }
+
+    @Test
+    void ShortQueriesScanTheFranchiseProducts()
+    {
+        assertEquals(List.of(2, 3), Ids(this.index.Search(1, "te", 0, 10)));
+    }
+
+    @Test
+    void QueriesWithoutMatchesReturnEmpty()
+    {
+        assertTrue(this.index.Search(1, "leche", 0, 10).isEmpty());
+        assertTrue(this.index.Search(99, "cafe", 0, 10).isEmpty());
+    }
+
+    @Test
+    void PagesWithOffsetAndLimit()
+    {
+        assertEquals(List.of(2), Ids(this.index.Search(1, "caf", 0, 1)));
+        assertEquals(List.of(1), Ids(this.index.Search(1, "caf", 1, 1)));
+        assertTrue(this.index.Search(1, "caf", 2, 1).isEmpty());
+    }
+
+    @Test
+    void RenameAndDeleteUpdateThePostings()
+    {
+        this.index.OnProductChanged(ProductChangedEvent.Updated(Product(1, "Café Molido", 3, 10), Product(1, "Chocolate", 3, 10)));
+
+        assertEquals(List.of(2), Ids(this.index.Search(1, "cafe", 0, 10)));
+        assertEquals(List.of(1), Ids(this.index.Search(1, "choco", 0, 10)));
+
+        this.index.OnProductChanged(ProductChangedEvent.Deleted(Product(2, "Cafetera", 8, 10)));
+
+        assertTrue(this.index.Search(1, "cafe", 0, 10).isEmpty());
+    }
+
+    @Test
+    void StockChangesReorderTheResults()
+    {
+        this.index.OnProductChanged(ProductChangedEvent.Updated(Product(1, "Café Molido", 3, 10), Product(1, "Café Molido", 30, 10)));
+
+        assertEquals(List.of(1, 2), Ids(this.index.Search(1, "cafe", 0, 10)));
+    }
+
+    @Test
+    void MovingABranchMovesItsProductsToTheNewFranchise()
+    {
+        BranchDTO before = Branch(10, "Centro", 1);
+        BranchDTO after = Branch(10, "Centro", 2);
+
+        this.index.OnBranchChanged(BranchChangedEvent.Updated(before, after));
+
+        assertTrue(this.index.Search(1, "cafe", 0, 10).isEmpty());
+        assertEquals(List.of(4, 2, 1), Ids(this.index.Search(2, "cafe", 0, 10)));
+
+        this.index.OnBranchChanged(BranchChangedEvent.Deleted(after));
+
+        assertEquals(List.of(4), Ids(this.index.Search(2, "cafe", 0, 10)));
+    }
+
+    @Test
+    void IgnoresEventsWithAnOlderOrEqualVersion()
+    {
+        ProductDTO stale = Product(1, "Chocolate", 3, 10);
+        stale.setVersion(4L);
+        this.index.OnProductChanged(ProductChangedEvent.Updated(Product(1, "Café Molido", 3, 10), stale));
+
+        assertEquals(List.of(2, 1), Ids(this.index.Search(1, "cafe", 0, 10)));
+
+        ProductDTO newer = Product(1, "Café Molido", 30, 10);
+        newer.setVersion(6L);
+        ProductDTO older = Product(1, "Café Molido", 1, 10);
+        older.setVersion(5L);
+        this.index.OnProductChanged(ProductChangedEvent.Updated(Product(1, "Café Molido", 3, 10), newer));
+        this.index.OnProductChanged(ProductChangedEvent.Updated(Product(1, "Café Molido", 3, 10), older));
+
+        assertEquals(List.of(1, 2), Ids(this.index.Search(1, "cafe", 0, 10)));
+        assertEquals(30, this.index.Search(1, "cafe", 0, 1).get(0).getStock());
+    }
+
+    @Test
+    void AnEventThatArrivesAfterTheDeletionDoesNotRestoreTheProduct()
+    {
+        this.index.OnProductChanged(ProductChangedEvent.Deleted(Product(2, "Cafetera", 8, 10)));
+        this.index.OnProductChanged(ProductChangedEvent.Updated(Product(2, "Cafetera", 8, 10), Product(2, "Cafetera", 9, 10)));
+
+        assertEquals(List.of(1), Ids(this.index.Search(1, "cafe", 0, 10)));
+
+        this.index.OnBranchChanged(BranchChangedEvent.Deleted(Branch(20, "Norte", 1)));
+        this.index.OnBranchChanged(BranchChangedEvent.Updated(Branch(20, "Norte", 1), Branch(20, "Norte Nuevo", 1)));
+        this.index.OnProductChanged(ProductChangedEvent.Created(Product(3, "Té Verde", 5, 20)));
+
+        assertTrue(this.index.Search(1, "verde", 0, 10).isEmpty());
+    }
+
+    private static List<Integer> Ids(List<ProductSearchDTO> results)
+    {
+        return results.stream().map(ProductSearchDTO::getId).toList();
+    }
+
+    private static ProductDTO Product(int id, String name, int stock, int branchId)
+    {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setStock(stock);
+        product.setBranchId(branchId);
+        return product;
+    }
+
+    private static BranchDTO Branch(int id, String name, int franchiseId)
+    {
+        BranchDTO branch = new BranchDTO();
+        branch.setId(id);
+        branch.setName(name);
+        branch.setFranchiseId(franchiseId);
+        return branch;
+    }
+}
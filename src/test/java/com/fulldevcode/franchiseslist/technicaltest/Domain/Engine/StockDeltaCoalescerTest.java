@@ -0,0 +1,235 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.ProductStockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StockDeltaCoalescerTest {
+
+    private static final int CURRENT_STOCK = 100;
+
+    @TempDir
+    Path journalDir;
+
+    private ProductStockRepository stockRepository;
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.stockRepository = mock(ProductStockRepository.class);
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.eventPublisher = mock(ApplicationEventPublisher.class);
+
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        when(this.stockRepository.AdjustBatch(any(), any())).thenAnswer(invocation -> Adjusted(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @Test
+    void CoalescesMovementsIntoOneDeltaPerProduct() throws Exception
+    {
+        StockDeltaCoalescer coalescer = Coalescer(false);
+        coalescer.OnApplicationReady();
+
+        coalescer.Enqueue(1, 5);
+        coalescer.Enqueue(1, -2);
+        coalescer.Enqueue(2, 3);
+
+        assertEquals(3, coalescer.Pending(1));
+        assertEquals(3, coalescer.Pending(2));
+
+        coalescer.Shutdown();
+
+        assertEquals(List.of(Map.of(1, 3, 2, 3)), AdjustCalls());
+        assertEquals(0, coalescer.Pending(1));
+        verify(this.eventPublisher, times(2)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void AppliesTheRestockWhenTheNetDeltaIsRejected() throws Exception
+    {
+        // Sin stock suficiente para el neto (-5): AdjustBatch no retorna el producto.
+        when(this.stockRepository.AdjustBatch(any(), any())).thenAnswer(invocation -> {
+            Integer[] deltas = invocation.getArgument(1);
+            return deltas[0] < 0 ? List.of() : Adjusted(invocation.getArgument(0), deltas);
+        });
+
+        StockDeltaCoalescer coalescer = Coalescer(false);
+        coalescer.OnApplicationReady();
+        coalescer.Enqueue(1, 10);
+        coalescer.Enqueue(1, -15);
+
+        coalescer.Shutdown();
+
+        assertEquals(List.of(Map.of(1, -5), Map.of(1, 10)), AdjustCalls());
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(this.eventPublisher).publishEvent(event.capture());
+        ProductChangedEvent changed = (ProductChangedEvent) event.getValue();
+        assertEquals(CURRENT_STOCK - 10, changed.getBefore().getStock());
+        assertEquals(CURRENT_STOCK, changed.getAfter().getStock());
+    }
+
+    @Test
+    void RequeuesTheDeltasWhenTheFlushFails() throws Exception
+    {
+        when(this.stockRepository.AdjustBatch(any(), any()))
+                .thenThrow(new IllegalStateException("Base de datos no disponible"))
+                .thenAnswer(invocation -> Adjusted(invocation.getArgument(0), invocation.getArgument(1)));
+
+        StockDeltaCoalescer coalescer = Coalescer(false);
+        coalescer.OnApplicationReady();
+        coalescer.Enqueue(1, 7);
+
+        coalescer.Shutdown();
+
+        assertEquals(7, coalescer.Pending(1));
+
+        coalescer.Shutdown();
+
+        assertEquals(List.of(Map.of(1, 7), Map.of(1, 7)), AdjustCalls());
+        assertEquals(0, coalescer.Pending(1));
+    }
+
+    @Test
+    void PendingIncludesTheDeltasBeingFlushed() throws Exception
+    {
+        StockDeltaCoalescer coalescer = Coalescer(false);
+        List<Long> duringFlush = new ArrayList<>();
+        when(this.stockRepository.AdjustBatch(any(), any())).thenAnswer(invocation -> {
+            duringFlush.add(coalescer.Pending(1));
+            return Adjusted(invocation.getArgument(0), invocation.getArgument(1));
+        });
+
+        coalescer.OnApplicationReady();
+        coalescer.Enqueue(1, 7);
+        coalescer.Enqueue(1, -2);
+        coalescer.Shutdown();
+
+        assertEquals(List.of(5L), duringFlush);
+        assertEquals(0, coalescer.Pending(1));
+    }
+
+    @Test
+    void DiscardsTheDeltasOfADeletedProduct() throws Exception
+    {
+        StockDeltaCoalescer coalescer = Coalescer(false);
+        coalescer.OnApplicationReady();
+        coalescer.Enqueue(1, 5);
+
+        ProductDTO deleted = new ProductDTO();
+        deleted.setId(1);
+        coalescer.OnProductChanged(ProductChangedEvent.Deleted(deleted));
+        coalescer.Shutdown();
+
+        assertEquals(0, coalescer.Pending(1));
+        verify(this.stockRepository, never()).AdjustBatch(any(), any());
+    }
+
+    @Test
+    void ReplaysTheJournalAfterARestartAndAdvancesTheCheckpoint() throws Exception
+    {
+        StockDeltaCoalescer crashed = Coalescer(true);
+        crashed.Enqueue(1, 4);
+        crashed.Enqueue(2, -1);
+        crashed.Shutdown();
+
+        verify(this.stockRepository, never()).AdjustBatch(any(), any());
+
+        StockDeltaCoalescer restarted = Coalescer(true);
+        restarted.OnApplicationReady();
+
+        assertEquals(4, restarted.Pending(1));
+        assertEquals(-1, restarted.Pending(2));
+
+        restarted.Shutdown();
+
+        assertEquals(List.of(Map.of(1, 4, 2, -1)), AdjustCalls());
+        // El segmento 1 es el del primer arranque; el reinicio escribe en el 2 y lo cierra al vaciar.
+        verify(this.jdbcTemplate).update(contains("stock_journal_checkpoint"), eq(2L));
+        assertEquals(1, SegmentFiles());
+    }
+
+    private StockDeltaCoalescer Coalescer(boolean journal)
+    {
+        return new StockDeltaCoalescer(this.stockRepository, this.jdbcTemplate, mock(PlatformTransactionManager.class),
+                this.eventPublisher, true, 60_000, 1_000_000, journal, this.journalDir.toString(), false);
+    }
+
+    /**
+     * Cada llamada a AdjustBatch como mapa producto -> delta.
+     */
+    private List<Map<Integer, Integer>> AdjustCalls()
+    {
+        ArgumentCaptor<Integer[]> ids = ArgumentCaptor.forClass(Integer[].class);
+        ArgumentCaptor<Integer[]> deltas = ArgumentCaptor.forClass(Integer[].class);
+        verify(this.stockRepository, atLeastOnce()).AdjustBatch(ids.capture(), deltas.capture());
+
+        List<Map<Integer, Integer>> calls = new ArrayList<>();
+
+        for (int call = 0; call < ids.getAllValues().size(); call++)
+        {
+            Map<Integer, Integer> adjusted = new HashMap<>();
+
+            for (int i = 0; i < ids.getAllValues().get(call).length; i++)
+            {
+                adjusted.put(ids.getAllValues().get(call)[i], deltas.getAllValues().get(call)[i]);
+            }
+
+            calls.add(adjusted);
+        }
+
+        return calls;
+    }
+
+    private long SegmentFiles() throws IOException
+    {
+        try (Stream<Path> files = Files.list(this.journalDir))
+        {
+            return files.count();
+        }
+    }
+
+    /**
+     * Respuesta de AdjustBatch con cada producto ajustado: el stock posterior es CURRENT_STOCK.
+     */
+    private static List<ProductDTO> Adjusted(Integer[] ids, Integer[] deltas)
+    {
+        List<ProductDTO> products = new ArrayList<>();
+
+        for (Integer id : ids)
+        {
+            ProductDTO product = new ProductDTO();
+            product.setId(id);
+            product.setName("Producto " + id);
+            product.setStock(CURRENT_STOCK);
+            product.setBranchId(10);
+            products.add(product);
+        }
+
+        return products;
+    }
+}
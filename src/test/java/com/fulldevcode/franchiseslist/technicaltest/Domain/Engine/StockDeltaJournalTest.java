@@ -0,0 +1,115 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockDeltaJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ReplaysClosedSegmentsAfterTheCheckpointInOrder() throws IOException
+    {
+        StockDeltaJournal journal = new StockDeltaJournal(this.directory, false, 0);
+        journal.Append(1, 5);
+        long first = journal.Rotate();
+        journal.Append(2, -3);
+        journal.Append(1, 4);
+        journal.Rotate();
+        journal.Append(3, 9);
+
+        assertEquals(List.of("2:-3", "1:4"), Replay(journal, first));
+        assertEquals(List.of("1:5", "2:-3", "1:4"), Replay(journal, 0));
+        journal.Close();
+    }
+
+    @Test
+    void IgnoresATornRecordAtTheEndOfASegment() throws IOException
+    {
+        StockDeltaJournal journal = new StockDeltaJournal(this.directory, false, 0);
+        journal.Append(1, 5);
+        journal.Rotate();
+        journal.Close();
+
+        try (Stream<Path> files = Files.list(this.directory))
+        {
+            Path closed = files.sorted().findFirst().orElseThrow();
+            Files.write(closed, new byte[] { 0, 0, 0 }, StandardOpenOption.APPEND);
+        }
+
+        StockDeltaJournal reopened = new StockDeltaJournal(this.directory, false, 0);
+
+        assertEquals(List.of("1:5"), Replay(reopened, 0));
+        reopened.Close();
+    }
+
+    @Test
+    void ContinuesAfterTheCheckpointWhenSegmentsOnDiskAreOlder() throws IOException
+    {
+        StockDeltaJournal journal = new StockDeltaJournal(this.directory, false, 0);
+        journal.Append(1, 5);
+        journal.Rotate();
+        journal.Close();
+
+        // El punto de control de la base de datos (7) es mayor que cualquier segmento del directorio.
+        StockDeltaJournal reopened = new StockDeltaJournal(this.directory, false, 7);
+        assertEquals(8, reopened.CurrentSegment());
+
+        reopened.Append(2, 6);
+        long closed = reopened.Rotate();
+
+        assertEquals(8, closed);
+        assertEquals(List.of("2:6"), Replay(reopened, 7));
+        reopened.Close();
+    }
+
+    @Test
+    void ContinuesAfterTheCheckpointInAnEmptyDirectory() throws IOException
+    {
+        StockDeltaJournal journal = new StockDeltaJournal(this.directory, false, 12);
+
+        assertEquals(13, journal.CurrentSegment());
+        journal.Close();
+    }
+
+    @Test
+    void DeleteUpToKeepsTheCurrentAndLaterSegments() throws IOException
+    {
+        StockDeltaJournal journal = new StockDeltaJournal(this.directory, false, 0);
+        journal.Append(1, 1);
+        long first = journal.Rotate();
+        journal.Append(2, 2);
+        journal.Rotate();
+
+        journal.DeleteUpTo(first);
+
+        assertEquals(List.of("2:2"), Replay(journal, 0));
+
+        journal.DeleteUpTo(Long.MAX_VALUE);
+
+        try (Stream<Path> files = Files.list(this.directory))
+        {
+            assertEquals(1, files.count());
+        }
+
+        journal.Close();
+    }
+
+    private static List<String> Replay(StockDeltaJournal journal, long checkpoint) throws IOException
+    {
+        List<String> records = new ArrayList<>();
+        journal.Replay(checkpoint, (productId, delta) -> records.add(productId + ":" + delta));
+        return records;
+    }
+}
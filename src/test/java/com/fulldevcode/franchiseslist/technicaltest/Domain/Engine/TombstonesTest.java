@@ -0,0 +1,35 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TombstonesTest {
+
+    @Test
+    void ForgetsTheIdsAfterTheirTimeToLive()
+    {
+        AtomicLong now = new AtomicLong();
+        Tombstones tombstones = new Tombstones(100, now::get);
+
+        tombstones.Add(1);
+        now.addAndGet(60_000_000);
+        tombstones.Add(2);
+        tombstones.Add(1);
+
+        assertTrue(tombstones.Contains(1));
+        assertTrue(tombstones.Contains(2));
+
+        now.addAndGet(40_000_000);
+
+        assertFalse(tombstones.Contains(1));
+        assertTrue(tombstones.Contains(2));
+
+        now.addAndGet(60_000_000);
+
+        assertFalse(tombstones.Contains(2));
+        assertEquals(0, tombstones.Size());
+    }
+}
@@ -0,0 +1,141 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.BranchChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.BranchTopProductRepository;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranchTopProduct;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BranchTopProductServiceTest {
+
+    private IBranchTopProduct topProductRepository;
+    private BranchTopProductRepository projectionRepository;
+    private BranchTopProductService topProductService;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.topProductRepository = mock(IBranchTopProduct.class);
+        this.projectionRepository = mock(BranchTopProductRepository.class);
+        this.topProductService = new BranchTopProductService(this.topProductRepository, this.projectionRepository,
+                mock(IFranchise.class), mock(EntityManager.class), false);
+    }
+
+    @AfterEach
+    void ClearSynchronization()
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void AccumulatesTheBestOfferOfEachBranchUntilCommit()
+    {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(1, "Cafe", 5, 10)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(2, "Te", 8, 10)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(3, "Pan", 8, 20)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(4, "Sal", 1, 30)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Updated(Product(1, "Cafe", 5, 10), Product(1, "Cafe", 9, 10)));
+
+        verifyNoInteractions(this.projectionRepository, this.topProductRepository);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+        verify(this.projectionRepository).OfferBatch(new Integer[] {10, 20, 30}, new Integer[] {1, 3, 4},
+                new String[] {"Cafe", "Pan", "Sal"}, new Integer[] {9, 8, 1});
+    }
+
+    @Test
+    void DiscardsThePendingOffersOfADeletedBranch()
+    {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(1, "Cafe", 5, 10)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(2, "Te", 3, 20)));
+        this.topProductService.OnBranchChanged(BranchChangedEvent.Deleted(Branch(10)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+        verify(this.projectionRepository).OfferBatch(new Integer[] {20}, new Integer[] {2}, new String[] {"Te"}, new Integer[] {3});
+    }
+
+    @Test
+    void RecalculatesOnlyTheBranchesWhoseTopProductLeftOrDecreased()
+    {
+        when(this.projectionRepository.LockStaleBranches(any(), any())).thenReturn(List.of(10));
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(1, "Cafe", 5, 10)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Updated(Product(2, "Te", 9, 10), Product(2, "Te", 4, 10)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Updated(Product(3, "Pan", 7, 20), Product(3, "Pan", 7, 30)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Deleted(Product(4, "Sal", 2, 20)));
+
+        verifyNoInteractions(this.projectionRepository);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+        var order = inOrder(this.projectionRepository);
+        order.verify(this.projectionRepository).OfferBatch(new Integer[] {10, 30}, new Integer[] {1, 3},
+                new String[] {"Cafe", "Pan"}, new Integer[] {5, 7});
+        order.verify(this.projectionRepository).LockStaleBranches(new Integer[] {10, 20, 20}, new Integer[] {2, 3, 4});
+        order.verify(this.projectionRepository).RefreshBranches(new Integer[] {10});
+        verifyNoInteractions(this.topProductRepository);
+    }
+
+    @Test
+    void KeepsTheHigherOfferOfAProductThatDecreasesInTheSameTransaction()
+    {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(1, "Cafe", 9, 10)));
+        this.topProductService.OnProductChanged(ProductChangedEvent.Updated(Product(1, "Cafe", 9, 10), Product(1, "Cafe", 2, 10)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+        // La propuesta anterior se conserva y la sucursal queda pendiente de verificar con el producto 1.
+        verify(this.projectionRepository).OfferBatch(new Integer[] {10}, new Integer[] {1}, new String[] {"Cafe"}, new Integer[] {9});
+        verify(this.projectionRepository).LockStaleBranches(new Integer[] {10}, new Integer[] {1});
+        verify(this.projectionRepository, never()).RefreshBranches(any());
+    }
+
+    @Test
+    void AppliesTheOfferImmediatelyWithoutATransaction()
+    {
+        this.topProductService.OnProductChanged(ProductChangedEvent.Created(Product(1, "Cafe", 5, 10)));
+
+        verify(this.projectionRepository).OfferBatch(new Integer[] {10}, new Integer[] {1}, new String[] {"Cafe"}, new Integer[] {5});
+    }
+
+    private static ProductDTO Product(int id, String name, int stock, int branchId)
+    {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setStock(stock);
+        product.setBranchId(branchId);
+        return product;
+    }
+
+    private static BranchDTO Branch(int id)
+    {
+        BranchDTO branch = new BranchDTO();
+        branch.setId(id);
+        return branch;
+    }
+}
@@ -0,0 +1,123 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.CatalogStatsRepository;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranchStats;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchise;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchiseStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class CatalogStatsServiceTest {
+
+    private CatalogStatsRepository statsRepository;
+    private SecondLevelCacheService secondLevelCache;
+    private CatalogStatsService statsService;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.statsRepository = mock(CatalogStatsRepository.class);
+        this.secondLevelCache = mock(SecondLevelCacheService.class);
+        this.statsService = new CatalogStatsService(mock(IFranchiseStats.class), mock(IBranchStats.class), this.statsRepository,
+                mock(IFranchise.class), this.secondLevelCache, mock(PlatformTransactionManager.class), 0, 100);
+    }
+
+    @AfterEach
+    void ClearSynchronization()
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void AccumulatesTheDeltasOfATransactionPerBranch()
+    {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.statsService.OnProductChanged(ProductChangedEvent.Updated(Product(1, 5, 20), Product(1, 5, 10)));
+        this.statsService.OnProductChanged(ProductChangedEvent.Created(Product(2, 3, 20)));
+        this.statsService.OnProductChanged(ProductChangedEvent.Updated(Product(2, 3, 20), Product(2, 9, 20)));
+
+        verify(this.statsRepository, never()).ApplyProductDeltas(any(), any(), any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+        // Sucursales en orden de id: 10 recibe el producto 1; 20 lo pierde y gana el producto 2 con stock 9.
+        verify(this.statsRepository).ApplyProductDeltas(new Integer[] {10, 20}, new Long[] {1L, 0L}, new Long[] {5L, 4L});
+    }
+
+    @Test
+    void AppliesTheDeltasImmediatelyWithoutATransaction()
+    {
+        this.statsService.OnProductChanged(ProductChangedEvent.Deleted(Product(1, 7, 10)));
+
+        verify(this.statsRepository).ApplyProductDeltas(new Integer[] {10}, new Long[] {-1L}, new Long[] {-7L});
+    }
+
+    @Test
+    void ReconcileRepairsTheDriftedCountersAndRenewsTheStamps()
+    {
+        when(this.statsRepository.DeleteOrphans()).thenReturn(1);
+        when(this.statsRepository.SearchDriftedBranches(anyInt())).thenReturn(List.of(10, 20));
+        when(this.statsRepository.SearchDriftedFranchises(anyInt())).thenReturn(List.of(1));
+
+        ApiResponseDTO<Integer> result = this.statsService.Reconcile();
+
+        assertTrue(result.isSuccess());
+        assertEquals(4, result.getData());
+        verify(this.statsRepository).RecountBranch(10);
+        verify(this.statsRepository).RecountBranch(20);
+        verify(this.statsRepository).RecountFranchise(1);
+        verify(this.secondLevelCache).EvictCatalogQueries();
+        verify(this.statsRepository).TouchCatalog();
+    }
+
+    @Test
+    void ReconcileWithoutDriftKeepsTheStamps()
+    {
+        when(this.statsRepository.SearchDriftedBranches(anyInt())).thenReturn(List.of());
+        when(this.statsRepository.SearchDriftedFranchises(anyInt())).thenReturn(List.of());
+
+        ApiResponseDTO<Integer> result = this.statsService.Reconcile();
+
+        assertTrue(result.isSuccess());
+        assertEquals(0, result.getData());
+        verify(this.statsRepository, never()).TouchCatalog();
+        verifyNoInteractions(this.secondLevelCache);
+    }
+
+    @Test
+    void UnreadableStampIsEmpty()
+    {
+        when(this.statsRepository.SearchBranchStamp(10)).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertEquals(Optional.empty(), this.statsService.ProductsStamp(10));
+    }
+
+    private static ProductDTO Product(Integer id, Integer stock, Integer branchId)
+    {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Producto " + id);
+        product.setStock(stock);
+        product.setBranchId(branchId);
+        return product;
+    }
+}
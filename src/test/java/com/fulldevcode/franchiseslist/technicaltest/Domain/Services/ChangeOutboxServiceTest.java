@@ -0,0 +1,165 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeFeedDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.ChangeOutboxRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ChangeOutboxServiceTest {
+
+    private static final long SETTLE_LAG_MS = 5000;
+
+    private ChangeOutboxRepository outboxRepository;
+    private EntityManager entityManager;
+    private ChangeOutboxService outboxService;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.outboxRepository = mock(ChangeOutboxRepository.class);
+        this.entityManager = mock(EntityManager.class);
+        this.outboxService = new ChangeOutboxService(this.outboxRepository, new ObjectMapper(), this.entityManager,
+                mock(PlatformTransactionManager.class), SETTLE_LAG_MS);
+    }
+
+    @AfterEach
+    void ClearSynchronization()
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void RejectsANonPositiveLimit()
+    {
+        ApiResponseDTO<ChangeFeedDTO> changes = this.outboxService.SearchChanges(0L, 0);
+
+        assertFalse(changes.isSuccess());
+        verifyNoInteractions(this.outboxRepository);
+    }
+
+    @Test
+    void ReturnsAPageWithTheNextCursor()
+    {
+        when(this.outboxRepository.SearchSettledSince(5, 3, SETTLE_LAG_MS)).thenReturn(Events(6, 8));
+
+        ChangeFeedDTO feed = this.outboxService.SearchChanges(5L, 2).getData();
+
+        assertEquals(List.of(6L, 7L), feed.getEvents().stream().map(ChangeEventDTO::getSeq).toList());
+        assertEquals(7L, feed.getNext());
+        assertTrue(feed.isMore());
+    }
+
+    @Test
+    void KeepsTheCursorWhenThereAreNoNewEvents()
+    {
+        when(this.outboxRepository.SearchSettledSince(anyLong(), anyInt(), anyLong())).thenReturn(List.of());
+
+        ChangeFeedDTO feed = this.outboxService.SearchChanges(9L, 100).getData();
+
+        assertEquals(9L, feed.getNext());
+        assertFalse(feed.isMore());
+        assertTrue(feed.getEvents().isEmpty());
+    }
+
+    @Test
+    void CapsThePageSize()
+    {
+        when(this.outboxRepository.SearchSettledSince(anyLong(), anyInt(), anyLong())).thenReturn(List.of());
+
+        this.outboxService.SearchChanges(-3L, 50_000);
+
+        verify(this.outboxRepository).SearchSettledSince(0, 1001, SETTLE_LAG_MS);
+    }
+
+    @Test
+    void RejectsACursorBeforeThePurgedEvents()
+    {
+        when(this.outboxRepository.SearchSettledSince(anyLong(), anyInt(), anyLong())).thenReturn(Events(11, 12));
+        when(this.outboxRepository.SearchPurgedSeq()).thenReturn(10L);
+
+        ApiResponseDTO<ChangeFeedDTO> changes = this.outboxService.SearchChanges(4L, 100);
+
+        assertFalse(changes.isSuccess());
+        assertTrue(changes.getMessage().contains("continue desde 10"));
+    }
+
+    @Test
+    void WritesTheEventsOfATransactionInOneBatchBeforeCommit()
+    {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        ProductDTO product = Product(1, 5);
+        this.outboxService.OnProductChanged(ProductChangedEvent.Created(product));
+        this.outboxService.OnProductChanged(ProductChangedEvent.Updated(product, Product(1, 8)));
+
+        verify(this.outboxRepository, never()).InsertEvents(any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ChangeEventDTO>> events = ArgumentCaptor.forClass(List.class);
+        verify(this.entityManager).flush();
+        verify(this.outboxRepository).InsertEvents(events.capture());
+
+        assertEquals(List.of("CREATED", "UPDATED"), events.getValue().stream().map(ChangeEventDTO::getChangeType).toList());
+        assertTrue(events.getValue().stream().allMatch(event -> ChangeOutboxService.PRODUCT.equals(event.getEntityType()) && event.getEntityId() == 1));
+        assertNull(events.getValue().get(0).getSeq());
+    }
+
+    @Test
+    void WritesTheEventImmediatelyWithoutATransaction()
+    {
+        this.outboxService.OnProductChanged(ProductChangedEvent.Deleted(Product(3, 0)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ChangeEventDTO>> events = ArgumentCaptor.forClass(List.class);
+        verify(this.outboxRepository).InsertEvents(events.capture());
+
+        assertEquals(1, events.getValue().size());
+        assertEquals("DELETED", events.getValue().get(0).getChangeType());
+        assertTrue(events.getValue().get(0).getPayload().contains("\"after\":null"));
+    }
+
+    private static List<ChangeEventDTO> Events(long from, long to)
+    {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(seq -> new ChangeEventDTO(seq, ChangeOutboxService.PRODUCT, 1, "UPDATED", "{}", LocalDateTime.now()))
+                .toList();
+    }
+
+    private static ProductDTO Product(Integer id, Integer stock)
+    {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Producto " + id);
+        product.setStock(stock);
+        product.setBranchId(10);
+        return product;
+    }
+}
@@ -0,0 +1,94 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.ApplicationTest;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BulkProductResultDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IFranchiseDeleteJob;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.FranchiseDeleteJobEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FranchiseDeleteJobServiceTest extends ApplicationTest {
+
+    @Autowired
+    private FranchiseDeleteJobService deleteJobService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReadCacheService readCache;
+
+    @Autowired
+    private IFranchiseDeleteJob deleteJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void EachChunkDiscountsTheCountersAndEvictsTheDeletedProducts()
+    {
+        BranchDTO branch = CreateBranch();
+        List<ProductDTO> products = new ArrayList<>();
+
+        for (int index = 1; index <= 8; index++)
+        {
+            ProductDTO product = new ProductDTO();
+            product.setName("Producto " + index);
+            product.setStock(index);
+            products.add(product);
+        }
+
+        List<BulkProductResultDTO> created = this.productService.BulkCreateProducts(branch.getId(), products).getData();
+        Integer cheapest = created.get(0).getId();
+
+        this.productService.SearchById(cheapest);
+        assertNotNull(this.readCache.Get(ReadCacheService.PRODUCTS, cheapest, ProductDTO.class));
+
+        long stamp = ProductsStamp(branch.getId());
+        FranchiseDeleteJobEntity job = this.deleteJobRepository.save(FranchiseDeleteJobEntity.builder()
+                .id(UUID.randomUUID().toString())
+                .franchiseId(branch.getFranchiseId())
+                .franchiseName("Franquicia")
+                .status("RUNNING")
+                .totalProducts(8L)
+                .deletedProducts(0L)
+                .deletedBranches(0)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        TransactionTemplate chunk = new TransactionTemplate(this.transactionManager);
+
+        // Primer bloque: los 5 productos de menor stock (1 a 5).
+        assertEquals(Boolean.FALSE, chunk.execute(status -> this.deleteJobService.DeleteChunk(job.getId(), branch.getId())));
+
+        Map<String, Object> stats = this.jdbcTemplate.queryForMap(
+                "SELECT product_count, total_stock FROM branch_stats WHERE branch_id = ?", branch.getId());
+        assertEquals(3L, ((Number) stats.get("product_count")).longValue());
+        assertEquals(6L + 7 + 8, ((Number) stats.get("total_stock")).longValue());
+        assertTrue(ProductsStamp(branch.getId()) > stamp);
+        assertNull(this.readCache.Get(ReadCacheService.PRODUCTS, cheapest, ProductDTO.class));
+
+        // Último bloque: elimina los productos restantes y la sucursal con sus contadores.
+        assertEquals(Boolean.TRUE, chunk.execute(status -> this.deleteJobService.DeleteChunk(job.getId(), branch.getId())));
+
+        assertEquals(0, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM branch_stats WHERE branch_id = ?", Integer.class, branch.getId()));
+        assertEquals(8L, this.deleteJobRepository.findById(job.getId()).orElseThrow().getDeletedProducts());
+    }
+
+    private long ProductsStamp(Integer branchId)
+    {
+        return this.jdbcTemplate.queryForObject("SELECT products_stamp FROM branch_stats WHERE branch_id = ?", Long.class, branchId);
+    }
+}
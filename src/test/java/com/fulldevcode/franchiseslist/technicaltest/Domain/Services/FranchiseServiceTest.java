@@ -0,0 +1,50 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulldevcode.franchiseslist.technicaltest.ApplicationTest;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.FranchiseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FranchiseServiceTest extends ApplicationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void TheStreamedTreeUsesTheResponseEnvelope() throws IOException
+    {
+        BranchDTO branch = CreateBranch();
+        ProductDTO product = new ProductDTO();
+        product.setName("Producto");
+        product.setStock(8);
+        product.setBranchId(branch.getId());
+        assertTrue(this.productService.CreateProduct(product).isSuccess());
+
+        ApiResponseDTO<FranchiseDTO> franchise = this.franchiseService.SearchFranchiseTree(branch.getFranchiseId(), 2, null);
+        assertTrue(franchise.isSuccess(), franchise.getMessage());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        this.franchiseService.StreamFranchiseTree(franchise.getData(), 2, null, output);
+        JsonNode response = this.objectMapper.readTree(output.toByteArray());
+
+        assertTrue(response.get("success").asBoolean());
+        assertTrue(response.hasNonNull("message"));
+        assertTrue(response.hasNonNull("timestamp"));
+        assertEquals(branch.getFranchiseId(), response.at("/data/id").asInt());
+        assertEquals(branch.getId(), response.at("/data/branches/0/id").asInt());
+        assertEquals(8, response.at("/data/branches/0/products/0/stock").asInt());
+    }
+}
@@ -0,0 +1,58 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.ApplicationTest;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ChangeType;
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Events.ProductChangedEvent;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ImportJobDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RecordApplicationEvents
+class ImportServiceTest extends ApplicationTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void EachUpdateOfARepeatedRowPublishesTheVersionItWrote()
+    {
+        String franchise = "Franquicia " + UUID.randomUUID();
+        String product = "Producto " + UUID.randomUUID();
+        String body = Row(franchise, product, 5) + Row(franchise, product, 9) + Row(franchise, product, 4);
+
+        ApiResponseDTO<ImportJobDTO> imported = this.importService.Import(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), ImportService.FORMAT_NDJSON, 100, null);
+
+        assertTrue(imported.isSuccess(), imported.getMessage());
+        assertEquals(0, imported.getData().getFailedChunks());
+
+        List<ProductChangedEvent> updates = this.events.stream(ProductChangedEvent.class)
+                .filter(event -> event.getType() == ChangeType.UPDATED && product.equals(event.getAfter().getName()))
+                .toList();
+        Integer productId = updates.get(0).getAfter().getId();
+        Long version = this.jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = ?", Long.class, productId);
+
+        assertEquals(2, updates.size());
+        assertEquals(version - 1, updates.get(0).getAfter().getVersion());
+        assertEquals(version, updates.get(1).getAfter().getVersion());
+        assertEquals(4, this.jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, productId));
+    }
+
+    private static String Row(String franchise, String product, int stock)
+    {
+        return "{\"franchise\": \"" + franchise + "\", \"branch\": \"Centro\", \"product\": \"" + product + "\", \"stock\": " + stock + "}\n";
+    }
+}
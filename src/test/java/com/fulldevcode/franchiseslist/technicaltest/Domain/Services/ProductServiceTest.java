@@ -0,0 +1,128 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.ApplicationTest;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BulkProductResultDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.StockAdjustmentDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.StockAdjustmentResultDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IBranch;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface.IProduct;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.BranchEntity;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Models.ProductEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductServiceTest extends ApplicationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private IProduct productRepository;
+
+    @Autowired
+    private IBranch branchRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void BulkCreateProductsAppliesTheProjectionAndCountersOncePerBatch()
+    {
+        BranchDTO branch = CreateBranch();
+        List<ProductDTO> products = new ArrayList<>();
+
+        for (int index = 0; index < 120; index++)
+        {
+            products.add(Product("Producto " + index, index == 70 ? 500 : index));
+        }
+
+        AtomicReference<ApiResponseDTO<List<BulkProductResultDTO>>> result = new AtomicReference<>();
+        int statements = Statements(() -> result.set(this.productService.BulkCreateProducts(branch.getId(), products)));
+
+        assertTrue(result.get().isSuccess(), result.get().getMessage());
+        assertTrue(result.get().getData().stream().allMatch(BulkProductResultDTO::isSuccess));
+
+        // Lotes de INSERT de 50 filas más unas pocas sentencias fijas; antes eran varias sentencias por producto.
+        assertTrue(statements < 20, "sentencias ejecutadas: " + statements);
+
+        Map<String, Object> top = this.jdbcTemplate.queryForMap(
+                "SELECT product_name, stock FROM branch_top_product WHERE branch_id = ?", branch.getId());
+        assertEquals("Producto 70", top.get("product_name"));
+        assertEquals(500, top.get("stock"));
+
+        Map<String, Object> stats = this.jdbcTemplate.queryForMap(
+                "SELECT product_count, total_stock FROM branch_stats WHERE branch_id = ?", branch.getId());
+        assertEquals(120L, ((Number) stats.get("product_count")).longValue());
+        assertEquals(119L * 120 / 2 - 70 + 500, ((Number) stats.get("total_stock")).longValue());
+    }
+
+    @Test
+    void AdjustStockBatchRecalculatesTheProjectionOncePerTransaction()
+    {
+        BranchDTO branch = CreateBranch();
+        List<ProductDTO> products = new ArrayList<>();
+
+        for (int index = 0; index < 60; index++)
+        {
+            products.add(Product("Producto " + index, index + 1));
+        }
+
+        List<BulkProductResultDTO> created = this.productService.BulkCreateProducts(branch.getId(), products).getData();
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>();
+
+        // Todos los productos disminuyen, y el de mayor stock (Producto 59, 60 unidades) queda en 10.
+        for (BulkProductResultDTO row : created)
+        {
+            adjustments.add(new StockAdjustmentDTO(row.getId(), row.getIndex() == 59 ? -50 : -1));
+        }
+
+        AtomicReference<ApiResponseDTO<List<StockAdjustmentResultDTO>>> result = new AtomicReference<>();
+        int statements = Statements(() -> result.set(this.productService.AdjustStockBatch(adjustments)));
+
+        assertTrue(result.get().isSuccess(), result.get().getMessage());
+        assertTrue(statements < 15, "sentencias ejecutadas: " + statements);
+
+        Map<String, Object> top = this.jdbcTemplate.queryForMap(
+                "SELECT product_name, stock FROM branch_top_product WHERE branch_id = ?", branch.getId());
+        assertEquals("Producto 58", top.get("product_name"));
+        assertEquals(58, top.get("stock"));
+
+        Long totalStock = this.jdbcTemplate.queryForObject(
+                "SELECT total_stock FROM branch_stats WHERE branch_id = ?", Long.class, branch.getId());
+        assertEquals(60L * 61 / 2 - 59 - 50, totalStock);
+    }
+
+    @Test
+    void ProductsAreNotKeptInTheSecondLevelCache()
+    {
+        BranchDTO branch = CreateBranch();
+        Integer productId = this.productService.BulkCreateProducts(branch.getId(), List.of(Product("Cafe", 5))).getData().get(0).getId();
+
+        this.branchRepository.findById(branch.getId()).orElseThrow();
+        ProductEntity loaded = this.productRepository.findById(productId).orElseThrow();
+
+        // El stock se escribe con JDBC: una entidad en caché serviría el valor anterior a un ajuste.
+        assertEquals(5, loaded.getStock());
+        assertTrue(this.entityManagerFactory.getCache().contains(BranchEntity.class, branch.getId()));
+        assertFalse(this.entityManagerFactory.getCache().contains(ProductEntity.class, productId));
+    }
+
+    private static ProductDTO Product(String name, int stock)
+    {
+        ProductDTO product = new ProductDTO();
+        product.setName(name);
+        product.setStock(stock);
+        return product;
+    }
+}
@@ -0,0 +1,60 @@
+package com.fulldevcode.franchiseslist.technicaltest.Domain.Services;
+
+import com.fulldevcode.franchiseslist.technicaltest.ApplicationTest;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ApiResponseDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.BranchDTO;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCacheServiceTest extends ApplicationTest {
+
+    @Autowired
+    private ReadCacheService readCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void AReadThatStartedBeforeAnUpdateDoesNotCacheTheOldProduct()
+    {
+        ProductDTO product = CreateProduct(10);
+
+        // Lectura que toma la generación y lee la fila antes de que se confirme la actualización.
+        long stamp = this.readCache.Stamp(ReadCacheService.PRODUCTS, product.getId());
+        ProductDTO stale = this.jdbcTemplate.queryForObject("SELECT id, name, stock, branch_id, version FROM products WHERE id = ?",
+                (row, index) -> Product(row.getInt("id"), row.getString("name"), row.getInt("stock"), row.getInt("branch_id"), row.getLong("version")),
+                product.getId());
+
+        product.setStock(25);
+        ApiResponseDTO<ProductDTO> updated = this.productService.UpdateProduct(product.getId(), product);
+        assertTrue(updated.isSuccess(), updated.getMessage());
+
+        this.readCache.Put(ReadCacheService.PRODUCTS, product.getId(), stale, stamp);
+        assertNull(this.readCache.Get(ReadCacheService.PRODUCTS, product.getId(), ProductDTO.class));
+
+        // Una lectura posterior a la confirmación sí queda en caché, con el stock actualizado.
+        this.productService.SearchById(product.getId());
+        assertEquals(25, this.readCache.Get(ReadCacheService.PRODUCTS, product.getId(), ProductDTO.class).getStock());
+    }
+
+    private ProductDTO CreateProduct(int stock)
+    {
+        BranchDTO branch = CreateBranch();
+        ApiResponseDTO<ProductDTO> created = this.productService.CreateProduct(Product(null, "Producto", stock, branch.getId(), null));
+        assertTrue(created.isSuccess(), created.getMessage());
+        return created.getData();
+    }
+
+    private static ProductDTO Product(Integer id, String name, int stock, Integer branchId, Long version)
+    {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setStock(stock);
+        product.setBranchId(branchId);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BranchTopProductRepositoryTest extends PostgresTest {
+
+    private BranchTopProductRepository projectionRepository;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.projectionRepository = new BranchTopProductRepository(this.jdbcTemplate);
+
+        this.jdbcTemplate.update("INSERT INTO branch_top_product (branch_id, product_id, product_name, stock) VALUES " +
+                "(10, 1, 'Cafe', 10), (20, 2, 'Te', 10), (30, 3, 'Pan', 10)");
+    }
+
+    @Test
+    void OfferBatchAppliesTheOfferRulesPerBranch()
+    {
+        this.projectionRepository.OfferBatch(
+                new Integer[] {10, 20, 30, 40},
+                new Integer[] {4, 1, 3, 5},
+                new String[] {"Leche", "Azucar", "Pan integral", "Sal"},
+                new Integer[] {9, 10, 4, 7});
+
+        // 10 conserva el producto de mayor stock; 20 cambia por empate con menor id; 30 actualiza el mismo
+        // producto aunque baje su stock; 40 se inserta.
+        assertEquals(List.of("10:1:Cafe:10", "20:1:Azucar:10", "30:3:Pan integral:4", "40:5:Sal:7"), Rows());
+    }
+
+    @Test
+    void RefreshBranchesRecalculatesOnlyTheLockedStaleBranches()
+    {
+        this.jdbcTemplate.update("INSERT INTO franchises (id, name) VALUES (1, 'Norte')");
+        this.jdbcTemplate.update("INSERT INTO branches (id, name, franchise_id) VALUES (10, 'Centro', 1), (20, 'Sur', 1), (30, 'Este', 1)");
+        this.jdbcTemplate.update("INSERT INTO products (id, name, stock, branch_id) VALUES (1, 'Cafe', 3, 10), (5, 'Leche', 8, 10), (2, 'Te', 1, 20)");
+
+        List<Integer> stale = this.transaction.execute(status -> {
+            List<Integer> locked = this.projectionRepository.LockStaleBranches(new Integer[] {10, 20, 30}, new Integer[] {1, 9, 3});
+            this.projectionRepository.RefreshBranches(locked.toArray(new Integer[0]));
+            return locked;
+        });
+
+        // 20 no se recalcula porque su producto registrado no es sospechoso; 30 se quedó sin productos.
+        assertEquals(List.of(10, 30), stale);
+        assertEquals(List.of("10:5:Leche:8", "20:2:Te:10"), Rows());
+    }
+
+    private List<String> Rows()
+    {
+        return this.jdbcTemplate.queryForList(
+                "SELECT branch_id || ':' || product_id || ':' || product_name || ':' || stock FROM branch_top_product ORDER BY branch_id",
+                String.class);
+    }
+}
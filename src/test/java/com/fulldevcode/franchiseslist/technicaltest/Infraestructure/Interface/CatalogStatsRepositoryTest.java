@@ -0,0 +1,102 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogStatsRepositoryTest extends PostgresTest {
+
+    private CatalogStatsRepository statsRepository;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.statsRepository = new CatalogStatsRepository(this.jdbcTemplate);
+
+        this.jdbcTemplate.update("INSERT INTO franchises (id, name) VALUES (1, 'Norte')");
+        this.jdbcTemplate.update("INSERT INTO branches (id, name, franchise_id) VALUES (10, 'Centro', 1), (20, 'Puerto', 1)");
+        this.statsRepository.InsertFranchise(1);
+        this.statsRepository.InsertBranch(10, 1);
+        this.statsRepository.InsertBranch(20, 1);
+        this.jdbcTemplate.update("UPDATE franchise_stats SET branch_count = 2 WHERE franchise_id = 1");
+
+        this.jdbcTemplate.update("INSERT INTO products (id, name, stock, branch_id) VALUES (1, 'Cafe', 5, 10), (2, 'Te', 10, 10), (3, 'Azucar', 7, 20)");
+        this.statsRepository.ApplyProductDeltas(new Integer[] {10, 20}, new Long[] {2L, 1L}, new Long[] {15L, 7L});
+    }
+
+    @Test
+    void DeltasMatchTheRecount()
+    {
+        AssertNoDrift();
+        assertEquals(List.of(2L, 1L), this.jdbcTemplate.queryForList("SELECT product_count FROM branch_stats ORDER BY branch_id", Long.class));
+
+        // Traslado del producto 2 a la sucursal 20 con un cambio de stock de 10 a 4.
+        this.jdbcTemplate.update("UPDATE products SET branch_id = 20, stock = 4 WHERE id = 2");
+        this.statsRepository.ApplyProductDeltas(new Integer[] {10, 20}, new Long[] {-1L, 1L}, new Long[] {-10L, 4L});
+
+        AssertNoDrift();
+        assertEquals(List.of(5L, 11L), this.jdbcTemplate.queryForList("SELECT total_stock FROM branch_stats ORDER BY branch_id", Long.class));
+    }
+
+    @Test
+    void DeltasRenewTheListingStamps()
+    {
+        long products = this.statsRepository.SearchBranchStamp(10).orElseThrow();
+        long branches = this.statsRepository.SearchFranchiseStamp(1).orElseThrow();
+
+        // Solo cambia el stock: se renueva el listado de productos, no el de sucursales.
+        this.jdbcTemplate.update("UPDATE products SET stock = 6 WHERE id = 1");
+        this.statsRepository.ApplyProductDeltas(new Integer[] {10}, new Long[] {0L}, new Long[] {1L});
+
+        assertTrue(this.statsRepository.SearchBranchStamp(10).orElseThrow() > products);
+        assertEquals(branches, this.statsRepository.SearchFranchiseStamp(1).orElseThrow());
+
+        this.jdbcTemplate.update("DELETE FROM products WHERE id = 1");
+        this.statsRepository.ApplyProductDeltas(new Integer[] {10}, new Long[] {-1L}, new Long[] {-6L});
+
+        assertTrue(this.statsRepository.SearchFranchiseStamp(1).orElseThrow() > branches);
+        AssertNoDrift();
+    }
+
+    @Test
+    void RecountRepairsADriftedBranch()
+    {
+        this.jdbcTemplate.update("UPDATE branch_stats SET total_stock = 999 WHERE branch_id = 10");
+        this.jdbcTemplate.update("DELETE FROM branch_stats WHERE branch_id = 20");
+        long stamp = this.statsRepository.SearchBranchStamp(10).orElseThrow();
+
+        assertEquals(List.of(10, 20), this.statsRepository.SearchDriftedBranches(100));
+
+        this.transaction.executeWithoutResult(status -> this.statsRepository.RecountBranch(10));
+        this.transaction.executeWithoutResult(status -> this.statsRepository.RecountBranch(20));
+
+        AssertNoDrift();
+        assertTrue(this.statsRepository.SearchBranchStamp(10).orElseThrow() > stamp);
+    }
+
+    @Test
+    void RecountRepairsADriftedFranchiseAndRemovesOrphans()
+    {
+        this.jdbcTemplate.update("UPDATE franchise_stats SET branch_count = 5 WHERE franchise_id = 1");
+        this.statsRepository.InsertBranch(99, 1);
+        this.statsRepository.InsertFranchise(9);
+
+        assertEquals(List.of(1), this.statsRepository.SearchDriftedFranchises(100));
+
+        this.transaction.executeWithoutResult(status -> this.statsRepository.RecountFranchise(1));
+
+        assertEquals(2, this.statsRepository.DeleteOrphans());
+        assertEquals(2L, this.jdbcTemplate.queryForObject("SELECT branch_count FROM franchise_stats WHERE franchise_id = 1", Long.class));
+        AssertNoDrift();
+    }
+
+    private void AssertNoDrift()
+    {
+        assertEquals(List.of(), this.statsRepository.SearchDriftedBranches(100));
+        assertEquals(List.of(), this.statsRepository.SearchDriftedFranchises(100));
+    }
+}
@@ -0,0 +1,120 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.PostgresTest;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ChangeEventDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeOutboxRepositoryTest extends PostgresTest {
+
+    private ChangeOutboxRepository outboxRepository;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.outboxRepository = new ChangeOutboxRepository(this.jdbcTemplate);
+    }
+
+    @Test
+    void ReadsTheEventsAfterTheCursorInSeqOrder()
+    {
+        Insert(3);
+
+        assertEquals(List.of(1L, 2L, 3L), Seqs(this.outboxRepository.SearchSettledSince(0, 10, 0)));
+        assertEquals(List.of(2L, 3L), Seqs(this.outboxRepository.SearchSettledSince(1, 10, 0)));
+        assertEquals(List.of(1L), Seqs(this.outboxRepository.SearchSettledSince(0, 1, 0)));
+
+        ChangeEventDTO event = this.outboxRepository.SearchSettledSince(0, 1, 0).get(0);
+        assertEquals("PRODUCT", event.getEntityType());
+        assertEquals("{\"stock\":0}", event.getPayload());
+        assertNotNull(event.getCreatedAt());
+    }
+
+    @Test
+    void StopsBeforeARecentGapUntilItSettles()
+    {
+        Insert(1);
+        // Un seq asignado a una transacción que aún no confirma (o que se revirtió).
+        this.jdbcTemplate.queryForObject("SELECT nextval('change_events_seq')", Long.class);
+        Insert(1);
+
+        assertEquals(List.of(1L), Seqs(this.outboxRepository.SearchSettledSince(0, 10, 60_000)));
+        assertEquals(List.of(), Seqs(this.outboxRepository.SearchSettledSince(1, 10, 60_000)));
+        assertEquals(List.of(1L, 3L), Seqs(this.outboxRepository.SearchSettledSince(0, 10, 0)));
+    }
+
+    @Test
+    void PurgesOnlyOldDeliveredEventsAndAdvancesThePurgedSeq()
+    {
+        Insert(3);
+        this.jdbcTemplate.update("UPDATE change_events SET created_at = localtimestamp - interval '2 hours' WHERE seq <= 2");
+
+        assertEquals(1, Purge(1));
+        assertEquals(1L, this.outboxRepository.SearchPurgedSeq());
+
+        assertEquals(1, Purge(3));
+        assertEquals(2L, this.outboxRepository.SearchPurgedSeq());
+        assertEquals(List.of(3L), Seqs(this.outboxRepository.SearchSettledSince(2, 10, 0)));
+
+        // El evento 3 es reciente: no se depura y purged_seq no cambia.
+        assertEquals(0, Purge(3));
+        assertEquals(2L, this.outboxRepository.SearchPurgedSeq());
+    }
+
+    @Test
+    void TracksTheCursorOfEachSink()
+    {
+        this.outboxRepository.EnsureCursor("kafka");
+        this.outboxRepository.EnsureCursor("webhook");
+        this.outboxRepository.SaveCursor("kafka", 5);
+        this.outboxRepository.EnsureCursor("kafka");
+
+        assertEquals(Optional.of(0L), this.outboxRepository.SearchMinCursor(new String[] {"kafka", "webhook"}));
+
+        this.outboxRepository.SaveCursor("webhook", 7);
+
+        assertEquals(Optional.of(5L), this.outboxRepository.SearchMinCursor(new String[] {"kafka", "webhook"}));
+        assertEquals(Optional.empty(), this.outboxRepository.SearchMinCursor(new String[] {"log"}));
+    }
+
+    @Test
+    void ACursorLockedByAnotherTransactionIsSkipped()
+    {
+        this.outboxRepository.EnsureCursor("kafka");
+        this.outboxRepository.SaveCursor("kafka", 4);
+
+        Optional<Long> concurrent = this.transaction.execute(status -> {
+            assertEquals(Optional.of(4L), this.outboxRepository.LockCursor("kafka"));
+            // Otro hilo usa su propia conexión y transacción.
+            return CompletableFuture.supplyAsync(() -> this.transaction.execute(other -> this.outboxRepository.LockCursor("kafka"))).join();
+        });
+
+        assertEquals(Optional.empty(), concurrent);
+        assertEquals(Optional.of(4L), this.transaction.execute(status -> this.outboxRepository.LockCursor("kafka")));
+    }
+
+    private void Insert(int count)
+    {
+        this.outboxRepository.InsertEvents(IntStream.range(0, count)
+                .mapToObj(i -> new ChangeEventDTO(null, "PRODUCT", 1, "UPDATED", "{\"stock\":" + i + "}", null))
+                .toList());
+    }
+
+    private int Purge(long upTo)
+    {
+        Integer purged = this.transaction.execute(status -> this.outboxRepository.Purge(upTo, 1, 100));
+        return purged == null ? 0 : purged;
+    }
+
+    private static List<Long> Seqs(List<ChangeEventDTO> events)
+    {
+        return events.stream().map(ChangeEventDTO::getSeq).toList();
+    }
+}
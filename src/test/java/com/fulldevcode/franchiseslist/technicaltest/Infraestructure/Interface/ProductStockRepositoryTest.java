@@ -0,0 +1,77 @@
+package com.fulldevcode.franchiseslist.technicaltest.Infraestructure.Interface;
+
+import com.fulldevcode.franchiseslist.technicaltest.Domain.Engine.StockDeltaCoalescer;
+import com.fulldevcode.franchiseslist.technicaltest.Infraestructure.DTO.ProductDTO;
+import com.fulldevcode.franchiseslist.technicaltest.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductStockRepositoryTest extends PostgresTest {
+
+    private ProductStockRepository stockRepository;
+
+    @BeforeEach
+    void Setup()
+    {
+        this.stockRepository = new ProductStockRepository(this.jdbcTemplate);
+
+        this.jdbcTemplate.update("INSERT INTO franchises (id, name) VALUES (1, 'Norte')");
+        this.jdbcTemplate.update("INSERT INTO branches (id, name, franchise_id) VALUES (10, 'Centro', 1)");
+        this.jdbcTemplate.update("INSERT INTO products (id, name, stock, branch_id) VALUES (1, 'Cafe', 10, 10), (2, 'Te', 5, 10)");
+    }
+
+    @Test
+    void AdjustRejectsNegativeAndOverflowingStock()
+    {
+        assertEquals(Optional.empty(), this.stockRepository.Adjust(1, -11));
+        assertEquals(Optional.empty(), this.stockRepository.Adjust(1, Integer.MAX_VALUE));
+
+        ProductDTO adjusted = this.stockRepository.Adjust(1, -10).orElseThrow();
+
+        assertEquals(0, adjusted.getStock());
+        assertEquals(1L, adjusted.getVersion());
+    }
+
+    @Test
+    void AdjustBatchSkipsAnOverflowingProductAndAppliesTheRest()
+    {
+        List<ProductDTO> adjusted = this.stockRepository.AdjustBatch(new Integer[] {1, 2}, new Integer[] {Integer.MAX_VALUE, 3});
+
+        assertEquals(List.of(2), adjusted.stream().map(ProductDTO::getId).toList());
+        assertEquals(8, adjusted.get(0).getStock());
+        assertEquals(List.of(10, 8), Stocks());
+    }
+
+    @Test
+    void AQueuedOverflowDoesNotBlockTheFlush() throws Exception
+    {
+        StockDeltaCoalescer coalescer = new StockDeltaCoalescer(this.stockRepository, this.jdbcTemplate,
+                new DataSourceTransactionManager(this.dataSource), event -> { }, true, 60_000, 1_000_000, false, "", false);
+        coalescer.OnApplicationReady();
+
+        coalescer.Enqueue(1, Integer.MAX_VALUE);
+        coalescer.Enqueue(2, 3);
+        coalescer.Shutdown();
+
+        // El desbordamiento se descarta y no vuelve al acumulador.
+        assertEquals(List.of(10, 8), Stocks());
+        assertEquals(0, coalescer.Pending(1));
+        assertEquals(0, coalescer.Pending(2));
+
+        coalescer.Enqueue(1, -4);
+        coalescer.Shutdown();
+
+        assertEquals(List.of(6, 8), Stocks());
+    }
+
+    private List<Integer> Stocks()
+    {
+        return this.jdbcTemplate.queryForList("SELECT stock FROM products ORDER BY id", Integer.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.fulldevcode.franchiseslist.technicaltest;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationsTest extends PostgresTest {
+
+    private static final List<String> TABLES = List.of(
+            "franchises", "branches", "products", "branch_top_product", "import_jobs", "stock_journal_checkpoint",
+            "franchise_delete_jobs", "franchise_stats", "branch_stats", "catalog_stamp",
+            "change_events", "change_sequence", "change_relay_cursors");
+
+    @Test
+    void AppliesEveryMigrationOnAnEmptyDatabase() throws IOException, URISyntaxException
+    {
+        Flyway flyway = Migrations(null);
+
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(MigrationFiles(), Arrays.stream(flyway.info().applied()).filter(MigrationInfo::isVersioned).count());
+        assertTrue(Arrays.stream(flyway.info().applied()).allMatch(migration -> migration.getState().isApplied() && !migration.getState().isFailed()));
+    }
+
+    @Test
+    void CreatesTheTablesAndTheirSingletonRows()
+    {
+        for (String table : TABLES)
+        {
+            assertNotNull(this.jdbcTemplate.queryForObject("SELECT to_regclass(?::text)::text", String.class, table), table);
+        }
+
+        assertEquals(0L, this.jdbcTemplate.queryForObject("SELECT segment FROM stock_journal_checkpoint WHERE id = 1", Long.class));
+        assertEquals(0L, this.jdbcTemplate.queryForObject("SELECT purged_seq FROM change_sequence WHERE id = 1", Long.class));
+        assertNotNull(this.jdbcTemplate.queryForObject("SELECT stamp FROM catalog_stamp WHERE id = 1", Long.class));
+    }
+
+    @Test
+    void ChangeEventsTakeTheirSeqFromTheSequence()
+    {
+        this.jdbcTemplate.update("INSERT INTO change_events (entity_type, entity_id, change_type, payload, created_at) " +
+                "VALUES ('PRODUCT', 1, 'CREATED', '{}', clock_timestamp()), ('PRODUCT', 1, 'UPDATED', '{}', clock_timestamp())");
+
+        assertEquals(List.of(1L, 2L), this.jdbcTemplate.queryForList("SELECT seq FROM change_events ORDER BY seq", Long.class));
+    }
+
+    @Test
+    void UpgradesADatabaseWithExistingData()
+    {
+        Migrations(null).clean();
+        Migrations("4").migrate();
+
+        this.jdbcTemplate.update("INSERT INTO franchises (id, name) VALUES (1, 'Norte')");
+        this.jdbcTemplate.update("INSERT INTO branches (id, name, franchise_id) VALUES (10, 'Centro', 1), (20, 'Puerto', 1)");
+        this.jdbcTemplate.update("INSERT INTO products (name, stock, branch_id) VALUES ('Cafe', 5, 10), ('Te', 10, 10)");
+
+        Migrations("7").migrate();
+
+        this.jdbcTemplate.update("INSERT INTO change_events (seq, entity_type, entity_id, change_type, payload, created_at) " +
+                "SELECT s, 'PRODUCT', 1, 'UPDATED', '{}', localtimestamp FROM generate_series(1, 3) s");
+        this.jdbcTemplate.update("UPDATE change_sequence SET last_seq = 3 WHERE id = 1");
+
+        Migrations(null).migrate();
+
+        // V5 calcula los contadores a partir de los datos existentes.
+        assertEquals(2L, this.jdbcTemplate.queryForObject("SELECT branch_count FROM franchise_stats WHERE franchise_id = 1", Long.class));
+        assertEquals(List.of(2L, 0L), this.jdbcTemplate.queryForList("SELECT product_count FROM branch_stats ORDER BY branch_id", Long.class));
+        assertEquals(List.of(15L, 0L), this.jdbcTemplate.queryForList("SELECT total_stock FROM branch_stats ORDER BY branch_id", Long.class));
+
+        // V8 continúa la secuencia de eventos después del último seq reservado.
+        Long seq = this.jdbcTemplate.queryForObject("INSERT INTO change_events (entity_type, entity_id, change_type, payload, created_at) " +
+                "VALUES ('PRODUCT', 1, 'DELETED', '{}', clock_timestamp()) RETURNING seq", Long.class);
+        assertEquals(4L, seq);
+    }
+
+    private static long MigrationFiles() throws IOException, URISyntaxException
+    {
+        Path directory = Path.of(Objects.requireNonNull(MigrationsTest.class.getResource("/db/migration")).toURI());
+
+        try (Stream<Path> files = Files.list(directory))
+        {
+            return files.filter(file -> file.getFileName().toString().matches("V\\d+__.*\\.sql")).count();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.fulldevcode.franchiseslist.technicaltest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Base de las pruebas contra PostgreSQL: usa un PostgreSQL embebido (el mismo de los benchmarks),
+ * iniciado una vez por proceso, y antes de cada prueba recrea el esquema con las migraciones
+ * de Flyway (db/migration).
+ */
+public abstract class PostgresTest {
+
+    private static EmbeddedPostgres embedded;
+
+    protected DataSource dataSource;
+    protected JdbcTemplate jdbcTemplate;
+    protected TransactionTemplate transaction;
+
+    @BeforeEach
+    void Migrate()
+    {
+        this.dataSource = Start().getPostgresDatabase();
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.transaction = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+
+        Flyway flyway = Migrations(null);
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    /**
+     * Flyway sobre la base embebida, hasta la versión target (null para todas las migraciones).
+     */
+    protected Flyway Migrations(String target)
+    {
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(this.dataSource)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false);
+
+        if (target != null)
+        {
+            configuration.target(target);
+        }
+
+        return configuration.load();
+    }
+
+    /**
+     * Crea, si no existe, una base de datos adicional en el PostgreSQL embebido. Las pruebas con el
+     * contexto de la aplicación (ApplicationTest) usan su propia base para que la limpieza de esquema
+     * de estas pruebas no las afecte.
+     */
+    static synchronized void CreateDatabase(String name)
+    {
+        JdbcTemplate postgres = new JdbcTemplate(Start().getPostgresDatabase());
+        Integer exists = postgres.queryForObject("SELECT COUNT(*) FROM pg_database WHERE datname = ?", Integer.class, name);
+
+        if (exists == null || exists == 0)
+        {
+            postgres.execute("CREATE DATABASE " + name);
+        }
+    }
+
+    static synchronized EmbeddedPostgres Start()
+    {
+        try
+        {
+            if (embedded == null)
+            {
+                embedded = EmbeddedPostgres.builder().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(PostgresTest::Stop));
+            }
+
+            return embedded;
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException("No fue posible iniciar el PostgreSQL embebido", ex);
+        }
+    }
+
+    private static void Stop()
+    {
+        try
+        {
+            embedded.close();
+        }
+        catch (IOException ignored)
+        {
+            // El proceso está terminando.
+        }
+    }
+}